@@ -0,0 +1,98 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+# Many threads that mostly block in socket calls. Compare runs with the default thread stack size
+# and with a small one (the default-small-thread-stack configuration, which passes
+# --python.ThreadStackSize=262144) on the micro-threads suite to see how far each configuration scales.
+
+import socket
+import threading
+
+MESSAGE = b"x" * 64
+
+
+def serve(server, num):
+    handlers = []
+    for i in range(num):
+        conn, _ = server.accept()
+        t = threading.Thread(target=echo, args=(conn,))
+        t.start()
+        handlers.append(t)
+    for t in handlers:
+        t.join()
+
+
+def echo(conn):
+    with conn:
+        data = conn.recv(len(MESSAGE))
+        while data:
+            conn.sendall(data)
+            data = conn.recv(len(MESSAGE))
+
+
+def client(port, received):
+    with socket.create_connection(("127.0.0.1", port)) as s:
+        s.sendall(MESSAGE)
+        n = 0
+        while n < len(MESSAGE):
+            n += len(s.recv(len(MESSAGE)))
+        received.append(n)
+
+
+def measure(num):
+    server = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+    server.bind(("127.0.0.1", 0))
+    server.listen(num)
+    port = server.getsockname()[1]
+    server_thread = threading.Thread(target=serve, args=(server, num))
+    server_thread.start()
+    received = []
+    clients = [threading.Thread(target=client, args=(port, received)) for i in range(num)]
+    for t in clients:
+        t.start()
+    for t in clients:
+        t.join()
+    server_thread.join()
+    server.close()
+    assert len(received) == num
+    print("echoed", sum(received), "bytes")
+
+
+def __benchmark__(num=10000):
+    measure(num)
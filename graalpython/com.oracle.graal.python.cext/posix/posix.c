@@ -67,12 +67,16 @@
 #include <sys/socket.h>
 #include <sys/time.h>
 #include <sys/types.h>
+#include <sys/uio.h>
 #include <sys/utsname.h>
 #include <sys/wait.h>
 #include <sys/file.h>
 #include <sys/mman.h>
 #include <unistd.h>
 #include <pwd.h>
+#ifdef __linux__
+#include <sys/sendfile.h>
+#endif
 
 
 int64_t call_getpid() {
@@ -641,6 +645,80 @@ int32_t call_recvfrom(int32_t sockfd, void *buf, int32_t offset, int32_t len, in
     return res;
 }
 
+// Builds an iovec array describing consecutive segments of buf with the given lengths
+static struct iovec *make_iovec(int8_t *buf, int32_t *lens, int32_t count) {
+    struct iovec *iov = malloc((count > 0 ? count : 1) * sizeof(struct iovec));
+    if (iov != NULL) {
+        size_t offset = 0;
+        for (int32_t i = 0; i < count; i++) {
+            iov[i].iov_base = buf + offset;
+            iov[i].iov_len = lens[i];
+            offset += lens[i];
+        }
+    }
+    return iov;
+}
+
+int32_t call_sendmsg(int32_t sockfd, int8_t *buf, int32_t *lens, int32_t count, int32_t flags) {
+    struct iovec *iov = make_iovec(buf, lens, count);
+    if (iov == NULL) {
+        errno = ENOMEM;
+        return -1;
+    }
+    struct msghdr msg;
+    memset(&msg, 0, sizeof(msg));
+    msg.msg_iov = iov;
+    msg.msg_iovlen = count;
+    int res = sendmsg(sockfd, &msg, flags);
+    int saved_errno = errno;
+    free(iov);
+    errno = saved_errno;
+    return res;
+}
+
+int32_t call_recvmsg(int32_t sockfd, int8_t *buf, int32_t *lens, int32_t count, int32_t flags, int8_t *src_addr, int32_t *len_and_family, int32_t *msg_flags) {
+    struct iovec *iov = make_iovec(buf, lens, count);
+    if (iov == NULL) {
+        errno = ENOMEM;
+        return -1;
+    }
+    struct sockaddr_storage sa;
+    struct msghdr msg;
+    memset(&msg, 0, sizeof(msg));
+    msg.msg_name = &sa;
+    msg.msg_namelen = sizeof(sa);
+    msg.msg_iov = iov;
+    msg.msg_iovlen = count;
+    int res = recvmsg(sockfd, &msg, flags);
+    int saved_errno = errno;
+    free(iov);
+    errno = saved_errno;
+    if (res != -1) {
+        socklen_t l = msg.msg_namelen;
+        assert(l <= sizeof(sa));
+        len_and_family[0] = l;
+        len_and_family[1] = l < offsetof(struct sockaddr_storage, ss_family) + sizeof(sa.ss_family) ? AF_UNSPEC : sa.ss_family;
+        memcpy(src_addr, &sa, l);
+        msg_flags[0] = msg.msg_flags;
+    }
+    return res;
+}
+
+int64_t call_sendfile(int32_t out_fd, int32_t in_fd, int64_t offset, int64_t count) {
+#ifdef __APPLE__
+    off_t len = count;
+    int res = sendfile(in_fd, out_fd, offset, &len, NULL, 0);
+    // a partial transfer is reported as an error with len set to the number of bytes sent
+    if (res == -1 && len == 0) {
+        return -1;
+    }
+    return len;
+#else
+    off_t off = offset;
+    return sendfile(out_fd, in_fd, &off, count);
+#endif
+}
+
 int32_t call_shutdown(int32_t sockfd, int32_t how) {
     return shutdown(sockfd, how);
 }
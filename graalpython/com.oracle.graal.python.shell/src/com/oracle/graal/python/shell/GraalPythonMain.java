@@ -81,6 +81,7 @@ public class GraalPythonMain extends AbstractLanguageLauncher {
     private boolean ignoreEnv = false;
     private boolean inspectFlag = false;
     private boolean verboseFlag = false;
+    private boolean startupTiming = false;
     private boolean quietFlag = false;
     private boolean noUserSite = false;
     private boolean noSite = false;
@@ -189,6 +190,9 @@ public class GraalPythonMain extends AbstractLanguageLauncher {
                 case "-X":
                     i++;
                     if (i < arguments.size()) {
+                        if (arguments.get(i).equals("startuptiming")) {
+                            startupTiming = true;
+                        }
                         // CPython ignores unknown/unsupported -X options, so we can do that too
                     } else {
                         print("Argument expected for the -X option");
@@ -551,6 +555,9 @@ public class GraalPythonMain extends AbstractLanguageLauncher {
         contextBuilder.option("python.AlwaysRunExcepthook", "true");
         contextBuilder.option("python.InspectFlag", Boolean.toString(inspectFlag));
         contextBuilder.option("python.VerboseFlag", Boolean.toString(verboseFlag));
+        if (startupTiming) {
+            contextBuilder.option("python.StartupTiming", "true");
+        }
         contextBuilder.option("python.IsolateFlag", Boolean.toString(isolateFlag));
         contextBuilder.option("python.WarnOptions", warnOptions);
         contextBuilder.option("python.DontWriteBytecodeFlag", Boolean.toString(dontWriteBytecode));
@@ -745,7 +752,8 @@ public class GraalPythonMain extends AbstractLanguageLauncher {
                         "         can be supplied multiple times to increase verbosity\n" +
                         "-V     : print the Python version number and exit (also --version)\n" +
                         "         when given twice, print more information about the build\n" +
-                        "-X opt : CPython implementation-specific options. Ignored on GraalPython\n" +
+                        "-X opt : CPython implementation-specific options. Only '-X startuptiming' is\n" +
+                        "         supported on GraalPython, other options are ignored\n" +
                         "-W arg : warning control; arg is action:message:category:module:lineno\n" +
                         "         also PYTHONWARNINGS=arg\n" +
                         // "-x : skip first line of source, allowing use of non-Unix forms of
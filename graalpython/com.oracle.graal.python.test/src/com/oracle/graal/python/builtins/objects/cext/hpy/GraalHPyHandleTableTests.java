@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.cext.hpy;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GraalHPyHandleTableTests {
+
+    private static final int CHURN_THREADS = 8;
+    private static final int CHURN_ITERATIONS = 100_000;
+    private static final int CHURN_LIVE_HANDLES = 100;
+
+    @Test
+    public void nullHandle() {
+        GraalHPyHandleTable table = new GraalHPyHandleTable();
+        Assert.assertSame(GraalHPyHandle.NULL_HANDLE, table.get(0));
+    }
+
+    @Test
+    public void reuseReleasedIds() {
+        GraalHPyHandleTable table = new GraalHPyHandleTable();
+        int id = table.allocate(new GraalHPyHandle("a"));
+        Assert.assertTrue(id > 0);
+        table.release(id);
+        Assert.assertNull(table.get(id));
+        GraalHPyHandle b = new GraalHPyHandle("b");
+        Assert.assertEquals(id, table.allocate(b));
+        Assert.assertSame(b, table.get(id));
+    }
+
+    @Test
+    public void growAcrossSegments() {
+        GraalHPyHandleTable table = new GraalHPyHandleTable();
+        int n = 3 * GraalHPyHandleTable.SEGMENT_SIZE;
+        GraalHPyHandle[] handles = new GraalHPyHandle[n];
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            handles[i] = new GraalHPyHandle(i);
+            ids[i] = table.allocate(handles[i]);
+        }
+        Assert.assertTrue(table.capacity() > n);
+        for (int i = 0; i < n; i++) {
+            Assert.assertSame(handles[i], table.get(ids[i]));
+        }
+        try {
+            table.get(table.capacity());
+            Assert.fail("expected ArrayIndexOutOfBoundsException");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // expected; the HPy debug context relies on this
+        }
+    }
+
+    @Test
+    public void releasedIdsMoveBetweenThreads() throws InterruptedException {
+        GraalHPyHandleTable table = new GraalHPyHandleTable();
+        int n = 4 * GraalHPyHandleTable.FREE_BATCH_SIZE;
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = table.allocate(new GraalHPyHandle(i));
+        }
+        int maxId = 0;
+        for (int id : ids) {
+            maxId = Math.max(maxId, id);
+            table.release(id);
+        }
+        // a different thread must be able to reuse the released IDs in batches
+        final int highestReleased = maxId;
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread t = new Thread(() -> {
+            try {
+                int id = table.allocate(new GraalHPyHandle("other"));
+                Assert.assertTrue(id <= highestReleased);
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        t.start();
+        t.join();
+        if (error.get() != null) {
+            throw new AssertionError(error.get());
+        }
+    }
+
+    @Test
+    public void disposedThreadHandsOverFreeIds() throws InterruptedException {
+        GraalHPyHandleTable table = new GraalHPyHandleTable();
+        // fewer than a batch, so all of them stay in the thread-local free list
+        int n = GraalHPyHandleTable.FREE_BATCH_SIZE / 2;
+        int[] ids = new int[n];
+        Thread t = new Thread(() -> {
+            for (int i = 0; i < n; i++) {
+                ids[i] = table.allocate(new GraalHPyHandle(i));
+            }
+            for (int id : ids) {
+                table.release(id);
+            }
+        });
+        t.start();
+        t.join();
+        table.disposeThread(t);
+        Set<Integer> released = new HashSet<>();
+        for (int id : ids) {
+            released.add(id);
+        }
+        // without the hand-over these would be fresh IDs
+        for (int i = 0; i < n; i++) {
+            Assert.assertTrue(released.contains(table.allocate(new GraalHPyHandle(i))));
+        }
+        // disposing a thread twice or a thread that never used the table is harmless
+        table.disposeThread(t);
+        table.disposeThread(Thread.currentThread());
+        table.disposeThread(Thread.currentThread());
+    }
+
+    /**
+     * Stress test for concurrent allocation and release. Every thread keeps a window of live
+     * handles and continuously replaces the oldest one. An ID that is handed out twice would be
+     * detected because the slot would no longer contain the handle of its owner.
+     */
+    @Test
+    public void concurrentChurn() throws InterruptedException {
+        GraalHPyHandleTable table = new GraalHPyHandleTable();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread[] threads = new Thread[CHURN_THREADS];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    churn(table);
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (error.get() != null) {
+            throw new AssertionError(error.get());
+        }
+        // the table should not grow much beyond the number of live handles
+        Assert.assertTrue(table.capacity() <= 4 * GraalHPyHandleTable.SEGMENT_SIZE);
+    }
+
+    private static void churn(GraalHPyHandleTable table) {
+        GraalHPyHandle[] handles = new GraalHPyHandle[CHURN_LIVE_HANDLES];
+        int[] ids = new int[CHURN_LIVE_HANDLES];
+        for (int i = 0; i < CHURN_ITERATIONS; i++) {
+            int slot = i % CHURN_LIVE_HANDLES;
+            if (handles[slot] != null) {
+                Assert.assertSame(handles[slot], table.get(ids[slot]));
+                table.release(ids[slot]);
+            }
+            handles[slot] = new GraalHPyHandle(i);
+            ids[slot] = table.allocate(handles[slot]);
+            Assert.assertSame(handles[slot], table.get(ids[slot]));
+        }
+        for (int slot = 0; slot < CHURN_LIVE_HANDLES; slot++) {
+            Assert.assertSame(handles[slot], table.get(ids[slot]));
+            table.release(ids[slot]);
+        }
+    }
+}
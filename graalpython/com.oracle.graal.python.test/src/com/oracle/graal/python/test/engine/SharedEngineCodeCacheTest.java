@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Value;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.graal.python.test.PythonTests;
+
+public class SharedEngineCodeCacheTest extends PythonTests {
+
+    /**
+     * Imports the module in a new context and returns the result of {@code shared_mod.f()} and the
+     * hits and misses of the shared code cache.
+     */
+    private static long[] importAndGetStats(Engine engine, Path dir) {
+        try (Context context = Context.newBuilder().engine(engine).allowExperimentalOptions(true).allowAllAccess(true).build()) {
+            context.getBindings("python").putMember("mod_dir", dir.toString());
+            Value result = context.eval("python", "import sys\n" +
+                            "sys.dont_write_bytecode = True\n" +
+                            "sys.path.insert(0, mod_dir)\n" +
+                            "import shared_mod\n" +
+                            "(shared_mod.f(), *__graalpython__.shared_code_cache_stats())\n");
+            return new long[]{result.getArrayElement(0).asLong(), result.getArrayElement(1).asLong(), result.getArrayElement(2).asLong()};
+        }
+    }
+
+    @Test
+    public void testModuleCodeIsShared() throws IOException {
+        Path dir = Files.createTempDirectory("sharedcode");
+        Path mod = dir.resolve("shared_mod.py");
+        try (Engine engine = Engine.newBuilder().allowExperimentalOptions(true).option("python.SharedCodeCache", "true").build()) {
+            Files.write(mod, "def f(): return 1\n".getBytes(StandardCharsets.UTF_8));
+            // with an explicit engine, the language is initialized for multiple contexts before the
+            // first context is created, so the first import already fills the cache
+            long[] first = importAndGetStats(engine, dir);
+            long[] second = importAndGetStats(engine, dir);
+            Assert.assertEquals(1, first[0]);
+            Assert.assertEquals(1, second[0]);
+            Assert.assertTrue(second[1] > first[1]);
+
+            // a changed file must not reuse the old code
+            Files.write(mod, "def f(): return 2\n".getBytes(StandardCharsets.UTF_8));
+            long[] changed = importAndGetStats(engine, dir);
+            Assert.assertEquals(2, changed[0]);
+            Assert.assertTrue(changed[2] > second[2]);
+        } finally {
+            Files.deleteIfExists(mod);
+            Files.deleteIfExists(dir);
+        }
+    }
+}
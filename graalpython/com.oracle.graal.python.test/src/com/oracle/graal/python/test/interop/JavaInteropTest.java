@@ -49,6 +49,7 @@ import static org.junit.Assert.fail;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
 import org.graalvm.polyglot.Context;
@@ -193,6 +194,28 @@ public class JavaInteropTest {
             assertPrints("b'\\x01\\x02\\x03\\x04'\n", source);
         }
 
+        @Test
+        public void arrayModuleBufferElements() {
+            Value array = context.eval("python", "import array; array.array('d', [1.5, 2.5, 3.5])");
+            assertTrue(array.hasBufferElements());
+            assertTrue(array.isBufferWritable());
+            assertEquals(24, array.getBufferSize());
+            assertEquals(2.5, array.readBufferDouble(ByteOrder.nativeOrder(), 8), 0.0);
+            array.writeBufferDouble(ByteOrder.nativeOrder(), 16, -1.0);
+            assertEquals(-1.0, array.getArrayElement(2).asDouble(), 0.0);
+        }
+
+        @Test
+        public void memoryviewOverJavaArray() {
+            String source = "import java\n" +
+                            "array = java.type(\"double[]\")(3)\n" +
+                            "m = memoryview(array)\n" +
+                            "m[1] = 4.5\n" +
+                            "array[2] = 1.25\n" +
+                            "print(m.format, m.itemsize, array[1], m.tolist())\n\n";
+            assertPrints("d 8 4.5 [0.0, 4.5, 1.25]\n", source);
+        }
+
         @Test
         public void testPassingFloats() throws UnsupportedEncodingException {
             String source = "import polyglot\n" +
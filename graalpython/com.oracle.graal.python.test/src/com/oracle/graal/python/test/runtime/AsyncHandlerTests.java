@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.graalvm.polyglot.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.graal.python.runtime.AsyncHandler;
+import com.oracle.graal.python.runtime.AsyncHandler.AsyncAction;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.test.PythonTests;
+import com.oracle.graal.python.util.Supplier;
+
+public class AsyncHandlerTests {
+    private Context polyglotContext;
+    private PythonContext context;
+
+    @Before
+    public void setUp() {
+        polyglotContext = PythonTests.enterContext();
+        context = PythonContext.get(null);
+    }
+
+    @After
+    public void tearDown() {
+        context = null;
+        polyglotContext = null;
+        PythonTests.closeContext();
+    }
+
+    /**
+     * Returns a supplier that hands out the given action once each time {@code ready} is set.
+     */
+    private static Supplier<AsyncAction> onceWhenReady(AtomicBoolean ready, AsyncAction action) {
+        return () -> ready.compareAndSet(true, false) ? action : null;
+    }
+
+    /**
+     * Runs Python code, and thereby safepoints, until {@code count} actions were recorded.
+     */
+    private void runUntil(List<?> recorded, int count) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (recorded.size() < count && System.currentTimeMillis() < deadline) {
+            polyglotContext.eval("python", "import time; time.sleep(0.005)");
+        }
+        assertEquals(count, recorded.size());
+    }
+
+    @Test
+    public void dueActionsAreCoalesced() {
+        AsyncHandler handler = context.getAsyncHandler();
+        List<Long> batchOfAction = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean firstReady = new AtomicBoolean();
+        AtomicBoolean secondReady = new AtomicBoolean();
+        AsyncAction first = ctx -> batchOfAction.add(handler.getSubmittedBatches());
+        // suppliers are polled in registration order, so the second one becomes ready during the
+        // same poll that hands out the first action
+        context.registerAsyncAction(() -> {
+            if (firstReady.compareAndSet(true, false)) {
+                secondReady.set(true);
+                return first;
+            }
+            return null;
+        });
+        context.registerAsyncAction(onceWhenReady(secondReady, ctx -> batchOfAction.add(handler.getSubmittedBatches())));
+
+        long actionsBefore = handler.getSubmittedActions();
+        firstReady.set(true);
+        handler.pollActionsNow();
+        runUntil(batchOfAction, 2);
+
+        // both actions were found by the same poll and ran as part of one thread-local action
+        assertEquals(batchOfAction.get(0), batchOfAction.get(1));
+        assertTrue(handler.getSubmittedActions() - actionsBefore >= 2);
+    }
+
+    @Test
+    public void idlePollingBacksOff() throws InterruptedException {
+        AsyncHandler handler = context.getAsyncHandler();
+        List<Boolean> ran = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean ready = new AtomicBoolean();
+        context.registerAsyncAction(onceWhenReady(ready, ctx -> ran.add(true)));
+
+        // 25 + 50 + 100 + 200 ms of idle polls double the delay up to the maximum
+        long deadline = System.currentTimeMillis() + 10000;
+        while (handler.getPollDelay() < AsyncHandler.MAX_ASYNC_ACTION_DELAY && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(AsyncHandler.MAX_ASYNC_ACTION_DELAY, handler.getPollDelay());
+
+        // work found by a triggered poll resets the delay
+        ready.set(true);
+        handler.pollActionsNow();
+        runUntil(ran, 1);
+        assertTrue(handler.getPollDelay() < AsyncHandler.MAX_ASYNC_ACTION_DELAY);
+    }
+}
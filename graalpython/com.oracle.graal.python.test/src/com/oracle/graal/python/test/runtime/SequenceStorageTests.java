@@ -97,4 +97,26 @@ public class SequenceStorageTests {
         assertEquals(6, store.getItemNormalized(6));
         assertEquals(7, store.length());
     }
+
+    /**
+     * Tuple storage tests.
+     */
+    @Test
+    public void tupleStoragePacksSmallNumbers() {
+        assertTrue(SequenceStorageFactory.createTupleStorage(new Object[]{1, 2}) instanceof IntSequenceStorage);
+        assertTrue(SequenceStorageFactory.createTupleStorage(new Object[]{1, 2L}) instanceof LongSequenceStorage);
+        assertTrue(SequenceStorageFactory.createTupleStorage(new Object[]{1.0, 2.0, 3.0, 4.0}) instanceof DoubleSequenceStorage);
+        SequenceStorage store = SequenceStorageFactory.createTupleStorage(new Object[]{1, 2});
+        assertEquals(2, store.length());
+        assertEquals(2, store.getItemNormalized(1));
+    }
+
+    @Test
+    public void tupleStorageKeepsArray() {
+        Object[] mixed = new Object[]{1, 2.0};
+        SequenceStorage store = SequenceStorageFactory.createTupleStorage(mixed);
+        assertTrue(store instanceof ObjectSequenceStorage);
+        assertSame(mixed, store.getInternalArray());
+        assertTrue(SequenceStorageFactory.createTupleStorage(getObjectValues()) instanceof ObjectSequenceStorage);
+    }
 }
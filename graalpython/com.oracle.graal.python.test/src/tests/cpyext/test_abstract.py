@@ -623,6 +623,38 @@ class TestAbstract(CPyExtTestCase):
         arguments=["PyObject* sequence"],
     )
 
+    test_PySequence_Fast_ITEMS_copy = CPyExtFunction(
+        lambda args: list(args[0]),
+        lambda: (
+            (tuple(),),
+            ((1, 2, 3),),
+            ([],),
+            ([1, 2, 3],),
+            ([1.5, 2.5, 3.5],),
+            ([2 ** 40, 2 ** 41],),
+            (['a', 'b', 'c'],),
+        ),
+        code='''PyObject* wrap_PySequence_Fast_ITEMS_copy(PyObject* sequence) {
+            Py_ssize_t i;
+            Py_ssize_t n = PySequence_Fast_GET_SIZE(sequence);
+            PyObject **items = PySequence_Fast_ITEMS(sequence);
+            PyObject **copy = (PyObject **) malloc((n + 1) * sizeof(PyObject *));
+            PyObject* result = PyList_New(n);
+            memcpy(copy, items, n * sizeof(PyObject *));
+            for (i = 0; i < n; i++) {
+                Py_INCREF(copy[i]);
+                PyList_SetItem(result, i, copy[i]);
+            }
+            free(copy);
+            return result;
+        }
+        ''',
+        resultspec="O",
+        argspec='O',
+        callfunction="wrap_PySequence_Fast_ITEMS_copy",
+        arguments=["PyObject* sequence"],
+    )
+
     test_PyIter_Next = CPyExtFunction(
         _reference_next,
         lambda: (
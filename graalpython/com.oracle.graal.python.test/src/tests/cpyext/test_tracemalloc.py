@@ -0,0 +1,168 @@
+# Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import os
+import subprocess
+import sys
+import tracemalloc
+
+from . import CPyExtType
+
+DOMAIN = 4242
+BLOCK_SIZE = 1 << 20
+
+
+class TestTraceMalloc(object):
+    def test_tracked_native_memory(self):
+        if sys.implementation.name != "graalpython":
+            # CPython also traces the allocations of Python objects
+            return
+        Tracker = CPyExtType("TraceMallocTracker",
+                             """
+                             #define TEST_DOMAIN 4242
+                             static void* tracked_block = NULL;
+
+                             PyObject* tracker_track(PyObject* self, PyObject* arg) {
+                                 Py_ssize_t size = PyLong_AsSsize_t(arg);
+                                 if (size < 0) {
+                                     return NULL;
+                                 }
+                                 tracked_block = malloc(size);
+                                 if (tracked_block == NULL) {
+                                     return PyErr_NoMemory();
+                                 }
+                                 PyTraceMalloc_Track(TEST_DOMAIN, (uintptr_t) tracked_block, size);
+                                 Py_RETURN_NONE;
+                             }
+
+                             PyObject* tracker_untrack(PyObject* self) {
+                                 PyTraceMalloc_Untrack(TEST_DOMAIN, (uintptr_t) tracked_block);
+                                 free(tracked_block);
+                                 tracked_block = NULL;
+                                 Py_RETURN_NONE;
+                             }
+                             """,
+                             tp_methods='{"track", (PyCFunction)tracker_track, METH_O, ""}, {"untrack", (PyCFunction)tracker_untrack, METH_NOARGS, ""}',
+        )
+        tracker = Tracker()
+
+        def domain_sizes():
+            return [t.size for t in tracemalloc.take_snapshot().traces if t.domain == DOMAIN]
+
+        tracemalloc.start()
+        try:
+            assert tracemalloc.get_traced_memory() == (0, 0)
+            tracker.track(BLOCK_SIZE)
+            # the traced memory is exactly what the traces report
+            assert tracemalloc.get_traced_memory() == (BLOCK_SIZE, BLOCK_SIZE)
+            assert domain_sizes() == [BLOCK_SIZE]
+
+            tracker.untrack()
+            assert tracemalloc.get_traced_memory() == (0, BLOCK_SIZE)
+            assert domain_sizes() == []
+            tracemalloc.reset_peak()
+            assert tracemalloc.get_traced_memory() == (0, 0)
+
+            # cleared traces are no longer reported, also not when they are untracked later
+            tracker.track(BLOCK_SIZE)
+            _, native_peak, _, _, _ = __graalpython__.native_memory_stats()
+            tracemalloc.clear_traces()
+            assert domain_sizes() == []
+            assert tracemalloc.get_traced_memory() == (0, 0)
+            # tracemalloc does not reset the native memory accounting
+            _, native_peak_after, _, _, _ = __graalpython__.native_memory_stats()
+            assert native_peak_after == native_peak, "%d -> %d" % (native_peak, native_peak_after)
+            tracker.untrack()
+            assert tracemalloc.get_traced_memory() == (0, 0)
+        finally:
+            tracemalloc.stop()
+
+    def test_native_memory_watermark(self):
+        if sys.implementation.name != "graalpython":
+            return
+        # build the extension here, the subprocess only imports it
+        CPyExtType("WatermarkNativeThing",
+                   """
+                   #define TEST_DOMAIN 4242
+
+                   PyObject* thing_track(PyObject* self, PyObject* arg) {
+                       Py_ssize_t size = PyLong_AsSsize_t(arg);
+                       if (size < 0) {
+                           return NULL;
+                       }
+                       /* only accounts for the size, nothing is allocated */
+                       PyTraceMalloc_Track(TEST_DOMAIN, (uintptr_t) self, size);
+                       Py_RETURN_NONE;
+                   }
+
+                   PyObject* thing_untrack(PyObject* self) {
+                       PyTraceMalloc_Untrack(TEST_DOMAIN, (uintptr_t) self);
+                       Py_RETURN_NONE;
+                   }
+                   """,
+                   tp_methods='{"track", (PyCFunction)thing_track, METH_O, ""}, {"untrack", (PyCFunction)thing_untrack, METH_NOARGS, ""}',
+        )
+        src = """if True:
+            import gc, sys
+            sys.path.insert(0, %r)
+            from WatermarkNativeThing import WatermarkNativeThing as Thing
+            _, _, watermark, limit, _ = __graalpython__.native_memory_stats()
+            assert watermark == limit // 100 * 50, (watermark, limit)
+            keeper = Thing()
+            _, batches_before, cleaned_before, _, _, _ = __graalpython__.native_reference_cleaner_stats()
+            for _ in range(20):
+                objs = [Thing() for _ in range(1000)]
+                del objs
+                # without async actions, only the watermark releases the collected objects
+                gc.collect()
+                keeper.track(watermark)
+                keeper.untrack()
+                _, batches, cleaned, _, _, max_batch = __graalpython__.native_reference_cleaner_stats()
+                if cleaned > cleaned_before:
+                    break
+            assert cleaned > cleaned_before, "no native references were released"
+            assert batches > batches_before
+            # same as CApiContext.MAX_INCREMENTAL_RELEASE
+            assert 0 < max_batch <= 1024, max_batch
+            print("ok")
+        """ % os.path.dirname(os.path.abspath(__file__))
+        out = subprocess.check_output([sys.executable, "--experimental-options", "--python.NoAsyncActions",
+                                       "--python.MaxNativeMemory=%d" % (1 << 30), "--python.NativeMemoryWatermark=50",
+                                       "-c", src])
+        assert out.strip() == b"ok", out
@@ -69,3 +69,43 @@ class BuiltinTest(unittest.TestCase):
 
         self.assertRaises(TypeError, set_attr, object)
         self.assertRaises(TypeError, set_attr, ValueError)
+
+    def test_getattr_default(self):
+        class A:
+            x = 1
+            @property
+            def prop(self):
+                raise AttributeError("prop")
+            @property
+            def bad(self):
+                raise KeyError("bad")
+
+        class B(A):
+            def __getattr__(self, name):
+                if name == "dyn":
+                    return 42
+                raise AttributeError(name)
+
+        a, b = A(), B()
+        a.y = 2
+        sentinel = object()
+        for i in range(3):
+            self.assertEqual(getattr(a, "x", sentinel), 1)
+            self.assertEqual(getattr(a, "y", sentinel), 2)
+            self.assertIs(getattr(a, "z", sentinel), sentinel)
+            self.assertIs(getattr(a, "prop", sentinel), sentinel)
+            self.assertRaises(KeyError, getattr, a, "bad", sentinel)
+            self.assertEqual(getattr(b, "dyn", sentinel), 42)
+            self.assertIs(getattr(b, "z", sentinel), sentinel)
+            self.assertTrue(hasattr(b, "dyn"))
+            self.assertFalse(hasattr(a, "z"))
+            self.assertIs(getattr(unittest, "no_such_attr", sentinel), sentinel)
+            self.assertIs(getattr(A, "no_such_attr", sentinel), sentinel)
+
+    def test_next_default(self):
+        sentinel = object()
+        for it in (iter([1]), iter((1,)), iter("a"), iter(range(1)), iter({1: 2})):
+            self.assertIsNot(next(it, sentinel), sentinel)
+            self.assertIs(next(it, sentinel), sentinel)
+            self.assertIs(next(it, sentinel), sentinel)
+            self.assertRaises(StopIteration, next, it)
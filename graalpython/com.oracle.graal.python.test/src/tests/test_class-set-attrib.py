@@ -37,6 +37,8 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
+import sys
+
 counter = 0
 
 
@@ -150,3 +152,70 @@ def test_deepcopy_attribute_removal():
 
     i1.add_rem_attr()
     assert i1.__dict__ == deepcopy(i1).__dict__
+
+
+def test_megamorphic_lookup_sees_updates():
+    class Base:
+        def value(self):
+            return 0
+
+    classes = [type("C%d" % i, (Base,), {"i": i}) for i in range(16)]
+
+    def lookup_all():
+        return [(cls().value(), cls.i) for cls in classes]
+
+    for _ in range(50):
+        assert lookup_all() == [(0, i) for i in range(16)]
+
+    Base.value = lambda self: 1
+    assert lookup_all() == [(1, i) for i in range(16)]
+
+    classes[3].value = lambda self: 3
+    classes[5].i = 55
+    expected = [(1, i) for i in range(16)]
+    expected[3] = (3, 3)
+    expected[5] = (1, 55)
+    assert lookup_all() == expected
+
+    del classes[3].value
+    expected[3] = (1, 3)
+    assert lookup_all() == expected
+
+    # changing the bases must also be visible
+    class Other:
+        def value(self):
+            return 2
+
+    classes[7].__bases__ = (Other,)
+    expected[7] = (2, 7)
+    assert lookup_all() == expected
+
+
+def test_type_attribute_cache_invalidation():
+    if sys.implementation.name != "graalpython":
+        return
+
+    class Base:
+        def value(self):
+            return 0
+
+    # enough classes to make the lookups below megamorphic
+    classes = [type("D%d" % i, (Base,), {}) for i in range(32)]
+
+    def lookup_all():
+        return [cls.value for cls in classes]
+
+    lookup_all()
+    hits_before, _ = __graalpython__.type_attribute_cache_stats()
+    for _ in range(10):
+        lookup_all()
+    hits_after, misses_before = __graalpython__.type_attribute_cache_stats()
+    assert hits_after > hits_before, "expected cache hits: %d -> %d" % (hits_before, hits_after)
+
+    def new_value(self):
+        return 1
+
+    setattr(Base, "value", new_value)
+    assert all(v is new_value for v in lookup_all())
+    _, misses_after = __graalpython__.type_attribute_cache_stats()
+    assert misses_after >= misses_before + len(classes), "expected misses after invalidation: %d -> %d" % (misses_before, misses_after)
@@ -0,0 +1,115 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import sys
+import unittest
+
+try:
+    import ctypes
+    import ctypes.util
+    _libc_name = ctypes.util.find_library("c")
+    _libm_name = ctypes.util.find_library("m")
+    libc = ctypes.CDLL(_libc_name) if _libc_name else None
+    libm = ctypes.CDLL(_libm_name) if _libm_name else None
+except (ImportError, OSError):
+    libc = libm = None
+
+
+def function(lib, name, argtypes, restype):
+    # a fresh function object, so that no other test has bound a signature for it yet
+    f = lib._FuncPtr((name, lib))
+    f.argtypes = argtypes
+    f.restype = restype
+    return f
+
+
+@unittest.skipIf(libc is None or libm is None, "needs ctypes and the C libraries")
+class SimpleArgumentTests(unittest.TestCase):
+
+    def test_int_narrowing(self):
+        c_abs = function(libc, "abs", [ctypes.c_int], ctypes.c_int)
+        self.assertEqual(c_abs(-7), 7)
+        # ints wider than the argument type are truncated like c_int(value)
+        self.assertEqual(c_abs(2 ** 32 - 5), 5)
+        self.assertEqual(c_abs(-(2 ** 32) + 5), 5)
+        c_labs = function(libc, "labs", [ctypes.c_long], ctypes.c_long)
+        self.assertEqual(c_labs(-(2 ** 40)), 2 ** 40)
+
+    def test_float_narrowing(self):
+        c_fabs = function(libm, "fabs", [ctypes.c_double], ctypes.c_double)
+        self.assertEqual(c_fabs(-0.1), 0.1)
+        c_fabsf = function(libm, "fabsf", [ctypes.c_float], ctypes.c_float)
+        self.assertEqual(c_fabsf(-1.5), 1.5)
+        # a double that does not fit into a float is rounded like c_float(value)
+        self.assertEqual(c_fabsf(-0.1), ctypes.c_float(0.1).value)
+        self.assertNotEqual(c_fabsf(-0.1), 0.1)
+
+    def test_overflow(self):
+        c_abs = function(libc, "abs", [ctypes.c_int], ctypes.c_int)
+        self.assertEqual(c_abs(2 ** 31 + 1), 2 ** 31 - 1)
+        self.assertEqual(c_abs(2 ** 64 + 3), 3)
+
+    def test_wrong_type_falls_back(self):
+        c_abs = function(libc, "abs", [ctypes.c_int], ctypes.c_int)
+        self.assertRaises(ctypes.ArgumentError, c_abs, "3")
+        self.assertRaises(ctypes.ArgumentError, c_abs, 1.5)
+        # ctypes instances and ints for float arguments take the generic path
+        self.assertEqual(c_abs(ctypes.c_int(-3)), 3)
+        c_fabs = function(libm, "fabs", [ctypes.c_double], ctypes.c_double)
+        self.assertEqual(c_fabs(-3), 3.0)
+        self.assertEqual(c_fabs(ctypes.c_double(-2.5)), 2.5)
+
+    @unittest.skipUnless(sys.implementation.name == "graalpython", "GraalPython specific")
+    def test_signature_cache_after_changing_argtypes(self):
+        import _ctypes
+        c_labs = function(libc, "labs", [ctypes.c_long], ctypes.c_long)
+        self.assertEqual(c_labs(-5), 5)
+        c_labs.argtypes = [ctypes.c_int]
+        c_labs.restype = ctypes.c_int
+        self.assertEqual(c_labs(-6), 6)
+        size = _ctypes._nfi_signature_cache_size()
+        # switching back binds the function again, but finds the parsed signature in the cache
+        c_labs.argtypes = [ctypes.c_long]
+        c_labs.restype = ctypes.c_long
+        self.assertEqual(c_labs(-(2 ** 40)), 2 ** 40)
+        self.assertEqual(_ctypes._nfi_signature_cache_size(), size)
+        # another function with the same signature does not parse it again
+        c_abs = function(libc, "abs", [ctypes.c_int], ctypes.c_int)
+        self.assertEqual(c_abs(-8), 8)
+        self.assertEqual(_ctypes._nfi_signature_cache_size(), size)
@@ -0,0 +1,112 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import decimal
+import _pydecimal
+
+ROUNDINGS = [decimal.ROUND_DOWN, decimal.ROUND_UP, decimal.ROUND_HALF_UP, decimal.ROUND_HALF_DOWN, decimal.ROUND_HALF_EVEN,
+             decimal.ROUND_CEILING, decimal.ROUND_FLOOR, decimal.ROUND_05UP]
+
+VALUES = ["0", "-0.00", "1", "-1", "19.99", "-0.005", "1.005", "2.5", "-2.5", "123456789.123456789", "999999999999999999",
+          "1000000000000000000", "12345678901234567890.12345", "1E+3", "-7e-8", "0.1", "99.995", "4.2E-1000", "Inf", "NaN"]
+
+
+def as_tuple(d):
+    return tuple(d.as_tuple())
+
+
+def run(module, prec, rounding, op):
+    ctx = module.Context(prec=prec, rounding=rounding, Emin=-999, Emax=999, traps=[])
+    try:
+        result = op(module, ctx)
+    except ArithmeticError as e:
+        result = type(e).__name__
+    if isinstance(result, (module.Decimal,)):
+        result = as_tuple(result)
+    return result, sorted(k.__name__ for k, v in ctx.flags.items() if v)
+
+
+def check(op):
+    for prec in (28, 5, 1):
+        for rounding in ROUNDINGS:
+            expected = run(_pydecimal, prec, rounding, op)
+            actual = run(decimal, prec, rounding, op)
+            assert expected == actual, "%s != %s (prec=%d, rounding=%s)" % (actual, expected, prec, rounding)
+
+
+def test_constructor():
+    for v in VALUES + [" 1_000 ", "1.", ".5", "+0e5", "1e", "abc"]:
+        check(lambda m, ctx: ctx.create_decimal(v))
+        check(lambda m, ctx: m.Decimal(v, ctx))
+
+
+def test_arithmetic():
+    for a in VALUES:
+        for b in VALUES:
+            check(lambda m, ctx: ctx.add(m.Decimal(a), m.Decimal(b)))
+            check(lambda m, ctx: ctx.subtract(m.Decimal(a), m.Decimal(b)))
+            check(lambda m, ctx: ctx.multiply(m.Decimal(a), m.Decimal(b)))
+
+
+def test_quantize():
+    for a in VALUES:
+        for exp in ("1", "0.01", "1E+2", "1E-30", "1E+1000"):
+            check(lambda m, ctx: m.Decimal(a).quantize(m.Decimal(exp), context=ctx))
+
+
+def test_str():
+    for a in VALUES + ["0E+2", "1E+1", "-0.000001", "0.0000001", "123E-20"]:
+        assert str(decimal.Decimal(a)) == str(_pydecimal.Decimal(a))
+        assert decimal.Decimal(a).to_eng_string() == _pydecimal.Decimal(a).to_eng_string()
+        assert repr(decimal.Decimal(a)) == repr(_pydecimal.Decimal(a))
+
+
+def test_sum_and_traps():
+    amounts = [decimal.Decimal("19.99"), decimal.Decimal("0.01"), decimal.Decimal("-5.50")] * 100
+    assert sum(amounts) == decimal.Decimal("1450.00")
+    assert str(sum(amounts)) == "1450.00"
+    with decimal.localcontext() as ctx:
+        ctx.traps[decimal.Inexact] = True
+        assert decimal.Decimal("1.50").quantize(decimal.Decimal("0.1")) == decimal.Decimal("1.5")
+        try:
+            decimal.Decimal("1.005").quantize(decimal.Decimal("0.01"))
+        except decimal.Inexact:
+            pass
+        else:
+            assert False, "expected Inexact to be trapped"
@@ -629,3 +629,71 @@ class TestBasic(unittest.TestCase):
         klass = type(reversed(deque()))
         for s in ('abcd', range(2000)):
             self.assertEqual(list(klass(deque(s))), list(reversed(s)))
+
+    def test_primitive_storage_generalization(self):
+        d = deque(range(10))
+        d.append(10.5)
+        d.appendleft("a")
+        self.assertEqual(list(d), ["a"] + list(range(10)) + [10.5])
+        d.clear()
+        d.extend([1.5, 2.5])
+        d.append(3)
+        self.assertEqual(list(d), [1.5, 2.5, 3])
+        d = deque([1, 2, 3])
+        d[1] = None
+        self.assertEqual(list(d), [1, None, 3])
+        d = deque([1 << 70, 1])
+        self.assertEqual(list(d), [1 << 70, 1])
+
+    def test_sliding_window(self):
+        d = deque(maxlen=5)
+        for i in range(100):
+            d.append(i * 0.5)
+            self.assertEqual(list(d), [j * 0.5 for j in range(max(0, i - 4), i + 1)])
+        d.appendleft(-1.0)
+        self.assertEqual(list(d), [-1.0, 47.5, 48.0, 48.5, 49.0])
+        d.extend([1, 2, 3])
+        self.assertEqual(list(d), [48.5, 49.0, 1, 2, 3])
+        d.extendleft(range(7))
+        self.assertEqual(list(d), [6, 5, 4, 3, 2])
+        self.assertEqual(d[0], 6)
+        self.assertEqual(d[-1], 2)
+
+    def test_extend_builtin_sequences(self):
+        for items in ([1, 2, 3], [1.5, 2.5], [1, "a", None], (4, 5, 6), (1 << 80, 2), [True, False], []):
+            d = deque([0])
+            d.extend(items)
+            self.assertEqual(list(d), [0] + list(items))
+            d = deque([0])
+            d.extendleft(items)
+            self.assertEqual(list(d), list(reversed(items)) + [0])
+            self.assertEqual(list(deque(items)), list(items))
+            self.assertEqual(list(deque(items, maxlen=2)), list(items)[-2:])
+
+        class MyList(list):
+            def __iter__(self):
+                return iter([42])
+
+        d = deque()
+        d.extend(MyList([1, 2, 3]))
+        self.assertEqual(list(d), [42])
+
+    def test_rotate_and_delete(self):
+        for n in (1, 7, 8, 9, 100):
+            items = list(range(n))
+            for k in range(-n - 2, n + 3):
+                d = deque(items)
+                d.rotate(k)
+                expected = items[-(k % n):] + items[:-(k % n)] if k % n else items
+                self.assertEqual(list(d), expected)
+            for i in range(n):
+                d = deque(items)
+                del d[i]
+                self.assertEqual(list(d), items[:i] + items[i + 1:])
+
+    def test_init_with_maxlen_clears(self):
+        d = deque(range(10))
+        d.__init__(maxlen=3)
+        self.assertEqual(list(d), [])
+        d.append(1)
+        self.assertEqual(d.maxlen, 3)
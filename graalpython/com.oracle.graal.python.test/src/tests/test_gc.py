@@ -39,6 +39,8 @@
 
 from _weakref import ref, getweakrefcount
 import gc
+import sys
+import time
 
 
 def test_gc_collect():
@@ -48,3 +50,32 @@ def test_gc_collect():
 def test_gc_count():
     c0, c1, c2 = gc.get_count()
     assert c0 + c1 + c2 > 0, "we definitely had something collected"
+
+
+# same as CApiContext.MAX_CLEANER_BATCH
+MAX_CLEANER_BATCH = 4096
+
+
+def test_native_reference_cleaner_stats():
+    if sys.implementation.name != "graalpython":
+        return
+    from .cpyext import CPyExtType
+    NativeThing = CPyExtType("GcNativeThing", "")
+
+    _, batches_before, cleaned_before, _, _, _ = __graalpython__.native_reference_cleaner_stats()
+    for _ in range(20):
+        # more dead objects than fit into a single batch
+        objs = [NativeThing() for _ in range(3 * MAX_CLEANER_BATCH)]
+        del objs
+        gc.collect()
+        time.sleep(0.1)
+        gc.collect()
+        pending, batches, cleaned, total_pause, max_pause, max_batch = __graalpython__.native_reference_cleaner_stats()
+        if cleaned > cleaned_before:
+            break
+    assert cleaned > cleaned_before, "no native references were cleaned"
+    assert batches > batches_before
+    assert pending >= 0
+    assert cleaned >= batches
+    assert total_pause >= max_pause >= 0
+    assert 0 < max_batch <= MAX_CLEANER_BATCH, max_batch
@@ -0,0 +1,154 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import gzip
+import os
+import tempfile
+import time
+import unittest
+
+try:
+    import _graalprofiler
+except ImportError:
+    _graalprofiler = None
+
+
+def busy_function(deadline):
+    n = 0
+    while time.time() < deadline:
+        n += 1
+    return n
+
+
+def run_busy(seconds=0.3):
+    return busy_function(time.time() + seconds)
+
+
+def deep_busy(depth, seconds=0.3):
+    if depth == 0:
+        return run_busy(seconds)
+    return deep_busy(depth - 1, seconds)
+
+
+@unittest.skipIf(_graalprofiler is None, "sampling profiler not available")
+class GraalProfilerTests(unittest.TestCase):
+
+    def tearDown(self):
+        if _graalprofiler.is_running():
+            _graalprofiler.stop()
+
+    def test_start_stop(self):
+        _graalprofiler.start(period=1)
+        self.assertTrue(_graalprofiler.is_running())
+        run_busy()
+        _graalprofiler.stop()
+        self.assertFalse(_graalprofiler.is_running())
+        self.assertRaises(RuntimeError, _graalprofiler.stop)
+        self.assertRaises(ValueError, _graalprofiler.start, period=0)
+
+    def test_folded_stacks(self):
+        _graalprofiler.start(period=1)
+        run_busy()
+        _graalprofiler.stop()
+        stacks = _graalprofiler.folded_stacks()
+        self.assertTrue(any("busy_function" in s for s in stacks))
+        self.assertTrue(all(isinstance(c, int) and c > 0 for c in stacks.values()))
+
+    def test_rotate_windows(self):
+        _graalprofiler.start(period=1, windows=1)
+        run_busy(0.1)
+        _graalprofiler.stop()
+        self.assertGreater(_graalprofiler.rotate(), 0)
+        self.assertEqual(_graalprofiler.rotate(), 0)
+        # only the (empty) last window is retained
+        self.assertEqual(sum(_graalprofiler.folded_stacks().values()), 0)
+        _graalprofiler.clear()
+        self.assertRaises(ValueError, _graalprofiler.start, windows=0)
+
+    def test_windows_bounded(self):
+        _graalprofiler.start(period=1, windows=2)
+        counts = []
+        for _ in range(4):
+            run_busy(0.1)
+            counts.append(_graalprofiler.rotate())
+        _graalprofiler.stop()
+        counts.append(_graalprofiler.rotate())
+        # the ring never holds more than the last two windows
+        self.assertLessEqual(sum(_graalprofiler.folded_stacks().values()), counts[-2] + counts[-1])
+        _graalprofiler.clear()
+
+    def test_stack_limit_reset(self):
+        _graalprofiler.start(period=1, stack_limit=3)
+        deep_busy(20)
+        _graalprofiler.stop()
+        self.assertTrue(all(s.count(";") < 3 for s in _graalprofiler.folded_stacks()))
+        _graalprofiler.start(period=1)
+        deep_busy(20)
+        _graalprofiler.stop()
+        self.assertTrue(any(s.count(";") >= 20 for s in _graalprofiler.folded_stacks()))
+
+    def test_cprofile_conflict(self):
+        import cProfile
+        _graalprofiler.start(period=1)
+        self.assertRaises(RuntimeError, cProfile.Profile)
+        _graalprofiler.stop()
+        profile = cProfile.Profile()
+        profile.enable()
+        try:
+            self.assertRaises(RuntimeError, _graalprofiler.start)
+        finally:
+            profile.disable()
+
+    def test_dump(self):
+        _graalprofiler.start(period=1)
+        run_busy()
+        _graalprofiler.stop()
+        with tempfile.TemporaryDirectory() as d:
+            folded = os.path.join(d, "out.folded")
+            count = _graalprofiler.dump(folded)
+            with open(folded) as f:
+                lines = f.read().splitlines()
+            self.assertEqual(count, sum(int(l.rsplit(" ", 1)[1]) for l in lines))
+
+            pprof = os.path.join(d, "out.pb.gz")
+            self.assertEqual(count, _graalprofiler.dump(pprof, format="pprof"))
+            with gzip.open(pprof) as f:
+                self.assertIn(b"busy_function", f.read())
+
+            self.assertRaises(ValueError, _graalprofiler.dump, folded, format="json")
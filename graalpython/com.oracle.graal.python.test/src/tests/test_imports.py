@@ -180,3 +180,15 @@ def test_local_property_25274():
 
 
     
+
+
+def test_lazily_patched_builtin_modules():
+    # the Python parts of these builtin modules may be loaded only on first import
+    import _locale
+    assert _locale.LC_ALL is not None
+    import faulthandler
+    assert faulthandler.is_enabled() in (True, False)
+    import _contextvars
+    assert callable(_contextvars.copy_context)
+    import mmap
+    assert mmap.PAGESIZE > 0
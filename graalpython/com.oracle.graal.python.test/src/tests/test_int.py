@@ -356,6 +356,25 @@ def test_create_int_from_string():
         assert False, "expected TypeError"
 
 
+def test_large_int_str_roundtrip():
+    # large enough to take the divide-and-conquer paths in both directions
+    for digits in (999, 1000, 1001, 4097, 20000):
+        s = "7" + "0123456789" * (digits // 10) + "3" * (digits % 10 - 1 if digits % 10 else 9)
+        n = int(s)
+        assert str(n) == s
+        assert repr(-n) == "-" + s
+        assert int("-" + s) == -n
+        assert "{:d}".format(n) == s
+        assert "{:+d}".format(-n) == "-" + s
+    n = 10 ** 5000
+    assert str(n) == "1" + "0" * 5000
+    assert str(n - 1) == "9" * 5000
+    assert int("1_" + "0" * 4999 + "_0") == n
+    h = "f" * 3000
+    assert int(h, 16) == (1 << 12000) - 1
+    assert int("0x" + h, 0) == (1 << 12000) - 1
+
+
 def test_create_int_from_float():
     assert int(123.0) == 123
     assert int(123.4) == 123
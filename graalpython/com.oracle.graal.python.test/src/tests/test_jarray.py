@@ -160,5 +160,30 @@ if (platform.system() == 'Java' or sys.implementation.name == "graalpython") and
             with self.assertRaises(TypeError):
                 jarray.array([1, 2], StringBuilder())
 
+    class BufferTest(unittest.TestCase):
+        def test_array_from_array_module(self):
+            import array
+            self.assertEqual(list(jarray.array(array.array('d', [1.5, -2.5]), 'd')), [1.5, -2.5])
+            self.assertEqual(list(jarray.array(array.array('l', [1, -2, 3]), 'l')), [1, -2, 3])
+            self.assertEqual(list(jarray.array(array.array('b', [1, -2]), 'i')), [1, -2])
+
+        def test_memoryview_over_long_array(self):
+            array = jarray.zeros(2, 'l')
+            m = memoryview(array)
+            self.assertEqual(m.format, 'q')
+            m[0] = 1 << 40
+            array[1] = -7
+            self.assertEqual(array[0], 1 << 40)
+            self.assertEqual(m.tolist(), [1 << 40, -7])
+
+        def test_memoryview_over_byte_buffer(self):
+            from java.nio import ByteBuffer
+            bb = ByteBuffer.allocate(4)
+            m = memoryview(bb)
+            self.assertEqual(len(m), 4)
+            m[1] = 200
+            self.assertEqual(bb.get(1), -56)
+            self.assertEqual(bytes(m), b'\x00\xc8\x00\x00')
+
 if __name__ == '__main__':
     unittest.main()
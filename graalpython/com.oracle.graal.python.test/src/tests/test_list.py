@@ -689,6 +689,56 @@ class ListTest(list_tests.CommonTest):
         l.append("d")
         self.assertEqual(l, ["a", "b", "c", "d"])
 
+    def test_str_list(self):
+        l = ["b", "c", "a"]
+        l.insert(1, "x")
+        self.assertEqual(l, ["b", "x", "c", "a"])
+        self.assertIn("c", l)
+        self.assertNotIn("z", l)
+        self.assertNotIn(1, l)
+        self.assertEqual(l.index("c"), 2)
+        self.assertRaises(ValueError, l.index, "c", 3)
+        self.assertEqual(",".join(l), "b,x,c,a")
+        self.assertEqual("".join(list("abc")), "abc")
+        self.assertEqual("-".join(("a",)), "a")
+        self.assertEqual(l[1:3], ["x", "c"])
+        self.assertEqual(l[::-1], ["a", "c", "x", "b"])
+        self.assertEqual(l + ["d"], ["b", "x", "c", "a", "d"])
+        self.assertEqual(l * 2, ["b", "x", "c", "a"] * 2)
+        l.sort()
+        self.assertEqual(l, ["a", "b", "c", "x"])
+        l.sort(reverse=True)
+        self.assertEqual(l, ["x", "c", "b", "a"])
+        l.sort(key=lambda s: s == "b")
+        self.assertEqual(l, ["x", "c", "a", "b"])
+        l[0] = "y"
+        self.assertEqual(l, ["y", "c", "a", "b"])
+
+        # storing anything but a str must generalize the storage
+        l[1] = 1
+        self.assertEqual(l, ["y", 1, "a", "b"])
+        l = ["a", "b"]
+        l.append(None)
+        self.assertEqual(l, ["a", "b", None])
+        self.assertRaises(TypeError, "".join, l)
+        l = ["a", "b"]
+        l += [2.0]
+        self.assertEqual(l, ["a", "b", 2.0])
+        l = ["a"] + [1]
+        self.assertEqual(l, ["a", 1])
+        l = [x for x in "ab"]
+        l.insert(0, 1)
+        self.assertEqual(l, [1, "a", "b"])
+
+        class S(str):
+            pass
+        l = ["a", "b"]
+        l.append(S("c"))
+        self.assertEqual(l, ["a", "b", "c"])
+        self.assertIs(type(l[2]), S)
+        self.assertEqual(l.index(S("b")), 1)
+        self.assertEqual("".join(l), "abc")
+
     def test_extend_bytes_2(self):
         b = bytes([3,4,255])
         l = [1,2]
@@ -0,0 +1,102 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import io
+import lzma
+import unittest
+
+DATA = b"".join(b"%d: the quick brown fox jumps over the lazy dog\n" % i for i in range(2000))
+
+
+def new_decompressor():
+    return lzma.LZMADecompressor()
+
+
+@unittest.skipUnless(hasattr(new_decompressor(), '_decompress_into'), 'GraalPython specific')
+class DecompressIntoTests(unittest.TestCase):
+    def test_short_buffer(self):
+        dco = new_decompressor()
+        buf = bytearray(100)
+        out = bytearray()
+        # the input is kept by the decompressor until the output fits
+        n = dco._decompress_into(lzma.compress(DATA), buf)
+        while True:
+            self.assertLessEqual(n, len(buf))
+            out += buf[:n]
+            if dco.eof:
+                break
+            n = dco._decompress_into(b"", memoryview(buf))
+        self.assertEqual(out, DATA)
+
+    def test_end_of_stream(self):
+        dco = new_decompressor()
+        buf = bytearray(len(DATA) + 100)
+        n = dco._decompress_into(lzma.compress(DATA) + b"trailing", buf)
+        self.assertEqual(n, len(DATA))
+        self.assertEqual(buf[:n], DATA)
+        self.assertEqual(buf[n:], bytearray(100))
+        self.assertTrue(dco.eof)
+        self.assertEqual(dco.unused_data, b"trailing")
+        self.assertRaises(EOFError, dco._decompress_into, b"more", buf)
+
+    def test_slice(self):
+        dco = new_decompressor()
+        buf = bytearray(200)
+        view = memoryview(buf)[50:150]
+        n = dco._decompress_into(lzma.compress(DATA), view)
+        self.assertEqual(n, 100)
+        self.assertEqual(buf[50:150], DATA[:100])
+        self.assertEqual(buf[:50], bytearray(50))
+        self.assertEqual(buf[150:], bytearray(50))
+
+    def test_readonly(self):
+        self.assertRaises(TypeError, new_decompressor()._decompress_into, lzma.compress(DATA), b"readonly")
+
+    def test_file_readinto(self):
+        blob = lzma.compress(DATA) + lzma.compress(b"second stream")
+        with lzma.LZMAFile(io.BytesIO(blob)) as f:
+            buf = bytearray(333)
+            out = bytearray()
+            n = f.readinto(buf)
+            while n:
+                out += buf[:n]
+                n = f.readinto(memoryview(buf)[:100])
+        self.assertEqual(out, DATA + b"second stream")
+        with lzma.LZMAFile(io.BytesIO(lzma.compress(DATA)[:-10])) as f:
+            self.assertRaises(EOFError, f.read)
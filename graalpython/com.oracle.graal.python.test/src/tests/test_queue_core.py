@@ -0,0 +1,243 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import _queue
+import queue
+import threading
+import time
+
+# the pure Python queue.Queue and the Java core behind --python.NativeQueue
+QUEUE_TYPES = (queue.Queue, _queue.Queue)
+
+
+def test_queue_default_is_compatible():
+    q = queue.Queue(3)
+    assert type(q) is queue.Queue
+    assert q.mutex is q.not_empty._lock
+    assert q.not_full is not None and q.all_tasks_done is not None
+    q.put(1)
+    assert list(q.queue) == [1]
+
+
+def test_queue_basic():
+    for queue_type in QUEUE_TYPES:
+        _check_queue_basic(queue_type)
+
+
+def _check_queue_basic(queue_type):
+    q = queue_type()
+    assert type(q).__name__ == 'Queue'
+    assert q.empty() and not q.full()
+    for i in range(10):
+        q.put(i)
+    assert q.qsize() == 10
+    assert [q.get() for _ in range(10)] == list(range(10))
+    assert q.empty()
+
+
+def test_queue_bounded():
+    for queue_type in QUEUE_TYPES:
+        _check_queue_bounded(queue_type)
+
+
+def _check_queue_bounded(queue_type):
+    q = queue_type(2)
+    assert q.maxsize == 2
+    q.put_nowait(1)
+    q.put(2, block=False)
+    assert q.full()
+    try:
+        q.put_nowait(3)
+    except queue.Full:
+        pass
+    else:
+        assert False, "expected queue.Full"
+    start = time.monotonic()
+    try:
+        q.put(3, timeout=0.05)
+    except queue.Full:
+        assert time.monotonic() - start >= 0.04
+    else:
+        assert False, "expected queue.Full"
+    q.maxsize = 3
+    q.put_nowait(3)
+    assert q.get_nowait() == 1
+
+
+def test_queue_empty():
+    for queue_type in QUEUE_TYPES:
+        _check_queue_empty(queue_type)
+
+
+def _check_queue_empty(queue_type):
+    q = queue_type()
+    for get in (q.get_nowait, lambda: q.get(False), lambda: q.get(timeout=0.01)):
+        try:
+            get()
+        except queue.Empty:
+            pass
+        else:
+            assert False, "expected queue.Empty"
+
+
+def test_queue_negative_timeout():
+    for queue_type in QUEUE_TYPES:
+        _check_queue_negative_timeout(queue_type)
+
+
+def _check_queue_negative_timeout(queue_type):
+    q = queue_type(1)
+    for op in (lambda: q.get(timeout=-1), lambda: q.put(1, timeout=-1)):
+        try:
+            op()
+        except ValueError:
+            pass
+        else:
+            assert False, "expected ValueError"
+    # an unbounded queue does not look at the timeout on put
+    queue_type().put(1, timeout=-1)
+
+
+def test_queue_task_done_join():
+    for queue_type in QUEUE_TYPES:
+        _check_queue_task_done_join(queue_type)
+
+
+def _check_queue_task_done_join(queue_type):
+    q = queue_type()
+    results = []
+
+    def worker():
+        while True:
+            item = q.get()
+            if item is None:
+                q.task_done()
+                break
+            results.append(item * 2)
+            q.task_done()
+
+    threads = [threading.Thread(target=worker) for _ in range(4)]
+    for t in threads:
+        t.start()
+    for i in range(200):
+        q.put(i)
+    for _ in threads:
+        q.put(None)
+    q.join()
+    for t in threads:
+        t.join()
+    assert q.unfinished_tasks == 0
+    assert sorted(results) == [i * 2 for i in range(200)]
+    try:
+        q.task_done()
+    except ValueError:
+        pass
+    else:
+        assert False, "expected ValueError"
+
+
+def test_queue_producers_consumers():
+    for queue_type in QUEUE_TYPES:
+        _check_queue_producers_consumers(queue_type)
+
+
+def _check_queue_producers_consumers(queue_type):
+    q = queue_type(8)
+    n = 500
+    received = []
+    lock = threading.Lock()
+
+    def producer(base):
+        for i in range(n):
+            q.put((base, i))
+
+    def consumer():
+        items = [q.get() for _ in range(n)]
+        with lock:
+            received.extend(items)
+
+    threads = [threading.Thread(target=producer, args=(b,)) for b in range(3)]
+    threads += [threading.Thread(target=consumer) for _ in range(3)]
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+    assert sorted(received) == sorted((b, i) for b in range(3) for i in range(n))
+
+
+def test_queue_subclass_keeps_python_implementation():
+    class LoggingQueue(queue.Queue):
+        def _put(self, item):
+            super()._put(item * 10)
+
+    q = LoggingQueue()
+    assert type(q) is LoggingQueue
+    q.put(1)
+    assert q.get() == 10
+    assert hasattr(q, 'mutex')
+
+    lq = queue.LifoQueue()
+    lq.put(1)
+    lq.put(2)
+    assert lq.get() == 2
+
+
+def test_simple_queue_many_threads():
+    q = queue.SimpleQueue()
+    n = 2000
+    received = []
+    lock = threading.Lock()
+
+    def producer(base):
+        for i in range(n):
+            q.put((base, i))
+
+    def consumer():
+        items = [q.get(timeout=10) for _ in range(n)]
+        with lock:
+            received.extend(items)
+
+    threads = [threading.Thread(target=producer, args=(b,)) for b in range(4)]
+    threads += [threading.Thread(target=consumer) for _ in range(4)]
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+    assert q.empty()
+    assert sorted(received) == sorted((b, i) for b in range(4) for i in range(n))
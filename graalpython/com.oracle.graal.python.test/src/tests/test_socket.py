@@ -65,3 +65,61 @@ def test_get_name_info():
     except TypeError:
         raised = True
     assert raised
+
+
+class TestVectoredIO(unittest.TestCase):
+    def setUp(self):
+        self.a, self.b = socket.socketpair()
+
+    def tearDown(self):
+        self.a.close()
+        self.b.close()
+
+    def recv_exactly(self, n):
+        chunks = []
+        while n > 0:
+            chunk = self.b.recv(n)
+            if not chunk:
+                break
+            chunks.append(chunk)
+            n -= len(chunk)
+        return b''.join(chunks)
+
+    def test_sendmsg_recvmsg_into(self):
+        self.assertEqual(self.a.sendmsg([b'abc', bytearray(b'de'), memoryview(b'fghij')]), 10)
+        first = bytearray(4)
+        second = bytearray(16)
+        nbytes, ancdata, flags, address = self.b.recvmsg_into([first, second])
+        self.assertEqual(nbytes, 10)
+        self.assertEqual(ancdata, [])
+        self.assertEqual(first, b'abcd')
+        self.assertEqual(second[:6], b'efghij')
+
+    def test_sendmsg_empty(self):
+        self.assertEqual(self.a.sendmsg([]), 0)
+
+    def test_recvmsg_into_negative_ancbufsize(self):
+        self.assertRaises(ValueError, self.b.recvmsg_into, [bytearray(1)], -1)
+
+    def test_sendfile(self):
+        import tempfile
+        data = bytes(range(256)) * 128
+        with tempfile.TemporaryFile() as f:
+            f.write(data)
+            f.flush()
+            f.seek(0)
+            self.assertEqual(self.a.sendfile(f, 100, 1000), 1000)
+            self.assertEqual(f.tell(), 1100)
+            self.assertEqual(self.recv_exactly(1000), data[100:1100])
+
+    def test_os_sendfile_keeps_position(self):
+        import os
+        import tempfile
+        with tempfile.TemporaryFile() as f:
+            f.write(b'0123456789')
+            f.flush()
+            f.seek(2)
+            self.assertEqual(os.sendfile(self.a.fileno(), f.fileno(), 5, 100), 5)
+            self.assertEqual(os.sendfile(self.a.fileno(), f.fileno(), 10, 100), 0)
+            self.assertEqual(f.tell(), 2)
+            self.assertEqual(self.recv_exactly(5), b'56789')
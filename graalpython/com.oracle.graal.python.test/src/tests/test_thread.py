@@ -125,6 +125,18 @@ if syscfg.get_config_var('WITH_THREAD'):
             thread.stack_size(0)
             self.assertEqual(thread.stack_size(), 0, "stack_size not reset to default")
 
+            self.assertRaises(ValueError, thread.stack_size, 4096)
+            self.assertRaises(ValueError, thread.stack_size, -1)
+            thread.stack_size(262144)
+            try:
+                self.assertEqual(thread.stack_size(), 262144)
+                done = []
+                start_new_thread(lambda: done.append(True), ())
+                while not done:
+                    _wait()
+            finally:
+                thread.stack_size(0)
+
         def test__count(self):
             # Test the _count() function.
             orig = thread._count()
@@ -513,3 +525,188 @@ if syscfg.get_config_var('WITH_THREAD'):
             lock.release()
             self.assertFalse(lock.locked())
             self.assertTrue(lock.acquire(blocking=False))
+
+
+    class SynchronizationPrimitivesTests(BaseTestCase):
+        """
+        Tests for the Java implementations of Condition, Semaphore and Event.
+        """
+
+        def test_types(self):
+            self.assertIs(threading.Condition, thread.Condition)
+            self.assertIs(threading.Semaphore, thread.Semaphore)
+            self.assertTrue(issubclass(threading.BoundedSemaphore, threading.Semaphore))
+            self.assertIs(threading.Event, thread.Event)
+
+        def _check_notify(self, cond):
+            results = []
+
+            def f():
+                with cond:
+                    results.append(cond.wait())
+
+            b = Bunch(f, 3)
+            b.wait_for_started()
+            while True:
+                with cond:
+                    if repr(cond).endswith(", 3)>"):
+                        break
+                _wait()
+            with cond:
+                cond.notify()
+            while len(results) < 1:
+                _wait()
+            with cond:
+                cond.notify_all()
+            b.wait_for_finished()
+            self.assertEqual(results, [True, True, True])
+
+        def test_condition_notify(self):
+            self._check_notify(threading.Condition())
+            self._check_notify(threading.Condition(threading.Lock()))
+            self._check_notify(threading.Condition(threading._PyRLock()))
+
+        def test_condition_wait_timeout(self):
+            cond = threading.Condition(threading.RLock())
+            with cond:
+                with cond:
+                    self.assertFalse(cond.wait(0.01))
+                    self.assertFalse(cond.wait(0))
+                    self.assertTrue(cond._is_owned())
+                self.assertTrue(cond._is_owned())
+            self.assertFalse(cond._is_owned())
+            self.assertEqual(repr(cond)[-4:], ", 0)>")
+
+        def test_condition_unacquired(self):
+            cond = threading.Condition(threading.Lock())
+            self.assertRaises(RuntimeError, cond.wait)
+            self.assertRaises(RuntimeError, cond.notify)
+            self.assertRaises(RuntimeError, cond.notify_all)
+
+        def test_condition_wait_for(self):
+            cond = threading.Condition()
+            state = []
+
+            def f():
+                with cond:
+                    self.assertTrue(cond.wait_for(lambda: len(state) == 3))
+
+            b = Bunch(f, 1)
+            b.wait_for_started()
+            for i in range(3):
+                _wait()
+                with cond:
+                    state.append(i)
+                    cond.notify()
+            b.wait_for_finished()
+            with cond:
+                self.assertFalse(cond.wait_for(lambda: False, timeout=0.01))
+
+        def test_semaphore(self):
+            sem = threading.Semaphore(2)
+            self.assertTrue(sem.acquire())
+            self.assertTrue(sem.acquire(False))
+            self.assertFalse(sem.acquire(False))
+            self.assertFalse(sem.acquire(timeout=0.01))
+            self.assertRaises(ValueError, sem.acquire, False, 1)
+            sem.release()
+            sem.release()
+            sem.release()
+            self.assertEqual(sem._value, 3)
+            self.assertRaises(ValueError, threading.Semaphore, -1)
+
+        def test_semaphore_blocking(self):
+            sem = threading.Semaphore(0)
+            acquired = []
+
+            def f():
+                with sem:
+                    acquired.append(True)
+
+            b = Bunch(f, 2)
+            b.wait_for_started()
+            _wait()
+            self.assertEqual(acquired, [])
+            sem.release()
+            sem.release()
+            b.wait_for_finished()
+            self.assertEqual(acquired, [True, True])
+
+        def test_bounded_semaphore(self):
+            sem = threading.BoundedSemaphore(1)
+            self.assertRaises(ValueError, sem.release)
+            with sem:
+                self.assertFalse(sem.acquire(False))
+            self.assertRaises(ValueError, sem.release)
+
+        def test_event(self):
+            evt = threading.Event()
+            self.assertFalse(evt.is_set())
+            self.assertFalse(evt.wait(0))
+            self.assertFalse(evt.wait(0.01))
+            results = []
+
+            def f():
+                results.append(evt.wait())
+
+            b = Bunch(f, 3)
+            b.wait_for_started()
+            _wait()
+            evt.set()
+            b.wait_for_finished()
+            self.assertEqual(results, [True, True, True])
+            self.assertTrue(evt.wait())
+            evt.clear()
+            self.assertFalse(evt.isSet())
+
+        def test_subclassing(self):
+            class MyEvent(threading.Event):
+                def __init__(self):
+                    super().__init__()
+                    self.x = 1
+
+            class MySemaphore(threading.BoundedSemaphore):
+                def __init__(self, value):
+                    super().__init__(value)
+
+            self.assertEqual(MyEvent().x, 1)
+            sem = MySemaphore(2)
+            self.assertTrue(sem.acquire(False))
+            sem.release()
+            self.assertRaises(ValueError, sem.release)
+
+        def test_subclassing_init_signature(self):
+            class NamedCondition(threading.Condition):
+                def __init__(self, name):
+                    super().__init__(threading.Lock())
+                    self.name = name
+
+            class CountingSemaphore(threading.Semaphore):
+                def __init__(self, name, value=3):
+                    super().__init__(value)
+                    self.name = name
+
+            cond = NamedCondition("c")
+            self.assertEqual(cond.name, "c")
+            self.assertIsInstance(cond._lock, type(threading.Lock()))
+            with cond:
+                self.assertFalse(cond.wait(0))
+            sem = CountingSemaphore("s")
+            self.assertEqual(sem._value, 3)
+            self.assertRaises(ValueError, CountingSemaphore, "s", -1)
+
+        def test_event_pulse(self):
+            evt = threading.Event()
+            results = []
+
+            def f():
+                results.append(evt.wait(10))
+
+            b = Bunch(f, 1)
+            b.wait_for_started()
+            _wait()
+            evt.set()
+            evt.clear()
+            b.wait_for_finished()
+            self.assertEqual(results, [True])
+            self.assertFalse(evt.is_set())
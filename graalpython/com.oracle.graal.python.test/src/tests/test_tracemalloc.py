@@ -0,0 +1,87 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import sys
+import tracemalloc
+
+
+def test_start_stop():
+    assert not tracemalloc.is_tracing()
+    tracemalloc.start(5)
+    try:
+        assert tracemalloc.is_tracing()
+        assert tracemalloc.get_traceback_limit() == 5
+        current, peak = tracemalloc.get_traced_memory()
+        assert 0 <= current <= peak
+    finally:
+        tracemalloc.stop()
+    assert not tracemalloc.is_tracing()
+    assert tracemalloc.get_traced_memory() == (0, 0)
+
+
+def test_invalid_nframe():
+    for nframe in (0, -1, 65536):
+        try:
+            tracemalloc.start(nframe)
+        except ValueError:
+            pass
+        else:
+            assert False, "expected ValueError for nframe=%d" % nframe
+    assert not tracemalloc.is_tracing()
+
+
+def test_snapshot_statistics():
+    tracemalloc.start()
+    try:
+        snapshot = tracemalloc.take_snapshot()
+        for stat in snapshot.statistics("lineno"):
+            assert stat.size >= 0
+            assert stat.count > 0
+    finally:
+        tracemalloc.stop()
+
+
+def test_native_memory_stats():
+    if sys.implementation.name == "graalpython":
+        allocated, peak, watermark, limit, domains = __graalpython__.native_memory_stats()
+        assert 0 <= allocated <= peak
+        assert 0 < watermark <= limit
+        for domain, size, blocks in domains:
+            assert size >= 0
+            assert blocks >= 0
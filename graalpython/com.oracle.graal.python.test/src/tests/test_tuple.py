@@ -393,3 +393,25 @@ def test_hashing():
         assert "unhashable type: 'list'" in str(e)
     else:
         assert False
+
+
+def test_hashing_packed():
+    # small tuples of numbers and strings use a specialized storage; hashes must not depend on it
+    class I(int):
+        pass
+
+    class S(str):
+        pass
+
+    assert hash((1, 2)) == hash((I(1), 2)) == hash((1, 2.0)) == hash((1.0, 2.0))
+    assert hash((-1, 0)) == hash((I(-1), 0))
+    assert hash((2 ** 40, -2 ** 62)) == hash((I(2 ** 40), -2 ** 62))
+    assert hash((2 ** 40, 1)) == hash((2 ** 40, 1.0))
+    assert hash((0.5, float("inf"), -0.0)) == hash((0.5, float("inf"), I(0)))
+    assert hash(("a", "b")) == hash(("a", S("b")))
+    assert hash(tuple([1, 2, 3, 4, 5])) == hash((I(1), 2, 3, 4, 5))
+    d = {(1, 2): "a", (3.5, 4.5): "b"}
+    assert d[(1.0, 2)] == "a"
+    assert d[tuple([3.5, 4.5])] == "b"
+    assert (1, 2) == (1.0, 2.0)
+    assert (1, 2) != (1, 3)
@@ -59,6 +59,22 @@ def test_normalize():
     assert_raises(TypeError, unicodedata.normalize)
     assert_raises(ValueError, unicodedata.normalize, 'unknown', 'xx')
     assert unicodedata.normalize('NFKC', '') == ''
+    assert unicodedata.normalize('NFC', 'e\u0301') == '\u00e9'
+    assert unicodedata.normalize('NFD', '\u00e9') == 'e\u0301'
+    assert unicodedata.normalize('NFKC', 'abc \ufb01 x\u2075') == 'abc fi x5'
+    assert unicodedata.normalize('NFC', 'already normalized \u00e9e\u0301') == 'already normalized \u00e9\u00e9'
+    s = 'plain ascii text'
+    assert unicodedata.normalize('NFC', s) is s
+
+
+def test_is_normalized():
+    import unicodedata
+    assert unicodedata.is_normalized('NFC', 'abc')
+    assert unicodedata.is_normalized('NFC', '\u00e9')
+    assert not unicodedata.is_normalized('NFC', 'e\u0301')
+    assert not unicodedata.is_normalized('NFD', '\u00e9')
+    assert not unicodedata.is_normalized('NFKC', '\ufb01')
+    assert_raises(ValueError, unicodedata.is_normalized, 'unknown', 'xx')
 
 
 def test_category():
@@ -68,3 +84,21 @@ def test_category():
     assert unicodedata.category('A') == 'Lu'
     assert_raises(TypeError, unicodedata.category)
     assert_raises(TypeError, unicodedata.category, 'xx')
+
+
+def test_east_asian_width():
+    import unicodedata
+    assert unicodedata.east_asian_width('a') == 'Na'
+    assert unicodedata.east_asian_width('\u3042') == 'W'
+    assert unicodedata.east_asian_width('\uff21') == 'F'
+    assert unicodedata.east_asian_width('\uff61') == 'H'
+    assert unicodedata.east_asian_width('\u00a1') == 'A'
+    assert unicodedata.east_asian_width('\u0300') == 'A'
+    assert_raises(TypeError, unicodedata.east_asian_width, 'xx')
+
+
+def test_bidirectional():
+    import unicodedata
+    assert unicodedata.bidirectional('a') == 'L'
+    assert unicodedata.bidirectional('\u05d0') == 'R'
+    assert unicodedata.bidirectional('1') == 'EN'
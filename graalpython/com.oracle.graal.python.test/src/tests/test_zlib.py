@@ -164,6 +164,133 @@ class CompressTests(BaseCompressTestCase, unittest.TestCase):
         compressed = zlib.compress(data, 1)
         self.assertEqual(zlib.decompress(compressed, 15, CustomInt()), data)
 
+    def test_large_roundtrip(self):
+        data = HAMLET_SCENE * 200
+        for level in (1, 6, 9):
+            self.assertEqual(zlib.decompress(zlib.compress(data, level)), data)
+
+    def test_compress_threads(self):
+        import threading
+        data = HAMLET_SCENE * 50
+        results = [None] * 4
+        def work(i):
+            results[i] = zlib.decompress(zlib.compress(data))
+        threads = [threading.Thread(target=work, args=(i,)) for i in range(len(results))]
+        for t in threads:
+            t.start()
+        for t in threads:
+            t.join()
+        self.assertEqual(results, [data] * len(results))
+
+    def test_shared_compressobj_threads(self):
+        import threading
+        co = zlib.compressobj()
+        chunks = []
+        def work():
+            for _ in range(20):
+                chunks.append(co.compress(HAMLET_SCENE))
+        threads = [threading.Thread(target=work) for _ in range(4)]
+        for t in threads:
+            t.start()
+        for t in threads:
+            t.join()
+        out = b''.join(chunks) + co.flush()
+        self.assertEqual(zlib.decompress(out), HAMLET_SCENE * 80)
+
+    @unittest.skipUnless(hasattr(zlib, '_compress_parallel'), 'GraalPython specific')
+    def test_compress_parallel_disabled(self):
+        import gzip
+        self.assertFalse(zlib._PARALLEL_COMPRESSION)
+        data = HAMLET_SCENE * 200
+        self.assertIsNone(zlib._compress_parallel(data, 6, zlib.MAX_WBITS, 0))
+        self.assertRaises(ValueError, zlib._compress_parallel, data, 10, zlib.MAX_WBITS, 0)
+        self.assertRaises(ValueError, zlib._compress_parallel, data, 6, 100, 0)
+        self.assertRaises(ValueError, gzip.compress, data, 10)
+
+    @unittest.skipUnless(hasattr(zlib, '_compress_parallel'), 'GraalPython specific')
+    def test_compress_parallel(self):
+        import subprocess
+        src = '''if True:
+            import gzip, zlib
+            assert zlib._PARALLEL_COMPRESSION
+            data = b''.join(b'%d ' % (i * 7919 % 100003) for i in range(200000))
+            assert zlib._compress_parallel(data[:1000], 6, zlib.MAX_WBITS, 0) is None
+            for wbits in (zlib.MAX_WBITS, -zlib.MAX_WBITS, 16 + zlib.MAX_WBITS):
+                result = zlib._compress_parallel(data, 6, wbits, 0)
+                assert result is not None, wbits
+                assert zlib.decompress(result, wbits) == data, wbits
+            compressed = gzip.compress(data, mtime=1)
+            assert compressed == zlib._compress_parallel(data, 9, 16 + zlib.MAX_WBITS, 1)
+            assert gzip.decompress(compressed) == data
+            assert zlib.decompress(zlib.compress(data)) == data
+            try:
+                gzip.compress(data, 10)
+            except ValueError:
+                pass
+            else:
+                assert False, 'expected ValueError'
+            print('ok')
+        '''
+        out = subprocess.check_output([sys.executable, '--experimental-options', '--python.CompressionThreads=4', '-c', src])
+        self.assertEqual(out.strip(), b'ok')
+
+    @unittest.skipUnless(hasattr(zlib.decompressobj(), '_decompress_into'), 'GraalPython specific')
+    def test_decompress_into(self):
+        data = HAMLET_SCENE * 20
+        dco = zlib.decompressobj()
+        buf = bytearray(100)
+        out = bytearray()
+        n = dco._decompress_into(zlib.compress(data), buf)
+        while n:
+            out += buf[:n]
+            n = dco._decompress_into(dco.unconsumed_tail, memoryview(buf))
+        self.assertEqual(out, data)
+        self.assertTrue(dco.eof)
+        self.assertRaises(ValueError, zlib.decompressobj()._decompress_into, b'', bytearray())
+        self.assertRaises(TypeError, zlib.decompressobj()._decompress_into, b'', b'readonly')
+
+    @unittest.skipUnless(hasattr(zlib.decompressobj(), '_decompress_into'), 'GraalPython specific')
+    def test_decompress_into_slice(self):
+        data = HAMLET_SCENE * 20
+        compressed = bytearray(zlib.compress(data))
+        dco = zlib.decompressobj()
+        buf = bytearray(200)
+        # a sliced view is not backed by an array starting at its first byte
+        view = memoryview(buf)[50:150]
+        n = dco._decompress_into(compressed, view)
+        self.assertEqual(n, 100)
+        self.assertEqual(buf[50:150], data[:100])
+        self.assertEqual(buf[:50], bytearray(50))
+        self.assertEqual(buf[150:], bytearray(50))
+        # overwriting the input afterwards must not affect the decompressor
+        compressed[:] = bytearray(len(compressed))
+        self.assertEqual(dco.decompress(dco.unconsumed_tail), data[100:])
+
+    def test_gzip_compress_roundtrip(self):
+        import gzip
+        data = HAMLET_SCENE * 200
+        self.assertEqual(gzip.decompress(gzip.compress(data, mtime=0)), data)
+
+    def test_gzip_readinto(self):
+        import gzip, io
+        data = HAMLET_SCENE * 200
+        blob = gzip.compress(data, mtime=0) + gzip.compress(b"second member", mtime=0)
+        with gzip.GzipFile(fileobj=io.BytesIO(blob)) as f:
+            buf = bytearray(333)
+            out = bytearray()
+            n = f.readinto(buf)
+            while n:
+                out += buf[:n]
+                n = f.readinto(memoryview(buf)[:100])
+            self.assertEqual(out, data + b"second member")
+        # the CRC is computed over the data written into the buffer
+        corrupt = bytearray(gzip.compress(data, mtime=0))
+        corrupt[-8] ^= 1
+        with gzip.GzipFile(fileobj=io.BytesIO(corrupt)) as f:
+            self.assertRaises(gzip.BadGzipFile, f.readinto, bytearray(len(data) + 1))
+        with gzip.GzipFile(fileobj=io.BytesIO(gzip.compress(data)[:-20])) as f:
+            self.assertRaises(EOFError, f.read)
+
 HAMLET_SCENE = b"""
 LAERTES
 
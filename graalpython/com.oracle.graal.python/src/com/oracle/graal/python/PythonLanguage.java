@@ -26,9 +26,13 @@
 package com.oracle.graal.python;
 
 import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import org.graalvm.options.OptionDescriptors;
@@ -717,10 +721,21 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         return newSource(ctxt, Source.newBuilder(ID, src).name(name));
     }
 
-    private static Source newSource(PythonContext ctxt, SourceBuilder srcBuilder) throws IOException {
-        boolean coreIsInitialized = ctxt.getCore().isInitialized();
-        boolean internal = !coreIsInitialized && !ctxt.getLanguage().getEngineOption(PythonOptions.ExposeInternalSources);
-        if (internal) {
+    /**
+     * Builds the source and marks it as internal if it is created while the core is initialized,
+     * unless {@link PythonOptions#ExposeInternalSources} is set.
+     */
+    public static Source newSource(PythonContext ctxt, SourceBuilder srcBuilder) throws IOException {
+        return newSource(ctxt, srcBuilder, !ctxt.getCore().isInitialized());
+    }
+
+    /**
+     * Builds the source and marks it as internal if it belongs to the core library, unless
+     * {@link PythonOptions#ExposeInternalSources} is set. Core files that are loaded lazily are
+     * created after the core is initialized, so they have to pass {@code coreSource} explicitly.
+     */
+    public static Source newSource(PythonContext ctxt, SourceBuilder srcBuilder, boolean coreSource) throws IOException {
+        if (coreSource && !ctxt.getLanguage().getEngineOption(PythonOptions.ExposeInternalSources)) {
             srcBuilder.internal(true);
         }
         return srcBuilder.build();
@@ -743,6 +758,74 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         });
     }
 
+    private static final class SharedCode {
+        private final String content;
+        private final int contentHash;
+        private final CallTarget callTarget;
+
+        SharedCode(String content, CallTarget callTarget) {
+            this.content = content;
+            this.contentHash = content.hashCode();
+            this.callTarget = callTarget;
+        }
+
+        boolean matches(String otherContent) {
+            return contentHash == otherContent.hashCode() && content.equals(otherContent);
+        }
+    }
+
+    private static final class SharedCodeRef extends SoftReference<SharedCode> {
+        private final String key;
+
+        SharedCodeRef(String key, SharedCode referent, ReferenceQueue<SharedCode> queue) {
+            super(referent, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Code of user modules shared between contexts (see {@link PythonOptions#SharedCodeCache}).
+     * There is at most one entry per file and optimization level, a changed file replaces it. The
+     * entries are softly referenced, so code that no context uses anymore can be reclaimed under
+     * memory pressure, and cleared entries are removed on the next miss.
+     */
+    private final ConcurrentHashMap<String, SharedCodeRef> sharedCode = new ConcurrentHashMap<>();
+    private final ReferenceQueue<SharedCode> sharedCodeQueue = new ReferenceQueue<>();
+    private final AtomicLong sharedCodeHits = new AtomicLong();
+    private final AtomicLong sharedCodeMisses = new AtomicLong();
+
+    /**
+     * Returns the shared call target for the given file contents, creating and caching it if
+     * necessary. The code is created outside of any lock, so concurrent misses may parse twice,
+     * but only one result is kept. Syntax errors are not cached.
+     */
+    @TruffleBoundary
+    public CallTarget cacheSharedCode(String canonicalPath, String filename, int optimize, String content, Supplier<CallTarget> createCode) {
+        String key = optimize + ":" + canonicalPath + ":" + filename;
+        SharedCodeRef ref = sharedCode.get(key);
+        SharedCode cached = ref != null ? ref.get() : null;
+        if (cached != null && cached.matches(content)) {
+            sharedCodeHits.incrementAndGet();
+            return cached.callTarget;
+        }
+        sharedCodeMisses.incrementAndGet();
+        CallTarget ct = createCode.get();
+        LOGGER.log(Level.FINEST, () -> "Sharing CallTarget for " + canonicalPath);
+        for (Reference<? extends SharedCode> cleared = sharedCodeQueue.poll(); cleared != null; cleared = sharedCodeQueue.poll()) {
+            sharedCode.remove(((SharedCodeRef) cleared).key, cleared);
+        }
+        sharedCode.put(key, new SharedCodeRef(key, new SharedCode(content, ct), sharedCodeQueue));
+        return ct;
+    }
+
+    public long getSharedCodeHits() {
+        return sharedCodeHits.get();
+    }
+
+    public long getSharedCodeMisses() {
+        return sharedCodeMisses.get();
+    }
+
     @TruffleBoundary
     public String[] cachedCodeModulePath(String name) {
         return cachedCodeModulePath.get(name);
@@ -36,10 +36,12 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -58,6 +60,7 @@ import com.oracle.graal.python.builtins.modules.CodecsTruffleModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.CollectionsModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ContextvarsModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.CryptModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.DecimalModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ErrnoModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.FaulthandlerModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.FcntlModuleBuiltins;
@@ -65,6 +68,7 @@ import com.oracle.graal.python.builtins.modules.FunctoolsModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.GcModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.GraalHPyDebugModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.GraalHPyUniversalModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.GraalProfilerModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.GraalPythonModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ImpModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ItertoolsModuleBuiltins;
@@ -98,6 +102,7 @@ import com.oracle.graal.python.builtins.modules.SysConfigModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ThreadModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.TraceMallocModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.TraceModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.UnicodeDataModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.WarningsModuleBuiltins;
@@ -217,6 +222,7 @@ import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.posix.DirEntryBuiltins;
 import com.oracle.graal.python.builtins.objects.posix.ScandirIteratorBuiltins;
 import com.oracle.graal.python.builtins.objects.property.PropertyBuiltins;
+import com.oracle.graal.python.builtins.objects.queue.QueueBuiltins;
 import com.oracle.graal.python.builtins.objects.queue.SimpleQueueBuiltins;
 import com.oracle.graal.python.builtins.objects.random.RandomBuiltins;
 import com.oracle.graal.python.builtins.objects.range.RangeBuiltins;
@@ -233,9 +239,12 @@ import com.oracle.graal.python.builtins.objects.ssl.SSLErrorBuiltins;
 import com.oracle.graal.python.builtins.objects.ssl.SSLSocketBuiltins;
 import com.oracle.graal.python.builtins.objects.str.StringBuiltins;
 import com.oracle.graal.python.builtins.objects.superobject.SuperBuiltins;
+import com.oracle.graal.python.builtins.objects.thread.ConditionBuiltins;
+import com.oracle.graal.python.builtins.objects.thread.EventBuiltins;
 import com.oracle.graal.python.builtins.objects.thread.LockBuiltins;
 import com.oracle.graal.python.builtins.objects.thread.RLockBuiltins;
 import com.oracle.graal.python.builtins.objects.thread.SemLockBuiltins;
+import com.oracle.graal.python.builtins.objects.thread.SemaphoreBuiltins;
 import com.oracle.graal.python.builtins.objects.thread.ThreadBuiltins;
 import com.oracle.graal.python.builtins.objects.thread.ThreadLocalBuiltins;
 import com.oracle.graal.python.builtins.objects.traceback.TracebackBuiltins;
@@ -251,6 +260,7 @@ import com.oracle.graal.python.lib.PyObjectLookupAttr;
 import com.oracle.graal.python.nodes.BuiltinNames;
 import com.oracle.graal.python.nodes.call.GenericInvokeNode;
 import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.runtime.CoreSnapshot;
 import com.oracle.graal.python.runtime.PythonCodeSerializer;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonOptions;
@@ -321,7 +331,8 @@ public final class Python3Core implements ParserErrorCallback {
                         "_contextvars",
                         "pip_hook",
                         "_struct",
-                        "_posixshmem"));
+                        "_posixshmem",
+                        "_decimal"));
         // add service loader defined python file extensions
         if (!ImageInfo.inImageRuntimeCode()) {
             ServiceLoader<PythonBuiltins> providers = ServiceLoader.load(PythonBuiltins.class, Python3Core.class.getClassLoader());
@@ -337,6 +348,22 @@ public final class Python3Core implements ParserErrorCallback {
         return coreFiles.toArray(new String[coreFiles.size()]);
     }
 
+    /**
+     * Core files that only patch their own non-eager builtin module. If
+     * {@link PythonOptions#LazyCoreFiles} is enabled, they are executed when the module is imported
+     * for the first time instead of during context initialization (see
+     * {@link #loadLazyCoreFile(String)}).
+     */
+    private static final Set<String> LAZY_CORE_FILES = new HashSet<>(Arrays.asList("_locale", "_sysconfig", "faulthandler", "mmap", "_contextvars", "_posixshmem", "_decimal"));
+
+    /** The lazy core files that were not executed yet. */
+    private final Set<String> pendingCoreFiles = new HashSet<>();
+
+    /** The core snapshot used during initialization (see {@link PythonOptions#CoreSnapshot}). */
+    private CoreSnapshot coreSnapshot;
+    /** Collects serialized core files if a new core snapshot should be written. */
+    private Map<String, byte[]> newSnapshotCode;
+
     private final PythonBuiltins[] builtins;
 
     private static final boolean hasCoverageTool;
@@ -424,6 +451,7 @@ public final class Python3Core implements ParserErrorCallback {
                         new ModuleBuiltins(),
                         new MathModuleBuiltins(),
                         new CmathModuleBuiltins(),
+                        new DecimalModuleBuiltins(),
                         new MarshalModuleBuiltins(),
                         new RandomModuleBuiltins(),
                         new RandomBuiltins(),
@@ -474,6 +502,7 @@ public final class Python3Core implements ParserErrorCallback {
                         new SignalModuleBuiltins(),
                         new TracebackBuiltins(),
                         new GcModuleBuiltins(),
+                        new TraceMallocModuleBuiltins(),
                         new AtexitModuleBuiltins(),
                         new FaulthandlerModuleBuiltins(),
                         new UnicodeDataModuleBuiltins(),
@@ -506,12 +535,16 @@ public final class Python3Core implements ParserErrorCallback {
                         new FcntlModuleBuiltins(),
                         new MMapBuiltins(),
                         new SimpleQueueBuiltins(),
+                        new QueueBuiltins(),
                         new QueueModuleBuiltins(),
                         new ThreadModuleBuiltins(),
                         new ThreadBuiltins(),
                         new ThreadLocalBuiltins(),
                         new LockBuiltins(),
                         new RLockBuiltins(),
+                        new ConditionBuiltins(),
+                        new SemaphoreBuiltins(),
+                        new EventBuiltins(),
                         new PwdModuleBuiltins(),
                         new ResourceModuleBuiltins(),
                         new ContextvarsModuleBuiltins(),
@@ -566,6 +599,7 @@ public final class Python3Core implements ParserErrorCallback {
         if (hasProfilerTool) {
             builtins.add(new LsprofModuleBuiltins());
             builtins.add(LsprofModuleBuiltins.newProfilerBuiltins());
+            builtins.add(new GraalProfilerModuleBuiltins());
         }
         if (nativeAccessAllowed) {
             builtins.add(new BZ2CompressorBuiltins());
@@ -643,7 +677,9 @@ public final class Python3Core implements ParserErrorCallback {
      */
     public void initialize(PythonContext context) {
         singletonContext = context;
+        long start = System.nanoTime();
         initializeJavaCore();
+        context.logStartupPhase("java core", start);
         initializePython3Core(context.getCoreHomeOrFail());
         assert SpecialMethodSlot.checkSlotOverrides(this);
         initialized = true;
@@ -658,17 +694,73 @@ public final class Python3Core implements ParserErrorCallback {
     }
 
     private void initializePython3Core(String coreHome) {
+        boolean lazyCoreFiles = getContext().getOption(PythonOptions.LazyCoreFiles);
+        String snapshotPath = ImageInfo.inImageCode() ? "" : getContext().getOption(PythonOptions.CoreSnapshot);
+        TruffleFile snapshotFile = null;
+        TruffleFile coreHomeFile = null;
+        if (!snapshotPath.isEmpty()) {
+            long start = System.nanoTime();
+            Env env = getContext().getEnv();
+            snapshotFile = env.getPublicTruffleFile(snapshotPath);
+            coreHomeFile = env.getInternalTruffleFile(coreHome);
+            coreSnapshot = CoreSnapshot.read(snapshotFile, coreHomeFile);
+            if (coreSnapshot == null) {
+                newSnapshotCode = new HashMap<>();
+            }
+            getContext().logStartupPhase("read core snapshot", start);
+        }
         loadFile(BuiltinNames.BUILTINS, coreHome);
         for (String s : coreFiles) {
             // TODO: once sys_post_init.py is gone, this should not be necessary
             if (s.equals("sys_post_init")) {
+                long start = System.nanoTime();
                 importEncoding();
+                getContext().logStartupPhase("import encodings", start);
+            }
+            if (lazyCoreFiles && isLazyCoreFile(s)) {
+                pendingCoreFiles.add(s);
+                continue;
             }
             loadFile(s, coreHome);
         }
+        if (newSnapshotCode != null && !newSnapshotCode.isEmpty()) {
+            long start = System.nanoTime();
+            // the lazy core files are parsed (but not run) now so that the snapshot also covers
+            // them; the code is cached and reused when they are loaded
+            for (String s : pendingCoreFiles) {
+                getCoreFileCode(s, coreHome);
+            }
+            CoreSnapshot.write(snapshotFile, coreHomeFile, newSnapshotCode);
+            getContext().logStartupPhase("write core snapshot", start);
+        }
+        newSnapshotCode = null;
         initialized = true;
     }
 
+    private boolean isLazyCoreFile(String name) {
+        if (!LAZY_CORE_FILES.contains(name)) {
+            return false;
+        }
+        PythonModule mod = lookupBuiltinModule(name);
+        if (mod == null || mod.getBuiltins() == null) {
+            return false;
+        }
+        // eager modules are in sys.modules from the start and are never imported through
+        // _imp.create_builtin, so their files must run now
+        return !mod.getBuiltins().getClass().getAnnotation(CoreFunctions.class).isEager();
+    }
+
+    /**
+     * Executes the core file of the given builtin module if it was deferred during
+     * initialization. Called when the module is imported for the first time.
+     */
+    @TruffleBoundary
+    public void loadLazyCoreFile(String name) {
+        if (pendingCoreFiles.remove(name)) {
+            loadFile(name, getContext().getCoreHomeOrFail());
+        }
+    }
+
     private void importEncoding() {
         PythonModule sys = lookupBuiltinModule("sys");
         Object sysPath = sys.getAttribute("path");
@@ -915,7 +1007,8 @@ public final class Python3Core implements ParserErrorCallback {
         TruffleFile file = env.getInternalTruffleFile(prefix + suffix);
         String errorMessage;
         try {
-            return PythonLanguage.newSource(ctxt, file, basename);
+            // lazily loaded core files are read after the core is initialized
+            return PythonLanguage.newSource(ctxt, Source.newBuilder(PythonLanguage.ID, file).name(basename), true);
         } catch (IOException e) {
             errorMessage = "Startup failed, could not read core library from " + file + ". Maybe you need to set python.CoreHome and python.StdLibHome.";
         } catch (SecurityException e) {
@@ -926,18 +1019,46 @@ public final class Python3Core implements ParserErrorCallback {
         throw e;
     }
 
-    private void loadFile(String s, String prefix) {
+    private RootNode deserializeFromSnapshot(String name) {
+        if (coreSnapshot != null) {
+            byte[] data = coreSnapshot.takeCode(name);
+            if (data != null) {
+                try {
+                    return getSerializer().deserializeCoreFile(this, data);
+                } catch (RuntimeException e) {
+                    // a corrupt entry must not break initialization, the file is parsed instead
+                    LOGGER.log(Level.FINE, e, () -> "could not deserialize " + name + " from core snapshot");
+                }
+            }
+        }
+        return null;
+    }
+
+    private RootCallTarget getCoreFileCode(String s, String prefix) {
         Supplier<CallTarget> getCode = () -> {
-            Source source = getInternalSource(s, prefix);
-            return PythonUtils.getOrCreateCallTarget((RootNode) getParser().parse(ParserMode.File, 0, this, source, null, null));
+            RootNode rootNode = deserializeFromSnapshot(s);
+            if (rootNode == null) {
+                Source source = getInternalSource(s, prefix);
+                rootNode = (RootNode) getParser().parse(ParserMode.File, 0, this, source, null, null);
+                if (newSnapshotCode != null) {
+                    newSnapshotCode.put(s, getSerializer().serialize(this, rootNode));
+                }
+            }
+            return PythonUtils.getOrCreateCallTarget(rootNode);
         };
-        RootCallTarget callTarget = (RootCallTarget) getLanguage().cacheCode(s, getCode);
+        return (RootCallTarget) getLanguage().cacheCode(s, getCode);
+    }
+
+    private void loadFile(String s, String prefix) {
+        long start = System.nanoTime();
+        RootCallTarget callTarget = getCoreFileCode(s, prefix);
         PythonModule mod = lookupBuiltinModule(s);
         if (mod == null) {
             // use an anonymous module for the side-effects
             mod = factory().createPythonModule("__anonymous__");
         }
         GenericInvokeNode.getUncached().execute(callTarget, PArguments.withGlobals(mod));
+        getContext().logStartupPhase(s + ".py", start);
     }
 
     public PythonObjectFactory factory() {
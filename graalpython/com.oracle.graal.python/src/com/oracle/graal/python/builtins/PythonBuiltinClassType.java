@@ -42,6 +42,7 @@ import static com.oracle.graal.python.nodes.BuiltinNames.DICT_VALUES;
 import static com.oracle.graal.python.nodes.BuiltinNames.FOREIGN;
 import static com.oracle.graal.python.nodes.BuiltinNames.MEMBER_DESCRIPTOR;
 import static com.oracle.graal.python.nodes.BuiltinNames.PROPERTY;
+import static com.oracle.graal.python.nodes.BuiltinNames.QUEUE;
 import static com.oracle.graal.python.nodes.BuiltinNames.SIMPLE_QUEUE;
 import static com.oracle.graal.python.nodes.BuiltinNames.TUPLE_GETTER;
 import static com.oracle.graal.python.nodes.BuiltinNames.WRAPPER_DESCRIPTOR;
@@ -118,6 +119,7 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PNotImplemented("NotImplementedType", Flags.PRIVATE_DERIVED_WODICT),
     PProperty(PROPERTY, BUILTINS, Flags.PUBLIC_BASE_WODICT),
     PSimpleQueue(SIMPLE_QUEUE, "_queue", Flags.PUBLIC_BASE_WODICT),
+    PQueue(QUEUE, "_queue", Flags.PUBLIC_BASE_WODICT),
     PRandom("Random", "_random"),
     PRange("range", BUILTINS, Flags.PUBLIC_DERIVED_WODICT),
     PReferenceType("ReferenceType", "_weakref"),
@@ -142,6 +144,10 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PThreadLocal("_local", "_thread"),
     PLock("LockType", "_thread"),
     PRLock("RLock", "_thread"),
+    PCondition("Condition", "_thread"),
+    PSemaphore("Semaphore", "_thread"),
+    PBoundedSemaphore("BoundedSemaphore", "_thread"),
+    PEvent("Event", "_thread"),
     PSemLock("SemLock", "_multiprocessing"),
     PSocket("socket", "_socket"),
     PStaticmethod("staticmethod", BUILTINS, Flags.PUBLIC_BASE_WDICT),
@@ -320,6 +326,7 @@ public enum PythonBuiltinClassType implements TruffleObject {
     IOUnsupportedOperation("UnsupportedOperation", "io", Flags.EXCEPTION),
 
     Empty("Empty", "_queue", Flags.EXCEPTION),
+    Full("Full", "_queue", Flags.EXCEPTION),
 
     // warnings
     Warning("Warning", BUILTINS, Flags.EXCEPTION),
@@ -679,6 +686,9 @@ public enum PythonBuiltinClassType implements TruffleObject {
         PyCFuncPtr.base = PyCData;
 
         Empty.base = Exception;
+        Full.base = Exception;
+
+        PBoundedSemaphore.base = PSemaphore;
 
         HashSet<String> set = new HashSet<>();
         for (PythonBuiltinClassType type : VALUES) {
@@ -147,6 +147,7 @@ import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.getsetdescriptor.GetSetDescriptor;
 import com.oracle.graal.python.builtins.objects.getsetdescriptor.HiddenKeyDescriptor;
+import com.oracle.graal.python.builtins.objects.ints.IntStringConversion;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.iterator.PZip;
 import com.oracle.graal.python.builtins.objects.list.PList;
@@ -1188,11 +1189,9 @@ public final class BuiltinConstructors extends PythonBuiltins {
             }
             s = s.replace("_", "");
 
-            BigInteger bi;
+            BigInteger bi = IntStringConversion.parse(s, base);
             if (sign == '-') {
-                bi = new BigInteger("-" + s, base);
-            } else {
-                bi = new BigInteger(s, base);
+                bi = bi.negate();
             }
 
             if (raiseIfNotZero && !bi.equals(BigInteger.ZERO)) {
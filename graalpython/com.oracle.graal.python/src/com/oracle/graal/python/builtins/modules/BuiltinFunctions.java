@@ -72,6 +72,7 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.__ROUND__;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.nio.charset.CodingErrorAction;
@@ -113,6 +114,9 @@ import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.iterator.IteratorBuiltins;
+import com.oracle.graal.python.builtins.objects.iterator.IteratorBuiltinsFactory;
+import com.oracle.graal.python.builtins.objects.iterator.PBuiltinIterator;
 import com.oracle.graal.python.builtins.objects.list.ListBuiltins;
 import com.oracle.graal.python.builtins.objects.list.ListBuiltins.ListSortNode;
 import com.oracle.graal.python.builtins.objects.list.PList;
@@ -215,6 +219,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.debug.Debugger;
 import com.oracle.truffle.api.dsl.Cached;
@@ -786,6 +791,8 @@ public final class BuiltinFunctions extends PythonBuiltins {
 
             String code = expression;
             PythonContext context = getContext();
+            // -1 selects the optimization level of the interpreter (sys.flags.optimize)
+            int optimize = kwOptimize == -1 ? PInt.intValue(context.getOption(PythonOptions.PythonOptimizeFlag)) : kwOptimize;
             ParserMode pm;
             if (mode.equals("exec")) {
                 pm = ParserMode.File;
@@ -808,18 +815,18 @@ public final class BuiltinFunctions extends PythonBuiltins {
             String finalCode = code;
             Supplier<CallTarget> createCode = () -> {
                 if (pm == ParserMode.File) {
-                    Source source = PythonLanguage.newSource(context, finalCode, filename, mayBeFromFile, PythonLanguage.getCompileMimeType(kwOptimize));
+                    Source source = PythonLanguage.newSource(context, finalCode, filename, mayBeFromFile, PythonLanguage.getCompileMimeType(optimize));
                     return getContext().getEnv().parsePublic(source);
                 } else if (pm == ParserMode.Eval) {
-                    Source source = PythonLanguage.newSource(context, finalCode, filename, mayBeFromFile, PythonLanguage.getEvalMimeType(kwOptimize));
+                    Source source = PythonLanguage.newSource(context, finalCode, filename, mayBeFromFile, PythonLanguage.getEvalMimeType(optimize));
                     return getContext().getEnv().parsePublic(source);
                 } else {
                     Source source = PythonLanguage.newSource(context, finalCode, filename, mayBeFromFile, PythonLanguage.MIME_TYPE);
-                    return PythonUtils.getOrCreateCallTarget((RootNode) getCore().getParser().parse(pm, kwOptimize, getCore(), source, null, null));
+                    return PythonUtils.getOrCreateCallTarget((RootNode) getCore().getParser().parse(pm, optimize, getCore(), source, null, null));
                 }
             };
             if (getCore().isInitialized()) {
-                ct = createCode.get();
+                ct = compileMaybeShared(context, pm, filename, finalCode, optimize, createCode);
             } else {
                 ct = getCore().getLanguage().cacheCode(filename, createCode);
             }
@@ -830,6 +837,39 @@ public final class BuiltinFunctions extends PythonBuiltins {
             return factory().createCode(rootCallTarget);
         }
 
+        /**
+         * Modules compiled from files are shared through the engine-wide code cache if it is
+         * enabled and the engine has multiple contexts. With a single context, nodes may cache
+         * context-specific objects, so the code must not outlive it. Shared code is parsed
+         * directly rather than through {@link Env#parsePublic}, so that it is not also kept in
+         * Truffle's parse cache.
+         */
+        private CallTarget compileMaybeShared(PythonContext context, ParserMode pm, String filename, String code, int optimize, Supplier<CallTarget> createCode) {
+            PythonLanguage language = getLanguage();
+            if (pm == ParserMode.File && mayBeFromFile && !language.singleContextAssumption.isValid() && language.getEngineOption(PythonOptions.SharedCodeCache)) {
+                String canonicalPath = getCanonicalPath(context, filename);
+                if (canonicalPath != null) {
+                    return language.cacheSharedCode(canonicalPath, filename, optimize, code, () -> {
+                        Source source = PythonLanguage.newSource(context, code, filename, true, PythonLanguage.getCompileMimeType(optimize));
+                        return PythonUtils.getOrCreateCallTarget((RootNode) getCore().getParser().parse(ParserMode.File, optimize, getCore(), source, null, null));
+                    });
+                }
+            }
+            return createCode.get();
+        }
+
+        private static String getCanonicalPath(PythonContext context, String filename) {
+            try {
+                TruffleFile file = context.getEnv().getPublicTruffleFile(filename);
+                if (file.isRegularFile()) {
+                    return file.getCanonicalFile().getPath();
+                }
+            } catch (IOException | SecurityException | UnsupportedOperationException | IllegalArgumentException e) {
+                // not a file we can share code for
+            }
+            return null;
+        }
+
         @Specialization(limit = "3")
         PCode generic(VirtualFrame frame, Object wSource, Object wFilename, Object wMode, Object kwFlags, Object kwDontInherit, Object kwOptimize,
                         @CachedLibrary(limit = "3") PythonBufferAcquireLibrary acquireLib,
@@ -997,19 +1037,21 @@ public final class BuiltinFunctions extends PythonBuiltins {
             return getAttributeNode.executeObject(frame, primary);
         }
 
+        /*
+         * With a default value, we use the equivalent of _PyObject_LookupAttr. For objects with
+         * the builtin __getattribute__ and no __getattr__, it reports missing attributes without
+         * raising and catching an AttributeError, which is a common pattern (also used by
+         * hasattr).
+         */
         @SuppressWarnings("unused")
         @Specialization(limit = "getAttributeAccessInlineCacheMaxDepth()", guards = {"stringEquals(cachedName, name, stringProfile)", "!isNoValue(defaultValue)"})
         Object getAttr(VirtualFrame frame, Object primary, String name, Object defaultValue,
                         @Cached ConditionProfile stringProfile,
                         @Cached("name") String cachedName,
-                        @Cached("create(name)") GetFixedAttributeNode getAttributeNode,
-                        @Cached IsBuiltinClassProfile errorProfile) {
-            try {
-                return getAttributeNode.executeObject(frame, primary);
-            } catch (PException e) {
-                e.expectAttributeError(errorProfile);
-                return defaultValue;
-            }
+                        @Cached PyObjectLookupAttr lookupAttr,
+                        @Cached ConditionProfile noValueProfile) {
+            Object result = lookupAttr.execute(frame, primary, cachedName);
+            return noValueProfile.profile(result == PNone.NO_VALUE) ? defaultValue : result;
         }
 
         @Specialization(replaces = {"getAttr", "getAttrDefault"}, guards = "isNoValue(defaultValue)")
@@ -1020,14 +1062,10 @@ public final class BuiltinFunctions extends PythonBuiltins {
 
         @Specialization(replaces = {"getAttr", "getAttrDefault"}, guards = "!isNoValue(defaultValue)")
         Object getAttrFromObject(VirtualFrame frame, Object primary, String name, Object defaultValue,
-                        @Cached GetAnyAttributeNode getAttributeNode,
-                        @Cached IsBuiltinClassProfile errorProfile) {
-            try {
-                return getAttributeNode.executeObject(frame, primary, name);
-            } catch (PException e) {
-                e.expectAttributeError(errorProfile);
-                return defaultValue;
-            }
+                        @Cached PyObjectLookupAttr lookupAttr,
+                        @Cached ConditionProfile noValueProfile) {
+            Object result = lookupAttr.execute(frame, primary, name);
+            return noValueProfile.profile(result == PNone.NO_VALUE) ? defaultValue : result;
         }
 
         @Specialization
@@ -1454,6 +1492,18 @@ public final class BuiltinFunctions extends PythonBuiltins {
             return callNode.executeObject(frame, iterator);
         }
 
+        /*
+         * The generic iterator type signals exhaustion with a marker instead of StopIteration, so
+         * we do not need to raise and catch an exception just to return the default.
+         */
+        @Specialization(guards = {"!isNoValue(defaultObject)", "isGenericBuiltinIterator(getClassNode, iterator)"}, limit = "1")
+        static Object nextBuiltinIterator(VirtualFrame frame, PBuiltinIterator iterator, Object defaultObject,
+                        @SuppressWarnings("unused") @Cached GetClassNode getClassNode,
+                        @Cached("createNoStopIteration()") IteratorBuiltins.NextNode nextNode) {
+            Object result = nextNode.execute(frame, iterator);
+            return result == IteratorBuiltins.NextNode.STOP_MARKER ? defaultObject : result;
+        }
+
         @Specialization(guards = "!isNoValue(defaultObject)")
         public Object next(VirtualFrame frame, Object iterator, Object defaultObject,
                         @Cached("createNextCall()") LookupAndCallUnaryNode callNode,
@@ -1466,6 +1516,14 @@ public final class BuiltinFunctions extends PythonBuiltins {
             }
         }
 
+        static boolean isGenericBuiltinIterator(GetClassNode getClassNode, PBuiltinIterator iterator) {
+            return getClassNode.execute(iterator) == PythonBuiltinClassType.PIterator;
+        }
+
+        static IteratorBuiltins.NextNode createNoStopIteration() {
+            return IteratorBuiltinsFactory.NextNodeFactory.create(false);
+        }
+
         protected LookupAndCallUnaryNode createNextCall() {
             return LookupAndCallUnaryNode.create(__NEXT__, () -> new LookupAndCallUnaryNode.NoAttributeHandler() {
                 @Override
@@ -0,0 +1,604 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+/**
+ * Arithmetic kernels of the {@code _decimal} module. The module itself (see
+ * {@code lib-graalpython/_decimal.py}) runs the code of {@code _pydecimal} and replaces the hot
+ * methods of {@code Decimal} with versions that call into the functions defined here.
+ * <p>
+ * The kernels work on the representation used by {@code _pydecimal}, i.e., a sign (0 or 1), a
+ * coefficient given as string of ASCII digits without leading zeros, and an integer exponent. They
+ * only handle the common case in which the result is exact and fits the context without raising any
+ * signal other than {@code Inexact} and {@code Rounded}. In all other cases (special values, zeros,
+ * huge exponents, rounding in {@code _fix}, subnormal results, clamping, ...) they return
+ * {@code None} and the caller falls back to the original implementation, so that context rounding
+ * and traps behave exactly as in {@code _pydecimal}. Coefficients of up to 18 digits are processed
+ * as {@code long} values without allocating a {@link BigInteger}.
+ */
+@CoreFunctions(defineModule = "_decimal")
+public class DecimalModuleBuiltins extends PythonBuiltins {
+
+    /** The maximum number of decimal digits such that any such number fits into a long. */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /**
+     * Exponents and context limits with a larger magnitude are not handled by the kernels. This
+     * is {@code MAX_EMAX} of {@code _pydecimal} and guarantees that sums of two exponents cannot
+     * overflow.
+     */
+    private static final long MAX_EXP = 999999999999999999L;
+
+    /**
+     * Coefficients are not padded with more zeros than this. {@code _pydecimal} would have to do
+     * the same amount of work, so there is nothing to gain for such (rare) operands.
+     */
+    private static final int MAX_SHIFT = 4096;
+
+    /** Marks an argument that is not a (small enough) integer. */
+    private static final long NOT_APPLICABLE = Long.MIN_VALUE;
+
+    private static final int FLAG_INEXACT = 1;
+    private static final int FLAG_ROUNDED = 2;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalModuleBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "_fast_parse", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FastParseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object parse(Object value,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            Object[] result = parseFinite(castToString(castToStringNode, value));
+            return result != null ? factory().createTuple(result) : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_fast_add", minNumOfPositionalArgs = 10)
+    @GenerateNodeFactory
+    abstract static class FastAddNode extends PythonBuiltinNode {
+        @Specialization
+        Object add(Object signA, Object coeffA, Object expA, Object signB, Object coeffB, Object expB, Object prec, Object emin, Object emax, Object clamp,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            Object[] result = addFinite(toLong(signA), castToString(castToStringNode, coeffA), toLong(expA), toLong(signB), castToString(castToStringNode, coeffB), toLong(expB),
+                            toLong(prec), toLong(emin), toLong(emax), toLong(clamp));
+            return result != null ? factory().createTuple(result) : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_fast_mul", minNumOfPositionalArgs = 10)
+    @GenerateNodeFactory
+    abstract static class FastMulNode extends PythonBuiltinNode {
+        @Specialization
+        Object mul(Object signA, Object coeffA, Object expA, Object signB, Object coeffB, Object expB, Object prec, Object emin, Object emax, Object clamp,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            Object[] result = mulFinite(toLong(signA), castToString(castToStringNode, coeffA), toLong(expA), toLong(signB), castToString(castToStringNode, coeffB), toLong(expB),
+                            toLong(prec), toLong(emin), toLong(emax), toLong(clamp));
+            return result != null ? factory().createTuple(result) : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_fast_quantize", minNumOfPositionalArgs = 9)
+    @GenerateNodeFactory
+    abstract static class FastQuantizeNode extends PythonBuiltinNode {
+        @Specialization
+        Object quantize(Object sign, Object coeff, Object exp, Object targetExp, Object rounding, Object prec, Object emin, Object emax, Object clamp,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            Object[] result = quantizeFinite(toLong(sign), castToString(castToStringNode, coeff), toLong(exp), toLong(targetExp), castToString(castToStringNode, rounding),
+                            toLong(prec), toLong(emin), toLong(emax), toLong(clamp));
+            return result != null ? factory().createTuple(result) : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_fast_str", minNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    abstract static class FastStrNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        static Object str(Object sign, Object coeff, Object exp, Object eng,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            if (!(eng instanceof Boolean)) {
+                return PNone.NONE;
+            }
+            String result = toString(toLong(sign), castToString(castToStringNode, coeff), toLong(exp), (boolean) eng);
+            return result != null ? result : PNone.NONE;
+        }
+    }
+
+    private static String castToString(CastToJavaStringNode castToStringNode, Object value) {
+        try {
+            return castToStringNode.execute(value);
+        } catch (CannotCastException e) {
+            return null;
+        }
+    }
+
+    @TruffleBoundary
+    private static long toLong(Object value) {
+        long result;
+        if (value instanceof Integer) {
+            result = (int) value;
+        } else if (value instanceof Long) {
+            result = (long) value;
+        } else if (value instanceof Boolean) {
+            result = (boolean) value ? 1 : 0;
+        } else if (value instanceof PInt) {
+            try {
+                result = ((PInt) value).longValueExact();
+            } catch (OverflowException e) {
+                return NOT_APPLICABLE;
+            }
+        } else {
+            return NOT_APPLICABLE;
+        }
+        return Math.abs(result) <= MAX_EXP ? result : NOT_APPLICABLE;
+    }
+
+    private static boolean isSign(long sign) {
+        return sign == 0 || sign == 1;
+    }
+
+    /**
+     * Checks that {@code coeff} is a non-zero coefficient as produced by {@code _pydecimal}.
+     */
+    private static boolean isNonZeroCoefficient(String coeff) {
+        if (coeff == null || coeff.isEmpty() || coeff.charAt(0) == '0') {
+            return false;
+        }
+        for (int i = 0; i < coeff.length(); i++) {
+            char c = coeff.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isContext(long prec, long emin, long emax, long clamp) {
+        return prec > 0 && emin != NOT_APPLICABLE && emax != NOT_APPLICABLE && (clamp == 0 || clamp == 1);
+    }
+
+    /**
+     * Checks that a finite non-zero result with the given number of digits and exponent is left
+     * unchanged by {@code Decimal._fix} without raising any signal.
+     */
+    private static boolean isFixed(int digits, long exp, long prec, long emin, long emax, long clamp) {
+        long adjusted = digits + exp - 1;
+        return digits <= prec && adjusted >= emin && adjusted <= emax && !(clamp == 1 && exp > emax - prec + 1);
+    }
+
+    private static long parseLong(String digits) {
+        long result = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            result = result * 10 + (digits.charAt(i) - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Parses a finite number in the ASCII subset of the syntax accepted by the {@code Decimal}
+     * constructor. Anything else (whitespace, underscores, non-ASCII digits, infinities, NaNs,
+     * syntax errors, huge exponents) is left to {@code _pydecimal}.
+     */
+    @TruffleBoundary
+    static Object[] parseFinite(String value) {
+        if (value == null) {
+            return null;
+        }
+        int len = value.length();
+        int i = 0;
+        int sign = 0;
+        if (i < len && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+            sign = value.charAt(i) == '-' ? 1 : 0;
+            i++;
+        }
+        int intStart = i;
+        while (i < len && isDigit(value.charAt(i))) {
+            i++;
+        }
+        int intEnd = i;
+        int fracStart = i;
+        int fracEnd = i;
+        if (i < len && value.charAt(i) == '.') {
+            i++;
+            fracStart = i;
+            while (i < len && isDigit(value.charAt(i))) {
+                i++;
+            }
+            fracEnd = i;
+        }
+        if (intStart == intEnd && fracStart == fracEnd) {
+            return null;
+        }
+        long exp = 0;
+        if (i < len && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            boolean negative = false;
+            if (i < len && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+                negative = value.charAt(i) == '-';
+                i++;
+            }
+            int expStart = i;
+            while (i < len && value.charAt(i) == '0') {
+                i++;
+            }
+            int significantStart = i;
+            while (i < len && isDigit(value.charAt(i))) {
+                i++;
+            }
+            if (i == expStart || i - significantStart > MAX_LONG_DIGITS - 1) {
+                return null;
+            }
+            exp = parseLong(value.substring(significantStart, i));
+            if (negative) {
+                exp = -exp;
+            }
+        }
+        if (i != len) {
+            return null;
+        }
+        StringBuilder coeff = new StringBuilder(intEnd - intStart + fracEnd - fracStart);
+        for (int j = intStart; j < intEnd; j++) {
+            appendDigit(coeff, value.charAt(j));
+        }
+        for (int j = fracStart; j < fracEnd; j++) {
+            appendDigit(coeff, value.charAt(j));
+        }
+        String coeffStr = coeff.length() == 0 ? "0" : coeff.toString();
+        return new Object[]{sign, coeffStr, exp - (fracEnd - fracStart)};
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static void appendDigit(StringBuilder sb, char c) {
+        // strip leading zeros
+        if (sb.length() > 0 || c != '0') {
+            sb.append(c);
+        }
+    }
+
+    /**
+     * Computes {@code a + b} for non-zero finite operands like {@code Decimal.__add__}. If the
+     * aligned operands fit into the precision, {@code _normalize} does not modify them, so the
+     * exact sum is the result as long as {@code _fix} does not need to touch it.
+     */
+    @TruffleBoundary
+    static Object[] addFinite(long signA, String coeffA, long expA, long signB, String coeffB, long expB, long prec, long emin, long emax, long clamp) {
+        if (!isSign(signA) || !isSign(signB) || !isNonZeroCoefficient(coeffA) || !isNonZeroCoefficient(coeffB) || expA == NOT_APPLICABLE || expB == NOT_APPLICABLE ||
+                        !isContext(prec, emin, emax, clamp)) {
+            return null;
+        }
+        long exp = Math.min(expA, expB);
+        long alignedA = coeffA.length() + (expA - exp);
+        long alignedB = coeffB.length() + (expB - exp);
+        if (Math.max(alignedA, alignedB) > prec || expA - exp > MAX_SHIFT || expB - exp > MAX_SHIFT) {
+            return null;
+        }
+        int shiftA = (int) (expA - exp);
+        int shiftB = (int) (expB - exp);
+        long sign;
+        String coeff;
+        if (alignedA <= MAX_LONG_DIGITS && alignedB <= MAX_LONG_DIGITS) {
+            long a = parseLong(coeffA) * POWERS_OF_TEN[shiftA];
+            long b = parseLong(coeffB) * POWERS_OF_TEN[shiftB];
+            long result;
+            if (signA == signB) {
+                sign = signA;
+                result = a + b;
+            } else if (a == b) {
+                // the sign of a zero result depends on the rounding
+                return null;
+            } else if (a > b) {
+                sign = signA;
+                result = a - b;
+            } else {
+                sign = signB;
+                result = b - a;
+            }
+            coeff = Long.toString(result);
+        } else {
+            BigInteger a = new BigInteger(coeffA).multiply(BigInteger.TEN.pow(shiftA));
+            BigInteger b = new BigInteger(coeffB).multiply(BigInteger.TEN.pow(shiftB));
+            BigInteger result;
+            if (signA == signB) {
+                sign = signA;
+                result = a.add(b);
+            } else {
+                int cmp = a.compareTo(b);
+                if (cmp == 0) {
+                    return null;
+                } else if (cmp > 0) {
+                    sign = signA;
+                    result = a.subtract(b);
+                } else {
+                    sign = signB;
+                    result = b.subtract(a);
+                }
+            }
+            coeff = result.toString();
+        }
+        if (!isFixed(coeff.length(), exp, prec, emin, emax, clamp)) {
+            return null;
+        }
+        return new Object[]{(int) sign, coeff, exp};
+    }
+
+    /**
+     * Computes {@code a * b} for non-zero finite operands like {@code Decimal.__mul__}.
+     */
+    @TruffleBoundary
+    static Object[] mulFinite(long signA, String coeffA, long expA, long signB, String coeffB, long expB, long prec, long emin, long emax, long clamp) {
+        if (!isSign(signA) || !isSign(signB) || !isNonZeroCoefficient(coeffA) || !isNonZeroCoefficient(coeffB) || expA == NOT_APPLICABLE || expB == NOT_APPLICABLE ||
+                        !isContext(prec, emin, emax, clamp)) {
+            return null;
+        }
+        if (coeffA.length() + coeffB.length() - 1 > prec) {
+            // the product has at least that many digits
+            return null;
+        }
+        long exp = expA + expB;
+        String coeff;
+        if (coeffA.length() + coeffB.length() <= MAX_LONG_DIGITS) {
+            coeff = Long.toString(parseLong(coeffA) * parseLong(coeffB));
+        } else {
+            coeff = new BigInteger(coeffA).multiply(new BigInteger(coeffB)).toString();
+        }
+        if (!isFixed(coeff.length(), exp, prec, emin, emax, clamp)) {
+            return null;
+        }
+        return new Object[]{(int) (signA ^ signB), coeff, exp};
+    }
+
+    /**
+     * Implements {@code Decimal.quantize} for a non-zero finite operand. Returns the result and the
+     * {@code Inexact} and {@code Rounded} flags that the caller needs to signal.
+     */
+    @TruffleBoundary
+    static Object[] quantizeFinite(long sign, String coeff, long exp, long targetExp, String rounding, long prec, long emin, long emax, long clamp) {
+        if (!isSign(sign) || !isNonZeroCoefficient(coeff) || exp == NOT_APPLICABLE || targetExp == NOT_APPLICABLE || rounding == null || !isContext(prec, emin, emax, clamp)) {
+            return null;
+        }
+        long etiny = emin - prec + 1;
+        if (targetExp < etiny || targetExp > emax || (clamp == 1 && targetExp > emax - prec + 1) || exp - targetExp > MAX_SHIFT) {
+            return null;
+        }
+        long adjusted = coeff.length() + exp - 1;
+        if (adjusted > emax || adjusted - targetExp + 1 > prec) {
+            return null;
+        }
+        String result;
+        int changed = 0;
+        if (exp >= targetExp) {
+            // the result has adjusted - targetExp + 1 <= prec digits
+            StringBuilder sb = new StringBuilder(coeff);
+            for (long i = exp; i > targetExp; i--) {
+                sb.append('0');
+            }
+            result = sb.toString();
+        } else {
+            String digits = coeff;
+            long keep = coeff.length() + exp - targetExp;
+            if (keep < 0) {
+                // same as rounding 10**(targetExp - 1)
+                digits = "1";
+                keep = 0;
+            }
+            changed = round(rounding, sign, digits, (int) keep);
+            if (changed == Integer.MIN_VALUE) {
+                return null;
+            }
+            result = keep == 0 ? "0" : digits.substring(0, (int) keep);
+            if (changed == 1) {
+                result = increment(result);
+            }
+        }
+        boolean isZero = result.equals("0");
+        long resultAdjusted = result.length() + targetExp - 1;
+        if (resultAdjusted > emax || result.length() > prec || (!isZero && resultAdjusted < emin)) {
+            return null;
+        }
+        int flags = 0;
+        if (targetExp > exp) {
+            if (changed != 0) {
+                flags |= FLAG_INEXACT;
+            }
+            flags |= FLAG_ROUNDED;
+        }
+        return new Object[]{(int) sign, result, targetExp, flags};
+    }
+
+    /**
+     * Decides how to round {@code digits} to its first {@code keep} digits like the
+     * {@code _round_*} methods of {@code Decimal}: 1 means round away from zero, 0 means that the
+     * dropped digits are all zeros, and -1 means truncate. Returns {@link Integer#MIN_VALUE} for an
+     * unknown rounding mode.
+     */
+    private static int round(String rounding, long sign, String digits, int keep) {
+        switch (rounding) {
+            case "ROUND_DOWN":
+                return roundDown(digits, keep);
+            case "ROUND_UP":
+                return -roundDown(digits, keep);
+            case "ROUND_HALF_UP":
+                return roundHalfUp(digits, keep);
+            case "ROUND_HALF_DOWN":
+                return isExactHalf(digits, keep) ? -1 : roundHalfUp(digits, keep);
+            case "ROUND_HALF_EVEN":
+                if (isExactHalf(digits, keep) && (keep == 0 || (digits.charAt(keep - 1) - '0') % 2 == 0)) {
+                    return -1;
+                }
+                return roundHalfUp(digits, keep);
+            case "ROUND_CEILING":
+                return sign == 1 ? roundDown(digits, keep) : -roundDown(digits, keep);
+            case "ROUND_FLOOR":
+                return sign == 0 ? roundDown(digits, keep) : -roundDown(digits, keep);
+            case "ROUND_05UP":
+                if (keep > 0 && digits.charAt(keep - 1) != '0' && digits.charAt(keep - 1) != '5') {
+                    return roundDown(digits, keep);
+                }
+                return -roundDown(digits, keep);
+            default:
+                return Integer.MIN_VALUE;
+        }
+    }
+
+    private static boolean isAllZeros(String digits, int start) {
+        for (int i = start; i < digits.length(); i++) {
+            if (digits.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isExactHalf(String digits, int keep) {
+        return digits.charAt(keep) == '5' && isAllZeros(digits, keep + 1);
+    }
+
+    private static int roundDown(String digits, int keep) {
+        return isAllZeros(digits, keep) ? 0 : -1;
+    }
+
+    private static int roundHalfUp(String digits, int keep) {
+        if (digits.charAt(keep) >= '5') {
+            return 1;
+        }
+        return isAllZeros(digits, keep) ? 0 : -1;
+    }
+
+    private static String increment(String digits) {
+        char[] chars = digits.toCharArray();
+        for (int i = chars.length - 1; i >= 0; i--) {
+            if (chars[i] != '9') {
+                chars[i]++;
+                return new String(chars);
+            }
+            chars[i] = '0';
+        }
+        return "1" + new String(chars);
+    }
+
+    /**
+     * Implements {@code Decimal.__str__} for finite values that are printed without exponent,
+     * which is the case for all amounts of money. Returns {@code null} if an exponent is needed,
+     * since its capitalization depends on the context.
+     */
+    @TruffleBoundary
+    static String toString(long sign, String coeff, long exp, boolean eng) {
+        if (!isSign(sign) || exp == NOT_APPLICABLE || coeff == null || coeff.isEmpty() || (coeff.charAt(0) == '0' && coeff.length() > 1)) {
+            return null;
+        }
+        for (int i = 0; i < coeff.length(); i++) {
+            if (!isDigit(coeff.charAt(i))) {
+                return null;
+            }
+        }
+        long leftDigits = exp + coeff.length();
+        long dotPlace;
+        if (exp <= 0 && leftDigits > -6) {
+            dotPlace = leftDigits;
+        } else if (!eng) {
+            dotPlace = 1;
+        } else if (coeff.equals("0")) {
+            dotPlace = Math.floorMod(leftDigits + 1, 3) - 1;
+        } else {
+            dotPlace = Math.floorMod(leftDigits - 1, 3) + 1;
+        }
+        if (leftDigits != dotPlace) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(coeff.length() + 8);
+        if (sign == 1) {
+            sb.append('-');
+        }
+        if (dotPlace <= 0) {
+            sb.append("0.");
+            for (long i = dotPlace; i < 0; i++) {
+                sb.append('0');
+            }
+            sb.append(coeff);
+        } else if (dotPlace >= coeff.length()) {
+            sb.append(coeff);
+            for (long i = coeff.length(); i < dotPlace; i++) {
+                sb.append('0');
+            }
+        } else {
+            sb.append(coeff, 0, (int) dotPlace);
+            sb.append('.');
+            sb.append(coeff, (int) dotPlace, coeff.length());
+        }
+        return sb.toString();
+    }
+}
@@ -72,6 +72,8 @@ public final class GcModuleBuiltins extends PythonBuiltins {
             gil.release(true);
             try {
                 PythonUtils.forceFullGC();
+                // poll the reference queues while we sleep instead of after the back-off delay
+                getContext().getAsyncHandler().pollActionsNow();
                 try {
                     Thread.sleep(15);
                 } catch (InterruptedException e) {
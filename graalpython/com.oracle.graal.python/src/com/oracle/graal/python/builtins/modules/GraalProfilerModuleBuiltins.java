@@ -0,0 +1,625 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.attributes.WriteAttributeToObjectNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.InstrumentInfo;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.object.HiddenKey;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.tools.profiler.CPUSampler;
+import com.oracle.truffle.tools.profiler.CPUSampler.Payload;
+import com.oracle.truffle.tools.profiler.CPUSamplerData;
+import com.oracle.truffle.tools.profiler.ProfilerNode;
+import com.oracle.truffle.tools.profiler.impl.CPUSamplerInstrument;
+
+/**
+ * A sampling profiler meant to be left running in production. Unlike {@code _lsprof}, which
+ * presents the sampler data in the shape of cProfile entries, this module aggregates samples by
+ * Python-level stacks (internal sources and non-root nodes are filtered out) and exports them as
+ * folded stacks (as consumed by flamegraph tools) or as a gzipped pprof protobuf.
+ *
+ * Samples are kept in a ring of at most {@code windows} closed windows. Calling {@code rotate()}
+ * closes the current window and drops the oldest one, so the memory used stays bounded no matter
+ * how long the profiler runs. Note that the underlying {@link CPUSampler} is shared by the engine,
+ * so samples of all contexts on the engine are included, and that it cannot be used by this module
+ * and {@code _lsprof} at the same time.
+ */
+@CoreFunctions(defineModule = "_graalprofiler")
+public class GraalProfilerModuleBuiltins extends PythonBuiltins {
+    private static final HiddenKey STATE = new HiddenKey("samplingProfile");
+
+    static final String FORMAT_FOLDED = "folded";
+    static final String FORMAT_PPROF = "pprof";
+
+    /**
+     * Samplers that are collecting for a running {@link SamplingProfile}. Used by {@code _lsprof}
+     * to refuse using the sampler at the same time.
+     */
+    private static final Set<CPUSampler> ACTIVE_SAMPLERS = Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
+
+    static boolean isSamplerInUse(CPUSampler sampler) {
+        return ACTIVE_SAMPLERS.contains(sampler);
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return GraalProfilerModuleBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "start", minNumOfPositionalArgs = 1, parameterNames = {"$mod", "period", "stack_limit", "windows"}, declaresExplicitSelf = true, doc = "" +
+                    "start(period=10, stack_limit=0, windows=64)\n" +
+                    "\n" +
+                    "Start sampling all Python threads every 'period' milliseconds. A positive\n" +
+                    "'stack_limit' bounds the number of frames recorded per sample, 0 uses the\n" +
+                    "sampler's default. At most 'windows' closed windows of samples are kept,\n" +
+                    "see rotate().")
+    @ArgumentClinic(name = "period", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "10", useDefaultForNone = true)
+    @ArgumentClinic(name = "stack_limit", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0", useDefaultForNone = true)
+    @ArgumentClinic(name = "windows", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "64", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class StartNode extends PythonClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return GraalProfilerModuleBuiltinsClinicProviders.StartNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        @TruffleBoundary
+        PNone start(PythonModule mod, int period, int stackLimit, int windows,
+                        @Cached ReadAttributeFromObjectNode readNode,
+                        @Cached WriteAttributeToObjectNode writeNode) {
+            if (period <= 0) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.MUST_BE_POSITIVE, "period");
+            }
+            if (windows <= 0) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.MUST_BE_POSITIVE, "windows");
+            }
+            Object current = readNode.execute(mod, STATE);
+            if (current instanceof SamplingProfile && ((SamplingProfile) current).isRunning()) {
+                ((SamplingProfile) current).stop();
+            }
+            Env env = getContext().getEnv();
+            InstrumentInfo instrumentInfo = env.getInstruments().get(CPUSamplerInstrument.ID);
+            CPUSampler sampler = instrumentInfo != null ? env.lookup(instrumentInfo, CPUSampler.class) : null;
+            if (sampler == null) {
+                throw raise(PythonBuiltinClassType.NotImplementedError, ErrorMessages.PROFILER_NOT_AVAILABLE);
+            }
+            if (sampler.isCollecting()) {
+                throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.SAMPLER_IN_USE);
+            }
+            SamplingProfile profile = new SamplingProfile(sampler, period, windows);
+            profile.start(stackLimit);
+            writeNode.execute(mod, STATE, profile);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "stop", minNumOfPositionalArgs = 1, declaresExplicitSelf = true, doc = "Stop sampling. The collected samples stay available until clear() or the next start().")
+    @GenerateNodeFactory
+    abstract static class StopNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PNone stop(PythonModule mod,
+                        @Cached ReadAttributeFromObjectNode readNode) {
+            SamplingProfile profile = getProfile(this, readNode, mod);
+            if (!profile.isRunning()) {
+                throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.PROFILER_NOT_RUNNING);
+            }
+            profile.stop();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "is_running", minNumOfPositionalArgs = 1, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class IsRunningNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isRunning(PythonModule mod,
+                        @Cached ReadAttributeFromObjectNode readNode) {
+            Object profile = readNode.execute(mod, STATE);
+            return profile instanceof SamplingProfile && ((SamplingProfile) profile).isRunning();
+        }
+    }
+
+    @Builtin(name = "rotate", minNumOfPositionalArgs = 1, declaresExplicitSelf = true, doc = "" +
+                    "rotate() -> int\n" +
+                    "\n" +
+                    "Close the current sampling window and return the number of samples in it.\n" +
+                    "If the profiler was started with 'windows', the oldest windows are dropped.")
+    @GenerateNodeFactory
+    abstract static class RotateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        long rotate(PythonModule mod,
+                        @Cached ReadAttributeFromObjectNode readNode) {
+            return getProfile(this, readNode, mod).rotate();
+        }
+    }
+
+    @Builtin(name = "clear", minNumOfPositionalArgs = 1, declaresExplicitSelf = true, doc = "Discard all collected samples.")
+    @GenerateNodeFactory
+    abstract static class ClearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PNone clear(PythonModule mod,
+                        @Cached ReadAttributeFromObjectNode readNode) {
+            getProfile(this, readNode, mod).clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "folded_stacks", minNumOfPositionalArgs = 1, declaresExplicitSelf = true, doc = "" +
+                    "folded_stacks() -> dict\n" +
+                    "\n" +
+                    "Return a mapping from semicolon-separated Python stacks (outermost frame\n" +
+                    "first) to the number of samples taken in that stack.")
+    @GenerateNodeFactory
+    abstract static class FoldedStacksNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PDict folded(PythonModule mod,
+                        @Cached ReadAttributeFromObjectNode readNode) {
+            LinkedHashMap<String, Long> result = new LinkedHashMap<>();
+            for (Map.Entry<List<Frame>, Long> entry : getProfile(this, readNode, mod).aggregate().entrySet()) {
+                result.put(SamplingProfile.foldStack(entry.getKey()), entry.getValue());
+            }
+            return factory().createDictFromMap(result);
+        }
+    }
+
+    @Builtin(name = "dump", minNumOfPositionalArgs = 2, parameterNames = {"$mod", "path", "format"}, declaresExplicitSelf = true, doc = "" +
+                    "dump(path, format='folded') -> int\n" +
+                    "\n" +
+                    "Write all retained samples to 'path' either as folded stacks ('folded')\n" +
+                    "or as a gzipped pprof profile ('pprof'). Returns the number of samples.")
+    @ArgumentClinic(name = "path", conversion = ArgumentClinic.ClinicConversion.String)
+    @ArgumentClinic(name = "format", conversion = ArgumentClinic.ClinicConversion.String, defaultValue = "GraalProfilerModuleBuiltins.FORMAT_FOLDED", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class DumpNode extends PythonClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return GraalProfilerModuleBuiltinsClinicProviders.DumpNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long dump(VirtualFrame frame, PythonModule mod, String path, String format,
+                        @Cached ReadAttributeFromObjectNode readNode) {
+            SamplingProfile profile = getProfile(this, readNode, mod);
+            if (!FORMAT_FOLDED.equals(format) && !FORMAT_PPROF.equals(format)) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.UNKNOWN_PROFILE_FORMAT_S, format);
+            }
+            try {
+                return write(profile, path, format);
+            } catch (IOException e) {
+                throw raiseOSError(frame, e);
+            }
+        }
+
+        @TruffleBoundary
+        private long write(SamplingProfile profile, String path, String format) throws IOException {
+            Map<List<Frame>, Long> stacks = profile.aggregate();
+            try (OutputStream out = getContext().getEnv().getPublicTruffleFile(path).newOutputStream(StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                            StandardOpenOption.WRITE)) {
+                if (FORMAT_FOLDED.equals(format)) {
+                    return SamplingProfile.writeFolded(stacks, out);
+                } else {
+                    return profile.writePprof(stacks, out);
+                }
+            }
+        }
+    }
+
+    private static SamplingProfile getProfile(PythonBuiltinBaseNode node, ReadAttributeFromObjectNode readNode, PythonModule mod) {
+        Object profile = readNode.execute(mod, STATE);
+        if (profile instanceof SamplingProfile) {
+            return (SamplingProfile) profile;
+        }
+        throw node.raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.PROFILER_NOT_RUNNING);
+    }
+
+    /**
+     * A single Python-level frame of a sampled stack.
+     */
+    static final class Frame {
+        final String name;
+        final String fileName;
+        final int line;
+
+        Frame(String name, String fileName, int line) {
+            this.name = name;
+            this.fileName = fileName;
+            this.line = line;
+        }
+
+        static Frame create(ProfilerNode<Payload> node) {
+            String name = node.getRootName();
+            if (name == null) {
+                name = "<unknown root>";
+            }
+            SourceSection section = node.getSourceSection();
+            if (section == null) {
+                return new Frame(name, "", 0);
+            }
+            String fileName = section.getSource().getPath();
+            if (fileName == null) {
+                fileName = section.getSource().getName();
+            }
+            return new Frame(name, fileName, section.getStartLine());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Frame)) {
+                return false;
+            }
+            Frame other = (Frame) obj;
+            return line == other.line && name.equals(other.name) && fileName.equals(other.fileName);
+        }
+
+        @Override
+        public int hashCode() {
+            return (name.hashCode() * 31 + fileName.hashCode()) * 31 + line;
+        }
+
+        @Override
+        public String toString() {
+            String s = fileName.isEmpty() ? name : name + " (" + fileName + ":" + line + ")";
+            // ';' separates frames and ' ' separates the count in the folded format
+            return s.replace(';', ':').replace(' ', '_');
+        }
+    }
+
+    static final class SamplingProfile {
+        private final CPUSampler sampler;
+        private final long period;
+        private final int maxWindows;
+        private final ArrayDeque<Map<List<Frame>, Long>> windows = new ArrayDeque<>();
+        /**
+         * Samples of the current window once the profiler was stopped. While running, they are
+         * kept by the sampler.
+         */
+        private Map<List<Frame>, Long> stoppedWindow = new HashMap<>();
+        private long startNanos;
+        private long stopNanos;
+        private boolean running;
+        private int previousStackLimit;
+
+        SamplingProfile(CPUSampler sampler, long period, int maxWindows) {
+            this.sampler = sampler;
+            this.period = period;
+            this.maxWindows = maxWindows;
+        }
+
+        void start(int stackLimit) {
+            sampler.setCollecting(false);
+            sampler.clearData();
+            sampler.setFilter(SourceSectionFilter.newBuilder().tagIs(StandardTags.RootTag.class).includeInternal(false).build());
+            sampler.setPeriod(period);
+            previousStackLimit = sampler.getStackLimit();
+            if (stackLimit > 0) {
+                sampler.setStackLimit(stackLimit);
+            }
+            startNanos = System.nanoTime();
+            running = true;
+            ACTIVE_SAMPLERS.add(sampler);
+            sampler.setCollecting(true);
+        }
+
+        void stop() {
+            sampler.setCollecting(false);
+            // the sampler is shared, so take our samples and do not leave our stack limit behind
+            collect(stoppedWindow);
+            sampler.clearData();
+            sampler.setStackLimit(previousStackLimit);
+            ACTIVE_SAMPLERS.remove(sampler);
+            stopNanos = System.nanoTime();
+            running = false;
+        }
+
+        boolean isRunning() {
+            return running;
+        }
+
+        void clear() {
+            windows.clear();
+            stoppedWindow.clear();
+            if (running) {
+                sampler.clearData();
+            }
+        }
+
+        long rotate() {
+            Map<List<Frame>, Long> window = new HashMap<>();
+            long samples = collect(window);
+            if (running) {
+                sampler.clearData();
+            } else {
+                stoppedWindow = new HashMap<>();
+            }
+            while (windows.size() >= maxWindows) {
+                windows.removeFirst();
+            }
+            windows.addLast(window);
+            return samples;
+        }
+
+        Map<List<Frame>, Long> aggregate() {
+            Map<List<Frame>, Long> result = new HashMap<>();
+            for (Map<List<Frame>, Long> window : windows) {
+                for (Map.Entry<List<Frame>, Long> entry : window.entrySet()) {
+                    result.merge(entry.getKey(), entry.getValue(), Long::sum);
+                }
+            }
+            collect(result);
+            return result;
+        }
+
+        private long collect(Map<List<Frame>, Long> into) {
+            long samples = 0;
+            if (!running) {
+                for (Map.Entry<List<Frame>, Long> entry : stoppedWindow.entrySet()) {
+                    into.merge(entry.getKey(), entry.getValue(), Long::sum);
+                    samples += entry.getValue();
+                }
+                return samples;
+            }
+            for (CPUSamplerData data : sampler.getData().values()) {
+                for (Collection<ProfilerNode<Payload>> roots : data.getThreadData().values()) {
+                    for (ProfilerNode<Payload> root : roots) {
+                        samples += collect(into, new ArrayList<>(), root);
+                    }
+                }
+            }
+            return samples;
+        }
+
+        private static long collect(Map<List<Frame>, Long> into, ArrayList<Frame> stack, ProfilerNode<Payload> node) {
+            stack.add(Frame.create(node));
+            long samples = node.getPayload().getSelfHitCount();
+            if (samples > 0) {
+                into.merge(new ArrayList<>(stack), samples, Long::sum);
+            }
+            for (ProfilerNode<Payload> child : node.getChildren()) {
+                samples += collect(into, stack, child);
+            }
+            stack.remove(stack.size() - 1);
+            return samples;
+        }
+
+        static String foldStack(List<Frame> stack) {
+            StringBuilder sb = new StringBuilder();
+            for (Frame frame : stack) {
+                if (sb.length() > 0) {
+                    sb.append(';');
+                }
+                sb.append(frame);
+            }
+            return sb.toString();
+        }
+
+        static long writeFolded(Map<List<Frame>, Long> stacks, OutputStream out) throws IOException {
+            long total = 0;
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<List<Frame>, Long> entry : stacks.entrySet()) {
+                sb.append(foldStack(entry.getKey())).append(' ').append(entry.getValue()).append('\n');
+                total += entry.getValue();
+            }
+            out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return total;
+        }
+
+        /**
+         * Writes the profile in the pprof format (see {@code profile.proto} of the pprof
+         * project). Every distinct frame gets one function and one location entry.
+         */
+        long writePprof(Map<List<Frame>, Long> stacks, OutputStream out) throws IOException {
+            PprofEncoder enc = new PprofEncoder();
+            long periodNanos = period * 1000000L;
+            enc.valueType(1, "samples", "count");
+            enc.valueType(1, "cpu", "nanoseconds");
+            long total = 0;
+            Map<Frame, Integer> locations = new LinkedHashMap<>();
+            for (Map.Entry<List<Frame>, Long> entry : stacks.entrySet()) {
+                List<Frame> stack = entry.getKey();
+                long[] ids = new long[stack.size()];
+                // pprof expects the leaf frame first
+                for (int i = 0; i < ids.length; i++) {
+                    Frame frame = stack.get(stack.size() - 1 - i);
+                    Integer id = locations.get(frame);
+                    if (id == null) {
+                        id = locations.size() + 1;
+                        locations.put(frame, id);
+                    }
+                    ids[i] = id;
+                }
+                long count = entry.getValue();
+                enc.sample(ids, count, count * periodNanos);
+                total += count;
+            }
+            for (Map.Entry<Frame, Integer> entry : locations.entrySet()) {
+                enc.locationAndFunction(entry.getValue(), entry.getKey());
+            }
+            long end = running ? System.nanoTime() : stopNanos;
+            enc.int64(10, end - startNanos);
+            enc.valueType(11, "cpu", "nanoseconds");
+            enc.int64(12, periodNanos);
+            enc.stringTable();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                enc.out.writeTo(gzip);
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Minimal protobuf writer for the subset of {@code perftools.profiles.Profile} we produce.
+     */
+    private static final class PprofEncoder {
+        private static final int WIRETYPE_VARINT = 0;
+        private static final int WIRETYPE_LENGTH_DELIMITED = 2;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+        PprofEncoder() {
+            // index 0 must be the empty string
+            string("");
+        }
+
+        private int string(String s) {
+            Integer idx = strings.get(s);
+            if (idx == null) {
+                idx = strings.size();
+                strings.put(s, idx);
+            }
+            return idx;
+        }
+
+        void valueType(int field, String type, String unit) {
+            ByteArrayOutputStream msg = new ByteArrayOutputStream();
+            writeInt64(msg, 1, string(type));
+            writeInt64(msg, 2, string(unit));
+            writeBytes(out, field, msg.toByteArray());
+        }
+
+        void sample(long[] locationIds, long count, long nanos) {
+            ByteArrayOutputStream packed = new ByteArrayOutputStream();
+            for (long id : locationIds) {
+                writeVarint(packed, id);
+            }
+            ByteArrayOutputStream msg = new ByteArrayOutputStream();
+            writeBytes(msg, 1, packed.toByteArray());
+            packed.reset();
+            writeVarint(packed, count);
+            writeVarint(packed, nanos);
+            writeBytes(msg, 2, packed.toByteArray());
+            writeBytes(out, 2, msg.toByteArray());
+        }
+
+        void locationAndFunction(long id, Frame frame) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            writeInt64(line, 1, id);
+            writeInt64(line, 2, frame.line);
+            ByteArrayOutputStream location = new ByteArrayOutputStream();
+            writeInt64(location, 1, id);
+            writeBytes(location, 4, line.toByteArray());
+            writeBytes(out, 4, location.toByteArray());
+
+            ByteArrayOutputStream function = new ByteArrayOutputStream();
+            writeInt64(function, 1, id);
+            writeInt64(function, 2, string(frame.name));
+            writeInt64(function, 3, string(frame.name));
+            writeInt64(function, 4, string(frame.fileName));
+            writeInt64(function, 5, frame.line);
+            writeBytes(out, 5, function.toByteArray());
+        }
+
+        void int64(int field, long value) {
+            writeInt64(out, field, value);
+        }
+
+        void stringTable() {
+            for (String s : strings.keySet()) {
+                writeBytes(out, 6, s.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        private static void writeInt64(ByteArrayOutputStream os, int field, long value) {
+            writeVarint(os, (field << 3) | WIRETYPE_VARINT);
+            writeVarint(os, value);
+        }
+
+        private static void writeBytes(ByteArrayOutputStream os, int field, byte[] bytes) {
+            writeVarint(os, (field << 3) | WIRETYPE_LENGTH_DELIMITED);
+            writeVarint(os, bytes.length);
+            os.write(bytes, 0, bytes.length);
+        }
+
+        private static void writeVarint(ByteArrayOutputStream os, long value) {
+            long v = value;
+            while ((v & ~0x7FL) != 0) {
+                os.write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            os.write((int) v);
+        }
+    }
+}
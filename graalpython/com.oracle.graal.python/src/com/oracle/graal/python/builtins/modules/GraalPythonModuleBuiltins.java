@@ -64,6 +64,8 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.cext.capi.CApiContext;
+import com.oracle.graal.python.builtins.objects.cext.capi.CApiContext.TraceMallocDomain;
 import com.oracle.graal.python.builtins.objects.code.CodeNodes;
 import com.oracle.graal.python.builtins.objects.code.PCode;
 import com.oracle.graal.python.builtins.objects.common.DynamicObjectStorage;
@@ -84,11 +86,13 @@ import com.oracle.graal.python.builtins.objects.method.PMethod;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
 import com.oracle.graal.python.lib.PyObjectTypeCheck;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.argument.ReadIndexedArgumentNode;
 import com.oracle.graal.python.nodes.argument.ReadVarArgsNode;
+import com.oracle.graal.python.nodes.attributes.TypeAttributeCache;
 import com.oracle.graal.python.nodes.builtins.FunctionNodes.GetCallTargetNode;
 import com.oracle.graal.python.nodes.builtins.FunctionNodes.GetSignatureNode;
 import com.oracle.graal.python.nodes.call.CallNode;
@@ -696,6 +700,71 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "type_attribute_cache_stats", minNumOfPositionalArgs = 0, doc = "Returns a tuple (hits, misses) of the global type attribute cache.")
+    @GenerateNodeFactory
+    public abstract static class TypeAttributeCacheStatsNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple stats() {
+            return factory().createTuple(getStats(getContext().getTypeAttributeCache()));
+        }
+
+        @TruffleBoundary
+        private static Object[] getStats(TypeAttributeCache cache) {
+            return new Object[]{cache.getHits(), cache.getMisses()};
+        }
+    }
+
+    @Builtin(name = "shared_code_cache_stats", minNumOfPositionalArgs = 0, doc = "Returns a tuple (hits, misses) of the engine-wide code cache for user modules.")
+    @GenerateNodeFactory
+    public abstract static class SharedCodeCacheStatsNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple stats() {
+            PythonLanguage language = getLanguage();
+            return factory().createTuple(new Object[]{language.getSharedCodeHits(), language.getSharedCodeMisses()});
+        }
+    }
+
+    @Builtin(name = "native_memory_stats", minNumOfPositionalArgs = 0, doc = "Returns a tuple (allocated, peak, watermark, limit, domains) describing the native memory of C extensions in bytes.\n" +
+                    "'domains' is a tuple of (domain, size, blocks) for each tracemalloc domain.")
+    @GenerateNodeFactory
+    public abstract static class NativeMemoryStatsNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple stats() {
+            PythonContext context = getContext();
+            long limit = context.getOption(PythonOptions.MaxNativeMemory);
+            long watermark = CApiContext.getNativeMemoryWatermark(context, limit);
+            CApiContext cApiContext = context.getCApiContext();
+            if (cApiContext == null) {
+                return factory().createTuple(new Object[]{0L, 0L, watermark, limit, factory().createEmptyTuple()});
+            }
+            return factory().createTuple(new Object[]{cApiContext.getAllocatedMemory(), cApiContext.getAllocatedMemoryPeak(), watermark, limit, getDomains(cApiContext, factory())});
+        }
+
+        @TruffleBoundary
+        private static PTuple getDomains(CApiContext cApiContext, PythonObjectFactory factory) {
+            TraceMallocDomain[] domains = cApiContext.getTraceMallocDomains();
+            Object[] result = new Object[domains.length];
+            for (int i = 0; i < domains.length; i++) {
+                result[i] = factory.createTuple(new Object[]{domains[i].getId(), domains[i].getTrackedSize(), domains[i].getBlockCount()});
+            }
+            return factory.createTuple(result);
+        }
+    }
+
+    @Builtin(name = "native_reference_cleaner_stats", minNumOfPositionalArgs = 0, doc = "Returns a tuple (pending, batches, cleaned, total_pause_ns, max_pause_ns, max_batch) of the native reference cleaner.")
+    @GenerateNodeFactory
+    public abstract static class NativeReferenceCleanerStatsNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple stats() {
+            CApiContext cApiContext = getContext().getCApiContext();
+            if (cApiContext == null) {
+                return factory().createTuple(new Object[]{0L, 0L, 0L, 0L, 0L, 0L});
+            }
+            long[] stats = cApiContext.getReferenceCleanerStats();
+            return factory().createTuple(new Object[]{stats[0], stats[1], stats[2], stats[3], stats[4], stats[5]});
+        }
+    }
+
     // Internal builtin used for testing: changes strategy of newly allocated set or map
     @Builtin(name = "set_storage_strategy", minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
@@ -349,7 +349,13 @@ public class ImpModuleBuiltins extends PythonBuiltins {
 
         @TruffleBoundary
         private PythonModule getBuiltinModule(String name) {
-            return getCore().lookupBuiltinModule(name);
+            Python3Core core = getCore();
+            PythonModule module = core.lookupBuiltinModule(name);
+            if (module != null) {
+                // run the deferred core file before the module is handed out for the first time
+                core.loadLazyCoreFile(name);
+            }
+            return module;
         }
     }
 
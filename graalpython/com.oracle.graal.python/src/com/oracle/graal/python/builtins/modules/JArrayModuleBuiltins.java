@@ -44,16 +44,20 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
 
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.List;
 
 import com.oracle.graal.python.annotations.ArgumentClinic;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.builtins.ListNodes;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
@@ -63,7 +67,9 @@ import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProv
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.BufferFormat;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
@@ -208,7 +214,73 @@ public class JArrayModuleBuiltins extends PythonBuiltins {
             return array;
         }
 
-        @Specialization(guards = "!isPSequence(sequence)")
+        @Specialization
+        Object fromArray(VirtualFrame frame, PArray sequence, Object type,
+                        @Cached CastToJavaStringNode cast,
+                        @Cached ListNodes.ConstructListNode constructListNode,
+                        @CachedLibrary(limit = "5") InteropLibrary lib,
+                        @Cached SequenceNodes.GetSequenceStorageNode getSequenceStorageNode,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemScalarNode,
+                        @Cached ZerosNode zerosNode) {
+            if (PGuards.isString(type)) {
+                Object array = copyArray(sequence, cast.execute(type));
+                if (array != null) {
+                    return getContext().getEnv().asGuestValue(array);
+                }
+            }
+            return fromIterable(frame, sequence, type, constructListNode, lib, getSequenceStorageNode, lenNode, getItemScalarNode, zerosNode);
+        }
+
+        /**
+         * Copies the contents of an {@code array.array} into a Java array of the matching primitive
+         * type in bulk. Returns {@code null} if the type code does not match the array's format.
+         */
+        @TruffleBoundary
+        private static Object copyArray(PArray array, String typeCode) {
+            BufferFormat format = array.getFormat();
+            if (!typeCode.equals(format.baseTypeCode)) {
+                return null;
+            }
+            int length = array.getLength();
+            ByteBuffer bb = ByteBuffer.wrap(array.getBuffer(), 0, length * format.bytesize).order(ByteOrder.nativeOrder());
+            switch (format) {
+                case INT_8: {
+                    byte[] result = new byte[length];
+                    bb.get(result);
+                    return result;
+                }
+                case INT_16: {
+                    short[] result = new short[length];
+                    bb.asShortBuffer().get(result);
+                    return result;
+                }
+                case INT_32: {
+                    int[] result = new int[length];
+                    bb.asIntBuffer().get(result);
+                    return result;
+                }
+                case INT_64: {
+                    long[] result = new long[length];
+                    bb.asLongBuffer().get(result);
+                    return result;
+                }
+                case FLOAT: {
+                    float[] result = new float[length];
+                    bb.asFloatBuffer().get(result);
+                    return result;
+                }
+                case DOUBLE: {
+                    double[] result = new double[length];
+                    bb.asDoubleBuffer().get(result);
+                    return result;
+                }
+                default:
+                    return null;
+            }
+        }
+
+        @Specialization(guards = {"!isPSequence(sequence)", "!isPArray(sequence)"})
         Object fromIterable(VirtualFrame frame, Object sequence, Object type,
                         @Cached ListNodes.ConstructListNode constructListNode,
                         @CachedLibrary(limit = "5") InteropLibrary lib,
@@ -219,5 +291,9 @@ public class JArrayModuleBuiltins extends PythonBuiltins {
             PList list = constructListNode.execute(frame, sequence);
             return fromSequence(list, type, lib, getSequenceStorageNode, lenNode, getItemScalarNode, zerosNode);
         }
+
+        protected static boolean isPArray(Object object) {
+            return object instanceof PArray;
+        }
     }
 }
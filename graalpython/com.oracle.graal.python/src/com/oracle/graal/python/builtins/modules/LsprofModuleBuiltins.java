@@ -57,6 +57,7 @@ import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.tuple.StructSequence;
+import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
@@ -138,6 +139,10 @@ public class LsprofModuleBuiltins extends PythonBuiltins {
             if (instrumentInfo != null) {
                 CPUSampler sampler = env.lookup(instrumentInfo, CPUSampler.class);
                 if (sampler != null) {
+                    if (sampler.isCollecting()) {
+                        // the sampler cannot be reconfigured while collecting
+                        throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.SAMPLER_IN_USE);
+                    }
                     return factory().trace(new Profiler(cls, factory().getShape(cls), sampler));
                 }
             }
@@ -200,6 +205,9 @@ class ProfilerBuiltins extends PythonBuiltins {
         PNone doit(Profiler self, long subcalls, long builtins) {
             self.subcalls = subcalls > 0;
             self.builtins = builtins > 0;
+            if (GraalProfilerModuleBuiltins.isSamplerInUse(self.sampler)) {
+                throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.SAMPLER_IN_USE);
+            }
             // TODO: deal with any arguments
             self.time = System.currentTimeMillis();
             self.sampler.setCollecting(true);
@@ -228,7 +236,9 @@ class ProfilerBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         PNone doit(Profiler self) {
-            self.sampler.setCollecting(false);
+            if (!GraalProfilerModuleBuiltins.isSamplerInUse(self.sampler)) {
+                self.sampler.setCollecting(false);
+            }
             self.time = (System.currentTimeMillis() - self.time) / 1000D;
             return PNone.NONE;
         }
@@ -240,7 +250,9 @@ class ProfilerBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         PNone doit(Profiler self) {
-            self.sampler.clearData();
+            if (!GraalProfilerModuleBuiltins.isSamplerInUse(self.sampler)) {
+                self.sampler.clearData();
+            }
             return PNone.NONE;
         }
     }
@@ -3024,7 +3024,7 @@ public class PythonCextBuiltins extends PythonBuiltins {
                         @Cached("lookupDomain(domain)") int cachedDomainIdx) {
 
             CApiContext cApiContext = getContext().getCApiContext();
-            cApiContext.getTraceMallocDomain(cachedDomainIdx).track(pointerObject, size);
+            cApiContext.traceMallocTrack(cachedDomainIdx, pointerObject, size);
             cApiContext.increaseMemoryPressure(frame, getThreadStateNode, this, size);
             if (LOGGER.isLoggable(Level.FINE)) {
                 LOGGER.fine(() -> String.format("Tracking memory (size: %d): %s", size, CApiContext.asHex(pointerObject)));
@@ -3055,7 +3055,7 @@ public class PythonCextBuiltins extends PythonBuiltins {
                         @Cached("lookupDomain(domain)") int cachedDomainIdx) {
 
             CApiContext cApiContext = getContext().getCApiContext();
-            long trackedMemorySize = cApiContext.getTraceMallocDomain(cachedDomainIdx).untrack(pointerObject);
+            long trackedMemorySize = cApiContext.traceMallocUntrack(cachedDomainIdx, pointerObject);
             cApiContext.reduceMemoryPressure(trackedMemorySize);
             if (LOGGER.isLoggable(Level.FINE)) {
                 LOGGER.fine(() -> String.format("Untracking memory (size: %d): %s", trackedMemorySize, CApiContext.asHex(pointerObject)));
@@ -42,14 +42,22 @@ package com.oracle.graal.python.builtins.modules;
 
 import java.util.List;
 
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.QueueModuleBuiltinsClinicProviders.QueueNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.queue.PQueue;
 import com.oracle.graal.python.builtins.objects.queue.PSimpleQueue;
 import com.oracle.graal.python.nodes.BuiltinNames;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
@@ -66,6 +74,15 @@ public class QueueModuleBuiltins extends PythonBuiltins {
     public void initialize(Python3Core core) {
         super.initialize(core);
         builtinConstants.put(BuiltinNames.EMPTY, core.lookupType(PythonBuiltinClassType.Empty));
+        builtinConstants.put(BuiltinNames.FULL, core.lookupType(PythonBuiltinClassType.Full));
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        super.postInitialize(core);
+        PythonModule mod = core.lookupBuiltinModule("_queue");
+        // read by queue.py to decide whether plain queue.Queue instances use the Java core
+        mod.setAttribute("_native_queue", core.getContext().getOption(PythonOptions.NativeQueue));
     }
 
     // _queue.SimpleQueue
@@ -80,4 +97,24 @@ public class QueueModuleBuiltins extends PythonBuiltins {
             return factory().createSimpleQueue(cls);
         }
     }
+
+    // _queue.Queue
+    @Builtin(name = BuiltinNames.QUEUE, constructsClass = PythonBuiltinClassType.PQueue, //
+                    minNumOfPositionalArgs = 1, parameterNames = {"$cls", "maxsize"}, //
+                    doc = "Queue(maxsize=0)\n--\n\nCreate a queue object with a given maximum size.\n\n" +
+                                    "If maxsize is <= 0, the queue size is infinite.")
+    @ArgumentClinic(name = "maxsize", conversion = ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class QueueNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return QueueNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PQueue doGeneric(Object cls, int maxsize) {
+            return factory().createQueue(cls, maxsize);
+        }
+    }
 }
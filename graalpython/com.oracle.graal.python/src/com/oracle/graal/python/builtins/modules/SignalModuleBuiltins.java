@@ -43,7 +43,6 @@ package com.oracle.graal.python.builtins.modules;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.Semaphore;
 
 import com.oracle.graal.python.annotations.ArgumentClinic;
 import com.oracle.graal.python.builtins.Builtin;
@@ -67,6 +66,7 @@ import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
 import com.oracle.graal.python.runtime.AsyncHandler;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.util.OverflowException;
@@ -90,8 +90,6 @@ public class SignalModuleBuiltins extends PythonBuiltins {
 
     private static final HiddenKey signalQueueKey = new HiddenKey("signalQueue");
     private final ConcurrentLinkedDeque<SignalTriggerAction> signalQueue = new ConcurrentLinkedDeque<>();
-    private static final HiddenKey signalSemaKey = new HiddenKey("signalQueue");
-    private final Semaphore signalSema = new Semaphore(0);
 
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
@@ -117,20 +115,8 @@ public class SignalModuleBuiltins extends PythonBuiltins {
 
         PythonModule signalModule = core.lookupBuiltinModule("_signal");
         signalModule.setAttribute(signalQueueKey, signalQueue);
-        signalModule.setAttribute(signalSemaKey, signalSema);
 
-        core.getContext().registerAsyncAction(() -> {
-            SignalTriggerAction poll = signalQueue.poll();
-            try {
-                while (poll == null) {
-                    signalSema.acquire();
-                    poll = signalQueue.poll();
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            return poll;
-        });
+        core.getContext().registerAsyncAction(signalQueue::poll);
     }
 
     private static class SignalTriggerAction extends AsyncHandler.AsyncPythonAction {
@@ -268,21 +254,21 @@ public class SignalModuleBuiltins extends PythonBuiltins {
         Object signalHandler(VirtualFrame frame, PythonModule self, Object signal, Object handler,
                         @SuppressWarnings("unused") @Shared("callableCheck") @Cached PyCallableCheckNode callableCheck,
                         @Shared("asSize") @Cached PyNumberAsSizeNode asSizeNode,
-                        @Cached ReadAttributeFromObjectNode readQueueNode,
-                        @Cached ReadAttributeFromObjectNode readSemaNode) {
-            return signal(self, asSizeNode.executeExact(frame, signal), handler, readQueueNode, readSemaNode);
+                        @Cached ReadAttributeFromObjectNode readQueueNode) {
+            return signal(self, asSizeNode.executeExact(frame, signal), handler, readQueueNode);
         }
 
         @TruffleBoundary
-        private Object signal(PythonModule self, int signum, Object handler, ReadAttributeFromObjectNode readQueueNode, ReadAttributeFromObjectNode readSemaNode) {
+        private Object signal(PythonModule self, int signum, Object handler, ReadAttributeFromObjectNode readQueueNode) {
             ConcurrentLinkedDeque<SignalTriggerAction> queue = getQueue(self, readQueueNode);
-            Semaphore semaphore = getSemaphore(self, readSemaNode);
+            AsyncHandler asyncHandler = PythonContext.get(this).getAsyncHandler();
             SignalHandler oldHandler;
             SignalTriggerAction signalTrigger = new SignalTriggerAction(handler, signum);
             try {
                 oldHandler = Signals.setSignalHandler(signum, () -> {
                     queue.add(signalTrigger);
-                    semaphore.release();
+                    // do not wait for the next regular poll, signals should be handled promptly
+                    asyncHandler.pollActionsNow();
                 });
             } catch (IllegalArgumentException e) {
                 throw raise(PythonErrorType.ValueError, e);
@@ -302,15 +288,6 @@ public class SignalModuleBuiltins extends PythonBuiltins {
                 throw new IllegalStateException("the signal trigger queue was modified!");
             }
         }
-
-        private static Semaphore getSemaphore(PythonModule self, ReadAttributeFromObjectNode readNode) {
-            Object semaphore = readNode.execute(self, signalSemaKey);
-            if (semaphore instanceof Semaphore) {
-                return (Semaphore) semaphore;
-            } else {
-                throw new IllegalStateException("the signal trigger semaphore was modified!");
-            }
-        }
     }
 
     @Builtin(name = "set_wakeup_fd", minNumOfPositionalArgs = 1, parameterNames = {"", "warn_on_full_buffer"})
@@ -55,8 +55,11 @@ import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.thread.PCondition;
+import com.oracle.graal.python.builtins.objects.thread.PEvent;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
 import com.oracle.graal.python.builtins.objects.thread.PRLock;
+import com.oracle.graal.python.builtins.objects.thread.PSemaphore;
 import com.oracle.graal.python.builtins.objects.thread.PThread;
 import com.oracle.graal.python.builtins.objects.thread.PThreadLocal;
 import com.oracle.graal.python.nodes.ErrorMessages;
@@ -68,6 +71,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonThreadKillException;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -137,6 +141,45 @@ public class ThreadModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "Condition", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PCondition)
+    @GenerateNodeFactory
+    abstract static class ConstructConditionNode extends PythonBuiltinNode {
+        @Specialization
+        PCondition construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            // the lock is replaced in the subsequent __init__ call - see ConditionBuiltins.InitNode
+            return factory().createCondition(cls, factory().createRLock());
+        }
+    }
+
+    @Builtin(name = "Semaphore", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PSemaphore)
+    @GenerateNodeFactory
+    abstract static class ConstructSemaphoreNode extends PythonBuiltinNode {
+        @Specialization
+        PSemaphore construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            // the value is set in the subsequent __init__ call - see SemaphoreBuiltins.InitNode
+            return factory().createSemaphore(cls, 1, false);
+        }
+    }
+
+    @Builtin(name = "BoundedSemaphore", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PBoundedSemaphore)
+    @GenerateNodeFactory
+    abstract static class ConstructBoundedSemaphoreNode extends PythonBuiltinNode {
+        @Specialization
+        PSemaphore construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            // the value is set in the subsequent __init__ call - see SemaphoreBuiltins.InitNode
+            return factory().createSemaphore(cls, 1, true);
+        }
+    }
+
+    @Builtin(name = "Event", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PEvent)
+    @GenerateNodeFactory
+    abstract static class ConstructEventNode extends PythonBuiltinNode {
+        @Specialization
+        PEvent construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createEvent(cls);
+        }
+    }
+
     @Builtin(name = "get_ident", minNumOfPositionalArgs = 0)
     @GenerateNodeFactory
     public abstract static class GetCurrentThreadIdNode extends PythonBuiltinNode {
@@ -175,6 +218,9 @@ public class ThreadModuleBuiltins extends PythonBuiltins {
             if (invalidSizeProfile.profile(stackSize < 0)) {
                 throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.SIZE_MUST_BE_D_OR_S, 0, "a positive value");
             }
+            if (invalidSizeProfile.profile(stackSize != 0 && stackSize < PythonOptions.THREAD_STACK_MIN)) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.SIZE_NOT_VALID_D_BYTES, stackSize);
+            }
             return getContext().getAndSetPythonsThreadStackSize(stackSize);
         }
 
@@ -202,8 +248,7 @@ public class ThreadModuleBuiltins extends PythonBuiltins {
             TruffleLanguage.Env env = context.getEnv();
             PythonModule threadModule = context.getCore().lookupBuiltinModule("_thread");
 
-            // TODO: python thread stack size != java thread stack size
-            // ignore setting the stack size for the moment
+            // n.b.: the JVM treats the stack size as a hint, 0 means the platform default
             Thread thread = env.createThread(() -> {
                 Object[] arguments = getArgsNode.executeWith(frame, args);
                 PKeyword[] keywords = getKwArgsNode.execute(kwargs);
@@ -243,7 +288,7 @@ public class ThreadModuleBuiltins extends PythonBuiltins {
                     // WriteUnraisableNode.getUncached().execute(e.getUnreifiedException(), "in
                     // thread started by", callable);
                 }
-            }, env.getContext(), context.getThreadGroup());
+            }, env.getContext(), context.getThreadGroup(), context.getPythonThreadStackSize());
 
             PThread pThread = factory().createPythonThread(cls, thread);
             pThread.start();
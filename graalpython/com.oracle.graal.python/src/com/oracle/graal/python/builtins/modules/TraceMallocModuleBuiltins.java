@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.cext.capi.CApiContext;
+import com.oracle.graal.python.builtins.objects.cext.capi.CApiContext.TraceMallocDomain;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+/**
+ * Exposes the native memory tracked by the C API (see {@link CApiContext}) through the interface of
+ * CPython's {@code _tracemalloc} module. Only native memory reported by C extensions (e.g. via
+ * {@code PyTraceMalloc_Track}) is traced; allocations of Python objects are managed by the JVM and
+ * are not visible here. Since we do not record allocation sites, every trace has the single frame
+ * {@code ('<unknown>', 0)}, which is what CPython reports if no frame is available. As in CPython,
+ * only memory allocated since {@code start()} or the last {@code clear_traces()} is reported.
+ */
+@CoreFunctions(defineModule = "_tracemalloc")
+public class TraceMallocModuleBuiltins extends PythonBuiltins {
+
+    /** Same as CPython's {@code MAX_NFRAME}. */
+    private static final int MAX_NFRAME = 65535;
+
+    private volatile boolean tracing;
+    private volatile int tracebackLimit = 1;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TraceMallocModuleBuiltinsFactory.getFactories();
+    }
+
+    static TraceMallocModuleBuiltins getTraceMalloc(PythonContext context) {
+        return (TraceMallocModuleBuiltins) context.getCore().lookupBuiltinModule("_tracemalloc").getBuiltins();
+    }
+
+    private static void restartTracing(PythonContext context) {
+        CApiContext cApiContext = context.getCApiContext();
+        if (cApiContext != null) {
+            cApiContext.restartTracing();
+        }
+    }
+
+    @Builtin(name = "is_tracing", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    abstract static class IsTracingNode extends PythonBuiltinNode {
+        @Specialization
+        boolean isTracing() {
+            return getTraceMalloc(getContext()).tracing;
+        }
+    }
+
+    @Builtin(name = "start", minNumOfPositionalArgs = 0, parameterNames = {"nframe"})
+    @ArgumentClinic(name = "nframe", conversion = ClinicConversion.Int, defaultValue = "1")
+    @GenerateNodeFactory
+    abstract static class StartNode extends PythonUnaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TraceMallocModuleBuiltinsClinicProviders.StartNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone start(int nframe) {
+            if (nframe < 1 || nframe > MAX_NFRAME) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.THE_NUMBER_OF_FRAMES_MUST_BE_IN_RANGE, MAX_NFRAME);
+            }
+            PythonContext context = getContext();
+            TraceMallocModuleBuiltins traceMalloc = getTraceMalloc(context);
+            traceMalloc.tracebackLimit = nframe;
+            if (!traceMalloc.tracing) {
+                restartTracing(context);
+                traceMalloc.tracing = true;
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "stop", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    abstract static class StopNode extends PythonBuiltinNode {
+        @Specialization
+        PNone stop() {
+            getTraceMalloc(getContext()).tracing = false;
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "get_traceback_limit", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    abstract static class GetTracebackLimitNode extends PythonBuiltinNode {
+        @Specialization
+        int getTracebackLimit() {
+            return getTraceMalloc(getContext()).tracebackLimit;
+        }
+    }
+
+    @Builtin(name = "get_traced_memory", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    abstract static class GetTracedMemoryNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple getTracedMemory() {
+            PythonContext context = getContext();
+            CApiContext cApiContext = context.getCApiContext();
+            if (!getTraceMalloc(context).tracing || cApiContext == null) {
+                return factory().createTuple(new Object[]{0L, 0L});
+            }
+            return factory().createTuple(new Object[]{cApiContext.getTracedMemory(), cApiContext.getTracedMemoryPeak()});
+        }
+    }
+
+    @Builtin(name = "reset_peak", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    abstract static class ResetPeakNode extends PythonBuiltinNode {
+        @Specialization
+        PNone resetPeak() {
+            CApiContext cApiContext = getContext().getCApiContext();
+            if (cApiContext != null) {
+                cApiContext.resetTracedMemoryPeak();
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear_traces", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    abstract static class ClearTracesNode extends PythonBuiltinNode {
+        @Specialization
+        PNone clearTraces() {
+            restartTracing(getContext());
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "get_tracemalloc_memory", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    abstract static class GetTracemallocMemoryNode extends PythonBuiltinNode {
+        @Specialization
+        static long getTracemallocMemory() {
+            return 0L;
+        }
+    }
+
+    @Builtin(name = "_get_object_traceback", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetObjectTracebackNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone getObjectTraceback(@SuppressWarnings("unused") Object obj) {
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_get_traces", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    abstract static class GetTracesNode extends PythonBuiltinNode {
+        @Specialization
+        PList getTraces() {
+            PythonContext context = getContext();
+            CApiContext cApiContext = context.getCApiContext();
+            if (!getTraceMalloc(context).tracing || cApiContext == null) {
+                return factory().createList();
+            }
+            return factory().createList(collectTraces(cApiContext, factory()));
+        }
+
+        @TruffleBoundary
+        private static Object[] collectTraces(CApiContext cApiContext, PythonObjectFactory factory) {
+            PTuple traceback = factory.createTuple(new Object[]{factory.createTuple(new Object[]{"<unknown>", 0})});
+            ArrayList<Object> traces = new ArrayList<>();
+            int generation = cApiContext.getTraceMallocGeneration();
+            for (TraceMallocDomain domain : cApiContext.getTraceMallocDomains()) {
+                for (long size : domain.getBlockSizes(generation)) {
+                    traces.add(factory.createTuple(new Object[]{domain.getId(), size, traceback}));
+                }
+            }
+            return traces.toArray();
+        }
+    }
+}
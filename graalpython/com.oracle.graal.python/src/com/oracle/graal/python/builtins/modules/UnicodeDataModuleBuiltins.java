@@ -42,11 +42,11 @@ package com.oracle.graal.python.builtins.modules;
 
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
-import java.text.Normalizer;
 import java.util.List;
 
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.lang.UProperty;
+import com.ibm.icu.text.Normalizer2;
 import com.oracle.graal.python.annotations.ArgumentClinic;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
@@ -158,36 +158,83 @@ public class UnicodeDataModuleBuiltins extends PythonBuiltins {
         return "1.0.0";         // 1.0
     }
 
+    /*
+     * The short names of the values of the enumerated properties we expose, indexed by value. ICU
+     * stores the per-codepoint values in compact tries, so with these tables a lookup is an array
+     * access and does not go through ICU's property name lookup.
+     */
+    private static final String[] CATEGORY_NAMES = propertyValueNames(UProperty.GENERAL_CATEGORY);
+    private static final String[] BIDI_CLASS_NAMES = propertyValueNames(UProperty.BIDI_CLASS);
+    private static final String[] EAST_ASIAN_WIDTH_NAMES = propertyValueNames(UProperty.EAST_ASIAN_WIDTH);
+
+    private static String[] propertyValueNames(int property) {
+        String[] names = new String[UCharacter.getIntPropertyMaxValue(property) + 1];
+        for (int i = UCharacter.getIntPropertyMinValue(property); i < names.length; i++) {
+            try {
+                names[i] = UCharacter.getPropertyValueName(property, i, UProperty.NameChoice.SHORT);
+            } catch (IllegalArgumentException e) {
+                // no name for this value
+            }
+        }
+        return names;
+    }
+
     @Override
     public void initialize(Python3Core core) {
         super.initialize(core);
         builtinConstants.put("unidata_version", getUnicodeVersion());
     }
 
+    @TruffleBoundary
+    static Normalizer2 getNormalizer(String form) {
+        switch (form) {
+            case "NFC":
+                return Normalizer2.getNFCInstance();
+            case "NFKC":
+                return Normalizer2.getNFKCInstance();
+            case "NFD":
+                return Normalizer2.getNFDInstance();
+            case "NFKD":
+                return Normalizer2.getNFKDInstance();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Normalizes the given string. The longest prefix that passes the quick check is not touched,
+     * so strings that are already normalized are returned as they are without any allocation.
+     */
+    @TruffleBoundary
+    static String normalize(Normalizer2 normalizer, String unistr) {
+        int span = normalizer.spanQuickCheckYes(unistr);
+        if (span == unistr.length()) {
+            return unistr;
+        }
+        StringBuilder sb = new StringBuilder(unistr.length() + 16);
+        sb.append(unistr, 0, span);
+        return normalizer.normalizeSecondAndAppend(sb, unistr.subSequence(span, unistr.length())).toString();
+    }
+
+    @TruffleBoundary
+    static boolean isNormalized(Normalizer2 normalizer, String unistr) {
+        return normalizer.isNormalized(unistr);
+    }
+
     // unicodedata.normalize(form, unistr)
     @Builtin(name = "normalize", minNumOfPositionalArgs = 2, parameterNames = {"form", "unistr"})
     @ArgumentClinic(name = "form", conversion = ArgumentClinic.ClinicConversion.String)
     @ArgumentClinic(name = "unistr", conversion = ArgumentClinic.ClinicConversion.String)
     @GenerateNodeFactory
     public abstract static class NormalizeNode extends PythonBinaryClinicBuiltinNode {
-        @TruffleBoundary
-        protected Normalizer.Form getForm(String form) {
-            try {
-                return Normalizer.Form.valueOf(form);
-            } catch (IllegalArgumentException e) {
-                return null;
-            }
-        }
-
         @Specialization(guards = {"form.equals(cachedForm)"}, limit = "4")
-        @TruffleBoundary
         public String normalize(@SuppressWarnings("unused") String form, String unistr,
                         @SuppressWarnings("unused") @Cached("form") String cachedForm,
-                        @Cached("getForm(cachedForm)") Normalizer.Form cachedNormForm) {
-            if (cachedNormForm == null) {
+                        @Cached("getNormalizer(cachedForm)") Normalizer2 cachedNormalizer) {
+            if (cachedNormalizer == null) {
                 throw raise(ValueError, ErrorMessages.INVALID_NORMALIZATION_FORM);
             }
-            return Normalizer.normalize(unistr, cachedNormForm);
+            return UnicodeDataModuleBuiltins.normalize(cachedNormalizer, unistr);
         }
 
         @Override
@@ -202,24 +249,14 @@ public class UnicodeDataModuleBuiltins extends PythonBuiltins {
     @ArgumentClinic(name = "unistr", conversion = ArgumentClinic.ClinicConversion.String)
     @GenerateNodeFactory
     public abstract static class IsNormalizedNode extends PythonBinaryClinicBuiltinNode {
-        @TruffleBoundary
-        protected Normalizer.Form getForm(String form) {
-            try {
-                return Normalizer.Form.valueOf(form);
-            } catch (IllegalArgumentException e) {
-                return null;
-            }
-        }
-
         @Specialization(guards = {"form.equals(cachedForm)"}, limit = "4")
-        @TruffleBoundary
         public boolean isNormalized(@SuppressWarnings("unused") String form, String unistr,
                         @SuppressWarnings("unused") @Cached("form") String cachedForm,
-                        @Cached("getForm(cachedForm)") Normalizer.Form cachedNormForm) {
-            if (cachedNormForm == null) {
+                        @Cached("getNormalizer(cachedForm)") Normalizer2 cachedNormalizer) {
+            if (cachedNormalizer == null) {
                 throw raise(ValueError, ErrorMessages.INVALID_NORMALIZATION_FORM);
             }
-            return Normalizer.isNormalized(unistr, cachedNormForm);
+            return UnicodeDataModuleBuiltins.isNormalized(cachedNormalizer, unistr);
         }
 
         @Override
@@ -269,7 +306,7 @@ public class UnicodeDataModuleBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         static String bidirectional(int chr) {
-            return UCharacter.getPropertyValueName(UProperty.BIDI_CLASS, UCharacter.getDirection(chr), UProperty.NameChoice.SHORT);
+            return BIDI_CLASS_NAMES[UCharacter.getDirection(chr)];
         }
 
         @Override
@@ -286,7 +323,7 @@ public class UnicodeDataModuleBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         static String category(int chr) {
-            return UCharacter.getPropertyValueName(UProperty.GENERAL_CATEGORY, UCharacter.getType(chr), UProperty.NameChoice.SHORT);
+            return CATEGORY_NAMES[UCharacter.getType(chr)];
         }
 
         @Override
@@ -294,4 +331,21 @@ public class UnicodeDataModuleBuiltins extends PythonBuiltins {
             return UnicodeDataModuleBuiltinsClinicProviders.CategoryNodeClinicProviderGen.INSTANCE;
         }
     }
+
+    // unicodedata.east_asian_width(char)
+    @Builtin(name = "east_asian_width", minNumOfPositionalArgs = 1, numOfPositionalOnlyArgs = 1, parameterNames = {"chr"})
+    @ArgumentClinic(name = "chr", conversion = ArgumentClinic.ClinicConversion.CodePoint)
+    @GenerateNodeFactory
+    public abstract static class EastAsianWidthNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        static String eastAsianWidth(int chr) {
+            return EAST_ASIAN_WIDTH_NAMES[UCharacter.getIntPropertyValue(chr, UProperty.EAST_ASIAN_WIDTH)];
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnicodeDataModuleBuiltinsClinicProviders.EastAsianWidthNodeClinicProviderGen.INSTANCE;
+        }
+    }
 }
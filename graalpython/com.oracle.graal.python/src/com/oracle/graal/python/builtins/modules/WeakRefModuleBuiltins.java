@@ -125,11 +125,9 @@ public class WeakRefModuleBuiltins extends PythonBuiltins {
             if (!ctx.isGcEnabled()) {
                 return null;
             }
-            Reference<? extends Object> reference = null;
-            try {
-                reference = weakRefQueue.remove();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            Reference<? extends Object> reference = weakRefQueue.poll();
+            if (reference == null) {
+                return null;
             }
             ArrayList<PReferenceType.WeakRefStorage> refs = new ArrayList<>();
             do {
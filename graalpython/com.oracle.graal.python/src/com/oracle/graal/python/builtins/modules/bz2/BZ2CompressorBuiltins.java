@@ -131,19 +131,34 @@ public class BZ2CompressorBuiltins extends PythonBuiltins {
         PBytes doNativeBytes(BZ2Object.BZ2Compressor self, PBytesLike data,
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode toBytes,
                         @Cached SequenceStorageNodes.LenNode lenNode,
-                        @Shared("c") @Cached Bz2Nodes.Bz2NativeCompress compress) {
+                        @Shared("c") @Cached Bz2Nodes.Bz2NativeCompress compress,
+                        @Shared("g") @Cached GilNode gil) {
             byte[] bytes = toBytes.execute(data.getSequenceStorage());
             int len = lenNode.execute(data.getSequenceStorage());
-            return factory().createBytes(compress.compress(self, PythonContext.get(this), bytes, len));
+            return factory().createBytes(compressLocked(self, bytes, len, compress, gil));
         }
 
         @Specialization(guards = {"!self.isFlushed()"})
         PBytes doNativeObject(BZ2Object.BZ2Compressor self, Object data,
                         @Cached BytesNodes.ToBytesNode toBytes,
-                        @Shared("c") @Cached Bz2Nodes.Bz2NativeCompress compress) {
+                        @Shared("c") @Cached Bz2Nodes.Bz2NativeCompress compress,
+                        @Shared("g") @Cached GilNode gil) {
             byte[] bytes = toBytes.execute(data);
             int len = bytes.length;
-            return factory().createBytes(compress.compress(self, PythonContext.get(this), bytes, len));
+            return factory().createBytes(compressLocked(self, bytes, len, compress, gil));
+        }
+
+        private byte[] compressLocked(BZ2Object.BZ2Compressor self, byte[] bytes, int len, Bz2Nodes.Bz2NativeCompress compress, GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (self.isFlushed()) {
+                    // another thread flushed the compressor while we waited for the lock
+                    throw raise(ValueError, COMPRESSOR_HAS_BEEN_FLUSHED);
+                }
+                return compress.compress(self, PythonContext.get(this), bytes, len);
+            } finally {
+                self.getLock().release();
+            }
         }
 
         @SuppressWarnings("unused")
@@ -159,9 +174,19 @@ public class BZ2CompressorBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"!self.isFlushed()"})
         PBytes doit(BZ2Object.BZ2Compressor self,
-                        @Cached Bz2Nodes.Bz2NativeCompress compress) {
-            self.setFlushed();
-            return factory().createBytes(compress.flush(self, PythonContext.get(this)));
+                        @Cached Bz2Nodes.Bz2NativeCompress compress,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (self.isFlushed()) {
+                    // another thread flushed the compressor while we waited for the lock
+                    throw raise(ValueError, REPEATED_CALL_TO_FLUSH);
+                }
+                self.setFlushed();
+                return factory().createBytes(compress.flush(self, PythonContext.get(this)));
+            } finally {
+                self.getLock().release();
+            }
         }
 
         @SuppressWarnings("unused")
@@ -54,6 +54,7 @@ import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
@@ -62,6 +63,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIBz2Support;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -70,6 +72,7 @@ import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = BZ2Decompressor)
@@ -113,22 +116,38 @@ public class BZ2DecompressorBuiltins extends PythonBuiltins {
         PBytes doNativeBytes(BZ2Object.BZ2Decompressor self, PBytesLike data, int maxLength,
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode toBytes,
                         @Cached SequenceStorageNodes.LenNode lenNode,
-                        @Shared("d") @Cached Bz2Nodes.Bz2NativeDecompress decompress) {
-            synchronized (self) {
+                        @Shared("d") @Cached Bz2Nodes.Bz2NativeDecompress decompress,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (self.isEOF()) {
+                    // another thread reached the end of the stream while we waited for the lock
+                    throw raise(EOFError, END_OF_STREAM_ALREADY_REACHED);
+                }
                 byte[] bytes = toBytes.execute(data.getSequenceStorage());
                 int len = lenNode.execute(data.getSequenceStorage());
                 return factory().createBytes(decompress.execute(self, bytes, len, maxLength));
+            } finally {
+                self.getLock().release();
             }
         }
 
         @Specialization(guards = {"!self.isEOF()"})
         PBytes doNativeObject(BZ2Object.BZ2Decompressor self, Object data, int maxLength,
                         @Cached BytesNodes.ToBytesNode toBytes,
-                        @Shared("d") @Cached Bz2Nodes.Bz2NativeDecompress decompress) {
-            synchronized (self) {
+                        @Shared("d") @Cached Bz2Nodes.Bz2NativeDecompress decompress,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (self.isEOF()) {
+                    // another thread reached the end of the stream while we waited for the lock
+                    throw raise(EOFError, END_OF_STREAM_ALREADY_REACHED);
+                }
                 byte[] bytes = toBytes.execute(data);
                 int len = bytes.length;
                 return factory().createBytes(decompress.execute(self, bytes, len, maxLength));
+            } finally {
+                self.getLock().release();
             }
         }
 
@@ -139,6 +158,63 @@ public class BZ2DecompressorBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Like {@code decompress(data, len(buffer))}, but writes the output into the writable
+     * {@code buffer} and returns the number of bytes written instead of allocating a new bytes
+     * object. The output goes straight into the buffer's backing array if it has one, and through a
+     * scratch array owned by the decompressor otherwise.
+     */
+    @Builtin(name = "_decompress_into", minNumOfPositionalArgs = 3, parameterNames = {"$self", "data", "buffer"})
+    @ArgumentClinic(name = "data", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "buffer", conversion = ArgumentClinic.ClinicConversion.WritableBuffer)
+    @GenerateNodeFactory
+    abstract static class DecompressIntoNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BZ2DecompressorBuiltinsClinicProviders.DecompressIntoNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isEOF()", limit = "3")
+        int doit(BZ2Object.BZ2Decompressor self, Object data, Object buffer,
+                        @CachedLibrary("data") PythonBufferAccessLibrary dataLib,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached Bz2Nodes.Bz2NativeDecompressInto decompress,
+                        @Cached ConditionProfile directProfile,
+                        @Cached GilNode gil) {
+            try {
+                int size = bufferLib.getBufferLength(buffer);
+                byte[] bytes = dataLib.getInternalOrCopiedByteArray(data);
+                int len = dataLib.getBufferLength(data);
+                self.getLock().acquire(gil);
+                try {
+                    if (self.isEOF()) {
+                        // another thread reached the end of the stream while we waited for the lock
+                        throw raise(EOFError, END_OF_STREAM_ALREADY_REACHED);
+                    }
+                    if (directProfile.profile(bufferLib.hasInternalByteArray(buffer))) {
+                        return decompress.execute(self, bytes, len, bufferLib.getInternalByteArray(buffer), size);
+                    }
+                    byte[] scratch = self.getOutputScratch(size);
+                    int written = decompress.execute(self, bytes, len, scratch, size);
+                    bufferLib.writeFromByteArray(buffer, 0, scratch, 0, written);
+                    return written;
+                } finally {
+                    self.getLock().release();
+                }
+            } finally {
+                dataLib.release(data);
+                bufferLib.release(buffer);
+            }
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "self.isEOF()")
+        int err(BZ2Object.BZ2Decompressor self, Object data, Object buffer) {
+            throw raise(EOFError, END_OF_STREAM_ALREADY_REACHED);
+        }
+    }
+
     @Builtin(name = "unused_data", minNumOfPositionalArgs = 1, isGetter = true)
     @GenerateNodeFactory
     abstract static class UnusedDataNode extends PythonUnaryBuiltinNode {
@@ -44,6 +44,7 @@ import java.util.Arrays;
 
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.runtime.GilAwareLock;
 import com.oracle.graal.python.runtime.NFIBz2Support;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.util.OverflowException;
@@ -53,6 +54,8 @@ import com.oracle.truffle.api.object.Shape;
 
 public abstract class BZ2Object extends PythonBuiltinObject {
 
+    /** Serializes operations on the stream, since they may release the GIL. */
+    private final GilAwareLock lock = new GilAwareLock();
     private NFIBz2Support.Pointer pointer;
 
     public BZ2Object(Object cls, Shape instanceShape) {
@@ -63,6 +66,10 @@ public abstract class BZ2Object extends PythonBuiltinObject {
         this.pointer = new NFIBz2Support.Pointer(this, bzst, lib);
     }
 
+    public final GilAwareLock getLock() {
+        return lock;
+    }
+
     public final Object getBzs() {
         assert pointer != null;
         return pointer.getReference();
@@ -109,6 +116,8 @@ public abstract class BZ2Object extends PythonBuiltinObject {
         private Object nextInGuest;
         private int nextInIndex;
 
+        private byte[] outputScratch;
+
         public BZ2Decompressor(Object cls, Shape instanceShape) {
             super(cls, instanceShape);
             this.eof = false;
@@ -232,6 +241,18 @@ public abstract class BZ2Object extends PythonBuiltinObject {
         public void setBzsAvailInReal(long bzsAvailInReal) throws OverflowException {
             this.bzsAvailInReal = PInt.intValueExact(bzsAvailInReal);
         }
+
+        /**
+         * Returns an array of at least {@code size} bytes for {@code _decompress_into} targets that
+         * are not backed by a Java array. The array is reused, so it may only be used while holding
+         * the decompressor's lock.
+         */
+        public byte[] getOutputScratch(int size) {
+            if (outputScratch == null || outputScratch.length < size) {
+                outputScratch = new byte[size];
+            }
+            return outputScratch;
+        }
     }
 
     public static BZ2Compressor createCompressor(Object cls, Shape instanceShape) {
@@ -59,6 +59,7 @@ import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueErr
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIBz2Support;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -107,10 +108,17 @@ public class Bz2Nodes {
         byte[] nativeCompress(BZ2Object.BZ2Compressor self, PythonContext context, byte[] bytes, int len, int action,
                         @Cached NativeLibrary.InvokeNativeFunction compress,
                         @Cached GetOutputNativeBufferNode getBuffer,
-                        @Cached ConditionProfile errProfile) {
+                        @Cached ConditionProfile errProfile,
+                        @Cached GilNode gil) {
             NFIBz2Support bz2Support = context.getNFIBz2Support();
             Object inGuest = context.getEnv().asGuestValue(bytes);
-            int err = bz2Support.compress(self.getBzs(), inGuest, len, action, INITIAL_BUFFER_SIZE, compress);
+            int err;
+            gil.release(true);
+            try {
+                err = bz2Support.compress(self.getBzs(), inGuest, len, action, INITIAL_BUFFER_SIZE, compress);
+            } finally {
+                gil.acquire();
+            }
             if (errProfile.profile(err != BZ_OK)) {
                 errorHandling(err, getRaiseNode());
             }
@@ -125,105 +133,141 @@ public class Bz2Nodes {
 
         @Specialization
         byte[] nativeDecompress(BZ2Object.BZ2Decompressor self, byte[] bytes, int len, int maxLength,
-                        @Cached Bz2NativeInternalDecompress decompress) {
-            boolean inputBufferInUse;
-            /* Prepend unconsumed input if necessary */
-            if (self.getNextIn() != null) {
-                /* Number of bytes we can append to input buffer */
-                int availNow = self.getInputBufferSize() - (self.getNextInIndex() + self.getBzsAvailInReal());
+                        @Cached Bz2NativeInternalDecompress decompress,
+                        @Cached GetOutputNativeBufferNode getBuffer) {
+            boolean inputBufferInUse = prependUnconsumedInput(self, bytes, len);
+            decompress.execute(self, maxLength);
+            saveUnconsumedInput(self, inputBufferInUse);
+            return getBuffer.execute(self.getBzs(), PythonContext.get(this));
+        }
+    }
+
+    /**
+     * Like {@link Bz2NativeDecompress}, but writes at most {@code maxLength} bytes of output into
+     * {@code target} starting at index 0 and returns the number of bytes written.
+     */
+    public abstract static class Bz2NativeDecompressInto extends Node {
+
+        public abstract int execute(BZ2Object.BZ2Decompressor self, byte[] data, int len, byte[] target, int maxLength);
+
+        @Specialization
+        int nativeDecompress(BZ2Object.BZ2Decompressor self, byte[] bytes, int len, byte[] target, int maxLength,
+                        @Cached Bz2NativeInternalDecompress decompress,
+                        @Cached ReadOutputNativeBufferNode readBuffer) {
+            boolean inputBufferInUse = prependUnconsumedInput(self, bytes, len);
+            decompress.execute(self, maxLength);
+            saveUnconsumedInput(self, inputBufferInUse);
+            return readBuffer.execute(self.getBzs(), PythonContext.get(this), target);
+        }
+    }
+
+    private static boolean prependUnconsumedInput(BZ2Object.BZ2Decompressor self, byte[] bytes, int len) {
+        /* Prepend unconsumed input if necessary */
+        if (self.getNextIn() != null) {
+            /* Number of bytes we can append to input buffer */
+            int availNow = self.getInputBufferSize() - (self.getNextInIndex() + self.getBzsAvailInReal());
+
+            /*
+             * Number of bytes we can append if we move existing contents to beginning of buffer
+             * (overwriting consumed input)
+             */
+            int availTotal = self.getInputBufferSize() - self.getBzsAvailInReal();
+
+            if (availTotal < len) {
+                int newSize = self.getInputBufferSize() + len - availNow;
 
                 /*
-                 * Number of bytes we can append if we move existing contents to beginning of buffer
-                 * (overwriting consumed input)
+                 * Assign to temporary variable first, so we don't lose address of allocated buffer
+                 * if realloc fails
                  */
-                int availTotal = self.getInputBufferSize() - self.getBzsAvailInReal();
-
-                if (availTotal < len) {
-                    int newSize = self.getInputBufferSize() + len - availNow;
-
-                    /*
-                     * Assign to temporary variable first, so we don't lose address of allocated
-                     * buffer if realloc fails
-                     */
-                    self.resizeInputBuffer(newSize);
-                    self.setNextIn(self.getInputBuffer());
-                } else if (availNow < len) {
-                    PythonUtils.arraycopy(self.getNextIn(), self.getNextInIndex(), self.getInputBuffer(), 0, self.getBzsAvailInReal());
-                    self.setNextIn(self.getInputBuffer());
-                    self.setNextInIndex(0);
-                }
-                PythonUtils.arraycopy(bytes, 0, self.getNextIn(), self.getNextInIndex() + self.getBzsAvailInReal(), len);
-                // memcpy((void*)(bzs->next_in + self.getBzsAvailInReal()), data, len);
-                self.incBzsAvailInReal(len);
-                inputBufferInUse = true;
-            } else {
-                self.setNextIn(bytes);
-                self.setBzsAvailInReal(len);
-                inputBufferInUse = false;
+                self.resizeInputBuffer(newSize);
+                self.setNextIn(self.getInputBuffer());
+            } else if (availNow < len) {
+                PythonUtils.arraycopy(self.getNextIn(), self.getNextInIndex(), self.getInputBuffer(), 0, self.getBzsAvailInReal());
+                self.setNextIn(self.getInputBuffer());
+                self.setNextInIndex(0);
             }
+            PythonUtils.arraycopy(bytes, 0, self.getNextIn(), self.getNextInIndex() + self.getBzsAvailInReal(), len);
+            // memcpy((void*)(bzs->next_in + self.getBzsAvailInReal()), data, len);
+            self.incBzsAvailInReal(len);
+            return true;
+        } else {
+            self.setNextIn(bytes);
+            self.setBzsAvailInReal(len);
+            return false;
+        }
+    }
 
-            byte[] result = decompress.execute(self, maxLength);
+    private static void saveUnconsumedInput(BZ2Object.BZ2Decompressor self, boolean inputBufferInUse) {
+        if (self.isEOF()) {
+            self.setNeedsInput(false);
+            if (self.getBzsAvailInReal() > 0) {
+                self.setUnusedData();
+            }
+        } else if (self.getBzsAvailInReal() == 0) {
+            self.clearNextIn();
+            self.setNextInIndex(0);
+            self.setNeedsInput(true);
+        } else {
+            self.setNeedsInput(false);
 
-            if (self.isEOF()) {
-                self.setNeedsInput(false);
-                if (self.getBzsAvailInReal() > 0) {
-                    self.setUnusedData();
-                }
-            } else if (self.getBzsAvailInReal() == 0) {
-                self.clearNextIn();
-                self.setNextInIndex(0);
-                self.setNeedsInput(true);
-            } else {
-                self.setNeedsInput(false);
+            /*
+             * If we did not use the input buffer, we now have to copy the tail from the caller's
+             * buffer into the input buffer
+             */
+            if (!inputBufferInUse) {
 
                 /*
-                 * If we did not use the input buffer, we now have to copy the tail from the
-                 * caller's buffer into the input buffer
+                 * Discard buffer if it's too small (resizing it may needlessly copy the current
+                 * contents)
                  */
-                if (!inputBufferInUse) {
-
-                    /*
-                     * Discard buffer if it's too small (resizing it may needlessly copy the current
-                     * contents)
-                     */
-                    if (self.getInputBuffer() != null && self.getInputBufferSize() < self.getBzsAvailInReal()) {
-                        self.discardInputBuffer();
-                    }
-
-                    /* Allocate if necessary */
-                    if (self.getInputBuffer() == null) {
-                        self.createInputBuffer(self.getBzsAvailInReal());
-                    }
-
-                    /* Copy tail */
-                    // memcpy(d->input_buffer, bzs->next_in, self.getBzsAvailInReal());
-                    PythonUtils.arraycopy(self.getNextIn(), self.getNextInIndex(), self.getInputBuffer(), 0, self.getBzsAvailInReal());
-                    self.setNextIn(self.getInputBuffer());
-                    self.setNextInIndex(0);
+                if (self.getInputBuffer() != null && self.getInputBufferSize() < self.getBzsAvailInReal()) {
+                    self.discardInputBuffer();
+                }
+
+                /* Allocate if necessary */
+                if (self.getInputBuffer() == null) {
+                    self.createInputBuffer(self.getBzsAvailInReal());
                 }
-            }
 
-            return result;
+                /* Copy tail */
+                // memcpy(d->input_buffer, bzs->next_in, self.getBzsAvailInReal());
+                PythonUtils.arraycopy(self.getNextIn(), self.getNextInIndex(), self.getInputBuffer(), 0, self.getBzsAvailInReal());
+                self.setNextIn(self.getInputBuffer());
+                self.setNextInIndex(0);
+            }
         }
     }
 
+    /**
+     * Runs the native decompressor and updates the input state of {@code self}. The output stays
+     * in the native stream until it is fetched with {@link GetOutputNativeBufferNode} or
+     * {@link ReadOutputNativeBufferNode}.
+     */
     public abstract static class Bz2NativeInternalDecompress extends PNodeWithRaise {
 
-        public abstract byte[] execute(BZ2Object.BZ2Decompressor self, int maxLength);
+        public abstract void execute(BZ2Object.BZ2Decompressor self, int maxLength);
 
         @Specialization
-        byte[] nativeInternalDecompress(BZ2Object.BZ2Decompressor self, int maxLength,
+        void nativeInternalDecompress(BZ2Object.BZ2Decompressor self, int maxLength,
                         @Cached NativeLibrary.InvokeNativeFunction decompress,
                         @Cached NativeLibrary.InvokeNativeFunction getBzsAvailInReal,
                         @Cached NativeLibrary.InvokeNativeFunction getNextInIndex,
-                        @Cached GetOutputNativeBufferNode getBuffer,
                         @Cached ConditionProfile errProfile,
-                        @Cached BranchProfile ofProfile) {
+                        @Cached BranchProfile ofProfile,
+                        @Cached GilNode gil) {
             PythonContext context = PythonContext.get(this);
             NFIBz2Support bz2Support = context.getNFIBz2Support();
             Object inGuest = self.getNextInGuest(context);
             int offset = self.getNextInIndex();
-            int err = bz2Support.decompress(self.getBzs(), inGuest, offset, maxLength, INITIAL_BUFFER_SIZE, self.getBzsAvailInReal(), decompress);
+            int availIn = self.getBzsAvailInReal();
+            int err;
+            gil.release(true);
+            try {
+                err = bz2Support.decompress(self.getBzs(), inGuest, offset, maxLength, INITIAL_BUFFER_SIZE, availIn, decompress);
+            } finally {
+                gil.acquire();
+            }
             long nextInIdx = bz2Support.getNextInIndex(self.getBzs(), getNextInIndex);
             long bzsAvailInReal = bz2Support.getBzsAvailInReal(self.getBzs(), getBzsAvailInReal);
             try {
@@ -238,7 +282,6 @@ public class Bz2Nodes {
             } else if (errProfile.profile(err != BZ_OK)) {
                 errorHandling(err, getRaiseNode());
             }
-            return getBuffer.execute(self.getBzs(), context);
         }
     }
 
@@ -270,6 +313,38 @@ public class Bz2Nodes {
         }
     }
 
+    /**
+     * Copies the pending native output into {@code target} starting at index 0 and returns its
+     * size. The decompressor never produces more than the {@code maxLength} it was called with, so
+     * a target of that length is large enough.
+     */
+    public abstract static class ReadOutputNativeBufferNode extends PNodeWithRaise {
+
+        public abstract int execute(Object bzst, PythonContext context, byte[] target);
+
+        @Specialization
+        int readBuffer(Object bzst, PythonContext context, byte[] target,
+                        @Cached NativeLibrary.InvokeNativeFunction getBufferSize,
+                        @Cached NativeLibrary.InvokeNativeFunction getBuffer,
+                        @Cached BranchProfile ofProfile) {
+            NFIBz2Support bz2Support = context.getNFIBz2Support();
+            int size;
+            try {
+                size = PInt.intValueExact(bz2Support.getOutputBufferSize(bzst, getBufferSize));
+            } catch (OverflowException of) {
+                ofProfile.enter();
+                throw raise(SystemError, VALUE_TOO_LARGE_TO_FIT_INTO_INDEX);
+            }
+            if (size == 0) {
+                return 0;
+            }
+            assert size <= target.length;
+            /* this will clear the native output once retrieved */
+            bz2Support.getOutputBuffer(bzst, context.getEnv().asGuestValue(target), getBuffer);
+            return size;
+        }
+    }
+
     protected static void errorHandling(int bzerror, PRaiseNode raise) {
         switch (bzerror) {
             case BZ_PARAM_ERROR:
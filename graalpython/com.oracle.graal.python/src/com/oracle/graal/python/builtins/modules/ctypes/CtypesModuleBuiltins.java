@@ -82,6 +82,7 @@ import static com.oracle.graal.python.util.PythonUtils.newStringBuilder;
 import static com.oracle.graal.python.util.PythonUtils.sbToString;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 import com.oracle.graal.python.PythonLanguage;
@@ -97,6 +98,7 @@ import com.oracle.graal.python.builtins.modules.SysModuleBuiltins.AuditNode;
 import com.oracle.graal.python.builtins.modules.ctypes.CFieldBuiltins.GetFuncNode;
 import com.oracle.graal.python.builtins.modules.ctypes.CtypesNodes.PyTypeCheck;
 import com.oracle.graal.python.builtins.modules.ctypes.FFIType.FieldGet;
+import com.oracle.graal.python.builtins.modules.ctypes.FFIType.FieldSet;
 import com.oracle.graal.python.builtins.modules.ctypes.PtrValue.ByteArrayStorage;
 import com.oracle.graal.python.builtins.modules.ctypes.StgDictBuiltins.PyObjectStgDictNode;
 import com.oracle.graal.python.builtins.modules.ctypes.StgDictBuiltins.PyTypeStgDictNode;
@@ -112,6 +114,7 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetInternalByteArrayNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetInternalObjectArrayNode;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.str.PString;
@@ -186,6 +189,12 @@ public class CtypesModuleBuiltins extends PythonBuiltins {
     @CompilationFinal private Object strlenFunction;
     @CompilationFinal private Object memcpyFunction;
 
+    /*
+     * Parsed NFI signatures by signature string. Parsing is far more expensive than binding a
+     * signature to a symbol, and many functions share a few signatures.
+     */
+    private final ConcurrentHashMap<String, Object> nfiSignatureCache = new ConcurrentHashMap<>();
+
     private static final String NFI_LANGUAGE = "nfi";
 
     protected static final int FUNCFLAG_STDCALL = 0x0;
@@ -243,6 +252,20 @@ public class CtypesModuleBuiltins extends PythonBuiltins {
         return memcpyFunction;
     }
 
+    @TruffleBoundary
+    Object getNFISignature(PythonContext context, String signature) {
+        Object nfiSignature = nfiSignatureCache.get(signature);
+        if (nfiSignature == null) {
+            Source source = Source.newBuilder(NFI_LANGUAGE, signature, "ctypes").build();
+            nfiSignature = context.getEnv().parseInternal(source).call();
+            Object existing = nfiSignatureCache.putIfAbsent(signature, nfiSignature);
+            if (existing != null) {
+                nfiSignature = existing;
+            }
+        }
+        return nfiSignature;
+    }
+
     private static void setCtypeNFIHelpers(CtypesModuleBuiltins ctypesModuleBuiltins, PythonContext context, DLHandler h) {
         ctypesModuleBuiltins.strlenFunction = createNFIHelperFunction(context, h, "strlen", "(POINTER):UINT32");
         ctypesModuleBuiltins.memcpyFunction = createNFIHelperFunction(context, h, "memcpy", "([UINT8], POINTER, UINT32):POINTER");
@@ -281,6 +304,9 @@ public class CtypesModuleBuiltins extends PythonBuiltins {
 
         Object function;
         String signature;
+        /* the argument and result types that {@link #signature} was built from */
+        FFIType[] atypes;
+        FFIType restype;
 
         final boolean isManaged;
 
@@ -968,6 +994,18 @@ public class CtypesModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    // Internal builtin used for testing: the number of NFI signatures parsed by this context
+    @Builtin(name = "_nfi_signature_cache_size", minNumOfPositionalArgs = 1, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    protected abstract static class NFISignatureCacheSizeNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        @TruffleBoundary
+        static int doit(PythonModule ctypesModule) {
+            return ((CtypesModuleBuiltins) ctypesModule.getBuiltins()).nfiSignatureCache.size();
+        }
+    }
+
     protected static final class argument {
         FFIType ffi_type;
         Object keep;
@@ -1022,48 +1060,73 @@ public class CtypesModuleBuiltins extends PythonBuiltins {
                 throw raise(ArgError, TOO_MANY_ARGUMENTS_D_MAXIMUM_IS_D, argcount, CTYPES_MAX_ARGCOUNT);
             }
 
-            argument[] args = new argument[argcount];
+            /*
+             * avalues is handed to the call and may be used by a re-entrant call from a callback,
+             * so it cannot be reused. The types usually match the bound signature, so we start
+             * from those and only copy them if an argument type differs.
+             */
             Object[] avalues = new Object[argcount];
-            FFIType[] atypes = new FFIType[argcount];
+            FFIType[] atypes = pProc.atypes;
+            boolean atypesShared = atypes != null && atypes.length == argcount;
+            if (!atypesShared) {
+                atypes = new FFIType[argcount];
+            }
             int argtype_count = argtypes != null ? argtypes.length : 0;
 
             /* Convert the arguments */
             final boolean isLLVM = pProc.isLLVM();
             for (int i = 0; i < argcount; ++i) {
-                args[i] = new argument();
                 Object arg = argarray[i]; /* borrowed ref */
                 /*
                  * For cdecl functions, we allow more actual arguments than the length of the
                  * argtypes tuple. This is checked in _ctypes::PyCFuncPtr_Call
                  */
-                if (converters != null && argtype_count > i) {
-                    Object v;
-                    try {
-                        v = callNode.execute(frame, converters[i], argtypes[i], arg);
-                    } catch (PException e) {
-                        throw raise(ArgError, ARGUMENT_D, i + 1);
-                    }
-
-                    convParamNode.execute(frame, v, i + 1, args[i], factory, context);
+                boolean hasConverter = converters != null && argtype_count > i;
+                StgDictObject argDict = hasConverter ? getSimpleArgDict(argtypes[i], converters[i], pyTypeStgDictNode) : null;
+                Object simpleValue = argDict != null ? convertSimpleParam(argDict.setfunc, arg) : null;
+                FFIType ffiType;
+                Object value;
+                if (simpleValue != null) {
+                    // what PyCSimpleType.from_param followed by ConvParam would produce
+                    ffiType = argDict.setfunc.ffiType;
+                    value = simpleValue;
                 } else {
-                    convParamNode.execute(frame, arg, i + 1, args[i], factory, context);
-                }
-                FFIType ffiType = args[i].ffi_type;
-                atypes[i] = ffiType;
-                Object value = args[i].value;
-                if (ffiType.type.isArray()) {
-                    if (!isLLVM) {
-                        value = context.getEnv().asGuestValue(value);
+                    argument pa = new argument();
+                    if (hasConverter) {
+                        Object v;
+                        try {
+                            v = callNode.execute(frame, converters[i], argtypes[i], arg);
+                        } catch (PException e) {
+                            throw raise(ArgError, ARGUMENT_D, i + 1);
+                        }
+
+                        convParamNode.execute(frame, v, i + 1, pa, factory, context);
                     } else {
-                        if (ffiType.type == FFI_TYPE_STRUCT) {
-                            assert value instanceof byte[] : "It should be byte[]!";
-                            assert args[i].stgDict != null : "We need stgDict for Structs";
-                            value = CDataObject.createWrapper(args[i].stgDict, (byte[]) value);
-                        } else {
+                        convParamNode.execute(frame, arg, i + 1, pa, factory, context);
+                    }
+                    ffiType = pa.ffi_type;
+                    value = pa.value;
+                    if (ffiType.type.isArray()) {
+                        if (!isLLVM) {
                             value = context.getEnv().asGuestValue(value);
+                        } else {
+                            if (ffiType.type == FFI_TYPE_STRUCT) {
+                                assert value instanceof byte[] : "It should be byte[]!";
+                                assert pa.stgDict != null : "We need stgDict for Structs";
+                                value = CDataObject.createWrapper(pa.stgDict, (byte[]) value);
+                            } else {
+                                value = context.getEnv().asGuestValue(value);
+                            }
                         }
                     }
                 }
+                if (atypes[i] != ffiType) {
+                    if (atypesShared) {
+                        atypes = PythonUtils.arrayCopyOf(atypes, argcount);
+                        atypesShared = false;
+                    }
+                    atypes[i] = ffiType;
+                }
                 avalues[i] = value;
             }
 
@@ -1078,7 +1141,7 @@ public class CtypesModuleBuiltins extends PythonBuiltins {
             if (isLLVM) {
                 result = callManagedFunction(pProc, avalues, ilib);
             } else {
-                result = callNativeFunction(pProc, avalues, atypes, rtype, context, ilib);
+                result = callNativeFunction(pProc, avalues, atypes, rtype, context, ctypesModuleBuiltins, ilib);
             }
             if (rtype.type.isArray()) {
                 if (ilib.hasArrayElements(result)) {
@@ -1170,12 +1233,68 @@ public class CtypesModuleBuiltins extends PythonBuiltins {
         }
 
         @TruffleBoundary
-        protected static Object getFunction(NativeFunction pProc, String signature, PythonContext context) throws Exception {
-            Source source = Source.newBuilder(NFI_LANGUAGE, signature, pProc.name).build();
-            Object nfiSignature = context.getEnv().parseInternal(source).call();
+        protected static Object getFunction(NativeFunction pProc, String signature, PythonContext context, CtypesModuleBuiltins ctypesModuleBuiltins) throws Exception {
+            Object nfiSignature = ctypesModuleBuiltins.getNFISignature(context, signature);
             return SignatureLibrary.getUncached().bind(nfiSignature, pProc.sym);
         }
 
+        /**
+         * Returns the type dict if {@code argtype} is a simple numeric type whose converter is the
+         * generic {@code PyCSimpleType.from_param}, so that plain ints and floats can be passed
+         * without creating a {@link PyCArgObject}.
+         */
+        static StgDictObject getSimpleArgDict(Object argtype, Object converter, PyTypeStgDictNode pyTypeStgDictNode) {
+            if (!(converter instanceof PBuiltinFunction) || ((PBuiltinFunction) converter).getBuiltinNodeFactory() != PyCSimpleTypeBuiltinsFactory.FromParamNodeFactory.getInstance()) {
+                return null;
+            }
+            StgDictObject dict = pyTypeStgDictNode.execute(argtype);
+            if (dict == null || dict.setfunc == null) {
+                return null;
+            }
+            return dict;
+        }
+
+        /**
+         * Converts an int or float argument like the corresponding {@link FieldSet} setter would.
+         * Returns {@code null} for anything that needs the generic conversion.
+         */
+        static Object convertSimpleParam(FieldSet setfunc, Object arg) {
+            long l;
+            if (arg instanceof Integer) {
+                l = (int) arg;
+            } else if (arg instanceof Long) {
+                l = (long) arg;
+            } else if (arg instanceof Double) {
+                switch (setfunc) {
+                    case d_set:
+                    case g_set:
+                        return arg;
+                    case f_set:
+                        return (float) (double) arg;
+                    default:
+                        return null;
+                }
+            } else {
+                return null;
+            }
+            switch (setfunc) {
+                case b_set:
+                case B_set:
+                    return (byte) l;
+                case h_set:
+                case H_set:
+                    return (short) l;
+                case i_set:
+                case I_set:
+                    return (int) l;
+                case l_set:
+                case L_set:
+                    return l;
+                default:
+                    return null;
+            }
+        }
+
         @TruffleBoundary
         private static byte[] getNativeBytes(CtypesModuleBuiltins ctypesModuleBuiltins, PythonContext context, Object pointer, PRaiseNode raiseNode) {
             try {
@@ -1193,19 +1312,23 @@ public class CtypesModuleBuiltins extends PythonBuiltins {
          */
         Object callNativeFunction(NativeFunction pProc, Object[] avalues, FFIType[] atypes, FFIType restype,
                         PythonContext context,
+                        CtypesModuleBuiltins ctypesModuleBuiltins,
                         InteropLibrary ilib) {
-            if (pProc.function == null) {
+            if (pProc.function == null || pProc.atypes != atypes || pProc.restype != restype) {
+                // first call, or argtypes/restype changed since the function was bound
                 String signature = FFIType.buildNFISignature(atypes, restype);
-                Object function;
-                try {
-                    function = getFunction(pProc, signature, context);
-                } catch (Exception e) {
-                    throw raise(RuntimeError, FFI_PREP_CIF_FAILED);
+                if (pProc.function == null || !PString.equals(pProc.signature, signature)) {
+                    Object function;
+                    try {
+                        function = getFunction(pProc, signature, context, ctypesModuleBuiltins);
+                    } catch (Exception e) {
+                        throw raise(RuntimeError, FFI_PREP_CIF_FAILED);
+                    }
+                    pProc.function = function;
+                    pProc.signature = signature;
                 }
-                pProc.function = function;
-                pProc.signature = signature;
-            } else {
-                assert PString.equals(pProc.signature, FFIType.buildNFISignature(atypes, restype));
+                pProc.atypes = atypes;
+                pProc.restype = restype;
             }
             try {
                 return ilib.execute(pProc.function, avalues);
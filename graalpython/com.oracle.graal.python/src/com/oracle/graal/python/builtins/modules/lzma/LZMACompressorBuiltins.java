@@ -76,6 +76,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentCastNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
@@ -166,19 +167,34 @@ public class LZMACompressorBuiltins extends PythonBuiltins {
         PBytes doBytes(LZMACompressor self, PBytesLike data,
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode toBytes,
                         @Cached SequenceStorageNodes.LenNode lenNode,
-                        @Shared("c") @Cached LZMANodes.CompressNode compress) {
+                        @Shared("c") @Cached LZMANodes.CompressNode compress,
+                        @Shared("g") @Cached GilNode gil) {
             byte[] bytes = toBytes.execute(data.getSequenceStorage());
             int len = lenNode.execute(data.getSequenceStorage());
-            return factory().createBytes(compress.compress(self, PythonContext.get(this), bytes, len));
+            return factory().createBytes(compressLocked(self, bytes, len, compress, gil));
         }
 
         @Specialization(guards = {"!self.isFlushed()"})
         PBytes doObject(LZMACompressor self, Object data,
                         @Cached BytesNodes.ToBytesNode toBytes,
-                        @Shared("c") @Cached LZMANodes.CompressNode compress) {
+                        @Shared("c") @Cached LZMANodes.CompressNode compress,
+                        @Shared("g") @Cached GilNode gil) {
             byte[] bytes = toBytes.execute(data);
             int len = bytes.length;
-            return factory().createBytes(compress.compress(self, PythonContext.get(this), bytes, len));
+            return factory().createBytes(compressLocked(self, bytes, len, compress, gil));
+        }
+
+        private byte[] compressLocked(LZMACompressor self, byte[] bytes, int len, LZMANodes.CompressNode compress, GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (self.isFlushed()) {
+                    // another thread flushed the compressor while we waited for the lock
+                    throw raise(ValueError, COMPRESSOR_HAS_BEEN_FLUSHED);
+                }
+                return compress.compress(self, PythonContext.get(this), bytes, len);
+            } finally {
+                self.getLock().release();
+            }
         }
 
         @SuppressWarnings("unused")
@@ -196,9 +212,19 @@ public class LZMACompressorBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"!self.isFlushed()"})
         PBytes doit(LZMACompressor self,
-                        @Cached LZMANodes.CompressNode compress) {
-            self.setFlushed();
-            return factory().createBytes(compress.flush(self, PythonContext.get(this)));
+                        @Cached LZMANodes.CompressNode compress,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (self.isFlushed()) {
+                    // another thread flushed the compressor while we waited for the lock
+                    throw raise(ValueError, REPEATED_CALL_TO_FLUSH);
+                }
+                self.setFlushed();
+                return factory().createBytes(compress.flush(self, PythonContext.get(this)));
+            } finally {
+                self.getLock().release();
+            }
         }
 
         @SuppressWarnings("unused")
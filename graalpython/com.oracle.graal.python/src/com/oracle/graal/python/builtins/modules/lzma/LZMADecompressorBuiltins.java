@@ -63,6 +63,7 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.modules.lzma.LZMAObject.LZMADecompressor;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
@@ -77,6 +78,7 @@ import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProv
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
@@ -85,6 +87,8 @@ import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.dsl.TypeSystemReference;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PythonBuiltinClassType.PLZMADecompressor)
 public class LZMADecompressorBuiltins extends PythonBuiltins {
@@ -194,20 +198,34 @@ public class LZMADecompressorBuiltins extends PythonBuiltins {
         PBytes doBytes(LZMADecompressor self, PBytesLike data, int maxLength,
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode toBytes,
                         @Cached SequenceStorageNodes.LenNode lenNode,
-                        @Shared("d") @Cached LZMANodes.DecompressNode decompress) {
+                        @Shared("d") @Cached LZMANodes.DecompressNode decompress,
+                        @Shared("g") @Cached GilNode gil) {
             byte[] bytes = toBytes.execute(data.getSequenceStorage());
             int len = lenNode.execute(data.getSequenceStorage());
-            return factory().createBytes(decompress.execute(self, bytes, len, maxLength));
-
+            return factory().createBytes(decompressLocked(self, bytes, len, maxLength, decompress, gil));
         }
 
         @Specialization(guards = {"!self.isEOF()"})
         PBytes doObject(LZMADecompressor self, Object data, int maxLength,
                         @Cached BytesNodes.ToBytesNode toBytes,
-                        @Shared("d") @Cached LZMANodes.DecompressNode decompress) {
+                        @Shared("d") @Cached LZMANodes.DecompressNode decompress,
+                        @Shared("g") @Cached GilNode gil) {
             byte[] bytes = toBytes.execute(data);
             int len = bytes.length;
-            return factory().createBytes(decompress.execute(self, bytes, len, maxLength));
+            return factory().createBytes(decompressLocked(self, bytes, len, maxLength, decompress, gil));
+        }
+
+        private byte[] decompressLocked(LZMADecompressor self, byte[] bytes, int len, int maxLength, LZMANodes.DecompressNode decompress, GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (self.isEOF()) {
+                    // another thread reached the end of the stream while we waited for the lock
+                    throw raise(EOFError, ALREADY_AT_END_OF_STREAM);
+                }
+                return decompress.execute(self, bytes, len, maxLength);
+            } finally {
+                self.getLock().release();
+            }
         }
 
         @SuppressWarnings("unused")
@@ -217,6 +235,63 @@ public class LZMADecompressorBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Like {@code decompress(data, len(buffer))}, but writes the output into the writable
+     * {@code buffer} and returns the number of bytes written instead of allocating a new bytes
+     * object. The output goes straight into the buffer's backing array if it has one, and through a
+     * scratch array owned by the decompressor otherwise.
+     */
+    @Builtin(name = "_decompress_into", minNumOfPositionalArgs = 3, parameterNames = {"$self", "data", "buffer"})
+    @ArgumentClinic(name = "data", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "buffer", conversion = ArgumentClinic.ClinicConversion.WritableBuffer)
+    @GenerateNodeFactory
+    abstract static class DecompressIntoNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return LZMADecompressorBuiltinsClinicProviders.DecompressIntoNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isEOF()", limit = "3")
+        int doit(LZMADecompressor self, Object data, Object buffer,
+                        @CachedLibrary("data") PythonBufferAccessLibrary dataLib,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached LZMANodes.DecompressIntoNode decompress,
+                        @Cached ConditionProfile directProfile,
+                        @Cached GilNode gil) {
+            try {
+                int size = bufferLib.getBufferLength(buffer);
+                byte[] bytes = dataLib.getInternalOrCopiedByteArray(data);
+                int len = dataLib.getBufferLength(data);
+                self.getLock().acquire(gil);
+                try {
+                    if (self.isEOF()) {
+                        // another thread reached the end of the stream while we waited for the lock
+                        throw raise(EOFError, ALREADY_AT_END_OF_STREAM);
+                    }
+                    if (directProfile.profile(bufferLib.hasInternalByteArray(buffer))) {
+                        return decompress.execute(self, bytes, len, bufferLib.getInternalByteArray(buffer), size);
+                    }
+                    byte[] scratch = self.getOutputScratch(size);
+                    int written = decompress.execute(self, bytes, len, scratch, size);
+                    bufferLib.writeFromByteArray(buffer, 0, scratch, 0, written);
+                    return written;
+                } finally {
+                    self.getLock().release();
+                }
+            } finally {
+                dataLib.release(data);
+                bufferLib.release(buffer);
+            }
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "self.isEOF()")
+        int err(LZMADecompressor self, Object data, Object buffer) {
+            throw raise(EOFError, ALREADY_AT_END_OF_STREAM);
+        }
+    }
+
     @Builtin(name = "eof", minNumOfPositionalArgs = 1, parameterNames = {"self"}, isGetter = true)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
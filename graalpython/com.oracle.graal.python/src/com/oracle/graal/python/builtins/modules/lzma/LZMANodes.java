@@ -108,6 +108,7 @@ import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaLongExactNode;
 import com.oracle.graal.python.nodes.util.CastToJavaLongLossyNode;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFILZMASupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -814,10 +815,17 @@ public class LZMANodes {
         byte[] nativeCompress(LZMACompressor.Native self, PythonContext context, byte[] bytes, int len, int action,
                         @Cached NativeLibrary.InvokeNativeFunction compress,
                         @Cached GetOutputNativeBufferNode getBuffer,
-                        @Cached ConditionProfile errProfile) {
+                        @Cached ConditionProfile errProfile,
+                        @Cached GilNode gil) {
             NFILZMASupport lzmaSupport = context.getNFILZMASupport();
             Object inGuest = context.getEnv().asGuestValue(bytes);
-            int err = lzmaSupport.compress(self.getLzs(), inGuest, len, action, INITIAL_BUFFER_SIZE, compress);
+            int err;
+            gil.release(true);
+            try {
+                err = lzmaSupport.compress(self.getLzs(), inGuest, len, action, INITIAL_BUFFER_SIZE, compress);
+            } finally {
+                gil.acquire();
+            }
             if (errProfile.profile(err != LZMA_OK)) {
                 errorHandling(err, getRaiseNode());
             }
@@ -940,88 +948,110 @@ public class LZMANodes {
         @Specialization
         byte[] nativeDecompress(LZMADecompressor self, byte[] bytes, int len, int maxLength,
                         @Cached InternalDecompressNode decompress) {
-            boolean inputBufferInUse;
-            /* Prepend unconsumed input if necessary */
-            if (self.getNextIn() != null) {
-                /* Number of bytes we can append to input buffer */
-                int availNow = self.getInputBufferSize() - (self.getNextInIndex() + self.getLzsAvailIn());
+            boolean inputBufferInUse = prependUnconsumedInput(self, bytes, len);
+            byte[] result = decompress.execute(self, maxLength);
+            saveUnconsumedInput(self, inputBufferInUse);
+            return result;
+        }
+    }
 
-                /*
-                 * Number of bytes we can append if we move existing contents to beginning of buffer
-                 * (overwriting consumed input)
-                 */
-                int availTotal = self.getInputBufferSize() - self.getLzsAvailIn();
-
-                if (availTotal < len) {
-                    int newSize = self.getInputBufferSize() + len - availNow;
-
-                    /*
-                     * Assign to temporary variable first, so we don't lose address of allocated
-                     * buffer if realloc fails
-                     */
-                    self.resizeInputBuffer(newSize);
-                    self.setNextIn(self.getInputBuffer());
-                } else if (availNow < len) {
-                    PythonUtils.arraycopy(self.getNextIn(), self.getNextInIndex(), self.getInputBuffer(), 0, self.getLzsAvailIn());
-                    self.setNextIn(self.getInputBuffer());
-                    self.setNextInIndex(0);
-                }
-                PythonUtils.arraycopy(bytes, 0, self.getNextIn(), self.getNextInIndex() + self.getLzsAvailIn(), len);
-                // memcpy((void*)(lzs->next_in + self.getLzsAvailIn()), data, len);
-                self.incLzsAvailIn(len);
-                inputBufferInUse = true;
-            } else {
-                self.setNextIn(bytes);
-                self.setLzsAvailIn(len);
-                inputBufferInUse = false;
-            }
+    /**
+     * Like {@link DecompressNode}, but writes at most {@code maxLength} bytes of output into
+     * {@code target} starting at index 0 and returns the number of bytes written.
+     */
+    public abstract static class DecompressIntoNode extends Node {
 
-            byte[] result = decompress.execute(self, maxLength);
+        public abstract int execute(LZMADecompressor self, byte[] data, int len, byte[] target, int maxLength);
+
+        @Specialization
+        int nativeDecompress(LZMADecompressor self, byte[] bytes, int len, byte[] target, int maxLength,
+                        @Cached InternalDecompressIntoNode decompress) {
+            boolean inputBufferInUse = prependUnconsumedInput(self, bytes, len);
+            int written = decompress.execute(self, target, maxLength);
+            saveUnconsumedInput(self, inputBufferInUse);
+            return written;
+        }
+    }
+
+    private static boolean prependUnconsumedInput(LZMADecompressor self, byte[] bytes, int len) {
+        /* Prepend unconsumed input if necessary */
+        if (self.getNextIn() != null) {
+            /* Number of bytes we can append to input buffer */
+            int availNow = self.getInputBufferSize() - (self.getNextInIndex() + self.getLzsAvailIn());
+
+            /*
+             * Number of bytes we can append if we move existing contents to beginning of buffer
+             * (overwriting consumed input)
+             */
+            int availTotal = self.getInputBufferSize() - self.getLzsAvailIn();
+
+            if (availTotal < len) {
+                int newSize = self.getInputBufferSize() + len - availNow;
 
-            if (self.isEOF()) {
-                self.setNeedsInput(false);
-                if (self.getLzsAvailIn() > 0) {
-                    self.setUnusedData();
-                }
-            } else if (self.getLzsAvailIn() == 0) {
-                self.clearNextIn();
-                self.setNextInIndex(0);
                 /*
-                 * (avail_in==0 && avail_out==0) Maybe lzs's internal state still have a few bytes
-                 * can be output, try to output them next time.
+                 * Assign to temporary variable first, so we don't lose address of allocated buffer
+                 * if realloc fails
                  */
-                self.setNeedsInput(self.getLzsAvailOut() != 0);
-            } else {
-                self.setNeedsInput(false);
+                self.resizeInputBuffer(newSize);
+                self.setNextIn(self.getInputBuffer());
+            } else if (availNow < len) {
+                PythonUtils.arraycopy(self.getNextIn(), self.getNextInIndex(), self.getInputBuffer(), 0, self.getLzsAvailIn());
+                self.setNextIn(self.getInputBuffer());
+                self.setNextInIndex(0);
+            }
+            PythonUtils.arraycopy(bytes, 0, self.getNextIn(), self.getNextInIndex() + self.getLzsAvailIn(), len);
+            // memcpy((void*)(lzs->next_in + self.getLzsAvailIn()), data, len);
+            self.incLzsAvailIn(len);
+            return true;
+        } else {
+            self.setNextIn(bytes);
+            self.setLzsAvailIn(len);
+            return false;
+        }
+    }
+
+    private static void saveUnconsumedInput(LZMADecompressor self, boolean inputBufferInUse) {
+        if (self.isEOF()) {
+            self.setNeedsInput(false);
+            if (self.getLzsAvailIn() > 0) {
+                self.setUnusedData();
+            }
+        } else if (self.getLzsAvailIn() == 0) {
+            self.clearNextIn();
+            self.setNextInIndex(0);
+            /*
+             * (avail_in==0 && avail_out==0) Maybe lzs's internal state still have a few bytes can
+             * be output, try to output them next time.
+             */
+            self.setNeedsInput(self.getLzsAvailOut() != 0);
+        } else {
+            self.setNeedsInput(false);
+
+            /*
+             * If we did not use the input buffer, we now have to copy the tail from the caller's
+             * buffer into the input buffer
+             */
+            if (!inputBufferInUse) {
 
                 /*
-                 * If we did not use the input buffer, we now have to copy the tail from the
-                 * caller's buffer into the input buffer
+                 * Discard buffer if it's too small (resizing it may needlessly copy the current
+                 * contents)
                  */
-                if (!inputBufferInUse) {
-
-                    /*
-                     * Discard buffer if it's too small (resizing it may needlessly copy the current
-                     * contents)
-                     */
-                    if (self.getInputBuffer() != null && self.getInputBufferSize() < self.getLzsAvailIn()) {
-                        self.discardInputBuffer();
-                    }
-
-                    /* Allocate if necessary */
-                    if (self.getInputBuffer() == null) {
-                        self.createInputBuffer(self.getLzsAvailIn());
-                    }
+                if (self.getInputBuffer() != null && self.getInputBufferSize() < self.getLzsAvailIn()) {
+                    self.discardInputBuffer();
+                }
 
-                    /* Copy tail */
-                    // memcpy(d->input_buffer, lzs->next_in, self.getLzsAvailIn());
-                    PythonUtils.arraycopy(self.getNextIn(), self.getNextInIndex(), self.getInputBuffer(), 0, self.getLzsAvailIn());
-                    self.setNextIn(self.getInputBuffer());
-                    self.setNextInIndex(0);
+                /* Allocate if necessary */
+                if (self.getInputBuffer() == null) {
+                    self.createInputBuffer(self.getLzsAvailIn());
                 }
-            }
 
-            return result;
+                /* Copy tail */
+                // memcpy(d->input_buffer, lzs->next_in, self.getLzsAvailIn());
+                PythonUtils.arraycopy(self.getNextIn(), self.getNextInIndex(), self.getInputBuffer(), 0, self.getLzsAvailIn());
+                self.setNextIn(self.getInputBuffer());
+                self.setNextInIndex(0);
+            }
         }
     }
 
@@ -1031,19 +1061,85 @@ public class LZMANodes {
 
         @Specialization
         byte[] nativeInternalDecompress(LZMADecompressor.Native self, int maxLength,
+                        @Cached NativeInternalDecompressNode decompress,
+                        @Cached GetOutputNativeBufferNode getBuffer) {
+            decompress.execute(self, maxLength);
+            return getBuffer.execute(self.getLzs(), PythonContext.get(this));
+        }
+
+        @TruffleBoundary
+        @Specialization
+        byte[] javaInternalDecompress(LZMADecompressor.Java self, int maxLength) {
+            if (maxLength == 0) {
+                return PythonUtils.EMPTY_BYTE_ARRAY;
+            }
+            int maxLen = maxLength == -1 ? Integer.MAX_VALUE : maxLength;
+            byte[] result = new byte[Math.min(maxLen, INITIAL_BUFFER_SIZE)];
+            ByteArrayOutputStream baos = createOutputStream(result.length);
+            javaDecompress(self, baos, result, maxLen, getRaiseNode());
+            byte[] ret = toByteArray(baos);
+            self.decompressedData(ret.length);
+            self.update(maxLen - ret.length);
+            return ret;
+        }
+    }
+
+    public abstract static class InternalDecompressIntoNode extends PNodeWithRaise {
+
+        public abstract int execute(LZMADecompressor self, byte[] target, int maxLength);
+
+        @Specialization
+        int nativeInternalDecompress(LZMADecompressor.Native self, byte[] target, int maxLength,
+                        @Cached NativeInternalDecompressNode decompress,
+                        @Cached ReadOutputNativeBufferNode readBuffer) {
+            decompress.execute(self, maxLength);
+            return readBuffer.execute(self.getLzs(), PythonContext.get(this), target);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        int javaInternalDecompress(LZMADecompressor.Java self, byte[] target, int maxLength) {
+            if (maxLength == 0) {
+                return 0;
+            }
+            int written = javaDecompress(self, null, target, maxLength, getRaiseNode());
+            self.decompressedData(written);
+            self.update(maxLength - written);
+            return written;
+        }
+    }
+
+    /**
+     * Runs the native decompressor and updates the input state of {@code self}. The output stays
+     * in the native stream until it is fetched with {@link GetOutputNativeBufferNode} or
+     * {@link ReadOutputNativeBufferNode}.
+     */
+    public abstract static class NativeInternalDecompressNode extends PNodeWithRaise {
+
+        public abstract void execute(LZMADecompressor.Native self, int maxLength);
+
+        @Specialization
+        void decompress(LZMADecompressor.Native self, int maxLength,
                         @Cached NativeLibrary.InvokeNativeFunction decompress,
                         @Cached NativeLibrary.InvokeNativeFunction getLzsAvailIn,
                         @Cached NativeLibrary.InvokeNativeFunction getLzsAvailOut,
                         @Cached NativeLibrary.InvokeNativeFunction getNextInIndex,
                         @Cached NativeLibrary.InvokeNativeFunction getLzsCheck,
-                        @Cached GetOutputNativeBufferNode getBuffer,
                         @Cached ConditionProfile errProfile,
-                        @Cached BranchProfile ofProfile) {
+                        @Cached BranchProfile ofProfile,
+                        @Cached GilNode gil) {
             PythonContext context = PythonContext.get(this);
             NFILZMASupport lzmaSupport = context.getNFILZMASupport();
             Object inGuest = context.getEnv().asGuestValue(self.getNextIn());
             int offset = self.getNextInIndex();
-            int err = lzmaSupport.decompress(self.getLzs(), inGuest, offset, maxLength, INITIAL_BUFFER_SIZE, self.getLzsAvailIn(), decompress);
+            int availIn = self.getLzsAvailIn();
+            int err;
+            gil.release(true);
+            try {
+                err = lzmaSupport.decompress(self.getLzs(), inGuest, offset, maxLength, INITIAL_BUFFER_SIZE, availIn, decompress);
+            } finally {
+                gil.acquire();
+            }
             long nextInIdx = lzmaSupport.getNextInIndex(self.getLzs(), getNextInIndex);
             long lzsAvailIn = lzmaSupport.getLzsAvailIn(self.getLzs(), getLzsAvailIn);
             long lzsAvailOut = lzmaSupport.getLzsAvailOut(self.getLzs(), getLzsAvailOut);
@@ -1061,85 +1157,81 @@ public class LZMANodes {
             } else if (errProfile.profile(err != LZMA_OK)) {
                 errorHandling(err, getRaiseNode());
             }
-            return getBuffer.execute(self.getLzs(), context);
         }
+    }
 
-        @TruffleBoundary
-        @Specialization
-        byte[] javaInternalDecompress(LZMADecompressor.Java self, int maxLength) {
-            if (maxLength == 0) {
-                return PythonUtils.EMPTY_BYTE_ARRAY;
-            }
-            self.setInput();
-            int maxLen = maxLength == -1 ? Integer.MAX_VALUE : maxLength;
-            byte[] result = new byte[Math.min(maxLen, INITIAL_BUFFER_SIZE)];
-            ByteArrayOutputStream baos = createOutputStream(result.length);
-            int dataSize = -1;
-            boolean isInitialized = self.isInitialized();
-            try {
-                while (true) {
-                    try {
-                        if (!isInitialized) {
-                            self.initialize();
-                        }
-                        doDecompression(self, baos, result, maxLen);
-                    } catch (IOException ioe) {
-                        isInitialized = true;
-                        if (self.isFormatAuto()) {
-                            if (dataSize != baos.size()) {
-                                dataSize = baos.size();
-                                self.switchStream();
-                                continue;
+    /**
+     * Decompresses at most {@code maxLen} bytes with the Java decompressor and returns how many
+     * bytes were produced. With a {@code baos}, {@code buf} is a chunk buffer whose contents are
+     * appended to the stream; without one, the output is read straight into {@code buf}.
+     */
+    @TruffleBoundary
+    private static int javaDecompress(LZMADecompressor.Java self, ByteArrayOutputStream baos, byte[] buf, int maxLen, PRaiseNode raise) {
+        self.setInput();
+        int written = 0;
+        int dataSize = -1;
+        boolean isInitialized = self.isInitialized();
+        try {
+            while (true) {
+                try {
+                    if (!isInitialized) {
+                        self.initialize();
+                    }
+                    while (written < maxLen) {
+                        int read;
+                        try {
+                            if (baos != null) {
+                                read = self.read(buf, 0, Math.min(buf.length, maxLen - written));
+                            } else {
+                                read = self.read(buf, written, maxLen - written);
+                            }
+                        } catch (EOFException eof) {
+                            if (self.sameData()) {
+                                self.setEOF();
                             }
-                        } else {
-                            throw ioe;
+                            break;
+                        }
+                        if (read == -1) {
+                            self.setEOF();
+                            break;
+                        }
+                        if (baos != null) {
+                            append(baos, buf, 0, read);
                         }
+                        written += read;
                     }
-                    break;
-                }
-            } catch (UnsupportedOptionsException o) {
-                errorHandling(LZMA_OPTIONS_ERROR, getRaiseNode());
-            } catch (CorruptedInputException c) {
-                if (self.isFormatAuto() && baos.size() > 0) {
-                    self.setEOF();
-                } else {
-                    errorHandling(LZMA_DATA_ERROR, getRaiseNode());
-                }
-            } catch (MemoryLimitException m) {
-                errorHandling(LZMA_MEMLIMIT_ERROR, getRaiseNode());
-            } catch (XZFormatException f) {
-                errorHandling(LZMA_FORMAT_ERROR, getRaiseNode());
-            } catch (EOFException eof) {
-                self.setEOF();
-            } catch (IOException e) {
-                throw raise(OSError, e);
-            }
-            byte[] ret = toByteArray(baos);
-            self.decompressedData(ret.length);
-            self.update(maxLen - ret.length);
-            return ret;
-        }
-
-        @TruffleBoundary
-        private static void doDecompression(LZMADecompressor.Java self, ByteArrayOutputStream baos, byte[] result, int maxLen) throws IOException {
-            while (baos.size() < maxLen) {
-                int read;
-                try {
-                    read = self.read(result);
-                } catch (EOFException eof) {
-                    if (self.sameData()) {
-                        self.setEOF();
+                } catch (IOException ioe) {
+                    isInitialized = true;
+                    if (self.isFormatAuto()) {
+                        if (dataSize != written) {
+                            dataSize = written;
+                            self.switchStream();
+                            continue;
+                        }
+                    } else {
+                        throw ioe;
                     }
-                    break;
-                }
-                if (read == -1) {
-                    self.setEOF();
-                    break;
                 }
-                append(baos, result, 0, read);
+                break;
             }
-        }
-
+        } catch (UnsupportedOptionsException o) {
+            errorHandling(LZMA_OPTIONS_ERROR, raise);
+        } catch (CorruptedInputException c) {
+            if (self.isFormatAuto() && written > 0) {
+                self.setEOF();
+            } else {
+                errorHandling(LZMA_DATA_ERROR, raise);
+            }
+        } catch (MemoryLimitException m) {
+            errorHandling(LZMA_MEMLIMIT_ERROR, raise);
+        } catch (XZFormatException f) {
+            errorHandling(LZMA_FORMAT_ERROR, raise);
+        } catch (EOFException eof) {
+            self.setEOF();
+        } catch (IOException e) {
+            throw raise.raise(OSError, e);
+        }
+        return written;
     }
 
     public abstract static class GetOutputNativeBufferNode extends PNodeWithRaise {
@@ -1170,6 +1262,38 @@ public class LZMANodes {
         }
     }
 
+    /**
+     * Copies the pending native output into {@code target} starting at index 0 and returns its
+     * size. The decompressor never produces more than the {@code maxLength} it was called with, so
+     * a target of that length is large enough.
+     */
+    public abstract static class ReadOutputNativeBufferNode extends PNodeWithRaise {
+
+        public abstract int execute(Object lzmast, PythonContext context, byte[] target);
+
+        @Specialization
+        int readBuffer(Object lzmast, PythonContext context, byte[] target,
+                        @Cached NativeLibrary.InvokeNativeFunction getBufferSize,
+                        @Cached NativeLibrary.InvokeNativeFunction getBuffer,
+                        @Cached BranchProfile ofProfile) {
+            NFILZMASupport lzmaSupport = context.getNFILZMASupport();
+            int size;
+            try {
+                size = PInt.intValueExact(lzmaSupport.getOutputBufferSize(lzmast, getBufferSize));
+            } catch (OverflowException of) {
+                ofProfile.enter();
+                throw raise(SystemError, VALUE_TOO_LARGE_TO_FIT_INTO_INDEX);
+            }
+            if (size == 0) {
+                return 0;
+            }
+            assert size <= target.length;
+            /* this will clear the native output once retrieved */
+            lzmaSupport.getOutputBuffer(lzmast, context.getEnv().asGuestValue(target), getBuffer);
+            return size;
+        }
+    }
+
     public abstract static class IsCheckSupported extends PNodeWithRaise {
 
         public abstract boolean execute(int checkId);
@@ -63,6 +63,7 @@ import org.tukaani.xz.common.DecoderUtil;
 
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.runtime.GilAwareLock;
 import com.oracle.graal.python.runtime.NFILZMASupport;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
@@ -72,11 +73,17 @@ import com.oracle.truffle.api.object.Shape;
 public abstract class LZMAObject extends PythonBuiltinObject {
 
     protected int check;
+    /** Serializes operations on the stream, since they may release the GIL. */
+    private final GilAwareLock lock = new GilAwareLock();
 
     public LZMAObject(Object cls, Shape instanceShape) {
         super(cls, instanceShape);
     }
 
+    public final GilAwareLock getLock() {
+        return lock;
+    }
+
     public void setCheck(int check) {
         this.check = check;
     }
@@ -195,6 +202,8 @@ public abstract class LZMAObject extends PythonBuiltinObject {
         protected byte[] nextIn;
         private int nextInIndex;
 
+        private byte[] outputScratch;
+
         public LZMADecompressor(Object cls, Shape instanceShape) {
             super(cls, instanceShape);
             this.memlimit = Integer.MAX_VALUE;
@@ -339,6 +348,18 @@ public abstract class LZMAObject extends PythonBuiltinObject {
             this.lzsAvailOut = PInt.intValueExact(lzsAvailOut);
         }
 
+        /**
+         * Returns an array of at least {@code size} bytes for {@code _decompress_into} targets that
+         * are not backed by a Java array. The array is reused, so it may only be used while holding
+         * the decompressor's lock.
+         */
+        public byte[] getOutputScratch(int size) {
+            if (outputScratch == null || outputScratch.length < size) {
+                outputScratch = new byte[size];
+            }
+            return outputScratch;
+        }
+
         public static class Java extends LZMADecompressor {
             private LZMANodes.LZMAByteInputStream input;
             private InputStream lzs;
@@ -391,8 +412,8 @@ public abstract class LZMAObject extends PythonBuiltinObject {
             }
 
             @TruffleBoundary
-            public int read(byte[] result) throws IOException {
-                return lzs.read(result);
+            public int read(byte[] result, int offset, int length) throws IOException {
+                return lzs.read(result, offset, length);
             }
 
             @TruffleBoundary
@@ -50,6 +50,7 @@ import java.util.zip.Inflater;
 
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.runtime.GilAwareLock;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -57,10 +58,13 @@ import com.oracle.truffle.api.object.Shape;
 
 public abstract class ZLibCompObject extends PythonBuiltinObject {
 
+    /** Serializes operations on the stream, since they may release the GIL. */
+    private final GilAwareLock lock = new GilAwareLock();
     protected volatile boolean isInitialized;
     private boolean eof;
     private PBytes unusedData;
     private PBytes unconsumedTail;
+    private byte[] outputScratch;
 
     public ZLibCompObject(Object cls, Shape instanceShape) {
         super(cls, instanceShape);
@@ -108,6 +112,7 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
         final int strategy;
 
         private byte[] inputData; // helper for copy operation
+        private int inputLength;
         private boolean canCopy; // to assist if copying is allowed
 
         public JavaZlibCompObject(Object cls, Shape instanceShape, Object stream, int level, int wbits, int strategy, byte[] zdict) {
@@ -118,6 +123,7 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
             this.wbits = wbits;
             this.strategy = strategy;
             this.inputData = null;
+            this.inputLength = 0;
             this.canCopy = true;
         }
 
@@ -137,20 +143,31 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
             return canCopy;
         }
 
+        /**
+         * The array is not copied: the deflater reads from it lazily and {@link #copyCompressObj}
+         * replays it, so callers pass arrays they own.
+         */
         @TruffleBoundary
         public void setDeflaterInput(byte[] data) {
             assert stream instanceof Deflater;
             canCopy = inputData == null;
             inputData = data;
+            inputLength = data.length;
             ((Deflater) stream).setInput(data);
         }
 
+        /**
+         * Sets the first {@code length} bytes of {@code data} as input. Like
+         * {@link #setDeflaterInput}, the array is kept without copying, so it must not be modified
+         * afterwards.
+         */
         @TruffleBoundary
-        public void setInflaterInput(byte[] data) {
+        public void setInflaterInput(byte[] data, int length) {
             assert stream instanceof Inflater;
             canCopy = inputData == null;
             inputData = data;
-            ((Inflater) stream).setInput(data);
+            inputLength = length;
+            ((Inflater) stream).setInput(data, 0, length);
         }
 
         @TruffleBoundary
@@ -166,7 +183,7 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
             if (inputData != null) {
                 // feed the new copy of deflater the same input data
                 ((JavaZlibCompObject) obj).setDeflaterInput(inputData);
-                deflater.deflate(new byte[inputData.length]);
+                deflater.deflate(new byte[inputLength]);
             }
             return obj;
         }
@@ -182,8 +199,8 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
             ZLibCompObject obj = factory.createJavaZLibCompObject(ZlibDecompress, inflater, wbits, zdict);
             if (inputData != null) {
                 try {
-                    ((JavaZlibCompObject) obj).setInflaterInput(inputData);
-                    inflater.setInput(inputData);
+                    ((JavaZlibCompObject) obj).setInflaterInput(inputData, inputLength);
+                    inflater.setInput(inputData, 0, inputLength);
                     int n = inflater.inflate(new byte[ZLibModuleBuiltins.DEF_BUF_SIZE]);
                     if (!isRAW && n == 0 && inflater.needsDictionary() && zdict.length > 0) {
                         inflater.setDictionary(zdict);
@@ -199,6 +216,22 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
         }
     }
 
+    public GilAwareLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Returns an array of at least {@code size} bytes for {@code _decompress_into} targets that are
+     * not backed by a Java array. The array is reused, so it may only be used while holding
+     * {@link #getLock()}.
+     */
+    public byte[] getOutputScratch(int size) {
+        if (outputScratch == null || outputScratch.length < size) {
+            outputScratch = new byte[size];
+        }
+        return outputScratch;
+    }
+
     public boolean isInitialized() {
         return isInitialized;
     }
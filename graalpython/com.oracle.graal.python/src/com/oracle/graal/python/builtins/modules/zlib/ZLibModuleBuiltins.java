@@ -45,11 +45,13 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ZlibCompre
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ZlibDecompress;
 import static com.oracle.graal.python.builtins.modules.zlib.ZlibNodes.Z_OK;
 import static com.oracle.graal.python.nodes.ErrorMessages.EXPECTED_BYTESLIKE_GOT_P;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.MemoryError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ZLibError;
 
 import java.io.ByteArrayOutputStream;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.zip.Adler32;
 import java.util.zip.CRC32;
 import java.util.zip.DataFormatException;
@@ -76,6 +78,7 @@ import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.lib.PyLongAsIntNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
@@ -83,9 +86,11 @@ import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuilti
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentCastNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
@@ -99,6 +104,7 @@ import com.oracle.truffle.api.dsl.TypeSystemReference;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(defineModule = ZLibModuleBuiltins.ZLIB)
@@ -196,6 +202,7 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
         }
         zlibModule.setAttribute("ZLIB_VERSION", ver);
         zlibModule.setAttribute("ZLIB_RUNTIME_VERSION", rtver);
+        zlibModule.setAttribute("_PARALLEL_COMPRESSION", core.getContext().getOption(PythonOptions.CompressionThreads) > 0);
     }
 
     private static String asString(Object o) {
@@ -546,30 +553,51 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
         public PBytes doNativeBytes(PBytesLike data, int level,
                         @Cached SequenceStorageNodes.GetInternalBytesNode toByte,
                         @Cached SequenceStorageNodes.LenNode lenNode,
-                        @Cached ZlibNodes.ZlibNativeCompress nativeCompress) {
+                        @Cached ZlibNodes.ZlibNativeCompress nativeCompress,
+                        @Shared("p") @Cached ConditionProfile parallelProfile) {
             byte[] bytes = toByte.execute(data);
             int len = lenNode.execute(data.getSequenceStorage());
-            byte[] resultArray = nativeCompress.execute(bytes, len, level, PythonContext.get(this));
+            byte[] resultArray = compressParallel(bytes, len, level, parallelProfile);
+            if (resultArray == null) {
+                resultArray = nativeCompress.execute(bytes, len, level, PythonContext.get(this));
+            }
             return factory().createBytes(resultArray);
         }
 
         @Specialization(guards = {"useNative()", "!isBytes(data)"})
         public PBytes doNativeObject(Object data, int level,
                         @Shared("bb") @Cached ToBytesNode toBytesNode,
-                        @Cached ZlibNodes.ZlibNativeCompress nativeCompress) {
+                        @Cached ZlibNodes.ZlibNativeCompress nativeCompress,
+                        @Shared("p") @Cached ConditionProfile parallelProfile) {
             byte[] bytes = toBytesNode.execute(data);
-            return factory().createBytes(nativeCompress.execute(bytes, bytes.length, level, PythonContext.get(this)));
+            byte[] resultArray = compressParallel(bytes, bytes.length, level, parallelProfile);
+            if (resultArray == null) {
+                resultArray = nativeCompress.execute(bytes, bytes.length, level, PythonContext.get(this));
+            }
+            return factory().createBytes(resultArray);
         }
 
         @Specialization(guards = {"!useNative()"})
         public PBytes doJava(Object data, int level,
                         @Shared("bb") @Cached ToBytesNode toBytesNode,
-                        @Cached ConditionProfile wrongLevelProfile) {
+                        @Cached ConditionProfile wrongLevelProfile,
+                        @Shared("p") @Cached ConditionProfile parallelProfile) {
             if (wrongLevelProfile.profile(level < -1 || 9 < level)) {
                 throw raise(ZLibError, ErrorMessages.BAD_COMPRESSION_LEVEL);
             }
             byte[] array = toBytesNode.execute(data);
-            return factory().createBytes(javaCompress(array, level));
+            byte[] resultArray = compressParallel(array, array.length, level, parallelProfile);
+            if (resultArray == null) {
+                resultArray = javaCompress(array, level);
+            }
+            return factory().createBytes(resultArray);
+        }
+
+        private byte[] compressParallel(byte[] bytes, int len, int level, ConditionProfile parallelProfile) {
+            if (parallelProfile.profile(ZlibParallelDeflate.isWorthwhile(len) && level >= -1 && level <= 9)) {
+                return ZLibModuleBuiltins.compressParallel(this, PythonContext.get(this), bytes, len, level, ZlibParallelDeflate.FORMAT_ZLIB, 0);
+            }
+            return null;
         }
 
         @SuppressWarnings("unused")
@@ -579,18 +607,91 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
         }
 
         @CompilerDirectives.TruffleBoundary
+        @SuppressWarnings("try")
         byte[] javaCompress(byte[] array, int level) {
-            Deflater compresser = new Deflater(level);
-            compresser.setInput(array);
-            compresser.finish();
-            byte[] resultArray = new byte[DEF_BUF_SIZE];
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            while (!compresser.finished()) {
-                int howmany = compresser.deflate(resultArray);
-                baos.write(resultArray, 0, howmany);
+            try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                Deflater compresser = new Deflater(level);
+                compresser.setInput(array);
+                compresser.finish();
+                byte[] resultArray = new byte[DEF_BUF_SIZE];
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                while (!compresser.finished()) {
+                    int howmany = compresser.deflate(resultArray);
+                    baos.write(resultArray, 0, howmany);
+                }
+                compresser.end();
+                return baos.toByteArray();
             }
-            compresser.end();
-            return baos.toByteArray();
+        }
+    }
+
+    /**
+     * Compresses the input in parallel blocks with the GIL released. Returns {@code null} if
+     * parallel compression is disabled or could not be completed, in which case the caller
+     * compresses serially.
+     */
+    @CompilerDirectives.TruffleBoundary
+    @SuppressWarnings("try")
+    static byte[] compressParallel(Node node, PythonContext context, byte[] bytes, int len, int level, int format, long mtime) {
+        ZlibParallelDeflate parallelDeflate = context.getParallelDeflate();
+        if (parallelDeflate == null) {
+            return null;
+        }
+        try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+            return parallelDeflate.compress(bytes, len, level, format, mtime);
+        } catch (OutOfMemoryError e) {
+            throw PRaiseNode.raiseUncached(node, MemoryError);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw PRaiseNode.raiseUncached(node, ZLibError, cause instanceof Exception ? (Exception) cause : e);
+        }
+    }
+
+    // zlib._compress_parallel(data, level, wbits, mtime)
+    @Builtin(name = "_compress_parallel", minNumOfPositionalArgs = 4, parameterNames = {"data", "level", "wbits", "mtime"})
+    @ArgumentClinic(name = "level", conversion = ArgumentClinic.ClinicConversion.Int)
+    @ArgumentClinic(name = "wbits", conversion = ArgumentClinic.ClinicConversion.Int)
+    @ArgumentClinic(name = "mtime", conversion = ArgumentClinic.ClinicConversion.Long)
+    @GenerateNodeFactory
+    public abstract static class CompressParallelNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ZLibModuleBuiltinsClinicProviders.CompressParallelNodeClinicProviderGen.INSTANCE;
+        }
+
+        /**
+         * Returns the compressed data, or {@code None} if parallel compression is disabled or the
+         * input is too small for it, in which case the caller is expected to compress serially.
+         * {@code wbits} selects the format like for {@code compressobj}.
+         */
+        @Specialization
+        Object compress(Object data, int level, int wbits, long mtime,
+                        @Cached ToBytesNode toBytesNode) {
+            if (level < -1 || 9 < level) {
+                // like compressobj, which the serial gzip path uses
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.INVALID_INITIALIZATION_OPTION);
+            }
+            int format;
+            if (wbits >= -MAX_WBITS && wbits <= -9) {
+                format = ZlibParallelDeflate.FORMAT_RAW;
+            } else if (wbits >= 9 && wbits <= MAX_WBITS) {
+                format = ZlibParallelDeflate.FORMAT_ZLIB;
+            } else if (wbits >= 16 + 9 && wbits <= 16 + MAX_WBITS) {
+                format = ZlibParallelDeflate.FORMAT_GZIP;
+            } else {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.INVALID_INITIALIZATION_OPTION);
+            }
+            if (getContext().getParallelDeflate() == null) {
+                // do not copy the input just to fall back
+                return PNone.NONE;
+            }
+            byte[] bytes = toBytesNode.execute(data);
+            if (!ZlibParallelDeflate.isWorthwhile(bytes.length)) {
+                return PNone.NONE;
+            }
+            byte[] result = compressParallel(this, getContext(), bytes, bytes.length, level, format, mtime);
+            return result == null ? PNone.NONE : factory().createBytes(result);
         }
     }
 
@@ -655,20 +756,38 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
 
         @CompilerDirectives.TruffleBoundary
         byte[] javaDecompress(byte[] array, @SuppressWarnings("unused") int wbits, int bufsize) throws DataFormatException {
-            // We don't use wbits currently. There is no easy way how to map to java Inflater.
-            Inflater decompresser = new Inflater();
-            decompresser.setInput(array);
-            byte[] resultArray = new byte[bufsize];
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            while (!decompresser.finished()) {
-                int howmany = decompresser.inflate(resultArray);
-                if (howmany == 0 && decompresser.needsInput()) {
-                    throw raise(ZLibError, ErrorMessages.ERROR_5_WHILE_DECOMPRESSING);
+            byte[] result = javaDecompressWithoutGil(array, bufsize);
+            if (result == null) {
+                throw raise(ZLibError, ErrorMessages.ERROR_5_WHILE_DECOMPRESSING);
+            }
+            return result;
+        }
+
+        /**
+         * Inflates the whole input with the GIL released. Returns {@code null} if the input is
+         * truncated.
+         */
+        @SuppressWarnings("try")
+        private static byte[] javaDecompressWithoutGil(byte[] array, int bufsize) throws DataFormatException {
+            try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                // We don't use wbits currently. There is no easy way how to map to java Inflater.
+                Inflater decompresser = new Inflater();
+                try {
+                    decompresser.setInput(array);
+                    byte[] resultArray = new byte[bufsize];
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    while (!decompresser.finished()) {
+                        int howmany = decompresser.inflate(resultArray);
+                        if (howmany == 0 && decompresser.needsInput()) {
+                            return null;
+                        }
+                        baos.write(resultArray, 0, howmany);
+                    }
+                    return baos.toByteArray();
+                } finally {
+                    decompresser.end();
                 }
-                baos.write(resultArray, 0, howmany);
             }
-            decompresser.end();
-            return baos.toByteArray();
         }
     }
 
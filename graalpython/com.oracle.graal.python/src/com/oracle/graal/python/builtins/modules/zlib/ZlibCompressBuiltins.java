@@ -45,7 +45,8 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ZlibCompre
 import static com.oracle.graal.python.builtins.modules.zlib.ZLibModuleBuiltins.DEF_BUF_SIZE;
 import static com.oracle.graal.python.builtins.modules.zlib.ZLibModuleBuiltins.Z_NO_FLUSH;
 import static com.oracle.graal.python.builtins.modules.zlib.ZlibNodes.Z_OK;
-import static com.oracle.graal.python.builtins.modules.zlib.ZlibNodes.Z_STREAM_ERROR;
+import static com.oracle.graal.python.nodes.ErrorMessages.ERROR_2_WHILE_COMPRESSING;
+import static com.oracle.graal.python.nodes.ErrorMessages.INCONSISTENT_STREAM_STATE;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ZLibError;
 
@@ -67,6 +68,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -94,40 +96,63 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
         PBytes doNativeBytes(ZLibCompObject.NativeZlibCompObject self, PBytesLike data,
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode toBytes,
                         @Cached SequenceStorageNodes.LenNode lenNode,
-                        @Shared("co") @Cached ZlibNodes.ZlibNativeCompressObj compressObj) {
-            synchronized (self) {
-                assert self.isInitialized();
+                        @Shared("co") @Cached ZlibNodes.ZlibNativeCompressObj compressObj,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // another thread flushed the stream while we waited for the lock
+                    throw raise(ZLibError, ERROR_2_WHILE_COMPRESSING);
+                }
                 byte[] bytes = toBytes.execute(data.getSequenceStorage());
                 int len = lenNode.execute(data.getSequenceStorage());
                 return factory().createBytes(compressObj.execute(self, PythonContext.get(this), bytes, len));
+            } finally {
+                self.getLock().release();
             }
         }
 
         @Specialization(guards = {"self.isInitialized()", "!isBytes(data)"})
         PBytes doNativeObject(ZLibCompObject.NativeZlibCompObject self, Object data,
                         @Shared("bb") @Cached BytesNodes.ToBytesNode toBytes,
-                        @Shared("co") @Cached ZlibNodes.ZlibNativeCompressObj compressObj) {
-            synchronized (self) {
-                assert self.isInitialized();
+                        @Shared("co") @Cached ZlibNodes.ZlibNativeCompressObj compressObj,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // another thread flushed the stream while we waited for the lock
+                    throw raise(ZLibError, ERROR_2_WHILE_COMPRESSING);
+                }
                 byte[] bytes = toBytes.execute(data);
                 int len = bytes.length;
                 return factory().createBytes(compressObj.execute(self, PythonContext.get(this), bytes, len));
+            } finally {
+                self.getLock().release();
             }
         }
 
         @Specialization(guards = "self.isInitialized()")
         PBytes doit(ZLibCompObject.JavaZlibCompObject self, Object data,
                         @Shared("bb") @Cached BytesNodes.ToBytesNode toBytes,
-                        @Cached ZlibNodes.JavaCompressNode compressNode) {
+                        @Cached ZlibNodes.JavaCompressNode compressNode,
+                        @Cached GilNode gil) {
             byte[] bytes = toBytes.execute(data);
-            self.setDeflaterInput(bytes);
-            return compressNode.execute(self, Z_NO_FLUSH, factory());
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    throw raise(ZLibError, ERROR_2_WHILE_COMPRESSING);
+                }
+                self.setDeflaterInput(bytes);
+                return compressNode.execute(self, Z_NO_FLUSH, factory());
+            } finally {
+                self.getLock().release();
+            }
         }
 
         @SuppressWarnings("unused")
         @Specialization(guards = "!self.isInitialized()")
         PBytes error(ZLibCompObject self, Object data) {
-            throw raise(ZLibError, "Error %d %s: %s", Z_STREAM_ERROR, "while compressing data", "inconsistent stream state");
+            throw raise(ZLibError, ERROR_2_WHILE_COMPRESSING);
         }
     }
 
@@ -140,9 +165,15 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
                         @Cached NativeLibrary.InvokeNativeFunction createCompObject,
                         @Cached NativeLibrary.InvokeNativeFunction compressObjCopy,
                         @Cached NativeLibrary.InvokeNativeFunction deallocateStream,
-                        @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling) {
-            synchronized (self) {
-                assert self.isInitialized();
+                        @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling,
+                        @Cached GilNode gil,
+                        @Cached.Shared("r") @Cached PRaiseNode raise) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // another thread flushed the stream while we waited for the lock
+                    throw raise.raise(ValueError, INCONSISTENT_STREAM_STATE);
+                }
                 NFIZlibSupport zlibSupport = ctxt.getNFIZlibSupport();
                 Object zstNewCopy = zlibSupport.createCompObject(createCompObject);
                 int err = zlibSupport.compressObjCopy(self.getZst(), zstNewCopy, compressObjCopy);
@@ -151,6 +182,8 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
                     errorHandling.execute(self.getZst(), err, zlibSupport, false);
                 }
                 return factory.createNativeZLibCompObject(ZlibCompress, zstNewCopy, zlibSupport);
+            } finally {
+                self.getLock().release();
             }
         }
 
@@ -170,7 +203,7 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
         @Specialization(guards = "!self.isInitialized()")
         PNone error(ZLibCompObject self, PythonContext ctxt, PythonObjectFactory factory,
                         @Cached.Shared("r") @Cached PRaiseNode raise) {
-            throw raise.raise(ValueError, "Inconsistent stream state");
+            throw raise.raise(ValueError, INCONSISTENT_STREAM_STATE);
         }
     }
 
@@ -222,9 +255,14 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
                         @Cached ZlibNodes.GetNativeBufferNode getBuffer,
                         @Cached NativeLibrary.InvokeNativeFunction getIsInitialised,
                         @Cached ZlibNodes.NativeDeallocation processDeallocation,
-                        @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling) {
-            synchronized (self) {
-                assert self.isInitialized();
+                        @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // another thread flushed the stream while we waited for the lock
+                    throw raise(ZLibError, ERROR_2_WHILE_COMPRESSING);
+                }
                 PythonContext ctxt = PythonContext.get(this);
                 NFIZlibSupport zlibSupport = ctxt.getNFIZlibSupport();
                 Object lastInput;
@@ -246,19 +284,30 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
                     processDeallocation.execute(self, ctxt, factory(), true);
                 }
                 return factory().createBytes(resultArray);
+            } finally {
+                self.getLock().release();
             }
         }
 
         @Specialization(guards = {"mode != Z_NO_FLUSH", "self.isInitialized()"})
         PBytes doit(ZLibCompObject.JavaZlibCompObject self, int mode,
-                        @Cached ZlibNodes.JavaCompressNode compressNode) {
-            return compressNode.execute(self, mode, factory());
+                        @Cached ZlibNodes.JavaCompressNode compressNode,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    throw raise(ZLibError, ERROR_2_WHILE_COMPRESSING);
+                }
+                return compressNode.execute(self, mode, factory());
+            } finally {
+                self.getLock().release();
+            }
         }
 
         @SuppressWarnings("unused")
         @Specialization(guards = "!self.isInitialized()")
         PNone error(ZLibCompObject self, int mode) {
-            throw raise(ZLibError, "Error %d %s: %s", Z_STREAM_ERROR, "while compressing data", "inconsistent stream state");
+            throw raise(ZLibError, ERROR_2_WHILE_COMPRESSING);
         }
     }
 
@@ -44,7 +44,7 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.NotImpleme
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ZlibDecompress;
 import static com.oracle.graal.python.builtins.modules.zlib.ZLibModuleBuiltins.DEF_BUF_SIZE;
 import static com.oracle.graal.python.builtins.modules.zlib.ZlibNodes.Z_OK;
-import static com.oracle.graal.python.builtins.modules.zlib.ZlibNodes.Z_STREAM_ERROR;
+import static com.oracle.graal.python.nodes.ErrorMessages.ERROR_2_WHILE_DECOMPRESSING;
 import static com.oracle.graal.python.nodes.ErrorMessages.INCONSISTENT_STREAM_STATE;
 import static com.oracle.graal.python.nodes.ErrorMessages.S_MUST_BE_GREATER_THAN_ZERO;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
@@ -57,6 +57,7 @@ import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
@@ -69,6 +70,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltin
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -79,6 +81,8 @@ import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = ZlibDecompress)
 public class ZlibDecompressBuiltins extends PythonBuiltins {
@@ -101,24 +105,38 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
         PBytes doNativeBytes(ZLibCompObject.NativeZlibCompObject self, PBytesLike data, int maxLength,
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode toBytes,
                         @Cached SequenceStorageNodes.LenNode lenNode,
-                        @Shared("dobj") @Cached ZlibNodes.ZlibNativeDecompressObj decompressObj) {
-            synchronized (self) {
-                assert self.isInitialized();
+                        @Shared("dobj") @Cached ZlibNodes.ZlibNativeDecompressObj decompressObj,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // another thread flushed the stream while we waited for the lock
+                    throw raise(ZLibError, ERROR_2_WHILE_DECOMPRESSING);
+                }
                 byte[] bytes = toBytes.execute(data.getSequenceStorage());
                 int len = lenNode.execute(data.getSequenceStorage());
                 return factory().createBytes(decompressObj.execute(self, PythonContext.get(this), bytes, len, maxLength));
+            } finally {
+                self.getLock().release();
             }
         }
 
         @Specialization(guards = {"maxLength >= 0", "self.isInitialized()", "!isBytes(data)"})
         PBytes doNativeObject(ZLibCompObject.NativeZlibCompObject self, Object data, int maxLength,
                         @Shared("bb") @Cached BytesNodes.ToBytesNode toBytes,
-                        @Shared("dobj") @Cached ZlibNodes.ZlibNativeDecompressObj decompressObj) {
-            synchronized (self) {
-                assert self.isInitialized();
+                        @Shared("dobj") @Cached ZlibNodes.ZlibNativeDecompressObj decompressObj,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // another thread flushed the stream while we waited for the lock
+                    throw raise(ZLibError, ERROR_2_WHILE_DECOMPRESSING);
+                }
                 byte[] bytes = toBytes.execute(data);
                 int len = bytes.length;
                 return factory().createBytes(decompressObj.execute(self, PythonContext.get(this), bytes, len, maxLength));
+            } finally {
+                self.getLock().release();
             }
         }
 
@@ -134,7 +152,7 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
         @SuppressWarnings("unused")
         @Specialization(guards = {"maxLength >= 0", "!self.isInitialized()"})
         PBytes error(ZLibCompObject self, Object data, int maxLength) {
-            throw raise(ZLibError, "Error %d %s: %s", Z_STREAM_ERROR, "while decompressing data", "inconsistent stream state");
+            throw raise(ZLibError, ERROR_2_WHILE_DECOMPRESSING);
         }
 
         @SuppressWarnings("unused")
@@ -144,6 +162,110 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Like {@code decompress(data, len(buffer))}, but writes the output into the writable
+     * {@code buffer} and returns the number of bytes written instead of allocating a new bytes
+     * object. The input is read from the buffer's backing array without copying where possible,
+     * and the output goes straight into the target's backing array if it has one, or through a
+     * scratch array owned by the decompressor otherwise.
+     */
+    @Builtin(name = "_decompress_into", minNumOfPositionalArgs = 3, parameterNames = {"$self", "data", "buffer"})
+    @ArgumentClinic(name = "data", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "buffer", conversion = ArgumentClinic.ClinicConversion.WritableBuffer)
+    @GenerateNodeFactory
+    abstract static class DecompressIntoNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ZlibDecompressBuiltinsClinicProviders.DecompressIntoNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "self.isInitialized()", limit = "3")
+        int doNative(ZLibCompObject.NativeZlibCompObject self, Object data, Object buffer,
+                        @CachedLibrary("data") PythonBufferAccessLibrary dataLib,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached ZlibNodes.ZlibNativeDecompressObjInto decompressObj,
+                        @Shared("direct") @Cached ConditionProfile directProfile,
+                        @Shared("gil") @Cached GilNode gil) {
+            try {
+                int size = checkSize(bufferLib.getBufferLength(buffer));
+                byte[] bytes = dataLib.getInternalOrCopiedByteArray(data);
+                int len = dataLib.getBufferLength(data);
+                self.getLock().acquire(gil);
+                try {
+                    if (!self.isInitialized()) {
+                        // another thread flushed the stream while we waited for the lock
+                        throw raise(ZLibError, ERROR_2_WHILE_DECOMPRESSING);
+                    }
+                    PythonContext context = PythonContext.get(this);
+                    if (directProfile.profile(bufferLib.hasInternalByteArray(buffer))) {
+                        return decompressObj.execute(self, context, bytes, len, bufferLib.getInternalByteArray(buffer), size);
+                    }
+                    byte[] scratch = self.getOutputScratch(size);
+                    int written = decompressObj.execute(self, context, bytes, len, scratch, size);
+                    bufferLib.writeFromByteArray(buffer, 0, scratch, 0, written);
+                    return written;
+                } finally {
+                    self.getLock().release();
+                }
+            } finally {
+                dataLib.release(data);
+                bufferLib.release(buffer);
+            }
+        }
+
+        @Specialization(guards = "self.isInitialized()", limit = "3")
+        int doJava(ZLibCompObject.JavaZlibCompObject self, Object data, Object buffer,
+                        @CachedLibrary("data") PythonBufferAccessLibrary dataLib,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached ZlibNodes.JavaDecompressIntoNode decompressNode,
+                        @Shared("direct") @Cached ConditionProfile directProfile,
+                        @Shared("gil") @Cached GilNode gil) {
+            try {
+                int size = checkSize(bufferLib.getBufferLength(buffer));
+                byte[] bytes = dataLib.getInternalOrCopiedByteArray(data);
+                int len = dataLib.getBufferLength(data);
+                if (dataLib.hasInternalByteArray(data) && !dataLib.isReadonly(data)) {
+                    // the inflater keeps the input for copy(), so it must not see later writes
+                    bytes = PythonUtils.arrayCopyOf(bytes, len);
+                }
+                self.getLock().acquire(gil);
+                try {
+                    if (!self.isInitialized()) {
+                        // another thread flushed the stream while we waited for the lock
+                        throw raise(ZLibError, ERROR_2_WHILE_DECOMPRESSING);
+                    }
+                    if (directProfile.profile(bufferLib.hasInternalByteArray(buffer))) {
+                        return decompressNode.execute(self, bytes, len, bufferLib.getInternalByteArray(buffer), size, factory());
+                    }
+                    byte[] scratch = self.getOutputScratch(size);
+                    int written = decompressNode.execute(self, bytes, len, scratch, size, factory());
+                    bufferLib.writeFromByteArray(buffer, 0, scratch, 0, written);
+                    return written;
+                } finally {
+                    self.getLock().release();
+                }
+            } finally {
+                dataLib.release(data);
+                bufferLib.release(buffer);
+            }
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isInitialized()")
+        int error(ZLibCompObject self, Object data, Object buffer) {
+            throw raise(ZLibError, ERROR_2_WHILE_DECOMPRESSING);
+        }
+
+        private int checkSize(int size) {
+            // a max_length of zero means unlimited for zlib
+            if (size == 0) {
+                throw raise(ValueError, S_MUST_BE_GREATER_THAN_ZERO, "buffer length");
+            }
+            return size;
+        }
+    }
+
     abstract static class BaseCopyNode extends PNodeWithContext {
 
         public abstract Object execute(ZLibCompObject self, PythonContext ctxt, PythonObjectFactory factory);
@@ -153,9 +275,15 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
                         @Cached NativeLibrary.InvokeNativeFunction createCompObject,
                         @Cached NativeLibrary.InvokeNativeFunction decompressObjCopy,
                         @Cached NativeLibrary.InvokeNativeFunction deallocateStream,
-                        @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling) {
-            synchronized (self) {
-                assert self.isInitialized();
+                        @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling,
+                        @Cached GilNode gil,
+                        @Cached.Shared("r") @Cached PRaiseNode raise) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // another thread flushed the stream while we waited for the lock
+                    throw raise.raise(ValueError, INCONSISTENT_STREAM_STATE);
+                }
                 NFIZlibSupport zlibSupport = ctxt.getNFIZlibSupport();
                 Object zstNewCopy = zlibSupport.createCompObject(createCompObject);
                 int err = zlibSupport.decompressObjCopy(self.getZst(), zstNewCopy, decompressObjCopy);
@@ -166,6 +294,8 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
                 ZLibCompObject copy = factory.createNativeZLibCompObject(ZlibDecompress, zstNewCopy, zlibSupport);
                 copy.setEof(self.isEof());
                 return copy;
+            } finally {
+                self.getLock().release();
             }
         }
 
@@ -230,10 +360,15 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
                         @Cached ZlibNodes.GetNativeBufferNode getBuffer,
                         @Cached NativeLibrary.InvokeNativeFunction getIsInitialised,
                         @Cached ZlibNodes.NativeDeallocation processDeallocation,
-                        @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling) {
-            synchronized (self) {
+                        @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // another thread flushed the stream while we waited for the lock
+                    return factory().createBytes(PythonUtils.EMPTY_BYTE_ARRAY);
+                }
                 PythonContext ctxt = PythonContext.get(this);
-                assert self.isInitialized();
                 NFIZlibSupport zlibSupport = ctxt.getNFIZlibSupport();
                 int err = zlibSupport.decompressObjFlush(self.getZst(), length, decompressObjFlush);
                 if (err != Z_OK) {
@@ -244,6 +379,8 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
                     processDeallocation.execute(self, ctxt, factory(), false);
                 }
                 return factory().createBytes(resultArray);
+            } finally {
+                self.getLock().release();
             }
         }
 
@@ -281,10 +418,17 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
     abstract static class UnusedDataNode extends PythonUnaryBuiltinNode {
         @Specialization(guards = "self.isInitialized()")
         PBytes doit(ZLibCompObject.NativeZlibCompObject self,
-                        @Cached ZlibNodes.GetNativeBufferNode getBuffer) {
-            synchronized (self) {
-                assert self.isInitialized();
+                        @Cached ZlibNodes.GetNativeBufferNode getBuffer,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // the stream was deallocated while we waited for the lock
+                    return self.getUnusedData();
+                }
                 return factory().createBytes(getBuffer.getUnusedDataBuffer(self.getZst(), PythonContext.get(this)));
+            } finally {
+                self.getLock().release();
             }
         }
 
@@ -304,10 +448,17 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
     abstract static class UnconsumedTailNode extends PythonUnaryBuiltinNode {
         @Specialization(guards = "self.isInitialized()")
         PBytes doit(ZLibCompObject.NativeZlibCompObject self,
-                        @Cached ZlibNodes.GetNativeBufferNode getBuffer) {
-            synchronized (self) {
-                assert self.isInitialized();
+                        @Cached ZlibNodes.GetNativeBufferNode getBuffer,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // the stream was deallocated while we waited for the lock
+                    return self.getUnconsumedTail();
+                }
                 return factory().createBytes(getBuffer.getUnconsumedTailBuffer(self.getZst(), PythonContext.get(this)));
+            } finally {
+                self.getLock().release();
             }
         }
 
@@ -332,12 +483,19 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"!self.isEof()", "self.isInitialized()"})
         boolean getit(ZLibCompObject.NativeZlibCompObject self,
-                        @Cached NativeLibrary.InvokeNativeFunction getEOF) {
-            synchronized (self) {
-                assert self.isInitialized();
+                        @Cached NativeLibrary.InvokeNativeFunction getEOF,
+                        @Cached GilNode gil) {
+            self.getLock().acquire(gil);
+            try {
+                if (!self.isInitialized()) {
+                    // the stream was deallocated while we waited for the lock
+                    return self.isEof();
+                }
                 NFIZlibSupport zlibSupport = PythonContext.get(this).getNFIZlibSupport();
                 self.setEof(zlibSupport.getEOF(self.getZst(), getEOF) == 1);
                 return self.isEof();
+            } finally {
+                self.getLock().release();
             }
         }
 
@@ -78,6 +78,7 @@ import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -123,10 +124,17 @@ public class ZlibNodes {
                         @Cached NativeLibrary.InvokeNativeFunction compressObj,
                         @Cached GetNativeBufferNode getBuffer,
                         @Cached ZlibNativeErrorHandling errorHandling,
-                        @Cached ConditionProfile errProfile) {
+                        @Cached ConditionProfile errProfile,
+                        @Cached GilNode gil) {
             NFIZlibSupport zlibSupport = context.getNFIZlibSupport();
             self.lastInput = context.getEnv().asGuestValue(bytes);
-            int err = zlibSupport.compressObj(self.getZst(), self.lastInput, len, DEF_BUF_SIZE, compressObj);
+            int err;
+            gil.release(true);
+            try {
+                err = zlibSupport.compressObj(self.getZst(), self.lastInput, len, DEF_BUF_SIZE, compressObj);
+            } finally {
+                gil.acquire();
+            }
             if (errProfile.profile(err != Z_OK)) {
                 errorHandling.execute(self.getZst(), err, zlibSupport, false);
             }
@@ -146,11 +154,18 @@ public class ZlibNodes {
                         @Cached NativeLibrary.InvokeNativeFunction deflateOffHeap,
                         @Cached GetNativeBufferNode getBuffer,
                         @Cached ZlibNativeErrorHandling errorHandling,
-                        @Cached ConditionProfile errProfile) {
+                        @Cached ConditionProfile errProfile,
+                        @Cached GilNode gil) {
             NFIZlibSupport zlibSupport = context.getNFIZlibSupport();
             Object in = context.getEnv().asGuestValue(bytes);
             Object zst = zlibSupport.createStream(createStream);
-            int err = zlibSupport.deflateOffHeap(zst, in, len, DEF_BUF_SIZE, level, deflateOffHeap);
+            int err;
+            gil.release(true);
+            try {
+                err = zlibSupport.deflateOffHeap(zst, in, len, DEF_BUF_SIZE, level, deflateOffHeap);
+            } finally {
+                gil.acquire();
+            }
             if (errProfile.profile(err != Z_OK)) {
                 errorHandling.execute(zst, err, zlibSupport, true);
             }
@@ -166,17 +181,59 @@ public class ZlibNodes {
 
         @Specialization
         byte[] nativeDecompress(ZLibCompObject.NativeZlibCompObject self, PythonContext context, byte[] bytes, int len, int maxLength,
+                        @Cached ZlibNativeInternalDecompressObj decompress,
+                        @Cached GetNativeBufferNode getBuffer) {
+            decompress.execute(self, context, bytes, len, maxLength);
+            return getBuffer.getOutputBuffer(self.getZst(), context);
+        }
+
+    }
+
+    /**
+     * Like {@link ZlibNativeDecompressObj}, but writes at most {@code maxLength} bytes of output
+     * into {@code target} starting at index 0 and returns the number of bytes written.
+     */
+    public abstract static class ZlibNativeDecompressObjInto extends PNodeWithContext {
+
+        public abstract int execute(ZLibCompObject.NativeZlibCompObject self, PythonContext context, byte[] bytes, int len, byte[] target, int maxLength);
+
+        @Specialization
+        int nativeDecompress(ZLibCompObject.NativeZlibCompObject self, PythonContext context, byte[] bytes, int len, byte[] target, int maxLength,
+                        @Cached ZlibNativeInternalDecompressObj decompress,
+                        @Cached ReadNativeOutputBufferNode readBuffer) {
+            assert maxLength > 0 && maxLength <= target.length;
+            decompress.execute(self, context, bytes, len, maxLength);
+            return readBuffer.execute(self.getZst(), context, target);
+        }
+
+    }
+
+    /**
+     * Runs the native decompressor. The output stays in the native stream until it is fetched with
+     * {@link GetNativeBufferNode} or {@link ReadNativeOutputBufferNode}.
+     */
+    public abstract static class ZlibNativeInternalDecompressObj extends PNodeWithContext {
+
+        public abstract void execute(ZLibCompObject.NativeZlibCompObject self, PythonContext context, byte[] bytes, int len, int maxLength);
+
+        @Specialization
+        static void nativeDecompress(ZLibCompObject.NativeZlibCompObject self, PythonContext context, byte[] bytes, int len, int maxLength,
                         @Cached NativeLibrary.InvokeNativeFunction decompressObj,
-                        @Cached GetNativeBufferNode getBuffer,
                         @Cached ZlibNativeErrorHandling errorHandling,
-                        @Cached ConditionProfile errProfile) {
+                        @Cached ConditionProfile errProfile,
+                        @Cached GilNode gil) {
             NFIZlibSupport zlibSupport = context.getNFIZlibSupport();
             Object in = context.getEnv().asGuestValue(bytes);
-            int err = zlibSupport.decompressObj(self.getZst(), in, len, DEF_BUF_SIZE, maxLength, decompressObj);
+            int err;
+            gil.release(true);
+            try {
+                err = zlibSupport.decompressObj(self.getZst(), in, len, DEF_BUF_SIZE, maxLength, decompressObj);
+            } finally {
+                gil.acquire();
+            }
             if (errProfile.profile(err != Z_OK)) {
                 errorHandling.execute(self.getZst(), err, zlibSupport, false);
             }
-            return getBuffer.getOutputBuffer(self.getZst(), context);
         }
 
     }
@@ -192,11 +249,18 @@ public class ZlibNodes {
                         @Cached NativeLibrary.InvokeNativeFunction inflateOffHeap,
                         @Cached GetNativeBufferNode getBuffer,
                         @Cached ZlibNativeErrorHandling errorHandling,
-                        @Cached ConditionProfile errProfile) {
+                        @Cached ConditionProfile errProfile,
+                        @Cached GilNode gil) {
             NFIZlibSupport zlibSupport = context.getNFIZlibSupport();
             Object zst = zlibSupport.createStream(createStream);
             Object in = context.getEnv().asGuestValue(bytes);
-            int err = zlibSupport.inflateOffHeap(zst, in, len, bufsize, wbits, inflateOffHeap);
+            int err;
+            gil.release(true);
+            try {
+                err = zlibSupport.inflateOffHeap(zst, in, len, bufsize, wbits, inflateOffHeap);
+            } finally {
+                gil.acquire();
+            }
             if (errProfile.profile(err != Z_OK)) {
                 errorHandling.execute(zst, err, zlibSupport, true);
             }
@@ -504,12 +568,37 @@ public class ZlibNodes {
         }
     }
 
+    /**
+     * Copies the pending native output into {@code target} starting at index 0 and returns its
+     * size. The output is never larger than the {@code maxLength} the stream was last called with.
+     */
+    @GenerateUncached
+    public abstract static class ReadNativeOutputBufferNode extends PNodeWithContext {
+
+        public abstract int execute(Object zst, PythonContext context, byte[] target);
+
+        @Specialization
+        static int readBuffer(Object zst, PythonContext context, byte[] target,
+                        @Cached NativeLibrary.InvokeNativeFunction getBufferSize,
+                        @Cached NativeLibrary.InvokeNativeFunction getBuffer) {
+            NFIZlibSupport zlibSupport = context.getNFIZlibSupport();
+            int size = zlibSupport.getBufferSize(zst, OUTPUT_OPTION, getBufferSize);
+            if (size == 0) {
+                return 0;
+            }
+            assert size <= target.length;
+            zlibSupport.getBuffer(zst, OUTPUT_OPTION, context.getEnv().asGuestValue(target), getBuffer);
+            return size;
+        }
+    }
+
     abstract static class JavaCompressNode extends PNodeWithContext {
 
         public abstract PBytes execute(ZLibCompObject.JavaZlibCompObject self, int mode, PythonObjectFactory factory);
 
         @CompilerDirectives.TruffleBoundary
         @Specialization
+        @SuppressWarnings("try")
         PBytes doit(ZLibCompObject.JavaZlibCompObject self, int mode, PythonObjectFactory factory) {
             byte[] result = new byte[DEF_BUF_SIZE];
             Deflater deflater = (Deflater) self.stream;
@@ -521,9 +610,11 @@ public class ZlibNodes {
 
             int bytesWritten = result.length;
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            while (bytesWritten == result.length) {
-                bytesWritten = deflater.deflate(result, 0, result.length, deflateMode);
-                baos.write(result, 0, bytesWritten);
+            try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                while (bytesWritten == result.length) {
+                    bytesWritten = deflater.deflate(result, 0, result.length, deflateMode);
+                    baos.write(result, 0, bytesWritten);
+                }
             }
 
             if (mode == Z_FINISH) {
@@ -546,45 +637,53 @@ public class ZlibNodes {
                         @Cached BytesNodes.ToBytesNode toBytesNode) {
             int maxLen = maxLength == 0 ? Integer.MAX_VALUE : maxLength;
             byte[] result = new byte[Math.min(maxLen, bufSize)];
-            boolean zdictIsSet = false;
 
-            Inflater inflater = (Inflater) self.stream;
-            self.setInflaterInput(bytes);
+            self.setInflaterInput(bytes, bytes.length);
 
             int bytesWritten = result.length;
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             while (baos.size() < maxLen && bytesWritten == result.length) {
-                try {
-                    int len = Math.min(maxLen - baos.size(), result.length);
-                    bytesWritten = inflater.inflate(result, 0, len);
-                    if (bytesWritten == 0 && !zdictIsSet && inflater.needsDictionary()) {
-                        if (self.getZdict().length > 0) {
-                            inflater.setDictionary(self.getZdict());
-                            zdictIsSet = true;
-                            // we inflate again with a dictionary
-                            bytesWritten = inflater.inflate(result, 0, len);
-                        } else {
-                            throw raise.raise(ZLibError, WHILE_SETTING_ZDICT);
-                        }
-                    }
-                } catch (DataFormatException e) {
-                    throw raise.raise(ZLibError, e);
-                }
+                int len = Math.min(maxLen - baos.size(), result.length);
+                bytesWritten = inflate(self, result, 0, len, raise);
                 baos.write(result, 0, bytesWritten);
             }
-            self.setEof(isFinished(inflater));
+            self.setEof(isFinished((Inflater) self.stream));
             byte[] unusedDataBytes = toBytesNode.execute(self.getUnusedData());
             int unconsumedTailLen = lenNode.execute(self.getUnconsumedTail().getSequenceStorage());
-            saveUnconsumedInput(self, bytes, unusedDataBytes, unconsumedTailLen, factory);
+            saveUnconsumedInput(self, bytes, bytes.length, unusedDataBytes, unconsumedTailLen, factory);
             return baos.toByteArray();
         }
 
+        /**
+         * Inflates into {@code out[offset, offset + len)} and sets the zdict if the inflater asks
+         * for it.
+         */
         @CompilerDirectives.TruffleBoundary
-        private static void saveUnconsumedInput(ZLibCompObject.JavaZlibCompObject self, byte[] data,
+        private static int inflate(ZLibCompObject.JavaZlibCompObject self, byte[] out, int offset, int len, PRaiseNode raise) {
+            Inflater inflater = (Inflater) self.stream;
+            try {
+                int bytesWritten = inflater.inflate(out, offset, len);
+                if (bytesWritten == 0 && inflater.needsDictionary()) {
+                    if (self.getZdict().length > 0) {
+                        inflater.setDictionary(self.getZdict());
+                        // we inflate again with a dictionary
+                        bytesWritten = inflater.inflate(out, offset, len);
+                    } else {
+                        throw raise.raise(ZLibError, WHILE_SETTING_ZDICT);
+                    }
+                }
+                return bytesWritten;
+            } catch (DataFormatException e) {
+                throw raise.raise(ZLibError, e);
+            }
+        }
+
+        @CompilerDirectives.TruffleBoundary
+        private static void saveUnconsumedInput(ZLibCompObject.JavaZlibCompObject self, byte[] data, int dataLen,
                         byte[] unusedDataBytes, int unconsumedTailLen, PythonObjectFactory factory) {
             Inflater inflater = (Inflater) self.stream;
             int unusedLen = getRemaining(inflater);
-            byte[] tail = Arrays.copyOfRange(data, data.length - unusedLen, data.length);
+            byte[] tail = Arrays.copyOfRange(data, dataLen - unusedLen, dataLen);
             if (self.isEof()) {
                 if (unconsumedTailLen > 0) {
                     self.setUnconsumedTail(factory.createBytes(PythonUtils.EMPTY_BYTE_ARRAY));
@@ -627,4 +726,34 @@ public class ZlibNodes {
         }
     }
 
+    /**
+     * Like {@link JavaDecompressNode}, but inflates at most {@code maxLength} bytes straight into
+     * {@code target} starting at index 0 and returns the number of bytes written.
+     */
+    abstract static class JavaDecompressIntoNode extends PNodeWithContext {
+
+        public abstract int execute(ZLibCompObject.JavaZlibCompObject self, byte[] data, int len, byte[] target, int maxLength, PythonObjectFactory factory);
+
+        @CompilerDirectives.TruffleBoundary
+        @Specialization
+        int doit(ZLibCompObject.JavaZlibCompObject self, byte[] bytes, int len, byte[] target, int maxLength, PythonObjectFactory factory,
+                        @Cached PRaiseNode raise,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached BytesNodes.ToBytesNode toBytesNode) {
+            assert maxLength > 0 && maxLength <= target.length;
+            self.setInflaterInput(bytes, len);
+            int written = 0;
+            int bytesWritten;
+            do {
+                bytesWritten = JavaDecompressNode.inflate(self, target, written, maxLength - written, raise);
+                written += bytesWritten;
+            } while (bytesWritten > 0 && written < maxLength);
+            self.setEof(JavaDecompressNode.isFinished((Inflater) self.stream));
+            byte[] unusedDataBytes = toBytesNode.execute(self.getUnusedData());
+            int unconsumedTailLen = lenNode.execute(self.getUnconsumedTail().getSequenceStorage());
+            JavaDecompressNode.saveUnconsumedInput(self, bytes, len, unusedDataBytes, unconsumedTailLen, factory);
+            return written;
+        }
+    }
+
 }
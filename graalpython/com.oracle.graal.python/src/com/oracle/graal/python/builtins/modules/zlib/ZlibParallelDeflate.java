@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.zlib;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Compresses large buffers with a bounded pool of worker threads, in the style of pigz. The input
+ * is split into independent blocks that are deflated in parallel. Every block but the first is
+ * primed with the preceding 32 KiB of input as dictionary, and every block but the last ends with
+ * a sync flush, so the concatenated blocks form one valid deflate stream. The checksums of the
+ * blocks are computed by the workers as well and combined for the zlib or gzip trailer.
+ *
+ * The output is not identical to what a single {@link Deflater} produces with the same level, but
+ * it decompresses with any inflater, and the compression ratio is close to it.
+ */
+public final class ZlibParallelDeflate {
+    public static final int FORMAT_RAW = 0;
+    public static final int FORMAT_ZLIB = 1;
+    public static final int FORMAT_GZIP = 2;
+
+    static final int BLOCK_SIZE = 128 * 1024;
+    private static final int DICT_SIZE = 32 * 1024;
+    private static final long ADLER_BASE = 65521;
+
+    private final ExecutorService executor;
+    private final int threads;
+
+    public ZlibParallelDeflate(int threads) {
+        this.threads = threads;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread t = Executors.defaultThreadFactory().newThread(runnable);
+            t.setDaemon(true);
+            t.setName("python-zlib-deflate-" + t.getName());
+            return t;
+        });
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns whether it pays off to compress an input of the given length in parallel.
+     */
+    public static boolean isWorthwhile(int len) {
+        return len >= 2 * BLOCK_SIZE;
+    }
+
+    private static final class Block {
+        final byte[] data;
+        final long checksum;
+
+        Block(byte[] data, long checksum) {
+            this.data = data;
+            this.checksum = checksum;
+        }
+    }
+
+    private static void cancelAll(Future<Block>[] futures) {
+        for (Future<Block> f : futures) {
+            if (f != null) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    private static Block deflateBlock(byte[] input, int start, int end, boolean last, int level, int format) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (start > 0) {
+                int dictLen = Math.min(DICT_SIZE, start);
+                deflater.setDictionary(input, start - dictLen, dictLen);
+            }
+            deflater.setInput(input, start, end - start);
+            byte[] buf = new byte[Math.max(64, (end - start) / 2)];
+            ByteArrayOutputStream out = new ByteArrayOutputStream(buf.length);
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(buf);
+                    out.write(buf, 0, n);
+                }
+            } else {
+                int n;
+                do {
+                    n = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+                    out.write(buf, 0, n);
+                } while (n == buf.length);
+            }
+            long checksum = 0;
+            if (format == FORMAT_ZLIB) {
+                Adler32 adler = new Adler32();
+                adler.update(input, start, end - start);
+                checksum = adler.getValue();
+            } else if (format == FORMAT_GZIP) {
+                CRC32 crc = new CRC32();
+                crc.update(input, start, end - start);
+                checksum = crc.getValue();
+            }
+            return new Block(out.toByteArray(), checksum);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Compresses {@code input[0:len]} into a raw deflate stream, a zlib stream or a gzip member
+     * (with the given modification time), depending on {@code format}. Must be called without
+     * holding the GIL.
+     *
+     * Returns {@code null} if the work could not be completed in parallel, i.e., the pool was shut
+     * down or the calling thread was interrupted; the caller should then compress serially. An
+     * {@link Error} of a worker (e.g. {@link OutOfMemoryError}) is rethrown as is, any other
+     * failure of a worker is reported as {@link ExecutionException}.
+     */
+    @TruffleBoundary
+    public byte[] compress(byte[] input, int len, int level, int format, long mtime) throws ExecutionException {
+        int blockCount = (len + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        @SuppressWarnings("unchecked")
+        Future<Block>[] futures = new Future[blockCount];
+        try {
+            for (int i = 0; i < blockCount; i++) {
+                int start = i * BLOCK_SIZE;
+                int end = Math.min(len, start + BLOCK_SIZE);
+                boolean last = i == blockCount - 1;
+                futures[i] = executor.submit(() -> deflateBlock(input, start, end, last, level, format));
+            }
+        } catch (RejectedExecutionException e) {
+            cancelAll(futures);
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(len / 2);
+        if (format == FORMAT_ZLIB) {
+            writeZlibHeader(out, level);
+        } else if (format == FORMAT_GZIP) {
+            writeGzipHeader(out, level, mtime);
+        }
+        long checksum = format == FORMAT_ZLIB ? 1 : 0;
+        try {
+            for (int i = 0; i < blockCount; i++) {
+                Block block = futures[i].get();
+                out.write(block.data, 0, block.data.length);
+                int blockLen = Math.min(len, (i + 1) * BLOCK_SIZE) - i * BLOCK_SIZE;
+                if (format == FORMAT_ZLIB) {
+                    checksum = adler32Combine(checksum, block.checksum, blockLen);
+                } else if (format == FORMAT_GZIP) {
+                    checksum = crc32Combine(checksum, block.checksum, blockLen);
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll(futures);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+        if (format == FORMAT_ZLIB) {
+            out.write((int) (checksum >>> 24));
+            out.write((int) (checksum >>> 16));
+            out.write((int) (checksum >>> 8));
+            out.write((int) checksum);
+        } else if (format == FORMAT_GZIP) {
+            writeIntLE(out, checksum);
+            writeIntLE(out, len);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeZlibHeader(ByteArrayOutputStream out, int level) {
+        // CM = 8 (deflate), CINFO = 7 (32K window)
+        int cmf = 0x78;
+        int flevel;
+        if (level == 0 || level == 1) {
+            flevel = 0;
+        } else if (level >= 2 && level <= 5) {
+            flevel = 1;
+        } else if (level == 6 || level == -1) {
+            flevel = 2;
+        } else {
+            flevel = 3;
+        }
+        int flg = flevel << 6;
+        flg += 31 - ((cmf << 8) + flg) % 31;
+        out.write(cmf);
+        out.write(flg);
+    }
+
+    private static void writeGzipHeader(ByteArrayOutputStream out, int level, long mtime) {
+        out.write(0x1f);
+        out.write(0x8b);
+        out.write(8); // deflate
+        out.write(0); // no flags
+        writeIntLE(out, mtime);
+        out.write(level == 9 ? 2 : level == 1 ? 4 : 0);
+        out.write(255); // unknown OS, like the gzip module
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, long value) {
+        out.write((int) value);
+        out.write((int) (value >>> 8));
+        out.write((int) (value >>> 16));
+        out.write((int) (value >>> 24));
+    }
+
+    /**
+     * Combines the Adler-32 checksums of two adjacent pieces of data, like zlib's
+     * {@code adler32_combine}.
+     */
+    static long adler32Combine(long adler1, long adler2, long len2) {
+        long rem = len2 % ADLER_BASE;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (rem * sum1) % ADLER_BASE;
+        sum1 += (adler2 & 0xffff) + ADLER_BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + ADLER_BASE - rem;
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum2 >= (ADLER_BASE << 1)) {
+            sum2 -= (ADLER_BASE << 1);
+        }
+        if (sum2 >= ADLER_BASE) {
+            sum2 -= ADLER_BASE;
+        }
+        return sum1 | (sum2 << 16);
+    }
+
+    /**
+     * Combines the CRC-32 checksums of two adjacent pieces of data, like zlib's
+     * {@code crc32_combine}.
+     */
+    static long crc32Combine(long crc1, long crc2, long len2) {
+        if (len2 <= 0) {
+            return crc1;
+        }
+        long[] even = new long[32];
+        long[] odd = new long[32];
+        // operator for one zero bit in odd
+        odd[0] = 0xedb88320L;
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        // operator for two and four zero bits
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+        long result = crc1;
+        long remaining = len2;
+        // apply len2 zero bytes to crc1, squaring the operator for each bit of len2
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((remaining & 1) != 0) {
+                result = gf2MatrixTimes(even, result);
+            }
+            remaining >>= 1;
+            if (remaining == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((remaining & 1) != 0) {
+                result = gf2MatrixTimes(odd, result);
+            }
+            remaining >>= 1;
+        } while (remaining != 0);
+        return result ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] mat, long vec) {
+        long sum = 0;
+        long v = vec;
+        for (int i = 0; v != 0; i++, v >>>= 1) {
+            if ((v & 1) != 0) {
+                sum ^= mat[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] mat) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+        }
+    }
+
+    @TruffleBoundary
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
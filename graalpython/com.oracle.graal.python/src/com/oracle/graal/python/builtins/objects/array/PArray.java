@@ -34,16 +34,22 @@ import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrar
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.util.BufferFormat;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Exclusive;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.library.ExportMessage.Ignore;
+import com.oracle.truffle.api.memory.ByteArraySupport;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.object.Shape;
 
-// TODO interop library
+@ExportLibrary(InteropLibrary.class)
 @ExportLibrary(PythonBufferAcquireLibrary.class)
 @ExportLibrary(PythonBufferAccessLibrary.class)
 public final class PArray extends PythonBuiltinObject {
@@ -342,4 +348,177 @@ public final class PArray extends PythonBuiltinObject {
     void writeDouble(int byteOffset, double value) {
         PythonUtils.arrayAccessor.putDouble(buffer, byteOffset, value);
     }
+
+    /*
+     * Interop buffer messages. They give foreign languages direct access to the elements of the
+     * array without copying them into a host array first.
+     */
+
+    private static final ByteArraySupport LITTLE_ENDIAN_ACCESSOR = ByteArraySupport.littleEndian();
+    private static final ByteArraySupport BIG_ENDIAN_ACCESSOR = ByteArraySupport.bigEndian();
+
+    private static ByteArraySupport accessor(ByteOrder order) {
+        return order == ByteOrder.LITTLE_ENDIAN ? LITTLE_ENDIAN_ACCESSOR : BIG_ENDIAN_ACCESSOR;
+    }
+
+    private int checkBufferOffset(long byteOffset, int size) throws InvalidBufferOffsetException {
+        if (byteOffset < 0 || byteOffset > (long) length * format.bytesize - size) {
+            throw InvalidBufferOffsetException.create(byteOffset, size);
+        }
+        return (int) byteOffset;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    boolean hasBufferElements() {
+        return true;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    boolean isBufferWritable() {
+        return true;
+    }
+
+    @ExportMessage
+    long getBufferSize(@Exclusive @Cached GilNode gil) {
+        boolean mustRelease = gil.acquire();
+        try {
+            return (long) length * format.bytesize;
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    byte readBufferByte(long byteOffset,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            return buffer[checkBufferOffset(byteOffset, Byte.BYTES)];
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferByte(long byteOffset, byte value,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            buffer[checkBufferOffset(byteOffset, Byte.BYTES)] = value;
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    short readBufferShort(ByteOrder order, long byteOffset,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            return accessor(order).getShort(buffer, checkBufferOffset(byteOffset, Short.BYTES));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferShort(ByteOrder order, long byteOffset, short value,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            accessor(order).putShort(buffer, checkBufferOffset(byteOffset, Short.BYTES), value);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    int readBufferInt(ByteOrder order, long byteOffset,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            return accessor(order).getInt(buffer, checkBufferOffset(byteOffset, Integer.BYTES));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferInt(ByteOrder order, long byteOffset, int value,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            accessor(order).putInt(buffer, checkBufferOffset(byteOffset, Integer.BYTES), value);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    long readBufferLong(ByteOrder order, long byteOffset,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            return accessor(order).getLong(buffer, checkBufferOffset(byteOffset, Long.BYTES));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferLong(ByteOrder order, long byteOffset, long value,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            accessor(order).putLong(buffer, checkBufferOffset(byteOffset, Long.BYTES), value);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    float readBufferFloat(ByteOrder order, long byteOffset,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            return accessor(order).getFloat(buffer, checkBufferOffset(byteOffset, Float.BYTES));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferFloat(ByteOrder order, long byteOffset, float value,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            accessor(order).putFloat(buffer, checkBufferOffset(byteOffset, Float.BYTES), value);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    double readBufferDouble(ByteOrder order, long byteOffset,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            return accessor(order).getDouble(buffer, checkBufferOffset(byteOffset, Double.BYTES));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferDouble(ByteOrder order, long byteOffset, double value,
+                    @Exclusive @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            accessor(order).putDouble(buffer, checkBufferOffset(byteOffset, Double.BYTES), value);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
 }
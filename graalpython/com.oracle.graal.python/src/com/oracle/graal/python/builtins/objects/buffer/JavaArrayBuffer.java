@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * A Python buffer that views the memory of a host Java {@code long[]}, {@code double[]},
+ * {@code byte[]} or {@link ByteBuffer} in place. Writes through the buffer are visible to Java and
+ * vice versa. The items use the native byte order, like the buffers of {@code array.array}.
+ */
+@ExportLibrary(PythonBufferAccessLibrary.class)
+public abstract class JavaArrayBuffer {
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private final Object owner;
+
+    JavaArrayBuffer(Object owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Creates a buffer over the host object wrapped by {@code object}, or returns {@code null} if
+     * {@code object} is not a supported host array or buffer.
+     */
+    @TruffleBoundary
+    public static JavaArrayBuffer fromHostObject(Env env, Object object) {
+        if (!env.isHostObject(object)) {
+            return null;
+        }
+        Object hostObject = env.asHostObject(object);
+        if (hostObject instanceof long[]) {
+            return new LongArrayBuffer(object, (long[]) hostObject);
+        } else if (hostObject instanceof double[]) {
+            return new DoubleArrayBuffer(object, (double[]) hostObject);
+        } else if (hostObject instanceof byte[]) {
+            return new ByteBufferBuffer(object, ByteBuffer.wrap((byte[]) hostObject), "b");
+        } else if (hostObject instanceof ByteBuffer) {
+            // absolute accesses on a duplicate keep the position and order of the original intact
+            ByteBuffer bb = ((ByteBuffer) hostObject).duplicate().order(ByteOrder.nativeOrder());
+            bb.position(0);
+            bb.limit(bb.capacity());
+            return new ByteBufferBuffer(object, bb, "B");
+        }
+        return null;
+    }
+
+    abstract int length();
+
+    abstract boolean readonly();
+
+    abstract int itemSize();
+
+    abstract String format();
+
+    abstract byte get(int byteOffset);
+
+    abstract void put(int byteOffset, byte value);
+
+    long getLong(int byteOffset) {
+        long result = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            int shift = LITTLE_ENDIAN ? i * 8 : (Long.BYTES - 1 - i) * 8;
+            result |= (get(byteOffset + i) & 0xFFL) << shift;
+        }
+        return result;
+    }
+
+    void putLong(int byteOffset, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            int shift = LITTLE_ENDIAN ? i * 8 : (Long.BYTES - 1 - i) * 8;
+            put(byteOffset + i, (byte) (value >>> shift));
+        }
+    }
+
+    @ExportMessage
+    final int getBufferLength() {
+        return length();
+    }
+
+    @ExportMessage
+    final boolean isReadonly() {
+        return readonly();
+    }
+
+    @ExportMessage
+    final int getItemSize() {
+        return itemSize();
+    }
+
+    @ExportMessage
+    final String getFormatString() {
+        return format();
+    }
+
+    @ExportMessage
+    final Object getOwner() {
+        return owner;
+    }
+
+    @ExportMessage
+    boolean hasInternalByteArray() {
+        return false;
+    }
+
+    @ExportMessage
+    byte[] getInternalByteArray() {
+        throw CompilerDirectives.shouldNotReachHere("getInternalByteArray");
+    }
+
+    @ExportMessage
+    final byte readByte(int byteOffset) {
+        return get(byteOffset);
+    }
+
+    @ExportMessage
+    final void writeByte(int byteOffset, byte value) {
+        put(byteOffset, value);
+    }
+
+    @ExportMessage
+    final long readLong(int byteOffset) {
+        return getLong(byteOffset);
+    }
+
+    @ExportMessage
+    final void writeLong(int byteOffset, long value) {
+        putLong(byteOffset, value);
+    }
+
+    @ExportMessage
+    final double readDouble(int byteOffset) {
+        return Double.longBitsToDouble(getLong(byteOffset));
+    }
+
+    @ExportMessage
+    final void writeDouble(int byteOffset, double value) {
+        putLong(byteOffset, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Common base for arrays of 8-byte elements. Aligned 8-byte accesses go directly to the array
+     * element, everything else is assembled from the element bits.
+     */
+    abstract static class EightByteArrayBuffer extends JavaArrayBuffer {
+        EightByteArrayBuffer(Object owner) {
+            super(owner);
+        }
+
+        abstract int elements();
+
+        abstract long getBits(int index);
+
+        abstract void setBits(int index, long bits);
+
+        @Override
+        final int length() {
+            return elements() * Long.BYTES;
+        }
+
+        @Override
+        final boolean readonly() {
+            return false;
+        }
+
+        @Override
+        final int itemSize() {
+            return Long.BYTES;
+        }
+
+        private static int shift(int byteOffset) {
+            int byteInElement = byteOffset & (Long.BYTES - 1);
+            return (LITTLE_ENDIAN ? byteInElement : Long.BYTES - 1 - byteInElement) * 8;
+        }
+
+        @Override
+        final byte get(int byteOffset) {
+            return (byte) (getBits(byteOffset >> 3) >>> shift(byteOffset));
+        }
+
+        @Override
+        final void put(int byteOffset, byte value) {
+            int index = byteOffset >> 3;
+            int shift = shift(byteOffset);
+            setBits(index, (getBits(index) & ~(0xFFL << shift)) | ((value & 0xFFL) << shift));
+        }
+
+        @Override
+        final long getLong(int byteOffset) {
+            if ((byteOffset & (Long.BYTES - 1)) == 0) {
+                return getBits(byteOffset >> 3);
+            }
+            return super.getLong(byteOffset);
+        }
+
+        @Override
+        final void putLong(int byteOffset, long value) {
+            if ((byteOffset & (Long.BYTES - 1)) == 0) {
+                setBits(byteOffset >> 3, value);
+            } else {
+                super.putLong(byteOffset, value);
+            }
+        }
+    }
+
+    static final class LongArrayBuffer extends EightByteArrayBuffer {
+        private final long[] array;
+
+        LongArrayBuffer(Object owner, long[] array) {
+            super(owner);
+            this.array = array;
+        }
+
+        @Override
+        int elements() {
+            return array.length;
+        }
+
+        @Override
+        String format() {
+            return "q";
+        }
+
+        @Override
+        long getBits(int index) {
+            return array[index];
+        }
+
+        @Override
+        void setBits(int index, long bits) {
+            array[index] = bits;
+        }
+    }
+
+    static final class DoubleArrayBuffer extends EightByteArrayBuffer {
+        private final double[] array;
+
+        DoubleArrayBuffer(Object owner, double[] array) {
+            super(owner);
+            this.array = array;
+        }
+
+        @Override
+        int elements() {
+            return array.length;
+        }
+
+        @Override
+        String format() {
+            return "d";
+        }
+
+        @Override
+        long getBits(int index) {
+            return Double.doubleToRawLongBits(array[index]);
+        }
+
+        @Override
+        void setBits(int index, long bits) {
+            array[index] = Double.longBitsToDouble(bits);
+        }
+    }
+
+    static final class ByteBufferBuffer extends JavaArrayBuffer {
+        private final ByteBuffer buffer;
+        private final String format;
+
+        ByteBufferBuffer(Object owner, ByteBuffer buffer, String format) {
+            super(owner);
+            this.buffer = buffer;
+            this.format = format;
+        }
+
+        @Override
+        int length() {
+            return buffer.capacity();
+        }
+
+        @Override
+        boolean readonly() {
+            return buffer.isReadOnly();
+        }
+
+        @Override
+        int itemSize() {
+            return 1;
+        }
+
+        @Override
+        String format() {
+            return format;
+        }
+
+        @Override
+        boolean hasInternalByteArray() {
+            return buffer.hasArray() && buffer.arrayOffset() == 0;
+        }
+
+        @Override
+        byte[] getInternalByteArray() {
+            return buffer.array();
+        }
+
+        @Override
+        byte get(int byteOffset) {
+            return getByte(buffer, byteOffset);
+        }
+
+        @Override
+        void put(int byteOffset, byte value) {
+            putByte(buffer, byteOffset, value);
+        }
+
+        @Override
+        long getLong(int byteOffset) {
+            return getLong(buffer, byteOffset);
+        }
+
+        @Override
+        void putLong(int byteOffset, long value) {
+            putLong(buffer, byteOffset, value);
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        private static byte getByte(ByteBuffer buffer, int byteOffset) {
+            return buffer.get(byteOffset);
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        private static void putByte(ByteBuffer buffer, int byteOffset, byte value) {
+            buffer.put(byteOffset, value);
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        private static long getLong(ByteBuffer buffer, int byteOffset) {
+            return buffer.getLong(byteOffset);
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        private static void putLong(ByteBuffer buffer, int byteOffset, long value) {
+            buffer.putLong(byteOffset, value);
+        }
+    }
+}
@@ -52,6 +52,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import org.graalvm.collections.EconomicMap;
@@ -70,8 +71,6 @@ import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodesFactory.AsPyt
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodesFactory.CreateModuleNodeGen;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodesFactory.ResolveHandleNodeGen;
 import com.oracle.graal.python.builtins.objects.cext.capi.DynamicObjectNativeWrapper.PrimitiveNativeWrapper;
-import com.oracle.graal.python.builtins.objects.cext.capi.NativeObjectReferenceArrayWrapper.PointerArrayWrapper;
-import com.oracle.graal.python.builtins.objects.cext.capi.NativeObjectReferenceArrayWrapper.RefCountArrayWrapper;
 import com.oracle.graal.python.builtins.objects.cext.common.CExtCommonNodes.CheckFunctionResultNode;
 import com.oracle.graal.python.builtins.objects.cext.common.CExtContext;
 import com.oracle.graal.python.builtins.objects.cext.common.LoadCExtException.ApiInitException;
@@ -138,10 +137,33 @@ public final class CApiContext extends CExtContext {
     public static final long REFERENCE_COUNT_MARKER = (1L << REFERENCE_COUNT_BITS);
     /* a random number between 1 and 20 */
     private static final int MAX_COLLECTION_RETRIES = 17;
+    /** Max. number of pending native references released at once above the watermark. */
+    private static final int MAX_INCREMENTAL_RELEASE = 1024;
+    /**
+     * Max. number of native references released by one {@link CApiReferenceCleanerAction}. This
+     * bounds the time the cleaner holds the GIL; remaining references are left in the queue for
+     * the next action.
+     */
+    private static final int MAX_CLEANER_BATCH = 4096;
 
     /** Total amount of allocated native memory (in bytes). */
     private long allocatedMemory = 0;
 
+    /** Max. value of {@link #allocatedMemory}. */
+    private long allocatedMemoryPeak = 0;
+
+    /**
+     * Sum of the sizes of the blocks tracked via {@code PyTraceMalloc_Track} since the last
+     * {@link #restartTracing()} that are still tracked.
+     */
+    private long tracedMemory = 0;
+
+    /** Max. value of {@link #tracedMemory} since the last {@link #resetTracedMemoryPeak()}. */
+    private long tracedMemoryPeak = 0;
+
+    /** Incremented by {@link #restartTracing()}, used to tell old trace malloc blocks apart. */
+    private int traceMallocGeneration = 0;
+
     private final ReferenceQueue<Object> nativeObjectsQueue;
     private Map<Object, AllocInfo> allocatedNativeMemory;
     private final ReferenceStack<NativeObjectReference> nativeObjectWrapperList;
@@ -150,6 +172,15 @@ public final class CApiContext extends CExtContext {
     /** Container of pointers that have seen to be free'd. */
     private Map<Object, AllocInfo> freedNativeMemory;
 
+    /** Number of references taken from the queue but not yet released by a cleaner action. */
+    private final AtomicInteger pendingReferences = new AtomicInteger();
+    /* statistics of the reference cleaner; only updated with the GIL held */
+    private long cleanerBatches;
+    private long cleanedReferences;
+    private long cleanerPauseNanos;
+    private long maxCleanerPauseNanos;
+    private long maxCleanerBatch;
+
     @CompilationFinal private RootCallTarget referenceCleanerCallTarget;
 
     /**
@@ -211,24 +242,22 @@ public final class CApiContext extends CExtContext {
         }
 
         context.registerAsyncAction(() -> {
-            Reference<?> reference = null;
-            try {
-                reference = nativeObjectsQueue.remove();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            Reference<?> reference = nativeObjectsQueue.poll();
 
+            // this runs without the GIL, so do as much of the preparation as possible here
             ArrayList<NativeObjectReference> refs = new ArrayList<>();
-            do {
+            while (reference != null) {
                 if (reference instanceof NativeObjectReference) {
                     refs.add((NativeObjectReference) reference);
                 }
-                // consume all
+                if (refs.size() >= MAX_CLEANER_BATCH) {
+                    break;
+                }
                 reference = nativeObjectsQueue.poll();
-            } while (reference != null);
+            }
 
             if (!refs.isEmpty()) {
-                return new CApiReferenceCleanerAction(refs.toArray(new NativeObjectReference[0]));
+                return createReferenceCleanerAction(refs);
             }
 
             return null;
@@ -291,6 +320,40 @@ public final class CApiContext extends CExtContext {
         return traceMallocDomains[domainIdx];
     }
 
+    public void traceMallocTrack(int domainIdx, Object pointerObject, long size) {
+        TraceMallocDomain.TrackedBlock previous = traceMallocDomains[domainIdx].track(pointerObject, size, traceMallocGeneration);
+        if (previous != null) {
+            untraced(previous);
+        }
+        tracedMemory += size;
+        if (tracedMemory > tracedMemoryPeak) {
+            tracedMemoryPeak = tracedMemory;
+        }
+    }
+
+    /**
+     * Stops tracking the given block and returns its size, or {@code 0} if it was not tracked.
+     */
+    public long traceMallocUntrack(int domainIdx, Object pointerObject) {
+        TraceMallocDomain.TrackedBlock block = traceMallocDomains[domainIdx].untrack(pointerObject);
+        if (block == null) {
+            return 0;
+        }
+        untraced(block);
+        return block.size;
+    }
+
+    private void untraced(TraceMallocDomain.TrackedBlock block) {
+        // blocks of older generations are not part of the traced memory anymore
+        if (block.generation == traceMallocGeneration) {
+            tracedMemory -= block.size;
+        }
+    }
+
+    public TraceMallocDomain[] getTraceMallocDomains() {
+        return traceMallocDomains != null ? traceMallocDomains : new TraceMallocDomain[0];
+    }
+
     public int findOrCreateTraceMallocDomain(long id) {
         int oldLength;
         if (traceMallocDomains != null) {
@@ -387,7 +450,7 @@ public final class CApiContext extends CExtContext {
      * Simple root node that executes a reference decrease.
      */
     private static final class CApiReferenceCleanerRootNode extends PRootNode {
-        private static final Signature SIGNATURE = new Signature(-1, false, -1, false, new String[]{"ptr", "managedRefCount"}, PythonUtils.EMPTY_STRING_ARRAY);
+        private static final Signature SIGNATURE = new Signature(-1, false, -1, false, new String[]{"refs", "ptrs"}, PythonUtils.EMPTY_STRING_ARRAY);
         private static final TruffleLogger LOGGER = PythonLanguage.getLogger(CApiReferenceCleanerRootNode.class);
 
         @Child private CalleeContext calleeContext;
@@ -405,12 +468,14 @@ public final class CApiContext extends CExtContext {
             calleeContext.enter(frame);
             try {
                 NativeObjectReference[] nativeObjectReferences = (NativeObjectReference[]) PArguments.getArgument(frame, 0);
+                Object[] pointers = (Object[]) PArguments.getArgument(frame, 1);
                 int cleaned = 0;
                 CApiContext cApiContext = PythonContext.get(this).getCApiContext();
                 long allocatedNativeMem = cApiContext.allocatedMemory;
                 long startTime = 0;
                 long middleTime = 0;
                 final int n = nativeObjectReferences.length;
+                long[] refCounts = new long[n];
                 boolean loggable = LOGGER.isLoggable(Level.FINE);
 
                 if (loggable) {
@@ -429,6 +494,7 @@ public final class CApiContext extends CExtContext {
                         Object pointerObject = nativeObjectReference.ptrObject;
                         if (!nativeObjectReference.resurrect) {
                             cApiContext.nativeObjectWrapperList.remove(nativeObjectReference.id);
+                            refCounts[i] = nativeObjectReference.managedRefCount;
                             if (!nativeObjectReference.resurrect && !pointerObjectLib.isNull(pointerObject)) {
                                 cApiContext.checkAccess(pointerObject, pointerObjectLib);
                                 LOGGER.finer(() -> "Cleaning native object reference to " + CApiContext.asHex(pointerObject));
@@ -441,6 +507,7 @@ public final class CApiContext extends CExtContext {
                         NativeObjectReference nativeObjectReference = nativeObjectReferences[i];
                         if (!nativeObjectReference.resurrect) {
                             cApiContext.nativeObjectWrapperList.remove(nativeObjectReference.id);
+                            refCounts[i] = nativeObjectReference.managedRefCount;
                         }
                     }
                 }
@@ -449,7 +516,9 @@ public final class CApiContext extends CExtContext {
                     middleTime = System.currentTimeMillis();
                 }
 
-                callBulkSubref.call(NativeCAPISymbol.FUN_BULK_SUBREF, new PointerArrayWrapper(nativeObjectReferences), new RefCountArrayWrapper(nativeObjectReferences), (long) n);
+                // resurrected references have a ref count of 0 and are therefore left alone
+                Env env = PythonContext.get(this).getEnv();
+                callBulkSubref.call(NativeCAPISymbol.FUN_BULK_SUBREF, env.asGuestValue(pointers), env.asGuestValue(refCounts), (long) n);
 
                 if (loggable) {
                     final long countDuration = middleTime - startTime;
@@ -496,18 +565,59 @@ public final class CApiContext extends CExtContext {
 
         private final NativeObjectReference[] nativeObjectReferences;
 
+        /** The pointer objects of {@link #nativeObjectReferences}, collected without the GIL. */
+        private final Object[] pointers;
+
         public CApiReferenceCleanerAction(NativeObjectReference[] nativeObjectReferences) {
             this.nativeObjectReferences = nativeObjectReferences;
+            this.pointers = new Object[nativeObjectReferences.length];
+            for (int i = 0; i < nativeObjectReferences.length; i++) {
+                pointers[i] = nativeObjectReferences[i].ptrObject;
+            }
         }
 
         @Override
         public void execute(PythonContext context) {
-            Object[] pArguments = PArguments.create(1);
+            CApiContext cApiContext = context.getCApiContext();
+            Object[] pArguments = PArguments.create(2);
             PArguments.setArgument(pArguments, 0, nativeObjectReferences);
-            GenericInvokeNode.getUncached().execute(context.getCApiContext().getReferenceCleanerCallTarget(), pArguments);
+            PArguments.setArgument(pArguments, 1, pointers);
+            long start = System.nanoTime();
+            try {
+                GenericInvokeNode.getUncached().execute(cApiContext.getReferenceCleanerCallTarget(), pArguments);
+            } finally {
+                cApiContext.recordCleanerPause(nativeObjectReferences.length, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private CApiReferenceCleanerAction createReferenceCleanerAction(ArrayList<NativeObjectReference> refs) {
+        pendingReferences.addAndGet(refs.size());
+        return new CApiReferenceCleanerAction(refs.toArray(new NativeObjectReference[0]));
+    }
+
+    private void recordCleanerPause(int n, long nanos) {
+        pendingReferences.addAndGet(-n);
+        cleanerBatches++;
+        cleanedReferences += n;
+        cleanerPauseNanos += nanos;
+        if (nanos > maxCleanerPauseNanos) {
+            maxCleanerPauseNanos = nanos;
+        }
+        if (n > maxCleanerBatch) {
+            maxCleanerBatch = n;
         }
     }
 
+    /**
+     * Returns the statistics of the native reference cleaner as array {@code [pending, batches,
+     * cleaned, total pause (ns), max pause (ns), max batch]}, where {@code pending} is the number of
+     * references that were dequeued but are still waiting for a cleaner action.
+     */
+    public long[] getReferenceCleanerStats() {
+        return new long[]{pendingReferences.get(), cleanerBatches, cleanedReferences, cleanerPauseNanos, maxCleanerPauseNanos, maxCleanerBatch};
+    }
+
     public NativeObjectReference lookupNativeObjectReference(int idx) {
         return nativeObjectWrapperList.get(idx);
     }
@@ -668,8 +778,12 @@ public final class CApiContext extends CExtContext {
 
     public void increaseMemoryPressure(long size, Node node) {
         PythonContext context = getContext();
-        if (allocatedMemory <= context.getOption(PythonOptions.MaxNativeMemory)) {
-            allocatedMemory += size;
+        long maxNativeMemory = context.getOption(PythonOptions.MaxNativeMemory);
+        if (allocatedMemory <= maxNativeMemory) {
+            if (allocatedMemory + size > getNativeMemoryWatermark(context, maxNativeMemory)) {
+                releasePendingReferences(context);
+            }
+            addAllocatedMemory(size);
             return;
         }
         triggerGC(context, size, node);
@@ -677,29 +791,113 @@ public final class CApiContext extends CExtContext {
 
     public void increaseMemoryPressure(VirtualFrame frame, GetThreadStateNode getThreadStateNode, IndirectCallNode caller, long size) {
         PythonContext context = getContext();
-        if (allocatedMemory + size <= context.getOption(PythonOptions.MaxNativeMemory)) {
-            allocatedMemory += size;
+        long maxNativeMemory = context.getOption(PythonOptions.MaxNativeMemory);
+        if (allocatedMemory + size <= getNativeMemoryWatermark(context, maxNativeMemory)) {
+            addAllocatedMemory(size);
             return;
         }
 
         PythonThreadState threadState = getThreadStateNode.execute(context);
         Object savedState = IndirectCallContext.enter(frame, threadState, caller);
         try {
-            triggerGC(context, size, caller);
+            releasePendingReferences(context);
+            if (allocatedMemory + size <= maxNativeMemory) {
+                addAllocatedMemory(size);
+            } else {
+                triggerGC(context, size, caller);
+            }
         } finally {
             IndirectCallContext.exit(frame, threadState, savedState);
         }
     }
 
+    /**
+     * The soft limit (in bytes) above which allocations release pending native references before
+     * the hard limit {@link PythonOptions#MaxNativeMemory} forces a full GC.
+     */
+    public static long getNativeMemoryWatermark(PythonContext context, long maxNativeMemory) {
+        return maxNativeMemory / 100 * context.getOption(PythonOptions.NativeMemoryWatermark);
+    }
+
+    /**
+     * Releases native objects whose managed counterparts were already collected but which are
+     * still waiting in the reference queue for the {@link AsyncHandler}. In contrast to
+     * {@link #triggerGC}, this does not force a GC and only processes up to
+     * {@value #MAX_INCREMENTAL_RELEASE} references, so it is cheap enough to be done on every
+     * allocation above the watermark.
+     */
+    @TruffleBoundary
+    private void releasePendingReferences(PythonContext context) {
+        ArrayList<NativeObjectReference> refs = null;
+        Reference<?> reference;
+        while ((refs == null || refs.size() < MAX_INCREMENTAL_RELEASE) && (reference = nativeObjectsQueue.poll()) != null) {
+            if (reference instanceof NativeObjectReference) {
+                if (refs == null) {
+                    refs = new ArrayList<>();
+                }
+                refs.add((NativeObjectReference) reference);
+            }
+        }
+        if (refs != null) {
+            LOGGER.fine(() -> "releasing pending native references due to native memory watermark");
+            createReferenceCleanerAction(refs).execute(context);
+        }
+    }
+
+    private void addAllocatedMemory(long size) {
+        allocatedMemory += size;
+        if (allocatedMemory > allocatedMemoryPeak) {
+            allocatedMemoryPeak = allocatedMemory;
+        }
+    }
+
+    public long getAllocatedMemory() {
+        return allocatedMemory;
+    }
+
+    public long getAllocatedMemoryPeak() {
+        return allocatedMemoryPeak;
+    }
+
+    /**
+     * Forgets all blocks traced so far for the purpose of {@code _tracemalloc}, which only reports
+     * memory tracked since tracing was started or its traces were cleared. This does not affect
+     * the native memory accounting.
+     */
+    public void restartTracing() {
+        tracedMemory = 0;
+        tracedMemoryPeak = 0;
+        traceMallocGeneration++;
+    }
+
+    /**
+     * Returns the total size of the traces reported by {@code _tracemalloc._get_traces}.
+     */
+    public long getTracedMemory() {
+        return tracedMemory;
+    }
+
+    public long getTracedMemoryPeak() {
+        return tracedMemoryPeak;
+    }
+
+    public void resetTracedMemoryPeak() {
+        tracedMemoryPeak = tracedMemory;
+    }
+
+    public int getTraceMallocGeneration() {
+        return traceMallocGeneration;
+    }
+
     @TruffleBoundary
     private void triggerGC(PythonContext context, long size, NodeInterface caller) {
         long delay = 0;
         for (int retries = 0; retries < MAX_COLLECTION_RETRIES; retries++) {
             delay += 50;
-            doGc(delay);
+            doGc(context, delay);
             PythonContext.triggerAsyncActions((Node) caller);
             if (allocatedMemory + size <= context.getOption(PythonOptions.MaxNativeMemory)) {
-                allocatedMemory += size;
+                addAllocatedMemory(size);
                 return;
             }
         }
@@ -711,9 +909,12 @@ public final class CApiContext extends CExtContext {
     }
 
     @TruffleBoundary
-    private static void doGc(long millis) {
+    private static void doGc(PythonContext context, long millis) {
         LOGGER.fine("full GC due to native memory");
         PythonUtils.forceFullGC();
+        // let the reference cleaner see the collected objects while we sleep, rather than after
+        // the (possibly backed off) async action delay
+        context.getAsyncHandler().pollActionsNow();
         try {
             Thread.sleep(millis);
         } catch (InterruptedException x) {
@@ -778,8 +979,21 @@ public final class CApiContext extends CExtContext {
     }
 
     public static final class TraceMallocDomain {
+        static final class TrackedBlock {
+            private final long size;
+            private final int generation;
+
+            TrackedBlock(long size, int generation) {
+                this.size = size;
+                this.generation = generation;
+            }
+        }
+
         private final long id;
-        private final EconomicMap<Object, Long> allocatedMemory;
+        private final EconomicMap<Object, TrackedBlock> allocatedMemory;
+
+        /** Sum of the sizes of all blocks in {@link #allocatedMemory}. */
+        private long trackedSize;
 
         public TraceMallocDomain(long id) {
             this.id = id;
@@ -787,23 +1001,50 @@ public final class CApiContext extends CExtContext {
         }
 
         @TruffleBoundary
-        public void track(Object pointerObject, long size) {
-            allocatedMemory.put(pointerObject, size);
+        TrackedBlock track(Object pointerObject, long size, int generation) {
+            TrackedBlock previous = allocatedMemory.put(pointerObject, new TrackedBlock(size, generation));
+            trackedSize += size - (previous != null ? previous.size : 0);
+            return previous;
         }
 
         @TruffleBoundary
-        public long untrack(Object pointerObject) {
-            Long value = allocatedMemory.removeKey(pointerObject);
+        TrackedBlock untrack(Object pointerObject) {
+            TrackedBlock value = allocatedMemory.removeKey(pointerObject);
             if (value != null) {
                 // TODO(fa): be more restrictive?
-                return value;
+                trackedSize -= value.size;
             }
-            return 0;
+            return value;
         }
 
         public long getId() {
             return id;
         }
+
+        public long getTrackedSize() {
+            return trackedSize;
+        }
+
+        @TruffleBoundary
+        public int getBlockCount() {
+            return allocatedMemory.size();
+        }
+
+        /**
+         * Returns the sizes of all currently tracked blocks that were tracked in the given
+         * generation (see {@link CApiContext#getTraceMallocGeneration()}) or later.
+         */
+        @TruffleBoundary
+        public long[] getBlockSizes(int sinceGeneration) {
+            long[] sizes = new long[allocatedMemory.size()];
+            int i = 0;
+            for (TrackedBlock block : allocatedMemory.getValues()) {
+                if (block.generation >= sinceGeneration) {
+                    sizes[i++] = block.size;
+                }
+            }
+            return i == sizes.length ? sizes : Arrays.copyOf(sizes, i);
+        }
     }
 
     /**
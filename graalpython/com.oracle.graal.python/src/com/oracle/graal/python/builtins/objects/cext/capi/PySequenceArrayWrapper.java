@@ -406,7 +406,24 @@ public final class PySequenceArrayWrapper extends PythonNativeWrapper {
     abstract static class ToNativeArrayNode extends Node {
         public abstract Object execute(PySequenceArrayWrapper object);
 
-        @Specialization(guards = "isPSequence(lib.getDelegate(object))")
+        /**
+         * Lists and tuples are exposed as {@code PyObject **}, so their items are converted to
+         * native references in one bulk call, whatever the element type of the managed storage.
+         */
+        @Specialization(guards = "isPointerArray(lib.getDelegate(object))")
+        static Object doPointerArray(PySequenceArrayWrapper object,
+                        @Cached SequenceNodes.GetSequenceStorageNode getStorage,
+                        @Cached SequenceNodes.SetSequenceStorageNode setStorage,
+                        @CachedLibrary(limit = "3") PythonNativeWrapperLibrary lib,
+                        @Exclusive @Cached ToNativePointerStorageNode toNativeStorageNode) {
+            PSequence sequence = (PSequence) lib.getDelegate(object);
+            NativeSequenceStorage nativeStorage = toNativeStorageNode.execute(getStorage.execute(sequence));
+            // switch to native storage
+            setStorage.execute(sequence, nativeStorage);
+            return nativeStorage.getPtr();
+        }
+
+        @Specialization(guards = {"isPSequence(lib.getDelegate(object))", "!isPointerArray(lib.getDelegate(object))"})
         static Object doPSequence(PySequenceArrayWrapper object,
                         @Cached SequenceNodes.GetSequenceStorageNode getStorage,
                         @Cached SequenceNodes.SetSequenceStorageNode setStorage,
@@ -434,6 +451,10 @@ public final class PySequenceArrayWrapper extends PythonNativeWrapper {
         protected static boolean isPSequence(Object obj) {
             return obj instanceof PSequence;
         }
+
+        protected static boolean isPointerArray(Object obj) {
+            return obj instanceof PList || obj instanceof PTuple;
+        }
     }
 
     @GenerateUncached
@@ -465,6 +486,40 @@ public final class PySequenceArrayWrapper extends PythonNativeWrapper {
         }
     }
 
+    /**
+     * Like {@link ToNativeStorageNode} but for sequences whose items must be visible to native
+     * code as {@code PyObject *}. Primitive storages (e.g. {@code int} or {@code double}) are boxed
+     * item by item on the Java side and then handed to native code with a single call instead of
+     * an interop round trip per item. Only the used part of the storage is copied.
+     */
+    @GenerateUncached
+    abstract static class ToNativePointerStorageNode extends Node {
+
+        public abstract NativeSequenceStorage execute(SequenceStorage object);
+
+        @Specialization(guards = "!isNative(s)")
+        static NativeSequenceStorage doManaged(SequenceStorage s,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.StorageToNativeNode storageToNativeNode) {
+            int len = lenNode.execute(s);
+            Object[] items = new Object[len];
+            for (int i = 0; i < len; i++) {
+                items[i] = getItemNode.execute(s, i);
+            }
+            return storageToNativeNode.execute(items);
+        }
+
+        @Specialization
+        static NativeSequenceStorage doNative(NativeSequenceStorage s) {
+            return s;
+        }
+
+        protected static boolean isNative(SequenceStorage s) {
+            return s instanceof NativeSequenceStorage;
+        }
+    }
+
     @ExportMessage
     public boolean isPointer(
                     @Cached IsPointerNode pIsPointerNode) {
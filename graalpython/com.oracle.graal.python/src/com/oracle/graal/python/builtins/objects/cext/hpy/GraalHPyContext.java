@@ -64,6 +64,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 
 import org.graalvm.nativeimage.ImageInfo;
@@ -737,8 +739,7 @@ public class GraalHPyContext extends CExtContext implements TruffleObject {
         }
     }
 
-    private GraalHPyHandle[] hpyHandleTable = new GraalHPyHandle[]{GraalHPyHandle.NULL_HANDLE};
-    private final HandleStack freeStack = new HandleStack(16);
+    private final GraalHPyHandleTable hpyHandleTable = new GraalHPyHandleTable();
     Object nativePointer;
 
     @CompilationFinal(dimensions = 1) protected final Object[] hpyContextMembers;
@@ -2110,37 +2111,18 @@ public class GraalHPyContext extends CExtContext implements TruffleObject {
 
     private long nativeSpacePointers;
 
-    @TruffleBoundary(allowInlining = true)
-    private int allocateHandle() {
-        int freeItem = freeStack.pop();
-        if (freeItem != -1) {
-            assert 0 <= freeItem && freeItem < hpyHandleTable.length;
-            assert hpyHandleTable[freeItem] == null;
-            return freeItem;
-        }
-        for (int i = 1; i < hpyHandleTable.length; i++) {
-            if (hpyHandleTable[i] == null) {
-                return i;
-            }
-        }
-        return -1;
-    }
+    /** Number of elements of the {@link #nativeSpacePointers} array. */
+    private int nativeSpacePointersCapacity;
 
-    public final synchronized int getHPyHandleForObject(GraalHPyHandle object) {
-        // find free association
-        int handle = allocateHandle();
-        if (handle == -1) {
-            // resize
-            int newSize = Math.max(16, hpyHandleTable.length * 2);
-            LOGGER.fine(() -> "resizing HPy handle table to " + newSize);
-            hpyHandleTable = Arrays.copyOf(hpyHandleTable, newSize);
-            if (useNativeFastPaths && isPointer()) {
-                reallocateNativeSpacePointersMirror();
-            }
-            handle = allocateHandle();
-        }
+    /**
+     * Guards {@link #nativeSpacePointers}: writing single elements takes the read lock (different
+     * threads write different elements) while reallocating the array takes the write lock.
+     */
+    private final ReentrantReadWriteLock nativeSpacePointersLock = new ReentrantReadWriteLock();
+
+    public final int getHPyHandleForObject(GraalHPyHandle object) {
+        int handle = hpyHandleTable.allocate(object);
         assert handle > 0;
-        hpyHandleTable[handle] = object;
         if (useNativeFastPaths && isPointer()) {
             mirrorNativeSpacePointerToNative(object, handle);
         }
@@ -2160,45 +2142,72 @@ public class GraalHPyContext extends CExtContext implements TruffleObject {
         if (delegate instanceof PythonHPyObject) {
             nativeSpace = ((PythonHPyObject) delegate).getHPyNativeSpace();
         }
+        long l;
         try {
-            long l = nativeSpace instanceof Long ? ((long) nativeSpace) : nativeSpace == PNone.NO_VALUE ? 0 : InteropLibrary.getUncached().asPointer(nativeSpace);
-            unsafe.putLong(nativeSpacePointers + handleID * SIZEOF_LONG, l);
+            l = nativeSpace instanceof Long ? ((long) nativeSpace) : nativeSpace == PNone.NO_VALUE ? 0 : InteropLibrary.getUncached().asPointer(nativeSpace);
         } catch (UnsupportedMessageException e) {
             throw CompilerDirectives.shouldNotReachHere();
         }
+        while (true) {
+            Lock readLock = nativeSpacePointersLock.readLock();
+            readLock.lock();
+            try {
+                if (handleID < nativeSpacePointersCapacity) {
+                    unsafe.putLong(nativeSpacePointers + handleID * SIZEOF_LONG, l);
+                    return;
+                }
+            } finally {
+                readLock.unlock();
+            }
+            reallocateNativeSpacePointersMirror();
+        }
     }
 
     @TruffleBoundary
     private void reallocateNativeSpacePointersMirror() {
         assert isPointer();
         assert useNativeFastPaths;
-        nativeSpacePointers = unsafe.reallocateMemory(nativeSpacePointers, hpyHandleTable.length * SIZEOF_LONG);
+        Lock writeLock = nativeSpacePointersLock.writeLock();
+        writeLock.lock();
         try {
-            InteropLibrary.getUncached().execute(setNativeSpaceFunction, nativePointer, nativeSpacePointers);
-        } catch (UnsupportedTypeException | ArityException | UnsupportedMessageException e) {
-            throw CompilerDirectives.shouldNotReachHere();
+            int newCapacity = hpyHandleTable.capacity();
+            if (newCapacity <= nativeSpacePointersCapacity) {
+                return;
+            }
+            LOGGER.fine(() -> "resizing HPy native space pointers mirror to " + newCapacity);
+            nativeSpacePointers = unsafe.reallocateMemory(nativeSpacePointers, newCapacity * SIZEOF_LONG);
+            nativeSpacePointersCapacity = newCapacity;
+            try {
+                InteropLibrary.getUncached().execute(setNativeSpaceFunction, nativePointer, nativeSpacePointers);
+            } catch (UnsupportedTypeException | ArityException | UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere();
+            }
+        } finally {
+            writeLock.unlock();
         }
     }
 
     /**
-     * Allocates a native array (element size is {@link #SIZEOF_LONG} for as many elements as in
-     * {@link #hpyHandleTable} and writes the native space pointers of all objects in the handle
-     * table into this array. The pointer of the array is then set to
+     * Allocates a native array (element size is {@link #SIZEOF_LONG} for as many elements as the
+     * {@link #hpyHandleTable} can hold and writes the native space pointers of all objects in the
+     * handle table into this array. The pointer of the array is then set to
      * {@code ((HPyContext) ctx)->_private} and meant to be used by the {@code ctx_Cast}'s upcall
      * stub to avoid an expensive upcall.
      */
     @TruffleBoundary
     private void allocateNativeSpacePointersMirror() {
-        long arraySize = hpyHandleTable.length * SIZEOF_LONG;
+        int capacity = hpyHandleTable.capacity();
+        long arraySize = capacity * SIZEOF_LONG;
         long arrayPtr = unsafe.allocateMemory(arraySize);
         unsafe.setMemory(arrayPtr, arraySize, (byte) 0);
 
         // publish pointer value (needed for initialization)
         nativeSpacePointers = arrayPtr;
+        nativeSpacePointersCapacity = capacity;
 
         // write existing values to mirror; start at 1 to omit the NULL handle
-        for (int i = 1; i < hpyHandleTable.length; i++) {
-            GraalHPyHandle handleObject = hpyHandleTable[i];
+        for (int i = 1; i < capacity; i++) {
+            GraalHPyHandle handleObject = hpyHandleTable.get(i);
             if (handleObject != null) {
                 mirrorNativeSpacePointerToNative(handleObject, i);
             }
@@ -2206,53 +2215,37 @@ public class GraalHPyContext extends CExtContext implements TruffleObject {
 
         // commit pointer value for native usage
         try {
-            InteropLibrary.getUncached().execute(setNativeSpaceFunction, nativePointer, arrayPtr);
+            InteropLibrary.getUncached().execute(setNativeSpaceFunction, nativePointer, nativeSpacePointers);
         } catch (UnsupportedTypeException | ArityException | UnsupportedMessageException e) {
             throw CompilerDirectives.shouldNotReachHere();
         }
     }
 
-    public synchronized GraalHPyHandle getObjectForHPyHandle(int handle) {
+    public GraalHPyHandle getObjectForHPyHandle(int handle) {
         assert !GraalHPyBoxing.isBoxedInt(handle) && !GraalHPyBoxing.isBoxedDouble(handle) : "trying to lookup boxed primitive";
-        return hpyHandleTable[handle];
+        return hpyHandleTable.get(handle);
     }
 
-    synchronized boolean releaseHPyHandleForObject(int handle) {
+    boolean releaseHPyHandleForObject(int handle) {
         assert handle != 0 : "NULL handle cannot be released";
-        assert hpyHandleTable[handle] != null : PythonUtils.format("releasing handle that has already been released: %d", handle);
+        assert hpyHandleTable.get(handle) != null : PythonUtils.format("releasing handle that has already been released: %d", handle);
         if (LOGGER.isLoggable(Level.FINER)) {
             LOGGER.finer(() -> "releasing HPy handle " + handle);
         }
-        hpyHandleTable[handle] = null;
-        freeStack.push(handle);
+        hpyHandleTable.release(handle);
         return true;
     }
 
-    void onInvalidHandle(@SuppressWarnings("unused") int id) {
-        // nothing to do in the universal context
+    /**
+     * Makes the handle IDs released by the given thread available to other threads. Called when
+     * the thread leaves the context for the last time.
+     */
+    public void disposeThread(Thread thread) {
+        hpyHandleTable.disposeThread(thread);
     }
 
-    private static final class HandleStack {
-        private int[] handles;
-        private int top = 0;
-
-        public HandleStack(int initialCapacity) {
-            handles = new int[initialCapacity];
-        }
-
-        void push(int i) {
-            if (top >= handles.length) {
-                handles = Arrays.copyOf(handles, handles.length * 2);
-            }
-            handles[top++] = i;
-        }
-
-        int pop() {
-            if (top <= 0) {
-                return -1;
-            }
-            return handles[--top];
-        }
+    void onInvalidHandle(@SuppressWarnings("unused") int id) {
+        // nothing to do in the universal context
     }
 
     /**
@@ -2336,11 +2329,9 @@ public class GraalHPyContext extends CExtContext implements TruffleObject {
             hpyReferenceCleanerThread = thread;
         } else {
             getContext().registerAsyncAction(() -> {
-                Reference<?> reference = null;
-                try {
-                    reference = referenceQueue.remove();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+                Reference<?> reference = referenceQueue.poll();
+                if (reference == null) {
+                    return null;
                 }
 
                 ArrayList<GraalHPyHandleReference> refs = new ArrayList<>();
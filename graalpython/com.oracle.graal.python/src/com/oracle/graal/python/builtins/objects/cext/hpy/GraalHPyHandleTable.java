@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.cext.hpy;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.oracle.graal.python.builtins.objects.cext.common.CArrayWrappers;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import sun.misc.Unsafe;
+
+/**
+ * The table that maps HPy handle IDs to {@link GraalHPyHandle} objects.
+ * <p>
+ * The table consists of fixed-size segments that are never copied or moved. A lookup is therefore
+ * a wait-free volatile read of a segment slot. Growing the table only copies the (small) array of
+ * segment references and is the only operation that takes a lock.
+ * </p>
+ * <p>
+ * Released IDs are first put into a free list local to the releasing thread. Full free lists are
+ * moved in batches of {@link #FREE_BATCH_SIZE} to a shared lock-free stack, where other threads
+ * can pick them up. IDs that were never used are handed out by bumping a counter. Hence neither
+ * allocation nor release needs to scan the table or synchronize with other threads in the common
+ * case. When a thread leaves the context, {@link #disposeThread(Thread)} moves the IDs of its free
+ * list to the shared stack, so they are not lost with the thread.
+ * </p>
+ */
+final class GraalHPyHandleTable {
+    static final int SEGMENT_SHIFT = 10;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    static final int FREE_BATCH_SIZE = 64;
+
+    private static final Unsafe UNSAFE = CArrayWrappers.UNSAFE;
+    private static final long ARRAY_BASE = UNSAFE.arrayBaseOffset(GraalHPyHandle[].class);
+    private static final long ARRAY_SCALE = UNSAFE.arrayIndexScale(GraalHPyHandle[].class);
+
+    /** Immutable node of the shared stack of free ID batches. */
+    private static final class FreeBatch {
+        final int[] ids;
+        final FreeBatch next;
+
+        FreeBatch(int[] ids, FreeBatch next) {
+            this.ids = ids;
+            this.next = next;
+        }
+    }
+
+    private static final class LocalFreeList {
+        final int[] ids = new int[2 * FREE_BATCH_SIZE];
+        int size;
+        /** Set once the IDs were moved to the shared stack by {@link #disposeThread}. */
+        volatile boolean disposed;
+    }
+
+    private volatile GraalHPyHandle[][] segments;
+    private final Object growLock = new Object();
+
+    /** The next ID that was never handed out; ID 0 is reserved for the {@code NULL} handle. */
+    private final AtomicInteger nextFreshId = new AtomicInteger(1);
+    private final AtomicReference<FreeBatch> sharedFree = new AtomicReference<>();
+    private final ThreadLocal<LocalFreeList> localFree = ThreadLocal.withInitial(this::createLocalFreeList);
+    /** The free lists of all threads, so that they can be flushed from any thread. */
+    private final ConcurrentHashMap<Thread, LocalFreeList> localFreeLists = new ConcurrentHashMap<>();
+
+    GraalHPyHandleTable() {
+        GraalHPyHandle[] first = new GraalHPyHandle[SEGMENT_SIZE];
+        first[0] = GraalHPyHandle.NULL_HANDLE;
+        segments = new GraalHPyHandle[][]{first};
+    }
+
+    private LocalFreeList createLocalFreeList() {
+        LocalFreeList local = new LocalFreeList();
+        localFreeLists.put(Thread.currentThread(), local);
+        return local;
+    }
+
+    private LocalFreeList getLocalFreeList() {
+        LocalFreeList local = localFree.get();
+        if (local.disposed) {
+            // the thread came back after it was disposed
+            localFree.remove();
+            local = localFree.get();
+        }
+        return local;
+    }
+
+    private static long slotOffset(int id) {
+        return ARRAY_BASE + (id & SEGMENT_MASK) * ARRAY_SCALE;
+    }
+
+    /**
+     * Returns the handle stored for the given ID or {@code null} if the slot is free. Throws an
+     * {@link ArrayIndexOutOfBoundsException} if the ID was never part of the table.
+     */
+    GraalHPyHandle get(int id) {
+        GraalHPyHandle[] segment = segments[id >>> SEGMENT_SHIFT];
+        return (GraalHPyHandle) UNSAFE.getObjectVolatile(segment, slotOffset(id));
+    }
+
+    /**
+     * The number of IDs the table can currently hold. This never shrinks.
+     */
+    int capacity() {
+        return segments.length * SEGMENT_SIZE;
+    }
+
+    /**
+     * Reserves a free ID and stores the given handle at that ID.
+     */
+    @TruffleBoundary(allowInlining = true)
+    int allocate(GraalHPyHandle handle) {
+        int id = allocateId();
+        GraalHPyHandle[] segment = segments[id >>> SEGMENT_SHIFT];
+        assert UNSAFE.getObjectVolatile(segment, slotOffset(id)) == null;
+        UNSAFE.putObjectVolatile(segment, slotOffset(id), handle);
+        return id;
+    }
+
+    private int allocateId() {
+        LocalFreeList local = getLocalFreeList();
+        if (local.size == 0) {
+            FreeBatch batch = popSharedBatch();
+            if (batch != null) {
+                System.arraycopy(batch.ids, 0, local.ids, 0, batch.ids.length);
+                local.size = batch.ids.length;
+            }
+        }
+        if (local.size > 0) {
+            return local.ids[--local.size];
+        }
+        int id = nextFreshId.getAndIncrement();
+        if (id < 0) {
+            throw new OutOfMemoryError("HPy handle table exhausted");
+        }
+        if ((id >>> SEGMENT_SHIFT) >= segments.length) {
+            grow(id >>> SEGMENT_SHIFT);
+        }
+        return id;
+    }
+
+    /**
+     * Clears the slot of the given ID and makes the ID available for reuse.
+     */
+    @TruffleBoundary(allowInlining = true)
+    void release(int id) {
+        assert id != 0 : "NULL handle cannot be released";
+        UNSAFE.putObjectVolatile(segments[id >>> SEGMENT_SHIFT], slotOffset(id), null);
+        LocalFreeList local = getLocalFreeList();
+        if (local.size == local.ids.length) {
+            // hand the upper half over to other threads
+            local.size -= FREE_BATCH_SIZE;
+            pushSharedBatch(Arrays.copyOfRange(local.ids, local.size, local.size + FREE_BATCH_SIZE));
+        }
+        local.ids[local.size++] = id;
+    }
+
+    /**
+     * Moves the free IDs of the given thread to the shared stack. This must be called when the
+     * thread leaves the context for the last time, it may be called from a different thread.
+     */
+    @TruffleBoundary
+    void disposeThread(Thread thread) {
+        LocalFreeList local = localFreeLists.remove(thread);
+        if (local == null) {
+            return;
+        }
+        for (int start = 0; start < local.size; start += FREE_BATCH_SIZE) {
+            pushSharedBatch(Arrays.copyOfRange(local.ids, start, Math.min(local.size, start + FREE_BATCH_SIZE)));
+        }
+        local.size = 0;
+        local.disposed = true;
+        if (thread == Thread.currentThread()) {
+            localFree.remove();
+        }
+    }
+
+    private FreeBatch popSharedBatch() {
+        FreeBatch head;
+        do {
+            head = sharedFree.get();
+            if (head == null) {
+                return null;
+            }
+            // batch nodes are never reused, so there is no ABA problem
+        } while (!sharedFree.compareAndSet(head, head.next));
+        return head;
+    }
+
+    private void pushSharedBatch(int[] ids) {
+        FreeBatch head;
+        do {
+            head = sharedFree.get();
+        } while (!sharedFree.compareAndSet(head, new FreeBatch(ids, head)));
+    }
+
+    private void grow(int minSegmentIndex) {
+        synchronized (growLock) {
+            GraalHPyHandle[][] oldSegments = segments;
+            if (minSegmentIndex < oldSegments.length) {
+                // another thread was faster
+                return;
+            }
+            int newLength = Math.max(minSegmentIndex + 1, oldSegments.length * 2);
+            GraalHPyHandle[][] newSegments = Arrays.copyOf(oldSegments, newLength);
+            for (int i = oldSegments.length; i < newLength; i++) {
+                newSegments[i] = new GraalHPyHandle[SEGMENT_SIZE];
+            }
+            segments = newSegments;
+        }
+    }
+}
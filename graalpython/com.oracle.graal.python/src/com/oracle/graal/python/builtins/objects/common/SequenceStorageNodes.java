@@ -145,6 +145,7 @@ import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage.ListStorageType;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorageFactory;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStoreException;
+import com.oracle.graal.python.runtime.sequence.storage.StringSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.TypedSequenceStorage;
 import com.oracle.graal.python.util.BiFunction;
 import com.oracle.graal.python.util.OverflowException;
@@ -206,6 +207,8 @@ public abstract class SequenceStorageNodes {
                     return rhsType == Boolean || rhsType == Byte || rhsType == Int || rhsType == Long || rhsType == Uninitialized || rhsType == Empty;
                 case Double:
                     return rhsType == Double || rhsType == Uninitialized || rhsType == Empty;
+                case String:
+                    return rhsType == ListStorageType.String || rhsType == Uninitialized || rhsType == Empty;
                 case Generic:
                     return true;
                 case Empty:
@@ -245,6 +248,8 @@ public abstract class SequenceStorageNodes {
                     return rhsType == Boolean || rhsType == Byte || rhsType == Int || rhsType == Long || rhsType == Uninitialized || rhsType == Empty;
                 case Double:
                     return rhsType == Double || rhsType == Uninitialized || rhsType == Empty;
+                case String:
+                    return rhsType == ListStorageType.String || rhsType == Uninitialized || rhsType == Empty;
                 case Generic:
                     return true;
                 case Empty:
@@ -269,8 +274,8 @@ public abstract class SequenceStorageNodes {
 
         protected static final int DEFAULT_CAPACITY = 8;
 
-        protected static final int MAX_SEQUENCE_STORAGES = 9;
-        protected static final int MAX_ARRAY_STORAGES = 7;
+        protected static final int MAX_SEQUENCE_STORAGES = 10;
+        protected static final int MAX_ARRAY_STORAGES = 8;
 
         protected static boolean isByteStorage(NativeSequenceStorage store) {
             return store.getElementType() == ListStorageType.Byte;
@@ -291,6 +296,8 @@ public abstract class SequenceStorageNodes {
                     return left instanceof LongSequenceStorage;
                 case Double:
                     return left instanceof DoubleSequenceStorage;
+                case String:
+                    return left instanceof StringSequenceStorage;
                 case Generic:
                     return left instanceof ObjectSequenceStorage;
             }
@@ -330,6 +337,10 @@ public abstract class SequenceStorageNodes {
             return getElementTypeNode.execute(s) == ListStorageType.Double;
         }
 
+        protected static boolean isString(GetElementType getElementTypeNode, SequenceStorage s) {
+            return getElementTypeNode.execute(s) == ListStorageType.String;
+        }
+
         protected static boolean isObject(GetElementType getElementTypeNode, SequenceStorage s) {
             return getElementTypeNode.execute(s) == ListStorageType.Generic;
         }
@@ -358,6 +369,10 @@ public abstract class SequenceStorageNodes {
             return et == ListStorageType.Double;
         }
 
+        protected static boolean isString(ListStorageType et) {
+            return et == ListStorageType.String;
+        }
+
         protected static boolean isObject(ListStorageType et) {
             return et == ListStorageType.Generic;
         }
@@ -666,6 +681,11 @@ public abstract class SequenceStorageNodes {
             return storage.getDoubleItemNormalized(idx);
         }
 
+        @Specialization
+        protected static String doString(StringSequenceStorage storage, int idx) {
+            return storage.getStringItemNormalized(idx);
+        }
+
         @Specialization
         protected static Object doObject(ObjectSequenceStorage storage, int idx) {
             return storage.getItemNormalized(idx);
@@ -1204,6 +1224,11 @@ public abstract class SequenceStorageNodes {
             storage.setDoubleItemNormalized(idx, value);
         }
 
+        @Specialization
+        protected static void doString(StringSequenceStorage storage, int idx, String value) {
+            storage.setStringItemNormalized(idx, value);
+        }
+
         @Specialization
         protected static void doObject(ObjectSequenceStorage storage, int idx, Object value) {
             storage.setItemNormalized(idx, value);
@@ -2536,6 +2561,11 @@ public abstract class SequenceStorageNodes {
             return s.indexOfDouble(item);
         }
 
+        @Specialization
+        public static int doStringStorage(StringSequenceStorage s, String item) {
+            return s.indexOfString(item);
+        }
+
         @Specialization
         static int doGeneric(VirtualFrame frame, SequenceStorage left, Object item,
                         @Cached LenNode lenNode,
@@ -2717,8 +2747,13 @@ public abstract class SequenceStorageNodes {
             return new DoubleSequenceStorage();
         }
 
+        @Specialization
+        static StringSequenceStorage doEmptyString(@SuppressWarnings("unused") EmptySequenceStorage s, @SuppressWarnings("unused") String val) {
+            return new StringSequenceStorage(DEFAULT_CAPACITY);
+        }
+
         protected static boolean isKnownType(Object val) {
-            return val instanceof Byte || val instanceof Integer || val instanceof Long || val instanceof Double;
+            return val instanceof Byte || val instanceof Integer || val instanceof Long || val instanceof Double || val instanceof String;
         }
 
         @Specialization(guards = "!isKnownType(val)")
@@ -2778,6 +2813,11 @@ public abstract class SequenceStorageNodes {
             return s;
         }
 
+        @Specialization
+        static StringSequenceStorage doStringString(StringSequenceStorage s, @SuppressWarnings("unused") String val) {
+            return s;
+        }
+
         // TODO native sequence storage
 
         @Specialization(guards = "isAssignCompatibleNode.execute(s, indicationStorage)", limit = "1")
@@ -2807,6 +2847,9 @@ public abstract class SequenceStorageNodes {
                             (value instanceof Byte || value instanceof Integer || value instanceof Long)) {
                 return false;
             }
+            if (s instanceof StringSequenceStorage && value instanceof String) {
+                return false;
+            }
             return !(value instanceof SequenceStorage) || !isAssignCompatibleNode.execute(s, (SequenceStorage) value);
         }
 
@@ -2911,6 +2954,10 @@ public abstract class SequenceStorageNodes {
             return getElementType(s) == ListStorageType.Double;
         }
 
+        protected boolean isString(SequenceStorage s) {
+            return getElementType(s) == ListStorageType.String;
+        }
+
         protected boolean isObject(SequenceStorage s) {
             return getElementType(s) == ListStorageType.Generic;
         }
@@ -2965,6 +3012,16 @@ public abstract class SequenceStorageNodes {
             return ss;
         }
 
+        @Specialization(guards = "isString(s)")
+        static StringSequenceStorage doString(@SuppressWarnings("unused") SequenceStorage s, int cap, int len) {
+            StringSequenceStorage ss = new StringSequenceStorage(cap);
+            if (len != -1) {
+                ss.ensureCapacity(len);
+                ss.setNewLength(len);
+            }
+            return ss;
+        }
+
         @Fallback
         static ObjectSequenceStorage doObject(@SuppressWarnings("unused") SequenceStorage s, int cap, int len) {
             ObjectSequenceStorage ss = new ObjectSequenceStorage(cap);
@@ -3550,6 +3607,17 @@ public abstract class SequenceStorageNodes {
             return -1;
         }
 
+        @Specialization(guards = "isString(getElementType, s)")
+        int doString(SequenceStorage s, String item, int start, int end,
+                        @Cached @SuppressWarnings("unused") GetElementType getElementType) {
+            for (int i = start; i < getLength(s, end); i++) {
+                if (item.equals(getItemScalarNode().execute(s, i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
         @Specialization
         int doGeneric(VirtualFrame frame, SequenceStorage s, Object item, int start, int end,
                         @Cached PyObjectRichCompareBool.EqNode eqNode) {
@@ -3836,6 +3904,22 @@ public abstract class SequenceStorageNodes {
                             }
                             return new DoubleSequenceStorage(elements, i);
                         }
+                        case String: {
+                            String[] elements = new String[size];
+                            array = elements;
+                            try {
+                                while (true) {
+                                    String value = PGuards.expectString(nextNode.execute(frame, iterator));
+                                    if (i >= elements.length) {
+                                        array = elements = Arrays.copyOf(elements, elements.length * 2);
+                                    }
+                                    elements[i++] = value;
+                                }
+                            } catch (PException e) {
+                                e.expectStopIteration(errorProfile);
+                            }
+                            return new StringSequenceStorage(elements, i);
+                        }
                         case Generic: {
                             Object[] elements = new Object[size];
                             try {
@@ -3995,6 +4079,21 @@ public abstract class SequenceStorageNodes {
                             }
                             return new DoubleSequenceStorage(elements, i);
                         }
+                        case String: {
+                            String[] elements = new String[size];
+                            array = elements;
+                            try {
+                                for (; (value = nextNode.execute(frame, iterator)) != STOP_MARKER; i++) {
+                                    if (i >= elements.length) {
+                                        array = elements = Arrays.copyOf(elements, elements.length * 2);
+                                    }
+                                    elements[i] = PGuards.expectString(value);
+                                }
+                            } catch (PException e) {
+                                e.expectStopIteration(errorProfile);
+                            }
+                            return new StringSequenceStorage(elements, i);
+                        }
                         case Generic: {
                             Object[] elements = new Object[size];
                             try {
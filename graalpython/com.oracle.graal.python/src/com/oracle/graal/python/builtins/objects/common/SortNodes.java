@@ -66,6 +66,7 @@ import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.StringSequenceStorage;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
@@ -215,6 +216,20 @@ public abstract class SortNodes {
             }
         }
 
+        @Specialization
+        @TruffleBoundary
+        void sort(StringSequenceStorage storage, @SuppressWarnings("unused") PNone keyfunc, boolean reverse) {
+            String[] array = storage.getInternalStringArray();
+            int len = storage.length();
+            Comparator<String> comparator;
+            if (reverse) {
+                comparator = (a, b) -> StringUtils.compareToUnicodeAware(b, a);
+            } else {
+                comparator = StringUtils::compareToUnicodeAware;
+            }
+            Arrays.sort(array, 0, len, comparator);
+        }
+
         @Specialization(guards = "isStringOnly(storage)")
         @TruffleBoundary
         void sort(ObjectSequenceStorage storage, @SuppressWarnings("unused") PNone keyfunc, boolean reverse) {
@@ -67,7 +67,6 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.oracle.graal.python.annotations.ArgumentClinic;
@@ -80,6 +79,7 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.common.IndexNodes.NormalizeIndexCustomMessageNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetSequenceStorageNode;
 import com.oracle.graal.python.builtins.objects.deque.DequeBuiltinsClinicProviders.DequeDelItemNodeClinicProviderGen;
 import com.oracle.graal.python.builtins.objects.deque.DequeBuiltinsClinicProviders.DequeGetItemNodeClinicProviderGen;
 import com.oracle.graal.python.builtins.objects.deque.DequeBuiltinsClinicProviders.DequeInplaceMulNodeClinicProviderGen;
@@ -163,12 +163,17 @@ public class DequeBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "!isNoValue(iterable)")
         static PNone doIterable(VirtualFrame frame, PDeque self, Object iterable, @SuppressWarnings("unused") PNone maxlen,
+                        @Cached GetClassNode getClassNode,
+                        @Cached GetSequenceStorageNode getSequenceStorageNode,
                         @Cached PyObjectGetIter getIter,
                         @Cached GetNextNode getNextNode,
                         @Cached IsBuiltinClassProfile isStopIterationProfile) {
             if (self.getSize() != 0) {
                 self.clear();
             }
+            if (DequeExtendNode.isBuiltinSequence(iterable, getClassNode) && self.addAll(getSequenceStorageNode.execute(iterable), false)) {
+                return PNone.NONE;
+            }
             Object iterator = getIter.execute(frame, iterable);
             while (true) {
                 try {
@@ -184,6 +189,8 @@ public class DequeBuiltins extends PythonBuiltins {
         @Specialization(replaces = {"doNothing", "doIterable"})
         PNone doGeneric(VirtualFrame frame, PDeque self, Object iterable, Object maxlenObj,
                         @Cached CastToJavaIntExactNode castToIntNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached GetSequenceStorageNode getSequenceStorageNode,
                         @Cached PyObjectGetIter getIter,
                         @Cached GetNextNode getNextNode,
                         @Cached IsBuiltinClassProfile isTypeErrorProfile,
@@ -207,8 +214,11 @@ public class DequeBuiltins extends PythonBuiltins {
                 }
             }
 
+            if (self.getSize() != 0) {
+                self.clear();
+            }
             if (iterable != PNone.NO_VALUE) {
-                doIterable(frame, self, iterable, PNone.NO_VALUE, getIter, getNextNode, isStopIterationProfile);
+                doIterable(frame, self, iterable, PNone.NO_VALUE, getClassNode, getSequenceStorageNode, getIter, getNextNode, isStopIterationProfile);
             }
             return PNone.NONE;
         }
@@ -292,8 +302,9 @@ public class DequeBuiltins extends PythonBuiltins {
         int doGeneric(PDeque self, Object value) {
             int n = 0;
             int startState = self.getState();
-            for (Object item : self.data) {
-                if (PyObjectRichCompareBool.EqNode.getUncached().execute(null, item, value)) {
+            int size = self.getSize();
+            for (int i = 0; i < size; i++) {
+                if (PyObjectRichCompareBool.EqNode.getUncached().execute(null, self.getItem(i), value)) {
                     n++;
                 }
                 if (startState != self.getState()) {
@@ -313,10 +324,14 @@ public class DequeBuiltins extends PythonBuiltins {
             self.append(item);
         }
 
+        boolean isLeft() {
+            return false;
+        }
+
         @Specialization(guards = "self == other")
         @TruffleBoundary
         PNone doSelf(PDeque self, @SuppressWarnings("unused") PDeque other) {
-            Object[] items = self.data.toArray();
+            Object[] items = self.toArray();
             for (Object item : items) {
                 appendOperation(self, item);
             }
@@ -325,12 +340,21 @@ public class DequeBuiltins extends PythonBuiltins {
 
         @Specialization
         PNone doGeneric(VirtualFrame frame, PDeque self, Object other,
+                        @Cached GetClassNode getClassNode,
+                        @Cached GetSequenceStorageNode getSequenceStorageNode,
                         @Cached PyObjectGetIter getIter,
                         @Cached GetNextNode getNextNode,
                         @Cached IsBuiltinClassProfile isStopIterationProfile) {
             if (self == other) {
                 return doSelf(self, self);
             }
+            /*
+             * The items of builtin lists and tuples are copied directly from their storage, without
+             * boxing if both sides store primitives.
+             */
+            if (isBuiltinSequence(other, getClassNode) && self.addAll(getSequenceStorageNode.execute(other), isLeft())) {
+                return PNone.NONE;
+            }
 
             Object it = getIter.execute(frame, other);
             if (self.getMaxLength() == 0) {
@@ -350,6 +374,10 @@ public class DequeBuiltins extends PythonBuiltins {
             return PNone.NONE;
         }
 
+        static boolean isBuiltinSequence(Object other, GetClassNode getClassNode) {
+            return (other instanceof PList || other instanceof PTuple) && getClassNode.execute(other) instanceof PythonBuiltinClassType;
+        }
+
         private static void consumeIterator(VirtualFrame frame, Object it, GetNextNode getNextNode, IsBuiltinClassProfile isStopIterationProfile) {
             while (true) {
                 try {
@@ -370,6 +398,11 @@ public class DequeBuiltins extends PythonBuiltins {
         void appendOperation(PDeque self, Object item) {
             self.appendLeft(item);
         }
+
+        @Override
+        boolean isLeft() {
+            return true;
+        }
     }
 
     @Builtin(name = "index", minNumOfPositionalArgs = 2, parameterNames = {"$self", "v", "start", "stop"})
@@ -395,20 +428,12 @@ public class DequeBuiltins extends PythonBuiltins {
             if (normStart > normStop) {
                 normStart = normStop;
             }
-            Iterator<Object> iterator = self.iterator();
-            for (int idx = 0; idx < normStop; idx++) {
-                /*
-                 * Note: A 'ConcurrentModificationException' should not be possible because we
-                 * manually check for modifications during iteration.
-                 */
-                Object item = next(iterator);
-                if (normStart <= idx) {
-                    if (eqNode.execute(frame, item, value)) {
-                        return idx;
-                    }
-                    if (startState != self.getState()) {
-                        throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
-                    }
+            for (int idx = normStart; idx < normStop; idx++) {
+                if (eqNode.execute(frame, self.getItem(idx), value)) {
+                    return idx;
+                }
+                if (startState != self.getState()) {
+                    throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
                 }
             }
             throw raise(ValueError, "%s is not in deque", value);
@@ -442,11 +467,6 @@ public class DequeBuiltins extends PythonBuiltins {
             }
             return Math.max(res, 0);
         }
-
-        @TruffleBoundary
-        private static Object next(Iterator<?> it) {
-            return it.next();
-        }
     }
 
     // deque.insert()
@@ -474,13 +494,13 @@ public class DequeBuiltins extends PythonBuiltins {
             } else if (index <= -n || index == 0) {
                 self.appendLeft(value);
             } else {
-                DequeRotateNode.rotate(self, -index);
+                self.rotate(-index);
                 if (index < 0) {
                     self.append(value);
                 } else {
                     self.appendLeft(value);
                 }
-                DequeRotateNode.rotate(self, index);
+                self.rotate(index);
             }
 
             return PNone.NONE;
@@ -536,18 +556,17 @@ public class DequeBuiltins extends PythonBuiltins {
                     if (result) {
                         Object removed = self.popLeft();
                         assert removed != null;
-                        DequeRotateNode.doRight(self, i);
+                        self.rotate(i);
                         return PNone.NONE;
                     } else {
-                        // this is basically 'DequeRotateNode.doLeft(self, -1)'
-                        self.append(self.popLeft());
+                        self.rotate(-1);
                     }
                 } catch (PException e) {
                     /*
                      * In case of an error during comparison, we need to restore the original deque
                      * by rotating.
                      */
-                    DequeRotateNode.doRight(self, i);
+                    self.rotate(i);
                     throw e;
                 }
             }
@@ -563,13 +582,7 @@ public class DequeBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         PNone doGeneric(PDeque self) {
-            Object[] items = new Object[self.getSize()];
-            for (int i = 0; i < items.length; i++) {
-                items[i] = self.data.pollLast();
-            }
-            for (int i = 0; i < items.length; i++) {
-                self.data.addLast(items[i]);
-            }
+            self.reverse();
             return PNone.NONE;
         }
     }
@@ -586,43 +599,16 @@ public class DequeBuiltins extends PythonBuiltins {
         }
 
         @Specialization(guards = "self.getSize() <= 1")
-        @TruffleBoundary
         @SuppressWarnings("unused")
         static PNone doEmptyOrSingleElement(PDeque self, int n) {
             return PNone.NONE;
         }
 
-        @Specialization(guards = "n >= 0")
-        @TruffleBoundary
-        static PNone doRight(PDeque self, int n) {
-            if (self.getSize() > 1) {
-                int effectiveRot = n % self.getSize();
-                for (int i = 0; i < effectiveRot; i++) {
-                    self.appendLeft(self.pop());
-                }
-            }
+        @Specialization(guards = "self.getSize() > 1")
+        static PNone doGeneric(PDeque self, int n) {
+            self.rotate(n);
             return PNone.NONE;
         }
-
-        @Specialization(guards = "n < 0")
-        @TruffleBoundary
-        static PNone doLeft(PDeque self, int n) {
-            if (self.getSize() > 1) {
-                int effectiveRot = -n % self.getSize();
-                for (int i = 0; i < effectiveRot; i++) {
-                    self.append(self.popLeft());
-                }
-            }
-            return PNone.NONE;
-        }
-
-        static void rotate(PDeque self, int n) {
-            if (n < 0) {
-                doLeft(self, n);
-            } else {
-                doRight(self, n);
-            }
-        }
     }
 
     // SEQUENCE METHODS
@@ -648,7 +634,7 @@ public class DequeBuiltins extends PythonBuiltins {
         static PDeque doDeque(PDeque self, PDeque other) {
             if (self == other) {
                 // we need to create a snapshot of 'self'
-                self.addAll(self.data.toArray());
+                self.addAll(self.toArray());
             } else {
                 self.addAll(other);
             }
@@ -742,7 +728,7 @@ public class DequeBuiltins extends PythonBuiltins {
                 repetitions = (self.getMaxLength() + size - 1) / size;
             }
 
-            Object[] items = self.data.toArray();
+            Object[] items = self.toArray();
             for (int i = 0; i < repetitions - 1; i++) {
                 self.addAll(items);
             }
@@ -790,8 +776,9 @@ public class DequeBuiltins extends PythonBuiltins {
         @TruffleBoundary
         boolean doGeneric(PDeque self, Object value) {
             int startState = self.getState();
-            for (Object item : self.data) {
-                if (PyObjectRichCompareBool.EqNode.getUncached().execute(null, item, value)) {
+            int size = self.getSize();
+            for (int i = 0; i < size; i++) {
+                if (PyObjectRichCompareBool.EqNode.getUncached().execute(null, self.getItem(i), value)) {
                     return true;
                 }
                 if (startState != self.getState()) {
@@ -813,21 +800,10 @@ public class DequeBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        @TruffleBoundary
-        Object doGeneric(PDeque self, int idx,
+        static Object doGeneric(PDeque self, int idx,
                         @Cached NormalizeIndexCustomMessageNode normalizeIndexNode) {
             int normIdx = normalizeIndexNode.execute(idx, self.getSize(), ErrorMessages.DEQUE_INDEX_OUT_OF_RANGE);
-            return doGetItem(self, normIdx);
-        }
-
-        @TruffleBoundary
-        Object doGetItem(PDeque self, int idx) {
-            assert 0 <= idx && idx < self.getSize();
-            Iterator<Object> it = self.data.iterator();
-            for (int i = 0; i < idx; i++) {
-                it.next();
-            }
-            return it.next();
+            return self.getItem(normIdx);
         }
     }
 
@@ -917,7 +893,7 @@ public class DequeBuiltins extends PythonBuiltins {
             EncapsulatingNodeReference ref = EncapsulatingNodeReference.getCurrent();
             Node outerNode = ref.set(this);
             try {
-                Object[] items = self.data.toArray();
+                Object[] items = self.toArray();
                 PList asList = PythonObjectFactory.getUncached().createList(items);
                 int maxLength = self.getMaxLength();
                 StringBuilder sb = new StringBuilder(GetNameNode.getUncached().execute(GetClassNode.getUncached().execute(self)));
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.deque;
+
+import com.oracle.graal.python.util.PythonUtils;
+
+/**
+ * The circular buffer behind a {@link PDeque}. Similar to the sequence storages of lists, there
+ * are primitive variants for {@code long} and {@code double} items and a generic variant for all
+ * other objects. A storage only ever goes from primitive to generic, see
+ * {@link #generalize(int)}.
+ * <p>
+ * The capacity is always a power of two and the logical index {@code i} lives in the physical
+ * slot {@code (head + i) & (capacity - 1)}.
+ */
+abstract class DequeStorage {
+    static final int INITIAL_CAPACITY = 8;
+
+    int head;
+    int size;
+
+    abstract int capacity();
+
+    abstract boolean canStore(Object value);
+
+    abstract Object get(int slot);
+
+    /**
+     * Stores the value in the given slot. The caller must have checked {@link #canStore(Object)}.
+     */
+    abstract void set(int slot, Object value);
+
+    abstract void copySlot(int from, int to);
+
+    /**
+     * Releases the reference held by the slot (if any), so that removed items can be collected.
+     */
+    void clearSlot(@SuppressWarnings("unused") int slot) {
+    }
+
+    /**
+     * Reallocates the buffer with the new capacity and moves the items to the beginning of it.
+     */
+    abstract void resize(int newCapacity);
+
+    /**
+     * Returns a generic storage with the same items and the given capacity.
+     */
+    final ObjectDequeStorage generalize(int newCapacity) {
+        assert newCapacity >= size && Integer.bitCount(newCapacity) == 1;
+        Object[] values = new Object[newCapacity];
+        for (int i = 0; i < size; i++) {
+            values[i] = get(slot(i));
+        }
+        return new ObjectDequeStorage(values, size);
+    }
+
+    final int slot(int idx) {
+        return (head + idx) & (capacity() - 1);
+    }
+
+    /**
+     * Creates an empty storage that is most suitable for the given (first) item.
+     */
+    static DequeStorage createFor(Object value, int capacity) {
+        if (value instanceof Integer || value instanceof Long) {
+            return new LongDequeStorage(capacity);
+        } else if (value instanceof Double) {
+            return new DoubleDequeStorage(capacity);
+        }
+        return new ObjectDequeStorage(new Object[capacity], 0);
+    }
+
+    static int nextCapacity(int minCapacity) {
+        if (minCapacity <= INITIAL_CAPACITY) {
+            return INITIAL_CAPACITY;
+        }
+        int highest = Integer.highestOneBit(minCapacity);
+        if (highest == minCapacity) {
+            return minCapacity;
+        }
+        if (highest == 1 << 30) {
+            throw new OutOfMemoryError();
+        }
+        return highest << 1;
+    }
+
+    /**
+     * Copies the ring buffer {@code src} into the linear array {@code dst} of the same type,
+     * starting at index 0.
+     */
+    final void copyRing(Object src, int srcCapacity, Object dst) {
+        int first = Math.min(size, srcCapacity - head);
+        PythonUtils.arraycopy(src, head, dst, 0, first);
+        PythonUtils.arraycopy(src, 0, dst, first, size - first);
+    }
+
+    static final class LongDequeStorage extends DequeStorage {
+        private long[] values;
+
+        LongDequeStorage(int capacity) {
+            this.values = new long[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        boolean canStore(Object value) {
+            return value instanceof Integer || value instanceof Long;
+        }
+
+        @Override
+        Object get(int slot) {
+            return values[slot];
+        }
+
+        long getLong(int slot) {
+            return values[slot];
+        }
+
+        @Override
+        void set(int slot, Object value) {
+            values[slot] = value instanceof Integer ? (int) value : (long) value;
+        }
+
+        void setLong(int slot, long value) {
+            values[slot] = value;
+        }
+
+        @Override
+        void copySlot(int from, int to) {
+            values[to] = values[from];
+        }
+
+        @Override
+        void resize(int newCapacity) {
+            long[] newValues = new long[newCapacity];
+            copyRing(values, values.length, newValues);
+            values = newValues;
+            head = 0;
+        }
+    }
+
+    static final class DoubleDequeStorage extends DequeStorage {
+        private double[] values;
+
+        DoubleDequeStorage(int capacity) {
+            this.values = new double[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        boolean canStore(Object value) {
+            return value instanceof Double;
+        }
+
+        @Override
+        Object get(int slot) {
+            return values[slot];
+        }
+
+        double getDouble(int slot) {
+            return values[slot];
+        }
+
+        @Override
+        void set(int slot, Object value) {
+            values[slot] = (double) value;
+        }
+
+        void setDouble(int slot, double value) {
+            values[slot] = value;
+        }
+
+        @Override
+        void copySlot(int from, int to) {
+            values[to] = values[from];
+        }
+
+        @Override
+        void resize(int newCapacity) {
+            double[] newValues = new double[newCapacity];
+            copyRing(values, values.length, newValues);
+            values = newValues;
+            head = 0;
+        }
+    }
+
+    static final class ObjectDequeStorage extends DequeStorage {
+        private Object[] values;
+
+        ObjectDequeStorage(Object[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        boolean canStore(Object value) {
+            return true;
+        }
+
+        @Override
+        Object get(int slot) {
+            return values[slot];
+        }
+
+        @Override
+        void set(int slot, Object value) {
+            values[slot] = value;
+        }
+
+        @Override
+        void copySlot(int from, int to) {
+            values[to] = values[from];
+        }
+
+        @Override
+        void clearSlot(int slot) {
+            values[slot] = null;
+        }
+
+        @Override
+        void resize(int newCapacity) {
+            Object[] newValues = new Object[newCapacity];
+            copyRing(values, values.length, newValues);
+            values = newValues;
+            head = 0;
+        }
+    }
+}
@@ -40,27 +40,37 @@
  */
 package com.oracle.graal.python.builtins.objects.deque;
 
-import java.util.ArrayDeque;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
+import com.oracle.graal.python.builtins.objects.deque.DequeStorage.DoubleDequeStorage;
+import com.oracle.graal.python.builtins.objects.deque.DequeStorage.LongDequeStorage;
+import com.oracle.graal.python.builtins.objects.deque.DequeStorage.ObjectDequeStorage;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.Shape;
 
 /**
- * A simple wrapper around Java's {@link ArrayDeque}.
+ * A deque backed by a circular buffer (see {@link DequeStorage}). Deques of {@code int} or
+ * {@code float} objects store their items unboxed until an item of another type is added. Indexed
+ * access is O(1) and, if {@code maxlen} is reached, appending overwrites the item that falls out
+ * at the other end.
  */
 public final class PDeque extends PythonBuiltinObject {
-    final ArrayDeque<Object> data = createArrayDeque();
+    private static final DequeStorage EMPTY_STORAGE = new ObjectDequeStorage(new Object[0], 0);
+
+    private DequeStorage storage = EMPTY_STORAGE;
     private int maxLength = -1;
 
     /**
      * This is a modification counter and used to produce exceptions if the deque is modified during
-     * iteration. We need it because {@link ArrayDeque}'s iterators have a slightly different
-     * behavior. E.g. if you iterate the deque to the end and the last element comparison would
-     * modify the deque, then {@link ArrayDeque} doesn't complain while CPython's implementation
-     * still complains. The main difference is that CPython will always check if the deque was
-     * modifed right after it called out for {@code __eq__}.
+     * iteration. Like CPython, we check if the deque was modified right after calling out for
+     * {@code __eq__}, e.g., even if the last element comparison modifies the deque.
      */
     private int state;
 
@@ -68,13 +78,8 @@ public final class PDeque extends PythonBuiltinObject {
         super(cls, instanceShape);
     }
 
-    @TruffleBoundary
-    private static ArrayDeque<Object> createArrayDeque() {
-        return new ArrayDeque<>();
-    }
-
     int getSize() {
-        return data.size();
+        return storage.size;
     }
 
     int getMaxLength() {
@@ -85,29 +90,62 @@ public final class PDeque extends PythonBuiltinObject {
         this.maxLength = maxLength;
     }
 
+    /**
+     * Makes sure that the storage can hold {@code value} and has room for {@code n} more items.
+     * Does not grow beyond {@code maxlen} since the items falling out are overwritten in place.
+     */
+    private void ensureCapacity(Object value, int n) {
+        DequeStorage s = storage;
+        int required = s.size + n;
+        if (maxLength >= 0 && required > maxLength) {
+            required = maxLength;
+        }
+        if (s.capacity() == 0) {
+            storage = DequeStorage.createFor(value, DequeStorage.nextCapacity(required));
+        } else if (!s.canStore(value)) {
+            storage = s.generalize(DequeStorage.nextCapacity(Math.max(required, s.capacity())));
+        } else if (required > s.capacity()) {
+            s.resize(DequeStorage.nextCapacity(required));
+        }
+    }
+
     @TruffleBoundary
     void append(Object value) {
-        assert maxLength == -1 || data.size() <= maxLength;
-        data.addLast(value);
-        if (maxLength != -1 && data.size() > maxLength) {
-            popLeft();
+        state++;
+        if (maxLength == 0) {
+            return;
+        }
+        ensureCapacity(value, 1);
+        DequeStorage s = storage;
+        if (s.size == maxLength) {
+            // drop the leftmost item; if the buffer is exactly full, its slot is reused
+            s.clearSlot(s.head);
+            s.set(s.slot(s.size), value);
+            s.head = s.slot(1);
         } else {
-            state++;
+            s.set(s.slot(s.size), value);
+            s.size++;
         }
-
-        assert maxLength == -1 || data.size() <= maxLength;
+        assert maxLength == -1 || s.size <= maxLength;
     }
 
     @TruffleBoundary
     void appendLeft(Object value) {
-        assert maxLength == -1 || data.size() <= maxLength;
-        data.addFirst(value);
-        if (maxLength != -1 && data.size() > maxLength) {
-            pop();
-        } else {
-            state++;
+        state++;
+        if (maxLength == 0) {
+            return;
+        }
+        ensureCapacity(value, 1);
+        DequeStorage s = storage;
+        if (s.size == maxLength) {
+            // drop the rightmost item
+            s.clearSlot(s.slot(s.size - 1));
+            s.size--;
         }
-        assert maxLength == -1 || data.size() <= maxLength;
+        s.head = s.slot(s.capacity() - 1);
+        s.set(s.head, value);
+        s.size++;
+        assert maxLength == -1 || s.size <= maxLength;
     }
 
     /**
@@ -116,7 +154,15 @@ public final class PDeque extends PythonBuiltinObject {
     @TruffleBoundary
     Object pop() {
         state++;
-        return data.pollLast();
+        DequeStorage s = storage;
+        if (s.size == 0) {
+            return null;
+        }
+        int slot = s.slot(s.size - 1);
+        Object value = s.get(slot);
+        s.clearSlot(slot);
+        s.size--;
+        return value;
     }
 
     /**
@@ -125,7 +171,15 @@ public final class PDeque extends PythonBuiltinObject {
     @TruffleBoundary
     Object popLeft() {
         state++;
-        return data.pollFirst();
+        DequeStorage s = storage;
+        if (s.size == 0) {
+            return null;
+        }
+        Object value = s.get(s.head);
+        s.clearSlot(s.head);
+        s.head = s.slot(1);
+        s.size--;
+        return value;
     }
 
     /**
@@ -133,7 +187,24 @@ public final class PDeque extends PythonBuiltinObject {
      */
     @TruffleBoundary
     Object peekLeft() {
-        return data.peekFirst();
+        DequeStorage s = storage;
+        return s.size == 0 ? null : s.get(s.head);
+    }
+
+    @TruffleBoundary
+    Object getItem(int idx) {
+        assert 0 <= idx && idx < storage.size;
+        return storage.get(storage.slot(idx));
+    }
+
+    @TruffleBoundary
+    Object[] toArray() {
+        DequeStorage s = storage;
+        Object[] result = new Object[s.size];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = s.get(s.slot(i));
+        }
+        return result;
     }
 
     @TruffleBoundary
@@ -145,54 +216,258 @@ public final class PDeque extends PythonBuiltinObject {
 
     @TruffleBoundary
     void addAll(PDeque other) {
-        for (Object e : other.data) {
-            append(e);
+        if (other == this) {
+            addAll(toArray());
+            return;
+        }
+        DequeStorage o = other.storage;
+        int n = o.size;
+        if (n == 0) {
+            state++;
+            return;
+        }
+        // only the last 'maxlen' items survive
+        int start = maxLength >= 0 && n > maxLength ? n - maxLength : 0;
+        if (o instanceof LongDequeStorage && (storage instanceof LongDequeStorage || storage.capacity() == 0)) {
+            LongDequeStorage lo = (LongDequeStorage) o;
+            ensureCapacity(0L, n - start);
+            for (int i = start; i < n; i++) {
+                appendLong(lo.getLong(lo.slot(i)));
+            }
+        } else if (o instanceof DoubleDequeStorage && (storage instanceof DoubleDequeStorage || storage.capacity() == 0)) {
+            DoubleDequeStorage dout = (DoubleDequeStorage) o;
+            ensureCapacity(0.0, n - start);
+            for (int i = start; i < n; i++) {
+                appendDouble(dout.getDouble(dout.slot(i)));
+            }
+        } else {
+            for (int i = start; i < n; i++) {
+                append(o.get(o.slot(i)));
+            }
         }
     }
 
+    /**
+     * Appends all items of a list or tuple storage. Returns {@code false} if the storage type is
+     * not supported, in which case nothing was added and the caller needs to iterate.
+     */
+    @TruffleBoundary
+    boolean addAll(SequenceStorage other, boolean left) {
+        int n = other.length();
+        if (maxLength == 0 || n == 0) {
+            if (other instanceof IntSequenceStorage || other instanceof LongSequenceStorage || other instanceof DoubleSequenceStorage || other instanceof ObjectSequenceStorage) {
+                state++;
+                return true;
+            }
+            return false;
+        }
+        // only the last 'maxlen' items survive
+        int start = maxLength >= 0 && n > maxLength ? n - maxLength : 0;
+        boolean longStorage = storage instanceof LongDequeStorage || storage.capacity() == 0 && storage.size == 0;
+        boolean doubleStorage = storage instanceof DoubleDequeStorage || storage.capacity() == 0 && storage.size == 0;
+        if (other instanceof IntSequenceStorage && longStorage) {
+            int[] values = ((IntSequenceStorage) other).getInternalIntArray();
+            ensureCapacity(0L, n - start);
+            for (int i = start; i < n; i++) {
+                appendLong(values[i], left);
+            }
+        } else if (other instanceof LongSequenceStorage && longStorage) {
+            long[] values = ((LongSequenceStorage) other).getInternalLongArray();
+            ensureCapacity(0L, n - start);
+            for (int i = start; i < n; i++) {
+                appendLong(values[i], left);
+            }
+        } else if (other instanceof DoubleSequenceStorage && doubleStorage) {
+            double[] values = ((DoubleSequenceStorage) other).getInternalDoubleArray();
+            ensureCapacity(0.0, n - start);
+            for (int i = start; i < n; i++) {
+                appendDouble(values[i], left);
+            }
+        } else if (other instanceof IntSequenceStorage || other instanceof LongSequenceStorage || other instanceof DoubleSequenceStorage || other instanceof ObjectSequenceStorage) {
+            for (int i = start; i < n; i++) {
+                Object item = other.getItemNormalized(i);
+                if (left) {
+                    appendLeft(item);
+                } else {
+                    append(item);
+                }
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private void appendLong(long value) {
+        appendLong(value, false);
+    }
+
+    private void appendDouble(double value) {
+        appendDouble(value, false);
+    }
+
+    /**
+     * Like {@link #append(Object)} resp. {@link #appendLeft(Object)} but without boxing. The caller
+     * must have ensured a {@link LongDequeStorage} with enough capacity.
+     */
+    private void appendLong(long value, boolean left) {
+        LongDequeStorage s = (LongDequeStorage) storage;
+        s.setLong(nextSlot(s, left), value);
+    }
+
+    private void appendDouble(double value, boolean left) {
+        DoubleDequeStorage s = (DoubleDequeStorage) storage;
+        s.setDouble(nextSlot(s, left), value);
+    }
+
+    /**
+     * Reserves the slot for an appended item, dropping the item at the other end if the deque is
+     * at its maximum length.
+     */
+    private int nextSlot(DequeStorage s, boolean left) {
+        state++;
+        if (left) {
+            if (s.size == maxLength) {
+                s.size--;
+            }
+            s.head = s.slot(s.capacity() - 1);
+            s.size++;
+            return s.head;
+        }
+        int slot = s.slot(s.size);
+        if (s.size == maxLength) {
+            s.head = s.slot(1);
+        } else {
+            s.size++;
+        }
+        return slot;
+    }
+
     @TruffleBoundary
     public Iterator<Object> iterator() {
-        return data.iterator();
+        return new DequeIterator(false);
     }
 
     @TruffleBoundary
     public Iterator<Object> reverseIterator() {
-        return data.descendingIterator();
+        return new DequeIterator(true);
     }
 
     @TruffleBoundary
     public void clear() {
-        data.clear();
+        storage = EMPTY_STORAGE;
         state++;
     }
 
+    /**
+     * Rotates the deque {@code n} steps to the right (to the left if {@code n} is negative). Only
+     * {@code min(|n|, size - |n|)} items are moved from one end of the buffer to the other.
+     */
     @TruffleBoundary
-    public void setItem(int idx, Object value) {
-        assert 0 <= idx && idx < data.size();
-        int n = data.size() - idx - 1;
-        Object[] savedItems = new Object[n];
-        for (int i = 0; i < savedItems.length; i++) {
-            savedItems[i] = data.pollLast();
-        }
-        // this removes the item we want to replace
-        data.pollLast();
-        assert data.size() == idx;
-        if (value != null) {
-            data.addLast(value);
+    void rotate(int n) {
+        DequeStorage s = storage;
+        int size = s.size;
+        if (size <= 1) {
+            return;
+        }
+        state++;
+        int k = n % size;
+        if (k < 0) {
+            k += size;
+        }
+        if (k == 0) {
+            return;
+        }
+        if (s.capacity() == size) {
+            // the buffer is full, so rotating just means moving the head
+            s.head = s.slot(size - k);
+        } else if (k <= size / 2) {
+            for (int i = 0; i < k; i++) {
+                int from = s.slot(size - 1);
+                int to = s.slot(s.capacity() - 1);
+                s.copySlot(from, to);
+                s.clearSlot(from);
+                s.head = to;
+            }
         } else {
-            // removal case: this alters the number of elements, so modify the state
-            state++;
+            for (int i = 0; i < size - k; i++) {
+                int from = s.head;
+                s.copySlot(from, s.slot(size));
+                s.clearSlot(from);
+                s.head = s.slot(1);
+            }
         }
+    }
+
+    @TruffleBoundary
+    void reverse() {
+        DequeStorage s = storage;
+        state++;
+        for (int i = 0, j = s.size - 1; i < j; i++, j--) {
+            int a = s.slot(i);
+            int b = s.slot(j);
+            Object tmp = s.get(a);
+            s.copySlot(b, a);
+            s.set(b, tmp);
+        }
+    }
 
-        // re-add saved items
-        for (int i = savedItems.length - 1; i >= 0; i--) {
-            data.addLast(savedItems[i]);
+    /**
+     * Replaces the item at index {@code idx} or, if {@code value} is {@code null}, removes it. For
+     * removal, the shorter side of the deque is shifted.
+     */
+    @TruffleBoundary
+    public void setItem(int idx, Object value) {
+        assert 0 <= idx && idx < storage.size;
+        if (value != null) {
+            ensureCapacity(value, 0);
+            storage.set(storage.slot(idx), value);
+            return;
         }
-        assert maxLength == -1 || data.size() <= maxLength;
-        assert value != null && data.size() == n + idx + 1 || value == null && data.size() == n + idx;
+        // removal case: this alters the number of elements, so modify the state
+        state++;
+        DequeStorage s = storage;
+        if (idx < s.size / 2) {
+            for (int i = idx; i > 0; i--) {
+                s.copySlot(s.slot(i - 1), s.slot(i));
+            }
+            s.clearSlot(s.head);
+            s.head = s.slot(1);
+        } else {
+            for (int i = idx; i < s.size - 1; i++) {
+                s.copySlot(s.slot(i + 1), s.slot(i));
+            }
+            s.clearSlot(s.slot(s.size - 1));
+        }
+        s.size--;
     }
 
     public int getState() {
         return state;
     }
+
+    private final class DequeIterator implements Iterator<Object> {
+        private final boolean reverse;
+        private int next;
+
+        DequeIterator(boolean reverse) {
+            this.reverse = reverse;
+            this.next = reverse ? storage.size - 1 : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return reverse ? next >= 0 : next < storage.size;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object item = storage.get(storage.slot(next));
+            next += reverse ? -1 : 1;
+            return item;
+        }
+    }
 }
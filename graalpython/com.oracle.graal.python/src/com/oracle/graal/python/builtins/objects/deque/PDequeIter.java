@@ -40,7 +40,6 @@
  */
 package com.oracle.graal.python.builtins.objects.deque;
 
-import java.util.ArrayDeque;
 import java.util.Iterator;
 
 import com.oracle.graal.python.builtins.objects.iterator.PBuiltinIterator;
@@ -48,7 +47,7 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.Shape;
 
 /**
- * A simple wrapper around Java's {@link ArrayDeque}.
+ * An iterator over a {@link PDeque} that walks its circular buffer by index.
  */
 public final class PDequeIter extends PBuiltinIterator {
     final PDeque deque;
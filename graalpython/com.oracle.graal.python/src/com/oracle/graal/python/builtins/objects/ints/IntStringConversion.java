@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.ints;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+
+import java.math.BigInteger;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Conversions between {@link BigInteger} and strings for numbers with many digits.
+ *
+ * {@code new BigInteger(String, int)} is quadratic in the number of digits, so above
+ * {@link PythonOptions#IntFromStrThreshold} digits we split the string in two halves, convert them
+ * recursively and combine them with a multiplication by a cached power of the radix, which benefits
+ * from the sub-quadratic multiplication algorithms of {@link BigInteger}. Formatting as decimal
+ * works the other way round: above {@link PythonOptions#IntToStrThreshold} digits, the value is
+ * split by dividing by a cached power of ten.
+ *
+ * Both directions enforce {@link PythonOptions#IntMaxStrDigits} for radices which are not a power
+ * of two, like CPython's {@code sys.set_int_max_str_digits}.
+ */
+public final class IntStringConversion {
+    private static final double LOG10_2 = 0.3010299956639812;
+
+    /**
+     * {@code POWERS[radix][k]} caches {@code radix ** (2 ** k)}. Guarded by itself.
+     */
+    private static final BigInteger[][] POWERS = new BigInteger[37][];
+
+    private IntStringConversion() {
+    }
+
+    /**
+     * Formats the value in decimal. Equivalent to {@link BigInteger#toString()}.
+     */
+    @TruffleBoundary
+    public static String toDecimalString(BigInteger value) {
+        PythonLanguage language = PythonLanguage.get(null);
+        int maxDigits = language.getEngineOption(PythonOptions.IntMaxStrDigits);
+        if (maxDigits > 0 && (value.bitLength() - 1) * LOG10_2 >= maxDigits) {
+            // the value has more than maxDigits digits, no need to convert it to find out
+            throw PRaiseNode.getUncached().raise(ValueError, ErrorMessages.EXCEEDS_LIMIT_FOR_INT_TO_STR, maxDigits);
+        }
+        // below 20 digits, the digit estimate is too coarse to guarantee non-zero high parts
+        int threshold = Math.max(language.getEngineOption(PythonOptions.IntToStrThreshold), 20);
+        String result;
+        if (estimateDecimalDigits(value) <= threshold) {
+            result = value.toString();
+        } else {
+            StringBuilder sb = new StringBuilder();
+            BigInteger abs = value;
+            if (value.signum() < 0) {
+                sb.append('-');
+                abs = value.negate();
+            }
+            appendDecimal(sb, abs, 0, threshold);
+            result = sb.toString();
+        }
+        if (maxDigits > 0 && result.length() - (value.signum() < 0 ? 1 : 0) > maxDigits) {
+            throw PRaiseNode.getUncached().raise(ValueError, ErrorMessages.EXCEEDS_LIMIT_FOR_INT_TO_STR, maxDigits);
+        }
+        return result;
+    }
+
+    /**
+     * Parses a string of digits without sign, underscores or whitespace. Equivalent to
+     * {@code new BigInteger(digits, radix)}.
+     */
+    @TruffleBoundary
+    public static BigInteger parse(String digits, int radix) throws NumberFormatException {
+        PythonLanguage language = PythonLanguage.get(null);
+        int maxDigits = language.getEngineOption(PythonOptions.IntMaxStrDigits);
+        if (maxDigits > 0 && !isPowerOfTwo(radix) && digits.length() > maxDigits) {
+            throw PRaiseNode.getUncached().raise(ValueError, ErrorMessages.EXCEEDS_LIMIT_FOR_STR_TO_INT, maxDigits, digits.length());
+        }
+        int threshold = Math.max(language.getEngineOption(PythonOptions.IntFromStrThreshold), 1);
+        return parse(digits, 0, digits.length(), radix, threshold);
+    }
+
+    private static BigInteger parse(String digits, int start, int end, int radix, int threshold) {
+        int len = end - start;
+        if (len <= threshold) {
+            return new BigInteger(digits.substring(start, end), radix);
+        }
+        // the low part gets the largest power of two digits that leaves a non-empty high part
+        int k = 31 - Integer.numberOfLeadingZeros(len - 1);
+        int lowLen = 1 << k;
+        BigInteger high = parse(digits, start, end - lowLen, radix, threshold);
+        BigInteger low = parse(digits, end - lowLen, end, radix, threshold);
+        if (isPowerOfTwo(radix)) {
+            return high.shiftLeft(lowLen * Integer.numberOfTrailingZeros(radix)).or(low);
+        }
+        return high.multiply(powerOfRadix(radix, k)).add(low);
+    }
+
+    /**
+     * Appends the decimal digits of the non-negative {@code value}, left-padded with zeros to
+     * {@code minDigits}.
+     */
+    private static void appendDecimal(StringBuilder sb, BigInteger value, int minDigits, int threshold) {
+        int estimate = estimateDecimalDigits(value);
+        if (estimate <= threshold) {
+            String s = value.toString();
+            for (int i = s.length(); i < minDigits; i++) {
+                sb.append('0');
+            }
+            sb.append(s);
+            return;
+        }
+        // split at 10 ** (2 ** k) with 2 ** k being roughly half of the digits
+        int k = 31 - Integer.numberOfLeadingZeros(estimate / 2);
+        int lowDigits = 1 << k;
+        BigInteger[] qr = value.divideAndRemainder(powerOfRadix(10, k));
+        appendDecimal(sb, qr[0], Math.max(minDigits - lowDigits, 0), threshold);
+        appendDecimal(sb, qr[1], lowDigits, threshold);
+    }
+
+    private static int estimateDecimalDigits(BigInteger value) {
+        return (int) (value.bitLength() * LOG10_2) + 1;
+    }
+
+    private static boolean isPowerOfTwo(int radix) {
+        return (radix & (radix - 1)) == 0;
+    }
+
+    private static BigInteger powerOfRadix(int radix, int k) {
+        synchronized (POWERS) {
+            BigInteger[] powers = POWERS[radix];
+            if (powers == null || powers.length <= k) {
+                BigInteger[] newPowers = new BigInteger[k + 1];
+                int cached = 0;
+                if (powers != null) {
+                    cached = powers.length;
+                    System.arraycopy(powers, 0, newPowers, 0, cached);
+                } else {
+                    newPowers[0] = BigInteger.valueOf(radix);
+                    cached = 1;
+                }
+                for (int i = cached; i <= k; i++) {
+                    newPowers[i] = newPowers[i - 1].multiply(newPowers[i - 1]);
+                }
+                POWERS[radix] = powers = newPowers;
+            }
+            return powers[k];
+        }
+    }
+}
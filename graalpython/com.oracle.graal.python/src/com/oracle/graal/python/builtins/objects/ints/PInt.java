@@ -330,7 +330,7 @@ public final class PInt extends PythonBuiltinObject {
 
     @TruffleBoundary
     private static String toString(BigInteger value) {
-        return value.toString();
+        return IntStringConversion.toDecimalString(value);
     }
 
     @TruffleBoundary
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An unbounded multi-producer multi-consumer FIFO queue. The elements are stored in a linked list
+ * of fixed-size array segments. Producers and consumers claim slots with a fetch-and-add on the
+ * indices of the current segment, so neither {@link #offer} nor {@link #poll} takes a lock or
+ * allocates anything except a new segment every {@link #SEGMENT_SIZE} elements. A consumer that
+ * claims a slot before the producer filled it marks the slot as taken, and the producer retries
+ * with the next slot.
+ * <p>
+ * Blocking consumers wait on a condition. Producers only take the lock to signal it if there are
+ * waiting consumers.
+ */
+final class ConcurrentArrayQueue {
+    private static final int SEGMENT_SIZE = 1024;
+
+    /** Marks a slot that was claimed by a consumer. */
+    private static final Object TAKEN = new Object();
+
+    private static final class Segment {
+        final AtomicReferenceArray<Object> items = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        final AtomicInteger enqueueIndex;
+        final AtomicInteger dequeueIndex = new AtomicInteger();
+        final AtomicReference<Segment> next = new AtomicReference<>();
+
+        Segment(Object first) {
+            if (first != null) {
+                items.lazySet(0, first);
+                enqueueIndex = new AtomicInteger(1);
+            } else {
+                enqueueIndex = new AtomicInteger(0);
+            }
+        }
+    }
+
+    private final AtomicReference<Segment> head;
+    private final AtomicReference<Segment> tail;
+    private final LongAdder size = new LongAdder();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    ConcurrentArrayQueue() {
+        Segment segment = new Segment(null);
+        head = new AtomicReference<>(segment);
+        tail = new AtomicReference<>(segment);
+    }
+
+    int size() {
+        long sum = size.sum();
+        return sum < 0 ? 0 : (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    void offer(Object item) {
+        assert item != null;
+        size.increment();
+        while (true) {
+            Segment last = tail.get();
+            int index = last.enqueueIndex.getAndIncrement();
+            if (index >= SEGMENT_SIZE) {
+                // the segment is full
+                if (last != tail.get()) {
+                    continue;
+                }
+                Segment next = last.next.get();
+                if (next == null) {
+                    Segment segment = new Segment(item);
+                    if (last.next.compareAndSet(null, segment)) {
+                        tail.compareAndSet(last, segment);
+                        break;
+                    }
+                } else {
+                    tail.compareAndSet(last, next);
+                }
+                continue;
+            }
+            if (last.items.compareAndSet(index, null, item)) {
+                break;
+            }
+            // a consumer took the slot before we could fill it
+        }
+        if (waiters.get() > 0) {
+            signalNotEmpty();
+        }
+    }
+
+    private void signalNotEmpty() {
+        lock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Object poll() {
+        while (true) {
+            Segment first = head.get();
+            if (first.dequeueIndex.get() >= first.enqueueIndex.get() && first.next.get() == null) {
+                return null;
+            }
+            int index = first.dequeueIndex.getAndIncrement();
+            if (index >= SEGMENT_SIZE) {
+                // the segment is drained
+                Segment next = first.next.get();
+                if (next == null) {
+                    return null;
+                }
+                head.compareAndSet(first, next);
+                continue;
+            }
+            Object item = first.items.getAndSet(index, TAKEN);
+            if (item != null) {
+                size.decrement();
+                return item;
+            }
+            // the producer of this slot did not fill it yet and will retry
+        }
+    }
+
+    /**
+     * Removes the head of the queue, waiting if necessary. A negative timeout means to wait
+     * forever. Returns {@code null} if the timeout elapsed.
+     */
+    Object take(long timeout, TimeUnit unit) throws InterruptedException {
+        Object item = poll();
+        if (item != null) {
+            return item;
+        }
+        long nanos = timeout < 0 ? -1 : unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        // producers check the waiters after publishing their item, and we poll after
+        // announcing ourselves, so either of us sees the other
+        waiters.incrementAndGet();
+        try {
+            while ((item = poll()) == null) {
+                if (nanos < 0) {
+                    notEmpty.await();
+                } else if (nanos == 0) {
+                    return null;
+                } else {
+                    nanos = Math.max(notEmpty.awaitNanos(nanos), 0);
+                }
+            }
+            return item;
+        } catch (InterruptedException e) {
+            // pass a signal we may have consumed on to another waiter
+            notEmpty.signal();
+            throw e;
+        } finally {
+            waiters.decrementAndGet();
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.queue;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleSafepoint;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The core of {@code queue.Queue}: a FIFO queue with an optional maximum size and the counter of
+ * unfinished tasks used by {@code task_done} and {@code join}. The structure is the same as in
+ * {@code queue.py}, i.e., one lock with three conditions, but none of the waiting involves Python
+ * code.
+ * <p>
+ * The blocking methods must be called without holding the GIL. They process safepoints while
+ * waiting, so async actions and exceptions from other threads are delivered as for
+ * {@code _thread.LockType}. The non-blocking ones may be called with the GIL held since nobody
+ * holds the lock while waiting for the GIL.
+ */
+public final class PQueue extends PythonBuiltinObject {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition allTasksDone = lock.newCondition();
+
+    /** Deadline value meaning "block until woken up". */
+    private static final long NO_DEADLINE = -1;
+
+    private final ArrayDeque<Object> items = createDeque();
+    private volatile int maxsize;
+    private long unfinishedTasks;
+
+    public PQueue(Object cls, Shape instanceShape, int maxsize) {
+        super(cls, instanceShape);
+        this.maxsize = maxsize;
+    }
+
+    @TruffleBoundary
+    private static ArrayDeque<Object> createDeque() {
+        return new ArrayDeque<>();
+    }
+
+    public int getMaxsize() {
+        return maxsize;
+    }
+
+    @TruffleBoundary
+    public void setMaxsize(int maxsize) {
+        lock.lock();
+        try {
+            this.maxsize = maxsize;
+            // a larger queue may have room for waiting producers
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TruffleBoundary
+    public long getUnfinishedTasks() {
+        lock.lock();
+        try {
+            return unfinishedTasks;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TruffleBoundary
+    int size() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TruffleBoundary
+    boolean isFull() {
+        lock.lock();
+        try {
+            return isFullLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isFullLocked() {
+        int max = maxsize;
+        return max > 0 && items.size() >= max;
+    }
+
+    private void enqueueLocked(Object item) {
+        items.addLast(item);
+        unfinishedTasks++;
+        notEmpty.signal();
+    }
+
+    private Object dequeueLocked() {
+        Object item = items.pollFirst();
+        if (item != null) {
+            notFull.signal();
+        }
+        return item;
+    }
+
+    /**
+     * Adds the item unless the queue is full.
+     */
+    @TruffleBoundary
+    boolean offer(Object item) {
+        lock.lock();
+        try {
+            if (isFullLocked()) {
+                return false;
+            }
+            enqueueLocked(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the item, waiting for a free slot if necessary. A negative timeout means to wait
+     * forever. Returns {@code false} if the timeout elapsed.
+     */
+    @TruffleBoundary
+    boolean put(Node node, Object item, long timeoutMicros) {
+        long deadline = getDeadline(timeoutMicros);
+        boolean[] result = new boolean[1];
+        TruffleSafepoint.setBlockedThreadInterruptible(node, (q) -> result[0] = q.awaitPut(item, deadline), this);
+        return result[0];
+    }
+
+    private boolean awaitPut(Object item, long deadline) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (isFullLocked()) {
+                if (!await(notFull, deadline)) {
+                    return false;
+                }
+            }
+            enqueueLocked(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the head of the queue or returns {@code null} if it is empty.
+     */
+    @TruffleBoundary
+    Object poll() {
+        lock.lock();
+        try {
+            return dequeueLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the head of the queue, waiting if necessary. A negative timeout means to wait
+     * forever. Returns {@code null} if the timeout elapsed.
+     */
+    @TruffleBoundary
+    Object take(Node node, long timeoutMicros) {
+        long deadline = getDeadline(timeoutMicros);
+        Object[] result = new Object[1];
+        TruffleSafepoint.setBlockedThreadInterruptible(node, (q) -> result[0] = q.awaitTake(deadline), this);
+        return result[0];
+    }
+
+    private Object awaitTake(long deadline) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            Object item;
+            while ((item = dequeueLocked()) == null) {
+                if (!await(notEmpty, deadline)) {
+                    return null;
+                }
+            }
+            return item;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The deadline is absolute so that waiting again after processing a safepoint does not
+     * restart the timeout.
+     */
+    private static long getDeadline(long timeoutMicros) {
+        if (timeoutMicros < 0) {
+            return NO_DEADLINE;
+        }
+        // never NO_DEADLINE, since nanoTime may be negative
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(timeoutMicros);
+        return deadline == NO_DEADLINE ? deadline - 1 : deadline;
+    }
+
+    /**
+     * Waits on the condition once. Returns {@code false} if the deadline has passed.
+     */
+    private static boolean await(Condition condition, long deadline) throws InterruptedException {
+        if (deadline == NO_DEADLINE) {
+            condition.await();
+            return true;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return false;
+        }
+        condition.awaitNanos(remaining);
+        return true;
+    }
+
+    /**
+     * Marks a task as done. Returns {@code false} if this was called more often than there were
+     * items put into the queue.
+     */
+    @TruffleBoundary
+    boolean taskDone() {
+        lock.lock();
+        try {
+            long unfinished = unfinishedTasks - 1;
+            if (unfinished <= 0) {
+                if (unfinished < 0) {
+                    return false;
+                }
+                allTasksDone.signalAll();
+            }
+            unfinishedTasks = unfinished;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until all items in the queue have been processed.
+     */
+    @TruffleBoundary
+    void join(Node node) {
+        TruffleSafepoint.setBlockedThreadInterruptible(node, PQueue::awaitAllTasksDone, this);
+    }
+
+    private void awaitAllTasksDone() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (unfinishedTasks != 0) {
+                allTasksDone.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
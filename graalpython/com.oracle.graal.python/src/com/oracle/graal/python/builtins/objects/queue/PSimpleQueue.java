@@ -40,7 +40,6 @@
  */
 package com.oracle.graal.python.builtins.objects.queue;
 
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
@@ -49,15 +48,15 @@ import com.oracle.truffle.api.object.Shape;
 
 public final class PSimpleQueue extends PythonBuiltinObject {
 
-    private final LinkedBlockingQueue<Object> data = createQueue();
+    private final ConcurrentArrayQueue data = createQueue();
 
     public PSimpleQueue(Object cls, Shape instanceShape) {
         super(cls, instanceShape);
     }
 
     @TruffleBoundary
-    private static LinkedBlockingQueue<Object> createQueue() {
-        return new LinkedBlockingQueue<>();
+    private static ConcurrentArrayQueue createQueue() {
+        return new ConcurrentArrayQueue();
     }
 
     @TruffleBoundary
@@ -67,12 +66,12 @@ public final class PSimpleQueue extends PythonBuiltinObject {
 
     @TruffleBoundary
     Object get() throws InterruptedException {
-        return data.take();
+        return data.take(-1, TimeUnit.MICROSECONDS);
     }
 
     @TruffleBoundary
     Object get(long microSeconds) throws InterruptedException {
-        return data.poll(microSeconds, TimeUnit.MICROSECONDS);
+        return data.take(microSeconds, TimeUnit.MICROSECONDS);
     }
 
     @TruffleBoundary
@@ -81,8 +80,8 @@ public final class PSimpleQueue extends PythonBuiltinObject {
     }
 
     @TruffleBoundary
-    boolean put(Object value) {
-        return data.offer(value);
+    void put(Object value) {
+        data.offer(value);
     }
 
 }
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.queue;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Empty;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Full;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.queue.QueueBuiltinsClinicProviders.QueueGetNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.queue.QueueBuiltinsClinicProviders.QueuePutNodeClinicProviderGen;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * The methods of {@code queue.Queue}. In contrast to {@code queue.py}, waiting for items or free
+ * slots does not need the GIL, the GIL is released around the blocking calls only.
+ */
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PQueue)
+public final class QueueBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return QueueBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "qsize", minNumOfPositionalArgs = 1, //
+                    doc = "qsize($self, /)\n--\n\nReturn the approximate size of the queue (not reliable!).")
+    @GenerateNodeFactory
+    public abstract static class QueueQSizeNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static int doGeneric(PQueue self) {
+            return self.size();
+        }
+    }
+
+    @Builtin(name = "empty", minNumOfPositionalArgs = 1, //
+                    doc = "empty($self, /)\n--\n\nReturn True if the queue is empty, False otherwise (not reliable!).")
+    @GenerateNodeFactory
+    public abstract static class QueueEmptyNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static boolean doGeneric(PQueue self) {
+            return self.size() == 0;
+        }
+    }
+
+    @Builtin(name = "full", minNumOfPositionalArgs = 1, //
+                    doc = "full($self, /)\n--\n\nReturn True if the queue is full, False otherwise (not reliable!).")
+    @GenerateNodeFactory
+    public abstract static class QueueFullNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static boolean doGeneric(PQueue self) {
+            return self.isFull();
+        }
+    }
+
+    @Builtin(name = "maxsize", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class QueueMaxsizeNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "isNoValue(none)")
+        static int get(PQueue self, @SuppressWarnings("unused") PNone none) {
+            return self.getMaxsize();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(VirtualFrame frame, PQueue self, Object value,
+                        @Cached PyNumberAsSizeNode asSizeNode) {
+            self.setMaxsize(asSizeNode.executeExact(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unfinished_tasks", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class QueueUnfinishedTasksNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static long doGeneric(PQueue self) {
+            return self.getUnfinishedTasks();
+        }
+    }
+
+    @Builtin(name = "get_nowait", minNumOfPositionalArgs = 1, //
+                    doc = "get_nowait($self, /)\n" +
+                                    "--\n\n" +
+                                    "Remove and return an item from the queue without blocking.\n" +
+                                    "\n" +
+                                    "Only get an item if one is immediately available. Otherwise\n" +
+                                    "raise the Empty exception.")
+    @GenerateNodeFactory
+    public abstract static class QueueGetNoWaitNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        Object doGeneric(PQueue self) {
+            Object result = self.poll();
+            if (result != null) {
+                return result;
+            }
+            throw raise(Empty);
+        }
+    }
+
+    @Builtin(name = "get", minNumOfPositionalArgs = 1, parameterNames = {"$self", "block", "timeout"}, //
+                    doc = "get($self, /, block=True, timeout=None)\n" +
+                                    "--\n\n" +
+                                    "Remove and return an item from the queue.\n" +
+                                    "\n" +
+                                    "If optional args 'block' is true and 'timeout' is None (the default),\n" +
+                                    "block if necessary until an item is available. If 'timeout' is\n" +
+                                    "a non-negative number, it blocks at most 'timeout' seconds and raises\n" +
+                                    "the Empty exception if no item was available within that time.\n" +
+                                    "Otherwise ('block' is false), return an item if one is immediately\n" +
+                                    "available, else raise the Empty exception ('timeout' is ignored\n" +
+                                    "in that case).")
+    @GenerateNodeFactory
+    @ArgumentClinic(name = "block", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    public abstract static class QueueGetNode extends PythonTernaryClinicBuiltinNode {
+        @Child private GilNode gil;
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return QueueGetNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object doGeneric(VirtualFrame frame, PQueue self, boolean block, Object timeout,
+                        @Cached TimeoutToMicrosecondsNode toMicrosecondsNode) {
+            long ltimeout = -1;
+            if (block && !(timeout instanceof PNone)) {
+                ltimeout = toMicrosecondsNode.execute(frame, timeout);
+            }
+
+            // first try a non-blocking get without releasing the GIL
+            Object result = self.poll();
+            if (result != null) {
+                return result;
+            }
+            if (block) {
+                ensureGil().release(true);
+                try {
+                    result = self.take(this, ltimeout);
+                } finally {
+                    ensureGil().acquire();
+                }
+                if (result != null) {
+                    return result;
+                }
+            }
+            throw raise(Empty);
+        }
+
+        private GilNode ensureGil() {
+            if (gil == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                gil = insert(GilNode.create());
+            }
+            return gil;
+        }
+    }
+
+    @Builtin(name = "put_nowait", minNumOfPositionalArgs = 2, parameterNames = {"$self", "item"}, //
+                    doc = "put_nowait($self, /, item)\n" +
+                                    "--\n\n" +
+                                    "Put an item into the queue without blocking.\n" +
+                                    "\n" +
+                                    "Only enqueue the item if a free slot is immediately available.\n" +
+                                    "Otherwise raise the Full exception.")
+    @GenerateNodeFactory
+    public abstract static class QueuePutNoWaitNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PNone doGeneric(PQueue self, Object item) {
+            if (self.offer(item)) {
+                return PNone.NONE;
+            }
+            throw raise(Full);
+        }
+    }
+
+    @Builtin(name = "put", minNumOfPositionalArgs = 2, parameterNames = {"$self", "item", "block", "timeout"}, //
+                    doc = "put($self, /, item, block=True, timeout=None)\n" +
+                                    "--\n\n" +
+                                    "Put an item into the queue.\n" +
+                                    "\n" +
+                                    "If optional args 'block' is true and 'timeout' is None (the default),\n" +
+                                    "block if necessary until a free slot is available. If 'timeout' is\n" +
+                                    "a non-negative number, it blocks at most 'timeout' seconds and raises\n" +
+                                    "the Full exception if no free slot was available within that time.\n" +
+                                    "Otherwise ('block' is false), put an item on the queue if a free slot\n" +
+                                    "is immediately available, else raise the Full exception ('timeout'\n" +
+                                    "is ignored in that case).")
+    @GenerateNodeFactory
+    @ArgumentClinic(name = "block", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    public abstract static class QueuePutNode extends PythonQuaternaryClinicBuiltinNode {
+        @Child private GilNode gil;
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return QueuePutNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone doGeneric(VirtualFrame frame, PQueue self, Object item, boolean block, Object timeout,
+                        @Cached TimeoutToMicrosecondsNode toMicrosecondsNode) {
+            // like queue.py, an unbounded queue never looks at the timeout
+            long ltimeout = -1;
+            if (self.getMaxsize() > 0 && block && !(timeout instanceof PNone)) {
+                ltimeout = toMicrosecondsNode.execute(frame, timeout);
+            }
+
+            if (self.offer(item)) {
+                return PNone.NONE;
+            }
+            if (block) {
+                boolean done;
+                ensureGil().release(true);
+                try {
+                    done = self.put(this, item, ltimeout);
+                } finally {
+                    ensureGil().acquire();
+                }
+                if (done) {
+                    return PNone.NONE;
+                }
+            }
+            throw raise(Full);
+        }
+
+        private GilNode ensureGil() {
+            if (gil == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                gil = insert(GilNode.create());
+            }
+            return gil;
+        }
+    }
+
+    @Builtin(name = "task_done", minNumOfPositionalArgs = 1, //
+                    doc = "task_done($self, /)\n" +
+                                    "--\n\n" +
+                                    "Indicate that a formerly enqueued task is complete.\n" +
+                                    "\n" +
+                                    "Raises a ValueError if called more times than there were items\n" +
+                                    "placed in the queue.")
+    @GenerateNodeFactory
+    public abstract static class QueueTaskDoneNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        PNone doGeneric(PQueue self) {
+            if (self.taskDone()) {
+                return PNone.NONE;
+            }
+            throw raise(ValueError, ErrorMessages.TASK_DONE_CALLED_TOO_MANY_TIMES);
+        }
+    }
+
+    @Builtin(name = "join", minNumOfPositionalArgs = 1, //
+                    doc = "join($self, /)\n" +
+                                    "--\n\n" +
+                                    "Blocks until all items in the Queue have been gotten and processed.")
+    @GenerateNodeFactory
+    public abstract static class QueueJoinNode extends PythonUnaryBuiltinNode {
+        @Child private GilNode gil;
+
+        @Specialization
+        PNone doGeneric(PQueue self) {
+            if (self.getUnfinishedTasks() == 0) {
+                return PNone.NONE;
+            }
+            ensureGil().release(true);
+            try {
+                self.join(this);
+            } finally {
+                ensureGil().acquire();
+            }
+            return PNone.NONE;
+        }
+
+        private GilNode ensureGil() {
+            if (gil == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                gil = insert(GilNode.create());
+            }
+            return gil;
+        }
+    }
+}
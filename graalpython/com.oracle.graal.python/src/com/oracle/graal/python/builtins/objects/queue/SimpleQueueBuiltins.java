@@ -41,8 +41,6 @@
 package com.oracle.graal.python.builtins.objects.queue;
 
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Empty;
-import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
-import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
 
 import java.util.List;
 
@@ -54,18 +52,13 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.queue.SimpleQueueBuiltinsClinicProviders.SimpleQueueGetNodeClinicProviderGen;
-import com.oracle.graal.python.lib.PyLongAsLongAndOverflowNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
-import com.oracle.graal.python.nodes.util.CannotCastException;
-import com.oracle.graal.python.nodes.util.CastToJavaDoubleNode;
 import com.oracle.graal.python.runtime.GilNode;
-import com.oracle.graal.python.util.OverflowException;
-import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
@@ -175,25 +168,9 @@ public final class SimpleQueueBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "withTimeout(block, timeout)")
         Object doTimeout(VirtualFrame frame, PSimpleQueue self, boolean block, Object timeout,
-                        @Cached PyLongAsLongAndOverflowNode asLongNode,
-                        @Cached CastToJavaDoubleNode castToDouble) {
+                        @Cached TimeoutToMicrosecondsNode toMicrosecondsNode) {
             assert block;
-
-            // convert timeout object (given in seconds) to a Java long in microseconds
-            long ltimeout;
-            try {
-                ltimeout = (long) (castToDouble.execute(timeout) * 1000000.0);
-            } catch (CannotCastException e) {
-                try {
-                    ltimeout = PythonUtils.multiplyExact(asLongNode.execute(frame, timeout), 1000000);
-                } catch (OverflowException oe) {
-                    throw raise(OverflowError, "timeout value is too large");
-                }
-            }
-
-            if (ltimeout < 0) {
-                throw raise(ValueError, "'timeout' must be a non-negative number");
-            }
+            long ltimeout = toMicrosecondsNode.execute(frame, timeout);
 
             // CPython first tries a non-blocking get without releasing the GIL
             Object result = self.poll();
@@ -244,13 +221,7 @@ public final class SimpleQueueBuiltins extends PythonBuiltins {
 
         @Specialization
         PNone doGeneric(PSimpleQueue self, Object item, @SuppressWarnings("unused") Object block, @SuppressWarnings("unused") Object timeout) {
-            if (!self.put(item)) {
-                /*
-                 * CPython uses a Python list as backing storage. This will throw an OverflowError
-                 * if no more elements can be added to the list.
-                 */
-                throw raise(OverflowError);
-            }
+            self.put(item);
             return PNone.NONE;
         }
     }
@@ -267,13 +238,7 @@ public final class SimpleQueueBuiltins extends PythonBuiltins {
 
         @Specialization
         PNone doGeneric(PSimpleQueue self, Object item) {
-            if (!self.put(item)) {
-                /*
-                 * CPython uses a Python list as backing storage. This will throw an OverflowError
-                 * if no more elements can be added to the list.
-                 */
-                throw raise(OverflowError);
-            }
+            self.put(item);
             return PNone.NONE;
         }
     }
@@ -41,6 +41,7 @@
 package com.oracle.graal.python.builtins.objects.socket;
 
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.MemoryError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.NotImplementedError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OSError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
@@ -70,13 +71,16 @@ import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.floats.PFloat;
 import com.oracle.graal.python.builtins.objects.socket.SocketUtils.TimeoutHelper;
 import com.oracle.graal.python.lib.PyLongAsIntNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
@@ -91,6 +95,7 @@ import com.oracle.graal.python.runtime.PosixConstants;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddrLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -895,6 +900,169 @@ public class SocketBuiltins extends PythonBuiltins {
         }
     }
 
+    // sendmsg(buffers[, ancdata[, flags[, address]]])
+    @Builtin(name = "sendmsg", minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffers", "ancdata", "flags", "address"})
+    @ArgumentClinic(name = "flags", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class SendMsgNode extends PythonClinicBuiltinNode {
+        @Specialization
+        int sendMsg(VirtualFrame frame, PSocket socket, Object buffersObj, Object ancdata, int flags, Object address,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached ListNodes.ConstructListNode constructListNode,
+                        @Cached SequenceNodes.GetObjectArrayNode getObjectArrayNode,
+                        @Cached ConditionProfile hasAddressProfile,
+                        @Cached SocketNodes.GetSockAddrArgNode getSockAddrArgNode,
+                        @Cached SysModuleBuiltins.AuditNode auditNode,
+                        @Cached GilNode gil) {
+            Object[] items = getObjectArrayNode.execute(constructListNode.execute(frame, buffersObj));
+            if (!PGuards.isPNone(ancdata) && getObjectArrayNode.execute(constructListNode.execute(frame, ancdata)).length != 0) {
+                throw raise(NotImplementedError, ErrorMessages.SENDMSG_ANCILLARY_DATA_NOT_SUPPORTED);
+            }
+            UniversalSockAddr addr = null;
+            if (hasAddressProfile.profile(!PGuards.isPNone(address))) {
+                addr = getSockAddrArgNode.execute(frame, socket, address, "sendmsg");
+            }
+            auditNode.audit("socket.sendmsg", socket, addr == null ? PNone.NONE : address);
+
+            Object[] buffers = new Object[items.length];
+            try {
+                byte[][] bufs = new byte[items.length][];
+                int[] lens = new int[items.length];
+                long total = 0;
+                for (int i = 0; i < items.length; i++) {
+                    buffers[i] = bufferAcquireLib.acquireReadonly(items[i]);
+                    lens[i] = bufferLib.getBufferLength(buffers[i]);
+                    bufs[i] = bufferLib.getInternalOrCopiedByteArray(buffers[i]);
+                    total += lens[i];
+                }
+                if (total > Integer.MAX_VALUE) {
+                    throw raise(OSError, ErrorMessages.MESSAGE_TOO_LONG);
+                }
+
+                checkSelectable(this, socket);
+
+                try {
+                    if (addr != null) {
+                        // there is no sendmsg() with a destination address, so we gather the
+                        // buffers and send them as a single datagram
+                        byte[] bytes = gather(bufs, lens, (int) total);
+                        UniversalSockAddr destAddr = addr;
+                        return SocketUtils.callSocketFunctionWithRetry(this, posixLib, getPosixSupport(), gil, socket,
+                                        () -> posixLib.sendto(getPosixSupport(), socket.getFd(), bytes, 0, bytes.length, flags, destAddr),
+                                        true, false);
+                    }
+                    return SocketUtils.callSocketFunctionWithRetry(this, posixLib, getPosixSupport(), gil, socket,
+                                    () -> posixLib.sendmsg(getPosixSupport(), socket.getFd(), bufs, lens, flags),
+                                    true, false);
+                } catch (PosixException e) {
+                    throw raiseOSErrorFromPosixException(frame, e);
+                }
+            } finally {
+                for (Object buffer : buffers) {
+                    if (buffer != null) {
+                        bufferLib.release(buffer);
+                    }
+                }
+            }
+        }
+
+        private static byte[] gather(byte[][] bufs, int[] lens, int total) {
+            byte[] bytes = new byte[total];
+            int offset = 0;
+            for (int i = 0; i < bufs.length; i++) {
+                PythonUtils.arraycopy(bufs[i], 0, bytes, offset, lens[i]);
+                offset += lens[i];
+            }
+            return bytes;
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SocketBuiltinsClinicProviders.SendMsgNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // recvmsg_into(buffers[, ancbufsize[, flags]])
+    @Builtin(name = "recvmsg_into", minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffers", "ancbufsize", "flags"})
+    @ArgumentClinic(name = "ancbufsize", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "flags", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class RecvMsgIntoNode extends PythonQuaternaryClinicBuiltinNode {
+        @Specialization
+        Object recvMsgInto(VirtualFrame frame, PSocket socket, Object buffersObj, int ancbufsize, int flags,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached ListNodes.ConstructListNode constructListNode,
+                        @Cached SequenceNodes.GetObjectArrayNode getObjectArrayNode,
+                        @Cached GilNode gil,
+                        @Cached SocketNodes.MakeSockAddrNode makeSockAddrNode) {
+            if (ancbufsize < 0) {
+                throw raise(ValueError, ErrorMessages.NEGATIVE_BUFFER_SIZE_IN_RECVMSG_INTO);
+            }
+            Object[] items = getObjectArrayNode.execute(constructListNode.execute(frame, buffersObj));
+            Object[] buffers = new Object[items.length];
+            try {
+                byte[][] bufs = new byte[items.length][];
+                int[] lens = new int[items.length];
+                boolean[] directWrite = new boolean[items.length];
+                long total = 0;
+                for (int i = 0; i < items.length; i++) {
+                    buffers[i] = bufferAcquireLib.acquireWritable(items[i]);
+                    lens[i] = bufferLib.getBufferLength(buffers[i]);
+                    directWrite[i] = bufferLib.hasInternalByteArray(buffers[i]);
+                    if (directWrite[i]) {
+                        bufs[i] = bufferLib.getInternalByteArray(buffers[i]);
+                    } else {
+                        try {
+                            bufs[i] = new byte[lens[i]];
+                        } catch (OutOfMemoryError error) {
+                            throw raise(MemoryError);
+                        }
+                    }
+                    total += lens[i];
+                }
+                if (total > Integer.MAX_VALUE) {
+                    throw raise(OSError, ErrorMessages.MESSAGE_TOO_LONG);
+                }
+
+                checkSelectable(this, socket);
+
+                try {
+                    RecvmsgResult result = SocketUtils.callSocketFunctionWithRetry(this, posixLib, getPosixSupport(), gil, socket,
+                                    () -> posixLib.recvmsg(getPosixSupport(), socket.getFd(), bufs, lens, flags),
+                                    false, false);
+                    int remaining = result.readBytes;
+                    for (int i = 0; i < items.length && remaining > 0; i++) {
+                        int n = Math.min(lens[i], remaining);
+                        if (!directWrite[i]) {
+                            bufferLib.writeFromByteArray(buffers[i], 0, bufs[i], 0, n);
+                        }
+                        remaining -= n;
+                    }
+                    // ancillary data is not supported, so the list of control messages is always
+                    // empty
+                    return factory().createTuple(new Object[]{result.readBytes, factory().createList(), result.msgFlags, makeSockAddrNode.execute(frame, result.sockAddr)});
+                } catch (PosixException e) {
+                    throw raiseOSErrorFromPosixException(frame, e);
+                }
+            } finally {
+                for (Object buffer : buffers) {
+                    if (buffer != null) {
+                        bufferLib.release(buffer);
+                    }
+                }
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SocketBuiltinsClinicProviders.RecvMsgIntoNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
     @Builtin(name = "setblocking", minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 2, parameterNames = {"$self", "blocking"})
     @ArgumentClinic(name = "blocking", conversion = ArgumentClinic.ClinicConversion.Boolean)
     @GenerateNodeFactory
@@ -74,6 +74,7 @@ import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.StringSequenceStorage;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -303,6 +304,43 @@ public abstract class StringNodes {
             return sb.toString();
         }
 
+        // Lists and tuples of strings do not need any item dispatch or type checks; same subclass
+        // restriction as for 'doPSequence' applies.
+        @Specialization(guards = {"isExactlyListOrTuple(getClassNode, sequence)", "isStringStorage(sequence)"}, limit = "1")
+        static String doStringStorage(String self, PSequence sequence,
+                        @SuppressWarnings("unused") @Cached GetClassNode getClassNode,
+                        @Cached PRaiseNode raise) {
+            StringSequenceStorage storage = (StringSequenceStorage) sequence.getSequenceStorage();
+            try {
+                return joinStringArray(self, storage.getInternalStringArray(), storage.length());
+            } catch (OutOfMemoryError e) {
+                throw raise.raise(MemoryError);
+            }
+        }
+
+        @TruffleBoundary
+        private static String joinStringArray(String self, String[] array, int len) {
+            if (len == 0) {
+                return "";
+            } else if (len == 1) {
+                return array[0];
+            }
+            long size = (long) self.length() * (len - 1);
+            for (int i = 0; i < len; i++) {
+                size += array[i].length();
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new OutOfMemoryError();
+            }
+            StringBuilder sb = new StringBuilder((int) size);
+            sb.append(array[0]);
+            for (int i = 1; i < len; i++) {
+                sb.append(self);
+                sb.append(array[i]);
+            }
+            return sb.toString();
+        }
+
         // This specialization is just for better interpreter performance.
         // IMPORTANT: only do this if the sequence is exactly list or tuple (not subclassed); for
         // semantics, see CPython's 'abstract.c' function 'PySequence_Fast'
@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.thread;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PCondition)
+public final class ConditionBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return ConditionBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Equivalent of {@code Condition._is_owned} in {@code threading.py}. Our own lock types are
+     * queried directly, other locks are asked via their {@code _is_owned} method or probed with a
+     * non-blocking {@code acquire}.
+     */
+    abstract static class IsOwnedNode extends PNodeWithRaise {
+        abstract boolean execute(VirtualFrame frame, Object lock);
+
+        @Specialization
+        static boolean doRLock(PRLock lock) {
+            return lock.isOwned();
+        }
+
+        @Specialization
+        static boolean doLock(PLock lock) {
+            if (lock.acquireNonBlocking()) {
+                lock.release();
+                return false;
+            }
+            return true;
+        }
+
+        @Fallback
+        static boolean doGeneric(VirtualFrame frame, Object lock,
+                        @Cached PyObjectLookupAttr lookupIsOwned,
+                        @Cached CallNode callNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached PyObjectIsTrueNode isTrue) {
+            Object isOwned = lookupIsOwned.execute(frame, lock, "_is_owned");
+            if (isOwned != PNone.NO_VALUE) {
+                return isTrue.execute(frame, callNode.execute(frame, isOwned));
+            }
+            if (isTrue.execute(frame, callMethod.execute(frame, lock, "acquire", false))) {
+                callMethod.execute(frame, lock, "release");
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Fully releases the lock and returns the state needed by {@link AcquireRestoreNode} to
+     * restore it, like {@code Condition._release_save} in {@code threading.py}.
+     */
+    abstract static class ReleaseSaveNode extends PNodeWithRaise {
+        abstract Object execute(VirtualFrame frame, Object lock);
+
+        @Specialization
+        static Object doRLock(PRLock lock) {
+            int count = lock.getCount();
+            lock.releaseAll();
+            return count;
+        }
+
+        @Specialization
+        static Object doLock(PLock lock) {
+            lock.release();
+            return PNone.NONE;
+        }
+
+        @Fallback
+        static Object doGeneric(VirtualFrame frame, Object lock,
+                        @Cached PyObjectLookupAttr lookupReleaseSave,
+                        @Cached CallNode callNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            Object releaseSave = lookupReleaseSave.execute(frame, lock, "_release_save");
+            if (releaseSave != PNone.NO_VALUE) {
+                return callNode.execute(frame, releaseSave);
+            }
+            callMethod.execute(frame, lock, "release");
+            return PNone.NONE;
+        }
+    }
+
+    abstract static class AcquireRestoreNode extends PNodeWithRaise {
+        abstract void execute(VirtualFrame frame, Object lock, Object state);
+
+        @Specialization
+        void doRLock(PRLock lock, int count,
+                        @Cached.Shared("gil") @Cached GilNode gil) {
+            if (!lock.acquireNonBlocking()) {
+                gil.release(true);
+                try {
+                    lock.acquireBlocking(this);
+                } finally {
+                    gil.acquire();
+                }
+            }
+            for (int i = 1; i < count; i++) {
+                // we own the lock at this point, so this cannot fail
+                lock.acquireNonBlocking();
+            }
+        }
+
+        @Specialization
+        void doLock(PLock lock, @SuppressWarnings("unused") Object state,
+                        @Cached.Shared("gil") @Cached GilNode gil) {
+            if (!lock.acquireNonBlocking()) {
+                gil.release(true);
+                try {
+                    lock.acquireBlocking(this);
+                } finally {
+                    gil.acquire();
+                }
+            }
+        }
+
+        @Fallback
+        static void doGeneric(VirtualFrame frame, Object lock, Object state,
+                        @Cached PyObjectLookupAttr lookupAcquireRestore,
+                        @Cached CallNode callNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            Object acquireRestore = lookupAcquireRestore.execute(frame, lock, "_acquire_restore");
+            if (acquireRestore != PNone.NO_VALUE) {
+                callNode.execute(frame, acquireRestore, state);
+            } else {
+                callMethod.execute(frame, lock, "acquire");
+            }
+        }
+    }
+
+    /**
+     * Releases the condition's lock, parks the current thread on a private semaphore until it is
+     * notified or the deadline passes, and re-acquires the lock. The GIL is only released while
+     * parked.
+     */
+    abstract static class WaitNode extends PNodeWithRaise {
+        abstract boolean execute(VirtualFrame frame, PCondition self, long deadline);
+
+        @Specialization
+        boolean doWait(VirtualFrame frame, PCondition self, long deadline,
+                        @Cached IsOwnedNode isOwnedNode,
+                        @Cached ReleaseSaveNode releaseSaveNode,
+                        @Cached AcquireRestoreNode acquireRestoreNode,
+                        @Cached GilNode gil) {
+            Object lock = self.getLock();
+            if (!isOwnedNode.execute(frame, lock)) {
+                throw raise(RuntimeError, ErrorMessages.CANNOT_WAIT_ON_UNACQUIRED_LOCK);
+            }
+            Semaphore waiter = self.addWaiter();
+            Object state = releaseSaveNode.execute(frame, lock);
+            boolean gotIt = false;
+            try {
+                gil.release(true);
+                try {
+                    gotIt = PCondition.acquire(this, waiter, deadline);
+                } finally {
+                    gil.acquire();
+                }
+                return gotIt;
+            } finally {
+                acquireRestoreNode.execute(frame, lock, state);
+                if (!gotIt) {
+                    self.removeWaiter(waiter);
+                }
+            }
+        }
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "lock"})
+    @GenerateNodeFactory
+    abstract static class InitNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone init(PCondition self, @SuppressWarnings("unused") PNone lock) {
+            self.setLock(factory().createRLock());
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "!isPNone(lock)")
+        static PNone init(PCondition self, Object lock) {
+            self.setLock(lock);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "acquire", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true)
+    @GenerateNodeFactory
+    abstract static class AcquireNode extends PythonBuiltinNode {
+        @Specialization
+        static Object acquire(VirtualFrame frame, PCondition self, Object[] args, PKeyword[] kwargs,
+                        @Cached PyObjectGetAttr getAcquire,
+                        @Cached CallNode callNode) {
+            return callNode.execute(frame, getAcquire.execute(frame, self.getLock(), "acquire"), args, kwargs);
+        }
+    }
+
+    @Builtin(name = __ENTER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EnterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object enter(VirtualFrame frame, PCondition self,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            return callMethod.execute(frame, self.getLock(), __ENTER__);
+        }
+    }
+
+    @Builtin(name = "release", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReleaseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object release(VirtualFrame frame, PCondition self,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            return callMethod.execute(frame, self.getLock(), "release");
+        }
+    }
+
+    @Builtin(name = __EXIT__, minNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    abstract static class ExitNode extends PythonBuiltinNode {
+        @Specialization
+        static Object exit(VirtualFrame frame, PCondition self, Object type, Object value, Object traceback,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            return callMethod.execute(frame, self.getLock(), __EXIT__, type, value, traceback);
+        }
+    }
+
+    @Builtin(name = "_is_owned", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsOwnedConditionNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isOwned(VirtualFrame frame, PCondition self,
+                        @Cached IsOwnedNode isOwnedNode) {
+            return isOwnedNode.execute(frame, self.getLock());
+        }
+    }
+
+    @Builtin(name = "_lock", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LockNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object getLock(PCondition self) {
+            return self.getLock();
+        }
+    }
+
+    @Builtin(name = "wait", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout"})
+    @ArgumentClinic(name = "timeout", conversion = ClinicConversion.Double, defaultValue = "PCondition.WAIT_FOREVER", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class WaitConditionNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ConditionBuiltinsClinicProviders.WaitConditionNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static boolean doWait(VirtualFrame frame, PCondition self, double timeout,
+                        @Cached WaitNode waitNode) {
+            long deadline = timeout == PCondition.WAIT_FOREVER ? PCondition.NO_DEADLINE : PCondition.getDeadline(timeout);
+            return waitNode.execute(frame, self, deadline);
+        }
+    }
+
+    @Builtin(name = "wait_for", minNumOfPositionalArgs = 2, parameterNames = {"$self", "predicate", "timeout"})
+    @ArgumentClinic(name = "timeout", conversion = ClinicConversion.Double, defaultValue = "PCondition.WAIT_FOREVER", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class WaitForNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ConditionBuiltinsClinicProviders.WaitForNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object doWaitFor(VirtualFrame frame, PCondition self, Object predicate, double timeout,
+                        @Cached CallNode callNode,
+                        @Cached PyObjectIsTrueNode isTrue,
+                        @Cached WaitNode waitNode) {
+            long deadline = timeout == PCondition.WAIT_FOREVER ? PCondition.NO_DEADLINE : PCondition.getDeadline(timeout);
+            boolean waited = false;
+            Object result = callNode.execute(frame, predicate);
+            while (!isTrue.execute(frame, result)) {
+                if (waited && PCondition.isExpired(deadline)) {
+                    break;
+                }
+                waitNode.execute(frame, self, deadline);
+                waited = true;
+                result = callNode.execute(frame, predicate);
+            }
+            return result;
+        }
+    }
+
+    @Builtin(name = "notify", minNumOfPositionalArgs = 1, parameterNames = {"$self", "n"})
+    @ArgumentClinic(name = "n", conversion = ClinicConversion.Int, defaultValue = "1")
+    @GenerateNodeFactory
+    abstract static class NotifyNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ConditionBuiltinsClinicProviders.NotifyNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone doNotify(VirtualFrame frame, PCondition self, int n,
+                        @Cached IsOwnedNode isOwnedNode) {
+            if (!isOwnedNode.execute(frame, self.getLock())) {
+                throw raise(RuntimeError, ErrorMessages.CANNOT_NOTIFY_ON_UNACQUIRED_LOCK);
+            }
+            self.notifyWaiters(n);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "notify_all", minNumOfPositionalArgs = 1)
+    @Builtin(name = "notifyAll", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NotifyAllNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PNone doNotifyAll(VirtualFrame frame, PCondition self,
+                        @Cached IsOwnedNode isOwnedNode) {
+            if (!isOwnedNode.execute(frame, self.getLock())) {
+                throw raise(RuntimeError, ErrorMessages.CANNOT_NOTIFY_ON_UNACQUIRED_LOCK);
+            }
+            self.notifyWaiters(Integer.MAX_VALUE);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(VirtualFrame frame, PCondition self,
+                        @Cached PyObjectReprAsJavaStringNode reprNode) {
+            return PythonUtils.format("<Condition(%s, %d)>", reprNode.execute(frame, self.getLock()), self.getWaiterCount());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.thread;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PEvent)
+public final class EventBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return EventBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class InitNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone init(PEvent self) {
+            self.clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "is_set", minNumOfPositionalArgs = 1)
+    @Builtin(name = "isSet", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsSetNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isSet(PEvent self) {
+            return self.isSet();
+        }
+    }
+
+    @Builtin(name = "set", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SetNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone set(PEvent self) {
+            self.set();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ClearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone clear(PEvent self) {
+            self.clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "wait", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout"})
+    @ArgumentClinic(name = "timeout", conversion = ClinicConversion.Double, defaultValue = "PCondition.WAIT_FOREVER", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class WaitNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return EventBuiltinsClinicProviders.WaitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        boolean doWait(PEvent self, double timeout,
+                        @Cached GilNode gil) {
+            if (self.isSet() || timeout <= 0) {
+                return self.isSet();
+            }
+            long deadline = timeout == PCondition.WAIT_FOREVER ? PCondition.NO_DEADLINE : PCondition.getDeadline(timeout);
+            long generation = self.getGeneration();
+            gil.release(true);
+            try {
+                return self.await(this, generation, deadline);
+            } finally {
+                gil.acquire();
+            }
+        }
+    }
+
+    @Builtin(name = "_reset_internal_locks", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ResetInternalLocksNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone reset(@SuppressWarnings("unused") PEvent self) {
+            // called by threading._after_fork; the Java monitor needs no reinitialization
+            return PNone.NONE;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.thread;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleSafepoint;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A condition variable in the spirit of {@code threading.Condition}. Each waiting thread parks on
+ * its own {@link Semaphore}, so notifying does not need to allocate a Python lock per waiter.
+ */
+public final class PCondition extends PythonBuiltinObject {
+
+    /** Timeout value meaning "block until notified". */
+    public static final double WAIT_FOREVER = Double.POSITIVE_INFINITY;
+
+    /** Deadline value meaning "block until notified". */
+    public static final long NO_DEADLINE = -1;
+
+    private Object lock;
+    private final ArrayDeque<Semaphore> waiters = createWaiters();
+
+    public PCondition(Object cls, Shape instanceShape, Object lock) {
+        super(cls, instanceShape);
+        this.lock = lock;
+    }
+
+    @TruffleBoundary
+    private static ArrayDeque<Semaphore> createWaiters() {
+        return new ArrayDeque<>();
+    }
+
+    public Object getLock() {
+        return lock;
+    }
+
+    /**
+     * Called from {@code __init__}, which may replace the lock chosen by {@code __new__}.
+     */
+    void setLock(Object lock) {
+        this.lock = lock;
+    }
+
+    @TruffleBoundary
+    Semaphore addWaiter() {
+        Semaphore waiter = new Semaphore(0);
+        synchronized (waiters) {
+            waiters.addLast(waiter);
+        }
+        return waiter;
+    }
+
+    @TruffleBoundary
+    void removeWaiter(Semaphore waiter) {
+        synchronized (waiters) {
+            waiters.remove(waiter);
+        }
+    }
+
+    @TruffleBoundary
+    void notifyWaiters(int n) {
+        synchronized (waiters) {
+            for (int i = 0; i < n; i++) {
+                Semaphore waiter = waiters.pollFirst();
+                if (waiter == null) {
+                    break;
+                }
+                waiter.release();
+            }
+        }
+    }
+
+    @TruffleBoundary
+    int getWaiterCount() {
+        synchronized (waiters) {
+            return waiters.size();
+        }
+    }
+
+    /**
+     * Converts a timeout in seconds into an absolute {@link System#nanoTime()} deadline. Negative
+     * timeouts yield a deadline that has already passed, {@link #WAIT_FOREVER} yields
+     * {@link #NO_DEADLINE}.
+     */
+    @TruffleBoundary
+    public static long getDeadline(double timeout) {
+        long now = System.nanoTime();
+        if (timeout <= 0) {
+            return now;
+        }
+        double nanos = timeout * 1.0e9;
+        if (nanos >= Long.MAX_VALUE - now) {
+            return NO_DEADLINE;
+        }
+        return now + (long) nanos;
+    }
+
+    @TruffleBoundary
+    public static boolean isExpired(long deadline) {
+        return deadline != NO_DEADLINE && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Blocks on the given semaphore until a permit is available or the deadline passes. Safepoints
+     * are processed while blocked; the caller is expected to have released the GIL.
+     */
+    @TruffleBoundary
+    public static boolean acquire(Node node, Semaphore semaphore, long deadline) {
+        if (semaphore.tryAcquire()) {
+            return true;
+        }
+        if (deadline == NO_DEADLINE) {
+            TruffleSafepoint.setBlockedThreadInterruptible(node, Semaphore::acquire, semaphore);
+            return true;
+        }
+        boolean[] result = new boolean[1];
+        TruffleSafepoint.setBlockedThreadInterruptible(node, (s) -> result[0] = s.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS), semaphore);
+        return result[0];
+    }
+}
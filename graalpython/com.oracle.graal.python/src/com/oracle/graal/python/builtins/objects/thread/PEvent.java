@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.thread;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleSafepoint;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * Backs {@code threading.Event}. Every {@link #set()} bumps a generation counter under the lock,
+ * so a waiter also wakes up if the flag was set and cleared again before it got to look at it.
+ */
+public final class PEvent extends PythonBuiltinObject {
+    private final ReentrantLock lock;
+    private final Condition signaled;
+    private volatile boolean flag;
+    private long generation;
+
+    @TruffleBoundary
+    public PEvent(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+        this.lock = new ReentrantLock();
+        this.signaled = lock.newCondition();
+    }
+
+    boolean isSet() {
+        return flag;
+    }
+
+    @TruffleBoundary
+    void set() {
+        lock.lock();
+        try {
+            if (!flag) {
+                flag = true;
+                generation++;
+                signaled.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TruffleBoundary
+    void clear() {
+        lock.lock();
+        try {
+            flag = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be read while still holding the GIL before waiting, since {@link #set()} is only called
+     * with the GIL held and so cannot slip in between checking the flag and taking the generation.
+     */
+    @TruffleBoundary
+    long getGeneration() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the flag is set, the event was set since {@code startGeneration} (see
+     * {@link #getGeneration()}) or the deadline (see {@link PCondition#getDeadline(double)})
+     * passes. Returns whether the event was set. The caller is expected to have released the GIL.
+     */
+    @TruffleBoundary
+    boolean await(Node node, long startGeneration, long deadline) {
+        if (flag) {
+            return true;
+        }
+        boolean[] result = new boolean[1];
+        TruffleSafepoint.setBlockedThreadInterruptible(node, (e) -> result[0] = e.awaitFlag(startGeneration, deadline), this);
+        return result[0];
+    }
+
+    private boolean awaitFlag(long startGeneration, long deadline) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!flag) {
+                if (generation != startGeneration) {
+                    // set() and clear() happened while we were waiting
+                    return true;
+                }
+                if (deadline == PCondition.NO_DEADLINE) {
+                    signaled.await();
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    signaled.awaitNanos(remaining);
+                }
+            }
+            return flag;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
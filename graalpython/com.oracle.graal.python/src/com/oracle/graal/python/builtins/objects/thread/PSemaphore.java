@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.thread;
+
+import java.util.concurrent.Semaphore;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * Backs both {@code threading.Semaphore} and {@code threading.BoundedSemaphore}. An unbounded
+ * semaphore has a negative {@code bound}.
+ */
+public final class PSemaphore extends PythonBuiltinObject {
+    private final boolean bounded;
+    private Semaphore semaphore;
+    private int bound;
+
+    public PSemaphore(Object cls, Shape instanceShape, int value, boolean bounded) {
+        super(cls, instanceShape);
+        this.bounded = bounded;
+        init(value);
+    }
+
+    /**
+     * Sets the initial value; called again from {@code __init__}.
+     */
+    @TruffleBoundary
+    void init(int value) {
+        this.semaphore = new Semaphore(value);
+        this.bound = bounded ? value : -1;
+    }
+
+    @TruffleBoundary
+    boolean acquireNonBlocking() {
+        return semaphore.tryAcquire();
+    }
+
+    boolean acquire(Node node, long deadline) {
+        return PCondition.acquire(node, semaphore, deadline);
+    }
+
+    /**
+     * Returns {@code false} if releasing would exceed the bound of a bounded semaphore.
+     */
+    @TruffleBoundary
+    boolean release() {
+        if (bound < 0) {
+            semaphore.release();
+            return true;
+        }
+        // concurrent acquires can only lower the value, so checking under the monitor suffices
+        synchronized (semaphore) {
+            if (semaphore.availablePermits() >= bound) {
+                return false;
+            }
+            semaphore.release();
+            return true;
+        }
+    }
+
+    @TruffleBoundary
+    int getValue() {
+        return semaphore.availablePermits();
+    }
+}
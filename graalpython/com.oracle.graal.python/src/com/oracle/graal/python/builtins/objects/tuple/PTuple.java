@@ -31,6 +31,7 @@ import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorageFactory;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.interop.InteropLibrary;
@@ -46,7 +47,7 @@ public final class PTuple extends PSequence {
 
     public PTuple(Object cls, Shape instanceShape, Object[] elements) {
         super(cls, instanceShape);
-        this.store = new ObjectSequenceStorage(elements);
+        this.store = SequenceStorageFactory.createTupleStorage(elements);
     }
 
     public PTuple(Object cls, Shape instanceShape, SequenceStorage store) {
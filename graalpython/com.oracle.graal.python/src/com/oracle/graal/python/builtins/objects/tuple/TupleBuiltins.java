@@ -89,6 +89,7 @@ import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.StringSequenceStorage;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
@@ -480,12 +481,70 @@ public class TupleBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class HashNode extends PythonUnaryBuiltinNode {
         protected static long HASH_UNSET = -1;
+        private static final long INITIAL_MULTIPLIER = 0xf4243;
+        private static final long INITIAL_HASH = 0x345678;
 
         @Specialization(guards = {"self.getHash() != HASH_UNSET"})
         public long getHash(PTuple self) {
             return self.getHash();
         }
 
+        // The following specializations avoid the item dispatch for tuples with primitive or
+        // string storage. They must produce the same result as 'computeHash'.
+        @Specialization(guards = {"self.getHash() == HASH_UNSET", "isIntStorage(self)"})
+        static long computeIntHash(PTuple self) {
+            IntSequenceStorage storage = (IntSequenceStorage) self.getSequenceStorage();
+            return computeItemsHash(self, storage.getInternalIntArray(), storage.length());
+        }
+
+        @Specialization(guards = {"self.getHash() == HASH_UNSET", "isLongStorage(self)"})
+        static long computeLongHash(PTuple self) {
+            LongSequenceStorage storage = (LongSequenceStorage) self.getSequenceStorage();
+            return computeItemsHash(self, storage.getInternalLongArray(), storage.length());
+        }
+
+        @Specialization(guards = {"self.getHash() == HASH_UNSET", "isDoubleStorage(self)"})
+        static long computeDoubleHash(PTuple self) {
+            DoubleSequenceStorage storage = (DoubleSequenceStorage) self.getSequenceStorage();
+            return computeItemsHash(self, storage.getInternalDoubleArray(), storage.length());
+        }
+
+        @Specialization(guards = {"self.getHash() == HASH_UNSET", "isStringStorage(self)"})
+        static long computeStringHash(PTuple self) {
+            StringSequenceStorage storage = (StringSequenceStorage) self.getSequenceStorage();
+            return computeItemsHash(self, storage.getInternalStringArray(), storage.length());
+        }
+
+        /**
+         * Combines the hashes of the first {@code len} items of the {@code int[]},
+         * {@code long[]}, {@code double[]} or {@code String[]} array {@code values} the same way as
+         * {@link #computeHash}.
+         */
+        private static long computeItemsHash(PTuple self, Object values, int len) {
+            long multiplier = INITIAL_MULTIPLIER;
+            long hash = INITIAL_HASH;
+            for (int i = 0; i < len; i++) {
+                hash = (hash ^ itemHash(values, i)) * multiplier;
+                multiplier += 82520 + len + len;
+            }
+            return finishHash(self, hash);
+        }
+
+        /**
+         * The array type is exact in each caller, so the type checks fold away once inlined.
+         */
+        private static long itemHash(Object values, int i) {
+            if (values instanceof int[]) {
+                return PyObjectHashNode.hash(((int[]) values)[i]);
+            } else if (values instanceof long[]) {
+                return PyObjectHashNode.hash(((long[]) values)[i]);
+            } else if (values instanceof double[]) {
+                return PyObjectHashNode.hash(((double[]) values)[i]);
+            } else {
+                return PyObjectHashNode.hash(((String[]) values)[i]);
+            }
+        }
+
         @Specialization(guards = {"self.getHash() == HASH_UNSET"})
         public long computeHash(VirtualFrame frame, PTuple self,
                         @Cached SequenceStorageNodes.LenNode getLen,
@@ -494,16 +553,19 @@ public class TupleBuiltins extends PythonBuiltins {
             // adapted from https://github.com/python/cpython/blob/v3.6.5/Objects/tupleobject.c#L345
             SequenceStorage tupleStore = self.getSequenceStorage();
             int len = getLen.execute(tupleStore);
-            long multiplier = 0xf4243;
-            long hash = 0x345678;
+            long multiplier = INITIAL_MULTIPLIER;
+            long hash = INITIAL_HASH;
             for (int i = 0; i < len; i++) {
                 Object item = getItemNode.execute(frame, tupleStore, i);
                 long tmp = hashNode.execute(frame, item);
                 hash = (hash ^ tmp) * multiplier;
                 multiplier += 82520 + len + len;
             }
+            return finishHash(self, hash);
+        }
 
-            hash += 97531;
+        private static long finishHash(PTuple self, long h) {
+            long hash = h + 97531;
 
             if (hash == Long.MAX_VALUE) {
                 hash = -2;
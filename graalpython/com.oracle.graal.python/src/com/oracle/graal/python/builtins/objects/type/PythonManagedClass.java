@@ -208,6 +208,7 @@ public abstract class PythonManagedClass extends PythonObject implements PythonA
      */
     public boolean canSkipOnAttributeUpdate(String key, @SuppressWarnings("unused") Object value) {
         return !methodResolutionOrder.hasAttributeInMROFinalAssumptions() &&
+                        !methodResolutionOrder.hasTypeVersionAssumption() &&
                         !SpecialMethodSlot.canBeSpecial(key);
     }
 
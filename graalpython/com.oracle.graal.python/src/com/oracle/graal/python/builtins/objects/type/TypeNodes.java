@@ -202,6 +202,7 @@ public abstract class TypeNodes {
                 case PProperty:
                 case PDeque:
                 case PSimpleQueue:
+                case PQueue:
                     result = DEFAULT | HAVE_GC | BASETYPE;
                     break;
                 case Boolean:
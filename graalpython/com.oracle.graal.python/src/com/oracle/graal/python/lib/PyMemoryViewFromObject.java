@@ -44,6 +44,7 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
 
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.buffer.BufferFlags;
+import com.oracle.graal.python.builtins.objects.buffer.JavaArrayBuffer;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
 import com.oracle.graal.python.builtins.objects.cext.PythonNativeObject;
@@ -147,6 +148,12 @@ public abstract class PyMemoryViewFromObject extends PNodeWithRaise {
             return factory.createMemoryViewForManagedObject(buffer, bufferLib.getOwner(buffer), bufferLib.getItemSize(buffer), bufferLib.getBufferLength(buffer), bufferLib.isReadonly(buffer),
                             bufferLib.getFormatString(buffer));
         } else {
+            // Host Java arrays and ByteBuffers are viewed in place
+            JavaArrayBuffer javaBuffer = JavaArrayBuffer.fromHostObject(PythonContext.get(this).getEnv(), object);
+            if (javaBuffer != null) {
+                return factory.createMemoryViewForManagedObject(javaBuffer, bufferLib.getOwner(javaBuffer), bufferLib.getItemSize(javaBuffer), bufferLib.getBufferLength(javaBuffer),
+                                bufferLib.isReadonly(javaBuffer), bufferLib.getFormatString(javaBuffer));
+            }
             throw raise(TypeError, ErrorMessages.MEMORYVIEW_A_BYTES_LIKE_OBJECT_REQUIRED_NOT_P, object);
         }
     }
@@ -154,7 +154,9 @@ public abstract class BuiltinNames {
     public static final String MEMBER_DESCRIPTOR = "member_descriptor";
     public static final String WRAPPER_DESCRIPTOR = "wrapper_descriptor";
     public static final String SIMPLE_QUEUE = "SimpleQueue";
+    public static final String QUEUE = "Queue";
     public static final String EMPTY = "Empty";
+    public static final String FULL = "Full";
 
     public static final String DICT_KEYITERATOR = "dict_keyiterator";
     public static final String DICT_VALUEITERATOR = "dict_valueiterator";
@@ -154,10 +154,12 @@ public abstract class ErrorMessages {
     public static final String CANNOT_INITIALIZE_WITH = "cannot initialize %s with %s%s";
     public static final String CANNOT_LOAD = "cannot load %s: %s";
     public static final String CANNOT_LOAD_M = "cannot load %s: %m";
+    public static final String CANNOT_NOTIFY_ON_UNACQUIRED_LOCK = "cannot notify on un-acquired lock";
     public static final String CANNOT_RELEASE_UNAQUIRED_LOCK = "cannot release un-acquired lock";
     public static final String CANNOT_SPECIFY_BOTH_COMMA_AND_UNDERSCORE = "Cannot specify both ',' and '_'.";
     public static final String CANNOT_SPECIFY_C_WITH_C = "Cannot specify '%c' with '%c'.";
     public static final String CANNOT_USE_FD_AND_FOLLOW_SYMLINKS_TOGETHER = "%s: cannot use fd and follow_symlinks together";
+    public static final String CANNOT_WAIT_ON_UNACQUIRED_LOCK = "cannot wait on un-acquired lock";
     public static final String CANT_CONCAT_P_TO_S = "can't concat %p to %s";
     public static final String CANT_CONVERT_TO_FLOAT = "can't convert %s to float";
     public static final String CANT_CONVERT_TO_STR_EXPLICITELY = "Can't convert '%p' object to str implicitly";
@@ -173,6 +175,7 @@ public abstract class ErrorMessages {
     public static final String CANT_SET_ATTRIBUTES_OF_TYPE_S = "can't set attributes of built-in/extension type '%s'";
     public static final String CANT_SPECIFY_DIRFD_WITHOUT_PATH = "%s: can't specify dir_fd without matching path";
     public static final String CANT_SPECIFY_TIMEOUT_FOR_NONBLOCKING = "can't specify a timeout for a non-blocking call";
+    public static final String CANT_SPECIFY_TIMEOUT_FOR_NONBLOCKING_ACQUIRE = "can't specify timeout for non-blocking acquire";
     public static final String CANT_SUM_BYTEARRAY = "sum() can't sum bytearray [use b''.join(seq) instead]";
     public static final String CANT_SUM_BYTES = "sum() can't sum bytes [use b''.join(seq) instead]";
     public static final String CANT_SUM_STRINGS = "sum() can't sum strings [use ''.join(seq) instead]";
@@ -203,6 +206,8 @@ public abstract class ErrorMessages {
     public static final String COULD_NOT_CONVERT_STRING_TO_FLOAT = "could not convert string to float: %s";
     public static final String COUNT_FUNC_MATH = "count function in Math";
     public static final String COVERAGE_TRACKER_NOT_RUNNING = "coverage tracker not running";
+    public static final String EXCEEDS_LIMIT_FOR_INT_TO_STR = "Exceeds the limit (%d) for integer string conversion; use the IntMaxStrDigits option to increase the limit";
+    public static final String EXCEEDS_LIMIT_FOR_STR_TO_INT = "Exceeds the limit (%d) for integer string conversion: value has %d digits; use the IntMaxStrDigits option to increase the limit";
     public static final String DEFAULT_EXCEPT_MUST_BE_LAST = "default 'except:' must be last";
     public static final String DESC_FOR_INDEX_S_FOR_S_DOESNT_APPLY_TO_P = "descriptor for index '%d' for %s doesn't apply to '%p' object";
     public static final String DESC_S_FOR_S_DOESNT_APPLY_TO_S = "descriptor '%s' for '%s' objects doesn't apply to '%s' object";
@@ -221,6 +226,8 @@ public abstract class ErrorMessages {
     public static final String EMPTY_SEPARATOR = "empty separator";
     public static final String EMPTY_ATTR_IN_FORMAT_STR = "Empty attribute in format string";
     public static final String S_MUST_BE_NONE_OR_STRING = "%s must be None or a string, not %p";
+    public static final String ERROR_2_WHILE_COMPRESSING = "Error -2 while compressing data: inconsistent stream state";
+    public static final String ERROR_2_WHILE_DECOMPRESSING = "Error -2 while decompressing data: inconsistent stream state";
     public static final String ERROR_5_WHILE_DECOMPRESSING = "Error -5 while decompressing data: incomplete or truncated stream";
     public static final String ERROR_WRITING_FORKEXEC = "there was an error writing the fork_exec error to the error pipe";
     public static final String ERROR_CALLING_SET_NAME = "Error calling __set_name__ on '%p' instance '%s' in '%N'";
@@ -409,6 +416,7 @@ public abstract class ErrorMessages {
     public static final String MEMORYVIEW_CAST_ELEMENTS_MUST_BE_POSITIVE_INTEGERS = "memoryview.cast(): elements of shape must be integers > 0";
     public static final String MEMORYVIEW_HAS_D_EXPORTED_BUFFERS = "memoryview has %d exported buffers";
     public static final String MEMORYVIEW_FORMAT_S_NOT_SUPPORTED = "memoryview: format %s not supported";
+    public static final String MESSAGE_TOO_LONG = "message too long";
     public static final String METACLASS_CONFLICT = "metaclass conflict: the metaclass of a derived class must be a (non-strict) subclass of the metaclasses of all its bases";
     public static final String METHOD_NAME_MUST_BE = "method name must be string, not %p";
     public static final String MISSING_D_REQUIRED_S_ARGUMENT_S_POS = "%s() missing required argument '%s' (pos %d)";
@@ -426,6 +434,7 @@ public abstract class ErrorMessages {
     public static final String MUST_BE_EITHER_OR = "%s: '%s' must be either %s or %s";
     public static final String MUST_BE_INTEGER = "%s must be an integer, not %p";
     public static final String MUST_BE_NON_NEGATIVE = "%s must be non-negative";
+    public static final String MUST_BE_POSITIVE = "%s must be positive";
     public static final String MUST_BE_NON_NEGATIVE_INTEGER = "%s must be non-negative integer";
     public static final String MUST_BE_NUMERIC = "must be numeric, not %p";
     public static final String MUST_BE_REAL_NUMBER = "must be real number, not %p";
@@ -451,6 +460,7 @@ public abstract class ErrorMessages {
     public static final String NEG_INF_PLUS_INF_IN = "-inf + inf in fsum";
     public static final String NEGATIVE_COUNT = "negative count";
     public static final String NEGATIVE_DATA_SIZE = "negative data size";
+    public static final String NEGATIVE_BUFFER_SIZE_IN_RECVMSG_INTO = "negative buffer size in recvmsg_into()";
     public static final String NEGATIVE_SHIFT_COUNT = "negative shift count";
     public static final String NEW_TAKES_ONE_ARG = "object.__new__() takes exactly one argument (the type to instantiate)";
     public static final String NEW_TAKES_NO_ARGS = "%N() takes no arguments";
@@ -505,6 +515,9 @@ public abstract class ErrorMessages {
     public static final String POP_INDEX_OUT_OF_RANGE = "pop index out of range";
     public static final String PORT_PROTO_NOT_FOUND = "port/proto not found";
     public static final String PRIVATE_IDENTIFIER_TOO_LARGE_TO_BE_MANGLED = "private identifier too large to be mangled";
+    public static final String PROFILER_NOT_RUNNING = "profiler is not running";
+    public static final String PROFILER_NOT_AVAILABLE = "sampling profiler not available";
+    public static final String SAMPLER_IN_USE = "the CPU sampler is in use by another profiler";
     public static final String PROVIDED_OBJ_NOT_ARRAY = "provided object is not an array";
     public static final String PYTHON_INT_TOO_LARGE_TO_CONV_TO = "Python int too large to convert to %s";
     public static final String PYTHON_INT_TOO_LARGE_TO_CONV_TO_C_TYPE = "Python int too large to convert to %s-byte C type";
@@ -552,6 +565,8 @@ public abstract class ErrorMessages {
     public static final String SECURITY_EX_WHILE_READING = "security exception while reading: '%s'";
     public static final String SEEK_OUT_OF_RANGE = "seek out of range";
     public static final String SEMAPHORE_NAME_TAKEN = "Semaphore name taken: '%s'";
+    public static final String SEMAPHORE_INITIAL_VALUE_MUST_BE_POSITIVE = "semaphore initial value must be >= 0";
+    public static final String SEMAPHORE_RELEASED_TOO_MANY_TIMES = "Semaphore released too many times";
     public static final String SEP_MUST_BE_NONE_OR_STRING = "sep must be None or a string, not %p";
     public static final String SEP_MUST_BE_STR_OR_BYTES = "sep must be str or bytes.";
     public static final String SEP_MUST_BE_LENGTH_1 = "sep must be length 1.";
@@ -566,6 +581,7 @@ public abstract class ErrorMessages {
     public static final String SIGNED_SHORT_INT_LESS_THAN_MIN = "signed short integer is less than minimum";
     public static final String SINGLE_S = "Single %s";
     public static final String SIZE_MUST_BE_D_OR_S = "size must be %d or %s";
+    public static final String SIZE_NOT_VALID_D_BYTES = "size not valid: %d bytes";
     public static final String SLICE_INDICES_MUST_BE_INT_NONE_HAVE_INDEX = "slice indices must be integers or None or have an __index__ method";
     public static final String SLICE_STEP_CANNOT_BE_ZERO = "slice step cannot be zero";
     public static final String SWITCHING_FROM_AUTOMATIC_TO_MANUAL_NUMBERING = "switching from automatic to manual numbering";
@@ -595,6 +611,7 @@ public abstract class ErrorMessages {
     public static final String TAKES_A_D_SEQUENCE = "%s() takes a %d-sequence (%d-sequence given)";
     public static final String TAKES_AN_AT_LEAST_D_SEQUENCE = "%s() takes an at least %d-sequence (%d-sequence given)";
     public static final String TAKES_AN_AT_MOST_D_SEQUENCE = "%s() takes an at most %d-sequence (%d-sequence given)";
+    public static final String TASK_DONE_CALLED_TOO_MANY_TIMES = "task_done() called too many times";
     public static final String TAKES_D_OR_D_ARGS = "%s takes %d or %d arguments";
     public static final String TAKES_D_POS_ARG_S_BUT_D_POS_ARG_S = "%s() takes %d positional argument%s but %d positional argument%s (and %d keyword-only argument%s) were given%s";
     public static final String TAKES_D_POS_ARG_S_BUT_GIVEN_S = "%s() takes %d positional argument%s but %d %s given%s";
@@ -639,6 +656,7 @@ public abstract class ErrorMessages {
     public static final String UNKNOWN_ERROR_HANDLER = "unknown error handler name '%s'";
     public static final String UNKNOWN_FORMAT_CODE = "Unknown format code '%c' for object of type '%s'";
     public static final String UNKNOWN_S_TYPE = "unknown %s type";
+    public static final String UNKNOWN_PROFILE_FORMAT_S = "unknown profile format '%s', expected 'folded' or 'pprof'";
     public static final String UNMATCHED_S = "Unmatched %s";
     public static final String UNRECOGNIZED_FLAGS = "compile(): unrecognised flags";
     public static final String UNRECOGNIZED_FORMAT_CHAR = "unrecognized format char in arguments parsing: %c";
@@ -688,6 +706,7 @@ public abstract class ErrorMessages {
     public static final String HPY_LOAD_ERROR = "Could not load HPy C API from %s.";
     public static final String CANNOT_CONVERT_NEGATIVE_VALUE_TO_UNSIGNED_INT = "can't convert negative value to unsigned int";
     public static final String SEND_NON_NONE_TO_UNSTARTED_GENERATOR = "can't send non-None value to a just-started generator";
+    public static final String SENDMSG_ANCILLARY_DATA_NOT_SUPPORTED = "sendmsg() ancillary data is not supported";
     public static final String UNSUPPORTED_FORMAT_STRING_PASSED_TO_P_FORMAT = "unsupported format string passed to %p.__format__";
     public static final String ONLY_SINGLE_TARGET_CAN_BE_ANNOTATED = "only single target (not %s) can be annotated";
     public static final String ILLEGAL_TARGET_FOR_ANNOTATION = "illegal target for annotation";
@@ -847,6 +866,7 @@ public abstract class ErrorMessages {
     public static final String SECOND_ITEM_OF_STATE_MUST_BE_AN_INTEGER_NOT_P = "second item of state must be an integer, not %p";
     public static final String WRITE_COULD_NOT_COMPLETE_WITHOUT_BLOCKING = "write could not complete without blocking";
     public static final String THE_S_OBJECT_IS_BEING_GARBAGE_COLLECTED = "the %s object is being garbage-collected";
+    public static final String THE_NUMBER_OF_FRAMES_MUST_BE_IN_RANGE = "the number of frames must be in range [1; %d]";
     public static final String SHUTDOWN_POSSIBLY_DUE_TO_DAEMON_THREADS = "could not acquire lock for %s at interpreter shutdown, possibly due to daemon threads";
     public static final String REENTRANT_CALL_INSIDE_P = "reentrant call inside %p";
     public static final String DEQUE_MUTATED_DURING_ITERATION = "deque mutated during iteration";
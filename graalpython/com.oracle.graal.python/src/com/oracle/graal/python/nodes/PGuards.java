@@ -102,6 +102,7 @@ import com.oracle.graal.python.runtime.sequence.storage.EmptySequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.StringSequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.InteropLibrary;
@@ -244,6 +245,10 @@ public abstract class PGuards {
         return first.getSequenceStorage() instanceof DoubleSequenceStorage && second.getSequenceStorage() instanceof DoubleSequenceStorage;
     }
 
+    public static boolean isStringStorage(PSequence sequence) {
+        return sequence.getSequenceStorage() instanceof StringSequenceStorage;
+    }
+
     public static boolean isObjectStorage(PSequence list) {
         return list.getSequenceStorage() instanceof ObjectSequenceStorage;
     }
@@ -543,6 +548,13 @@ public abstract class PGuards {
         throw new UnexpectedResultException(result);
     }
 
+    public static String expectString(Object result) throws UnexpectedResultException {
+        if (result instanceof String) {
+            return (String) result;
+        }
+        throw new UnexpectedResultException(result);
+    }
+
     /**
      * Tests if the class of a Python object is a builtin class, i.e., any magic methods cannot be
      * overridden.
@@ -96,10 +96,14 @@ public abstract class LookupAttributeInMRONode extends LookupInMROBaseNode {
         }
 
         @Specialization(replaces = "lookupConstantMRO")
-        protected static Object lookupGeneric(Object klass, Object key,
+        protected Object lookupGeneric(Object klass, Object key,
                         @Cached GetMroStorageNode getMroNode,
                         @Cached(value = "createForceType()", uncached = "getUncachedForceType()") ReadAttributeFromObjectNode readAttrNode) {
-            return lookup(klass, key, getMroNode, readAttrNode, false);
+            MroSequenceStorage mro = getMroNode.execute(klass);
+            if (key instanceof String) {
+                return lookupWithTypeCache(PythonContext.get(this), mro, (String) key, readAttrNode);
+            }
+            return lookupInMro(mro, key, readAttrNode, false);
         }
 
         public static LookupAttributeInMRONode.Dynamic create() {
@@ -334,7 +338,29 @@ public abstract class LookupAttributeInMRONode extends LookupInMROBaseNode {
     @Megamorphic
     protected Object lookupGeneric(Object klass,
                     @Cached("createForceType()") ReadAttributeFromObjectNode readAttrNode) {
-        return lookup(klass, key, ensureGetMroNode(), readAttrNode, skipPythonClasses);
+        MroSequenceStorage mro = getMro(klass);
+        if (!skipPythonClasses) {
+            return lookupWithTypeCache(PythonContext.get(this), mro, key, readAttrNode);
+        }
+        return lookupInMro(mro, key, readAttrNode, true);
+    }
+
+    /**
+     * Megamorphic lookup that consults the context's {@link TypeAttributeCache} before walking the
+     * MRO. The cache is only used once the core is initialized, because built-in classes may be
+     * modified during initialization without notification.
+     */
+    protected static Object lookupWithTypeCache(PythonContext context, MroSequenceStorage mro, String key, ReadAttributeFromObjectNode readAttrNode) {
+        if (!context.isInitialized()) {
+            return lookupInMro(mro, key, readAttrNode, false);
+        }
+        TypeAttributeCache cache = context.getTypeAttributeCache();
+        Object value = cache.get(mro, key);
+        if (value == null) {
+            value = lookupInMro(mro, key, readAttrNode, false);
+            cache.put(mro, key, value);
+        }
+        return value;
     }
 
     protected GetMroStorageNode ensureGetMroNode() {
@@ -355,7 +381,10 @@ public abstract class LookupAttributeInMRONode extends LookupInMROBaseNode {
     }
 
     public static Object lookup(Object klass, Object key, GetMroStorageNode getMroNode, ReadAttributeFromObjectNode readAttrNode, boolean skipPythonClasses) {
-        MroSequenceStorage mro = getMroNode.execute(klass);
+        return lookupInMro(getMroNode.execute(klass), key, readAttrNode, skipPythonClasses);
+    }
+
+    private static Object lookupInMro(MroSequenceStorage mro, Object key, ReadAttributeFromObjectNode readAttrNode, boolean skipPythonClasses) {
         for (int i = 0; i < mro.length(); i++) {
             Object kls = mro.getItemNormalized(i);
             if (skipPythonClasses && kls instanceof PythonClass) {
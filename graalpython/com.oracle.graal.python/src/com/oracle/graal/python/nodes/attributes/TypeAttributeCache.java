@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.attributes;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.oracle.graal.python.builtins.objects.type.PythonManagedClass;
+import com.oracle.graal.python.runtime.sequence.storage.MroSequenceStorage;
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A fixed-size, per-context cache mapping {@code (type version tag, attribute name)} to the result
+ * of an MRO lookup, analogous to CPython's method cache. It is consulted by the megamorphic
+ * specializations of {@link LookupAttributeInMRONode} before walking the MRO.
+ *
+ * Version tags are assigned lazily to {@link MroSequenceStorage}s when an entry is stored. A tag is
+ * backed by the type version assumptions of all classes in the MRO, so any attribute update on one
+ * of those classes or a change of the MRO drops the tag and with it all cache entries.
+ *
+ * Types with native classes in their MRO are never tagged, because the {@code tp_dict} of a native
+ * class can be modified without notifying us.
+ *
+ * Entries are immutable, so racy reads and writes of the table from several threads are benign.
+ */
+public final class TypeAttributeCache {
+    private static final int SIZE_EXP = 12;
+    private static final int MASK = (1 << SIZE_EXP) - 1;
+
+    private static final class Entry {
+        private final int versionTag;
+        private final String name;
+        private final Object value;
+
+        Entry(int versionTag, String name, Object value) {
+            this.versionTag = versionTag;
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    private final Entry[] entries = new Entry[MASK + 1];
+    private final AtomicInteger nextVersionTag = new AtomicInteger(1);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private static int index(int versionTag, String name) {
+        int h = versionTag * 0x9E3779B9 ^ name.hashCode();
+        return (h ^ (h >>> SIZE_EXP)) & MASK;
+    }
+
+    /**
+     * Returns the cached lookup result or {@code null} if there is none.
+     */
+    @TruffleBoundary
+    public Object get(MroSequenceStorage mro, String name) {
+        int tag = mro.getTypeVersionTag();
+        if (tag != 0) {
+            Entry entry = entries[index(tag, name)];
+            if (entry != null && entry.versionTag == tag && entry.name.equals(name)) {
+                hits.increment();
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    @TruffleBoundary
+    public void put(MroSequenceStorage mro, String name, Object value) {
+        int tag = mro.getTypeVersionTag();
+        if (tag == 0) {
+            tag = assignVersionTag(mro);
+            if (tag == 0) {
+                return;
+            }
+        }
+        entries[index(tag, name)] = new Entry(tag, name, value);
+    }
+
+    private int assignVersionTag(MroSequenceStorage mro) {
+        if (mro.isTypeVersionUncacheable()) {
+            return 0;
+        }
+        Assumption[] valid = new Assumption[mro.length()];
+        for (int i = 0; i < valid.length; i++) {
+            Object cls = mro.getItemNormalized(i);
+            if (!(cls instanceof PythonManagedClass)) {
+                mro.setTypeVersionUncacheable();
+                return 0;
+            }
+            valid[i] = ((PythonManagedClass) cls).getMethodResolutionOrder().getTypeVersionAssumption();
+        }
+        int tag = nextVersionTag.getAndUpdate(t -> t == Integer.MAX_VALUE ? t : t + 1);
+        if (tag == Integer.MAX_VALUE) {
+            // out of tags, the types remain uncached (same as in CPython)
+            return 0;
+        }
+        mro.setTypeVersionTag(tag, valid);
+        return tag;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -42,6 +42,7 @@ package com.oracle.graal.python.nodes.literal;
 
 import java.lang.reflect.Array;
 
+import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.expression.ExpressionNode;
 import com.oracle.graal.python.runtime.sequence.storage.BoolSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
@@ -53,6 +54,7 @@ import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage.ListStorageType;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorageFactory;
+import com.oracle.graal.python.runtime.sequence.storage.StringSequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -152,6 +154,15 @@ public abstract class SequenceLiteralNode extends LiteralNode {
                         storage = new DoubleSequenceStorage(elements, values.length);
                         break;
                     }
+                    case String: {
+                        String[] elements = new String[getCapacityEstimate()];
+                        array = elements;
+                        for (; i < values.length; i++) {
+                            elements[i] = PGuards.expectString(values[i].execute(frame));
+                        }
+                        storage = new StringSequenceStorage(elements, values.length);
+                        break;
+                    }
                     case Generic: {
                         Object[] elements = new Object[getCapacityEstimate()];
                         for (; i < values.length; i++) {
@@ -39,6 +39,7 @@ import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.StringSequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
@@ -101,6 +102,9 @@ public final class TupleLiteralNode extends SequenceLiteralNode {
             case Long:
                 storage = new LongSequenceStorage(values.length);
                 break;
+            case String:
+                storage = new StringSequenceStorage(values.length);
+                break;
             default:
                 storage = new ObjectSequenceStorage(values.length);
                 break;
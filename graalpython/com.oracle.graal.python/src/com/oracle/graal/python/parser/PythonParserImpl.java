@@ -68,6 +68,7 @@ import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameDescriptor;
@@ -185,6 +186,16 @@ public final class PythonParserImpl implements PythonParser, PythonCodeSerialize
     @Override
     @TruffleBoundary
     public RootNode deserialize(ParserErrorCallback errorCallback, byte[] data, String[] cellvars, String[] freevars) {
+        return deserialize(errorCallback, data, cellvars, freevars, false);
+    }
+
+    @Override
+    @TruffleBoundary
+    public RootNode deserializeCoreFile(ParserErrorCallback errorCallback, byte[] data) {
+        return deserialize(errorCallback, data, null, null, true);
+    }
+
+    private RootNode deserialize(ParserErrorCallback errorCallback, byte[] data, String[] cellvars, String[] freevars, boolean coreFile) {
         assert data.length > 0 : "should be caught earlier";
 
         ByteArrayInputStream bais = new ByteArrayInputStream(data);
@@ -206,10 +217,14 @@ public final class PythonParserImpl implements PythonParser, PythonCodeSerialize
             globalScope = ScopeInfo.read(dis, null);
             int offset = dis.readInt();
 
+            PythonContext context = PythonContext.get(null);
+            boolean internal = coreFile || !context.getCore().isInitialized();
             if (path.isEmpty() || offset != 0) {
-                source = Source.newBuilder(PythonLanguage.ID, contents, name).build();
+                source = PythonLanguage.newSource(context, Source.newBuilder(PythonLanguage.ID, contents, name), internal);
             } else {
-                source = Source.newBuilder(PythonLanguage.ID, PythonContext.get(null).getEnv().getPublicTruffleFile(path)).content(contents).name(name).build();
+                Env env = context.getEnv();
+                TruffleFile file = coreFile ? env.getInternalTruffleFile(path) : env.getPublicTruffleFile(path);
+                source = PythonLanguage.newSource(context, Source.newBuilder(PythonLanguage.ID, file).content(contents).name(name), internal);
             }
             sstNode = new SSTDeserializer(dis, globalScope, offset).readNode();
         } catch (IOException e) {
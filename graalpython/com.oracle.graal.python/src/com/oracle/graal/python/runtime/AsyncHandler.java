@@ -46,10 +46,13 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -143,50 +146,71 @@ public class AsyncHandler {
         }
     }
 
-    private final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(6, runnable -> {
-        Thread t = Executors.defaultThreadFactory().newThread(runnable);
-        t.setDaemon(true);
-        return t;
-    });
-
-    private final WeakReference<PythonContext> context;
-    private static final int ASYNC_ACTION_DELAY = 25;
-    private static final int GIL_RELEASE_DELAY = 50;
-
-    private class AsyncRunnable implements Runnable {
-        private final Supplier<AsyncAction> actionSupplier;
+    /**
+     * A list of actions that were due at the same time. They are run in a single safepoint and a
+     * failing action does not prevent the remaining ones from running.
+     */
+    private static final class AsyncActionsList implements AsyncAction {
+        private final AsyncAction[] array;
 
-        public AsyncRunnable(Supplier<AsyncAction> actionSupplier) {
-            this.actionSupplier = actionSupplier;
+        AsyncActionsList(AsyncAction[] array) {
+            this.array = array;
         }
 
-        @Override
-        public void run() {
-            final AsyncAction asyncAction = actionSupplier.get();
-            if (asyncAction != null) {
-                final PythonContext ctx = context.get();
-                if (ctx != null) {
-                    Thread mainThread = ctx.getMainThread();
-                    if (mainThread != null) {
-                        ctx.getEnv().submitThreadLocal(new Thread[]{mainThread}, new ThreadLocalAction(true, false) {
-                            @Override
-                            @SuppressWarnings("try")
-                            protected void perform(ThreadLocalAction.Access access) {
-                                GilNode gil = GilNode.getUncached();
-                                boolean mustRelease = gil.acquire();
-                                try {
-                                    asyncAction.execute(ctx);
-                                } finally {
-                                    gil.release(mustRelease);
-                                }
-                            }
-                        });
-                    }
+        public void execute(PythonContext context) {
+            for (AsyncAction action : array) {
+                try {
+                    action.execute(context);
+                } catch (RuntimeException e) {
+                    ExceptionUtils.printPythonLikeStackTrace(e);
                 }
             }
         }
     }
 
+    /**
+     * The timer shared by all contexts. It does not do any waiting itself, it only polls the
+     * registered action suppliers of each context and submits the due actions.
+     */
+    private static ScheduledThreadPoolExecutor sharedTimer;
+
+    private static synchronized ScheduledThreadPoolExecutor getSharedTimer() {
+        if (sharedTimer == null) {
+            sharedTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread t = Executors.defaultThreadFactory().newThread(runnable);
+                t.setName("python-async-handler");
+                t.setDaemon(true);
+                return t;
+            });
+            sharedTimer.setRemoveOnCancelPolicy(true);
+        }
+        return sharedTimer;
+    }
+
+    private final WeakReference<PythonContext> context;
+    /** The poll delay in milliseconds after actions were found. */
+    public static final int ASYNC_ACTION_DELAY = 25;
+    /** The poll delay in milliseconds that an idle handler backs off to. */
+    public static final int MAX_ASYNC_ACTION_DELAY = 400;
+    private static final int GIL_RELEASE_DELAY = 50;
+
+    private final List<Supplier<AsyncAction>> actionSuppliers = new CopyOnWriteArrayList<>();
+
+    // the following fields are guarded by 'this'
+    private ScheduledFuture<?> pollFuture;
+    private ScheduledFuture<?> gilReleaseFuture;
+    private long pollGeneration;
+    private boolean isShutdown;
+
+    /**
+     * The current delay between two polls. It is only written from the timer thread.
+     */
+    private volatile long pollDelay = ASYNC_ACTION_DELAY;
+
+    // statistics, only written from the timer thread
+    private volatile long submittedBatches;
+    private volatile long submittedActions;
+
     private static class CallRootNode extends PRootNode {
         static final int ASYNC_CALLABLE_INDEX = 0;
         static final int ASYNC_FRAME_INDEX_INDEX = 1;
@@ -241,12 +265,127 @@ public class AsyncHandler {
         this.callTarget = context.getLanguage().createCachedCallTarget(l -> new CallRootNode(l), CallRootNode.class);
     }
 
+    /**
+     * Registers a supplier of async actions. The supplier is polled periodically from a timer
+     * thread and must therefore not block; it returns {@code null} if there is nothing to do.
+     */
     void registerAction(Supplier<AsyncAction> actionSupplier) {
         CompilerAsserts.neverPartOfCompilation();
         if (PythonContext.get(null).getOption(PythonOptions.NoAsyncActions)) {
             return;
         }
-        executorService.scheduleWithFixedDelay(new AsyncRunnable(actionSupplier), ASYNC_ACTION_DELAY, ASYNC_ACTION_DELAY, TimeUnit.MILLISECONDS);
+        actionSuppliers.add(actionSupplier);
+        synchronized (this) {
+            if (pollFuture == null) {
+                schedulePoll(ASYNC_ACTION_DELAY);
+            }
+        }
+    }
+
+    /**
+     * Requests the registered action suppliers to be polled as soon as possible instead of after
+     * the current (possibly backed off) delay. This may be called from any thread.
+     */
+    public synchronized void pollActionsNow() {
+        schedulePoll(0);
+    }
+
+    private synchronized void schedulePoll(long delay) {
+        if (isShutdown) {
+            return;
+        }
+        if (pollFuture != null) {
+            pollFuture.cancel(false);
+        }
+        // a poll that was superseded but already started will notice the generation change
+        final long generation = ++pollGeneration;
+        pollFuture = getSharedTimer().schedule(() -> pollActions(generation), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized boolean isCurrentPoll(long generation) {
+        return !isShutdown && generation == pollGeneration;
+    }
+
+    private void pollActions(long generation) {
+        if (!isCurrentPoll(generation)) {
+            return;
+        }
+        final PythonContext ctx = context.get();
+        if (ctx == null) {
+            return;
+        }
+        ArrayList<AsyncAction> actions = null;
+        for (Supplier<AsyncAction> actionSupplier : actionSuppliers) {
+            AsyncAction action;
+            try {
+                action = actionSupplier.get();
+            } catch (RuntimeException e) {
+                // a failing supplier must not stop the polling of all others
+                ExceptionUtils.printPythonLikeStackTrace(e);
+                continue;
+            }
+            if (action != null) {
+                if (actions == null) {
+                    actions = new ArrayList<>();
+                }
+                actions.add(action);
+            }
+        }
+        if (actions != null) {
+            pollDelay = ASYNC_ACTION_DELAY;
+            submittedBatches++;
+            submittedActions += actions.size();
+            submitActions(ctx, actions.size() == 1 ? actions.get(0) : new AsyncActionsList(actions.toArray(new AsyncAction[0])));
+        } else {
+            // nothing to do, so back off until there is work again
+            pollDelay = Math.min(pollDelay * 2, MAX_ASYNC_ACTION_DELAY);
+        }
+        synchronized (this) {
+            if (generation == pollGeneration) {
+                schedulePoll(pollDelay);
+            }
+        }
+    }
+
+    /**
+     * The current delay in milliseconds until the next regular poll.
+     */
+    public long getPollDelay() {
+        return pollDelay;
+    }
+
+    /**
+     * The number of thread-local actions submitted to the main thread so far. Actions that were
+     * due in the same poll are submitted together.
+     */
+    public long getSubmittedBatches() {
+        return submittedBatches;
+    }
+
+    /**
+     * The number of async actions submitted so far.
+     */
+    public long getSubmittedActions() {
+        return submittedActions;
+    }
+
+    private static void submitActions(PythonContext ctx, AsyncAction asyncAction) {
+        Thread mainThread = ctx.getMainThread();
+        if (mainThread != null) {
+            ctx.getEnv().submitThreadLocal(new Thread[]{mainThread}, new ThreadLocalAction(true, false) {
+                @Override
+                @SuppressWarnings("try")
+                protected void perform(ThreadLocalAction.Access access) {
+                    GilNode gil = GilNode.getUncached();
+                    boolean mustRelease = gil.acquire();
+                    try {
+                        asyncAction.execute(ctx);
+                    } finally {
+                        gil.release(mustRelease);
+                    }
+                }
+            });
+        }
     }
 
     void activateGIL() {
@@ -257,7 +396,7 @@ public class AsyncHandler {
         }
         final Env env = ctx.getEnv();
         final AtomicBoolean gilReleaseRequested = new AtomicBoolean(false);
-        executorService.scheduleWithFixedDelay(() -> {
+        Runnable gilReleaseTick = () -> {
             if (gilReleaseRequested.compareAndSet(false, true)) {
                 Thread gilOwner = ctx.getGilOwner();
                 // There is a race, but that's no problem. The gil owner may release the gil before
@@ -293,11 +432,24 @@ public class AsyncHandler {
                     gilReleaseRequested.set(false);
                 }
             }
-        }, GIL_RELEASE_DELAY, GIL_RELEASE_DELAY, TimeUnit.MILLISECONDS);
+        };
+        synchronized (this) {
+            if (!isShutdown && gilReleaseFuture == null) {
+                gilReleaseFuture = getSharedTimer().scheduleWithFixedDelay(gilReleaseTick, GIL_RELEASE_DELAY, GIL_RELEASE_DELAY, TimeUnit.MILLISECONDS);
+            }
+        }
     }
 
-    public void shutdown() {
-        executorService.shutdownNow();
+    public synchronized void shutdown() {
+        isShutdown = true;
+        if (pollFuture != null) {
+            pollFuture.cancel(false);
+            pollFuture = null;
+        }
+        if (gilReleaseFuture != null) {
+            gilReleaseFuture.cancel(false);
+            gilReleaseFuture = null;
+        }
     }
 
     public static class SharedFinalizer {
@@ -383,24 +535,6 @@ public class AsyncHandler {
             }
         }
 
-        private static final class AsyncActionsList implements AsyncAction {
-            private final AsyncAction[] array;
-
-            public AsyncActionsList(AsyncAction[] array) {
-                this.array = array;
-            }
-
-            public void execute(PythonContext context) {
-                for (AsyncAction action : array) {
-                    try {
-                        action.execute(context);
-                    } catch (RuntimeException e) {
-                        ExceptionUtils.printPythonLikeStackTrace(e);
-                    }
-                }
-            }
-        }
-
         /**
          * We register the Async action once on the first encounter of a creation of
          * {@link FinalizableReference}. This will reduce unnecessary Async thread load when there
@@ -408,11 +542,9 @@ public class AsyncHandler {
          */
         public void registerAsyncAction() {
             pythonContext.registerAsyncAction(() -> {
-                Reference<? extends Object> reference = null;
-                try {
-                    reference = queue.remove();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+                Reference<? extends Object> reference = queue.poll();
+                if (reference == null) {
+                    return null;
                 }
                 ArrayList<AsyncAction> actions = new ArrayList<>();
                 do {
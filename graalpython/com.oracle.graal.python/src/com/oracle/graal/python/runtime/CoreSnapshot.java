@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.logging.Level;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.parser.sst.SerializationUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLogger;
+
+/**
+ * A snapshot of the serialized code of the lib-graalpython core files (see
+ * {@link PythonOptions#CoreSnapshot}). On the JVM, every process parses all core files while
+ * initializing the first context. With a snapshot, the core files are deserialized from their SST
+ * instead, which is considerably cheaper. Core files whose execution is deferred (see
+ * {@link PythonOptions#LazyCoreFiles}) are included as well and are deserialized when they are
+ * first loaded.
+ *
+ * A snapshot records the size and modification time of every core file it contains and is ignored
+ * as a whole if any of them changed, or if it was written by a different serializer or language
+ * version.
+ */
+public final class CoreSnapshot {
+    private static final TruffleLogger LOGGER = PythonLanguage.getLogger(CoreSnapshot.class);
+    private static final int MAGIC = 0x47505953;
+
+    private final Map<String, byte[]> code;
+
+    private CoreSnapshot(Map<String, byte[]> code) {
+        this.code = code;
+    }
+
+    /**
+     * Returns and forgets the serialized code of the given core file, or {@code null} if the
+     * snapshot does not contain it.
+     */
+    public byte[] takeCode(String name) {
+        return code.remove(name);
+    }
+
+    private static TruffleFile coreFile(TruffleFile coreHome, String name) {
+        return coreHome.resolve(name + PythonLanguage.EXTENSION);
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(SerializationUtils.VERSION);
+        out.writeUTF(PythonLanguage.VERSION);
+    }
+
+    private static boolean checkHeader(DataInputStream in) throws IOException {
+        return in.readInt() == MAGIC && in.readByte() == SerializationUtils.VERSION && in.readUTF().equals(PythonLanguage.VERSION);
+    }
+
+    /**
+     * Reads a snapshot. Returns {@code null} if the file does not exist, cannot be read, or is out
+     * of date with respect to the core files in {@code coreHome}.
+     */
+    @TruffleBoundary
+    public static CoreSnapshot read(TruffleFile snapshotFile, TruffleFile coreHome) {
+        try {
+            if (!snapshotFile.exists()) {
+                return null;
+            }
+            try (InputStream is = snapshotFile.newInputStream(); DataInputStream in = new DataInputStream(is)) {
+                if (!checkHeader(in)) {
+                    LOGGER.fine(() -> "ignoring core snapshot with different version: " + snapshotFile);
+                    return null;
+                }
+                int count = in.readInt();
+                Map<String, byte[]> code = new HashMap<>(count);
+                for (int i = 0; i < count; i++) {
+                    String name = in.readUTF();
+                    long size = in.readLong();
+                    long mtime = in.readLong();
+                    byte[] data = new byte[in.readInt()];
+                    in.readFully(data);
+                    TruffleFile file = coreFile(coreHome, name);
+                    if (file.size() != size || file.getLastModifiedTime().toMillis() != mtime) {
+                        LOGGER.fine(() -> "ignoring outdated core snapshot " + snapshotFile + " (" + file + " changed)");
+                        return null;
+                    }
+                    code.put(name, data);
+                }
+                return new CoreSnapshot(code);
+            }
+        } catch (IOException | RuntimeException e) {
+            // also covers a corrupt entry length
+            LOGGER.log(Level.FINE, e, () -> "could not read core snapshot " + snapshotFile);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the serialized code of the given core files to a snapshot file. The file is first
+     * written next to the target and then moved, so that concurrently starting processes never
+     * see a partial snapshot. Failures are logged and otherwise ignored.
+     */
+    @TruffleBoundary
+    public static void write(TruffleFile snapshotFile, TruffleFile coreHome, Map<String, byte[]> code) {
+        TruffleFile tmpFile = snapshotFile.resolveSibling(snapshotFile.getName() + ".tmp" + Long.toHexString(System.nanoTime()));
+        try {
+            try (OutputStream os = tmpFile.newOutputStream(); DataOutputStream out = new DataOutputStream(os)) {
+                writeHeader(out);
+                out.writeInt(code.size());
+                for (Entry<String, byte[]> entry : code.entrySet()) {
+                    TruffleFile file = coreFile(coreHome, entry.getKey());
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(file.size());
+                    out.writeLong(file.getLastModifiedTime().toMillis());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            tmpFile.move(snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.fine(() -> "wrote core snapshot " + snapshotFile);
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            LOGGER.log(Level.WARNING, e, () -> "could not write core snapshot " + snapshotFile);
+            try {
+                tmpFile.delete();
+            } catch (IOException | SecurityException e2) {
+                // ignore
+            }
+        }
+    }
+}
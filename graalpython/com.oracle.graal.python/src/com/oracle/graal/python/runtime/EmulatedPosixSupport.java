@@ -214,6 +214,7 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressExcepti
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -2558,6 +2559,108 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @ExportMessage
+    @TruffleBoundary
+    public int sendmsg(int sockfd, byte[][] bufs, int[] lens, int flags) throws PosixException {
+        EmulatedSocket socket = getEmulatedSocket(sockfd);
+        try {
+            return socket.sendmsg(wrapBuffers(bufs, lens), flags);
+        } catch (Exception e) {
+            throw posixException(e);
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public RecvmsgResult recvmsg(int sockfd, byte[][] bufs, int[] lens, int flags) throws PosixException {
+        EmulatedSocket socket = getEmulatedSocket(sockfd);
+        ByteBuffer[] bbs = wrapBuffers(bufs, lens);
+        try {
+            SocketAddress sa = socket.recvmsg(bbs, flags);
+            int cnt = 0;
+            for (ByteBuffer bb : bbs) {
+                cnt += bb.position();
+            }
+            return new RecvmsgResult(cnt, 0, EmulatedUniversalSockAddrImpl.fromSocketAddress(socket.family, sa));
+        } catch (Exception e) {
+            throw posixException(e);
+        }
+    }
+
+    private static ByteBuffer[] wrapBuffers(byte[][] bufs, int[] lens) {
+        assert bufs.length == lens.length;
+        ByteBuffer[] bbs = new ByteBuffer[bufs.length];
+        for (int i = 0; i < bufs.length; i++) {
+            bbs[i] = ByteBuffer.wrap(bufs[i], 0, lens[i]);
+        }
+        return bbs;
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public long sendfile(int outFd, int inFd, long offset, long count) throws PosixException {
+        Channel out = getChannel(outFd);
+        Channel in = getChannel(inFd);
+        if (!(out instanceof WritableByteChannel) || in == null) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(in instanceof SeekableByteChannel) || offset < 0 || count < 0) {
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        try {
+            if (in instanceof FileChannel) {
+                return ((FileChannel) in).transferTo(offset, count, (WritableByteChannel) out);
+            }
+            return transferChannel((SeekableByteChannel) in, offset, count, (WritableByteChannel) out);
+        } catch (Exception e) {
+            throw posixException(e);
+        }
+    }
+
+    private static final int SENDFILE_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Fallback for {@link #sendfile} when the input is not a {@link FileChannel}. Like
+     * {@link FileChannel#transferTo}, it restores the original position of {@code in} and stops at
+     * the first short write.
+     */
+    private static long transferChannel(SeekableByteChannel in, long offset, long count, WritableByteChannel out) throws IOException {
+        if (count == 0) {
+            return 0;
+        }
+        long oldPosition = in.position();
+        try {
+            in.position(offset);
+            ByteBuffer bb = ByteBuffer.allocate((int) Math.min(count, SENDFILE_CHUNK_SIZE));
+            long total = 0;
+            while (total < count) {
+                bb.clear();
+                bb.limit((int) Math.min(bb.capacity(), count - total));
+                if (in.read(bb) <= 0) {
+                    break;
+                }
+                bb.flip();
+                int len = bb.remaining();
+                int written;
+                try {
+                    written = out.write(bb);
+                } catch (IOException | OperationWouldBlockException e) {
+                    if (total > 0) {
+                        return total;
+                    }
+                    throw e;
+                }
+                total += written;
+                if (written < len) {
+                    break;
+                }
+            }
+            return total;
+        } finally {
+            in.position(oldPosition);
+        }
+    }
+
     @ExportMessage
     @TruffleBoundary
     public void shutdown(int sockfd, int how) throws PosixException {
@@ -3069,6 +3172,10 @@ public final class EmulatedPosixSupport extends PosixResources {
 
         abstract int sendto(ByteBuffer bb, int flags, SocketAddress destAddr) throws IOException;
 
+        abstract int sendmsg(ByteBuffer[] bbs, int flags) throws IOException;
+
+        abstract SocketAddress recvmsg(ByteBuffer[] bbs, int flags) throws IOException;
+
         abstract void shutdown(int how) throws IOException;
 
         abstract void configureBlocking(boolean block) throws IOException;
@@ -3187,6 +3294,38 @@ public final class EmulatedPosixSupport extends PosixResources {
             return channel.send(bb, destAddr);
         }
 
+        @Override
+        int sendmsg(ByteBuffer[] bbs, int flags) throws IOException {
+            neverPartOfCompilation();
+            // TODO: do not ignore flags
+            // a gathering write on a connected channel sends a single datagram
+            return (int) channel.write(bbs);
+        }
+
+        @Override
+        SocketAddress recvmsg(ByteBuffer[] bbs, int flags) throws IOException {
+            neverPartOfCompilation();
+            // TODO: do not ignore flags
+            // Like recv(), we cannot use the scattering read() since it throws if the socket is not
+            // connected, so we receive the datagram into a temporary buffer and scatter it.
+            int total = 0;
+            for (ByteBuffer bb : bbs) {
+                total += bb.remaining();
+            }
+            ByteBuffer tmp = ByteBuffer.allocate(total);
+            SocketAddress addr = channel.receive(tmp);
+            if (addr == null) {
+                throw new OperationWouldBlockException();
+            }
+            tmp.flip();
+            for (ByteBuffer bb : bbs) {
+                int n = Math.min(bb.remaining(), tmp.remaining());
+                bb.put(tmp.array(), tmp.position(), n);
+                tmp.position(tmp.position() + n);
+            }
+            return addr;
+        }
+
         @Override
         void shutdown(int how) throws IOException {
             // TODO what does native SOCK_DGRAM shutdown do?
@@ -3418,6 +3557,35 @@ public final class EmulatedPosixSupport extends PosixResources {
             throw new AlreadyConnectedException();
         }
 
+        @Override
+        int sendmsg(ByteBuffer[] bbs, int flags) throws IOException {
+            neverPartOfCompilation();
+            // TODO: do not ignore flags
+            SocketChannel c = getClientChannel();
+            if (!hasRemaining(bbs)) {
+                return 0;
+            }
+            long cnt = c.write(bbs);
+            if (cnt == 0) {
+                throw new OperationWouldBlockException();
+            }
+            return (int) cnt;
+        }
+
+        @Override
+        SocketAddress recvmsg(ByteBuffer[] bbs, int flags) throws IOException {
+            neverPartOfCompilation();
+            SocketChannel c = getClientChannel();
+            if (!hasRemaining(bbs)) {
+                return null;
+            }
+            long cnt = c.read(bbs);
+            if (cnt == 0) {
+                throw new OperationWouldBlockException();
+            }
+            return null;
+        }
+
         @Override
         void shutdown(int how) throws IOException {
             neverPartOfCompilation();
@@ -3455,6 +3623,15 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    private static boolean hasRemaining(ByteBuffer[] bbs) {
+        for (ByteBuffer bb : bbs) {
+            if (bb.hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static StandardProtocolFamily mapFamily(int family) {
         assert family == AF_INET.value || family == AF_INET6.value;
         return family == AF_INET.value ? StandardProtocolFamily.INET : StandardProtocolFamily.INET6;
@@ -55,6 +55,7 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressExcepti
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -1019,6 +1020,39 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final int sendmsg(int sockfd, byte[][] bufs, int[] lens, int flags,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("sendmsg", "%d, %d, %d", sockfd, lens.length, flags);
+        try {
+            return logExit("sendmsg", "%d", lib.sendmsg(delegate, sockfd, bufs, lens, flags));
+        } catch (PosixException e) {
+            throw logException("sendmsg", e);
+        }
+    }
+
+    @ExportMessage
+    final RecvmsgResult recvmsg(int sockfd, byte[][] bufs, int[] lens, int flags,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("recvmsg", "%d, %d, %d", sockfd, lens.length, flags);
+        try {
+            return logExit("recvmsg", "%s", lib.recvmsg(delegate, sockfd, bufs, lens, flags));
+        } catch (PosixException e) {
+            throw logException("recvmsg", e);
+        }
+    }
+
+    @ExportMessage
+    final long sendfile(int outFd, int inFd, long offset, long count,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("sendfile", "%d, %d, %d, %d", outFd, inFd, offset, count);
+        try {
+            return logExit("sendfile", "%d", lib.sendfile(delegate, outFd, inFd, offset, count));
+        } catch (PosixException e) {
+            throw logException("sendfile", e);
+        }
+    }
+
     @ExportMessage
     final void shutdown(int sockfd, int how,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
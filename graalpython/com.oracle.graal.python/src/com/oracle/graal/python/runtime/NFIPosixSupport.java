@@ -82,6 +82,7 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressExcepti
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -235,6 +236,9 @@ public final class NFIPosixSupport extends PosixSupport {
         call_sendto("(sint32, [sint8], sint32, sint32, sint32, [sint8], sint32):sint32"),
         call_recv("(sint32, [sint8], sint32, sint32, sint32):sint32"),
         call_recvfrom("(sint32, [sint8], sint32, sint32, sint32, [sint8], [sint32]):sint32"),
+        call_sendmsg("(sint32, [sint8], [sint32], sint32, sint32):sint32"),
+        call_recvmsg("(sint32, [sint8], [sint32], sint32, sint32, [sint8], [sint32], [sint32]):sint32"),
+        call_sendfile("(sint32, sint32, sint64, sint64):sint64"),
         call_shutdown("(sint32, sint32): sint32"),
         call_getsockopt("(sint32, sint32, sint32, [sint8], [sint32]):sint32"),
         call_setsockopt("(sint32, sint32, sint32, [sint8], sint32):sint32"),
@@ -1479,6 +1483,74 @@ public final class NFIPosixSupport extends PosixSupport {
         return new RecvfromResult(result, srcAddr);
     }
 
+    @ExportMessage
+    public int sendmsg(int sockfd, byte[][] bufs, int[] lens, int flags,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        // NFI cannot pass an array of Java arrays, so the segments are gathered into a single
+        // buffer and the native side builds the iovec array pointing into it
+        byte[] buf = gatherBuffers(bufs, lens);
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_sendmsg, sockfd, wrap(buf), wrap(lens), lens.length, flags);
+        if (result == -1) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return result;
+    }
+
+    @ExportMessage
+    public RecvmsgResult recvmsg(int sockfd, byte[][] bufs, int[] lens, int flags,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        byte[] buf = new byte[totalLength(bufs, lens)];
+        UniversalSockAddrImpl srcAddr = new UniversalSockAddrImpl(this);
+        int[] msgFlags = new int[1];
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_recvmsg, sockfd, wrap(buf), wrap(lens), lens.length, flags, wrap(srcAddr.data), wrap(srcAddr.lenAndFamily),
+                        wrap(msgFlags));
+        if (result == -1) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        assert srcAddr.getLen() <= UniversalSockAddrImpl.MAX_SIZE;
+        scatterBuffer(buf, result, bufs, lens);
+        return new RecvmsgResult(result, msgFlags[0], srcAddr);
+    }
+
+    @ExportMessage
+    public long sendfile(int outFd, int inFd, long offset, long count,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long result = invokeNode.callLong(this, PosixNativeFunction.call_sendfile, outFd, inFd, offset, count);
+        if (result == -1) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return result;
+    }
+
+    private static int totalLength(byte[][] bufs, int[] lens) {
+        assert bufs.length == lens.length;
+        int total = 0;
+        for (int i = 0; i < bufs.length; i++) {
+            checkBounds(bufs[i], 0, lens[i]);
+            total = Math.addExact(total, lens[i]);
+        }
+        return total;
+    }
+
+    private static byte[] gatherBuffers(byte[][] bufs, int[] lens) {
+        byte[] result = new byte[totalLength(bufs, lens)];
+        int offset = 0;
+        for (int i = 0; i < bufs.length; i++) {
+            PythonUtils.arraycopy(bufs[i], 0, result, offset, lens[i]);
+            offset += lens[i];
+        }
+        return result;
+    }
+
+    private static void scatterBuffer(byte[] buf, int len, byte[][] bufs, int[] lens) {
+        int offset = 0;
+        for (int i = 0; i < bufs.length && offset < len; i++) {
+            int n = Math.min(lens[i], len - offset);
+            PythonUtils.arraycopy(buf, offset, bufs[i], 0, n);
+            offset += n;
+        }
+    }
+
     @ExportMessage
     public void shutdown(int sockfd, int how,
                     @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
@@ -537,6 +537,28 @@ public abstract class PosixSupportLibrary extends Library {
     // For STREAM sockets, the returned address will be AF_UNSPEC
     public abstract RecvfromResult recvfrom(Object receiver, int sockfd, byte[] buf, int offset, int len, int flags) throws PosixException;
 
+    /**
+     * Sends the first {@code lens[i]} bytes of each {@code bufs[i]} as a single message, like
+     * {@code sendmsg()} without a destination address or ancillary data.
+     */
+    public abstract int sendmsg(Object receiver, int sockfd, byte[][] bufs, int[] lens, int flags) throws PosixException;
+
+    /**
+     * Receives a single message and scatters it into {@code bufs}, filling at most {@code lens[i]}
+     * bytes of each buffer in order, like {@code recvmsg()} without ancillary data. For STREAM
+     * sockets, the returned address will be AF_UNSPEC.
+     */
+    public abstract RecvmsgResult recvmsg(Object receiver, int sockfd, byte[][] bufs, int[] lens, int flags) throws PosixException;
+
+    /**
+     * Copies up to {@code count} bytes starting at {@code offset} of the file {@code inFd} to
+     * {@code outFd} without changing the file position of {@code inFd}.
+     *
+     * @return the number of bytes written to {@code outFd}, 0 if {@code offset} is at or beyond the
+     *         end of the file
+     */
+    public abstract long sendfile(Object receiver, int outFd, int inFd, long offset, long count) throws PosixException;
+
     public static final class AcceptResult {
         public final int socketFd;
         public final UniversalSockAddr sockAddr;
@@ -569,6 +591,24 @@ public abstract class PosixSupportLibrary extends Library {
         }
     }
 
+    public static final class RecvmsgResult {
+        public final int readBytes;
+        public final int msgFlags;
+        public final UniversalSockAddr sockAddr;
+
+        public RecvmsgResult(int readBytes, int msgFlags, UniversalSockAddr sockAddr) {
+            this.readBytes = readBytes;
+            this.msgFlags = msgFlags;
+            this.sockAddr = sockAddr;
+        }
+
+        @Override
+        public String toString() {
+            CompilerAsserts.neverPartOfCompilation();
+            return "RecvmsgResult{" + "readBytes=" + readBytes + ", msgFlags=" + msgFlags + ", sockAddr=" + sockAddr + '}';
+        }
+    }
+
     public abstract void shutdown(Object receiver, int sockfd, int how) throws PosixException;
 
     /**
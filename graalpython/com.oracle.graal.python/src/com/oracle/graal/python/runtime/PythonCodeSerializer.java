@@ -48,4 +48,10 @@ public interface PythonCodeSerializer {
     public RootNode deserialize(PythonParser.ParserErrorCallback errorCallback, byte[] data);
 
     public RootNode deserialize(PythonParser.ParserErrorCallback errorCallback, byte[] data, String[] cellvars, String[] freevars);
+
+    /**
+     * Deserializes the code of a core library file, whose source is internal like the one of a
+     * parsed core file.
+     */
+    public RootNode deserializeCoreFile(PythonParser.ParserErrorCallback errorCallback, byte[] data);
 }
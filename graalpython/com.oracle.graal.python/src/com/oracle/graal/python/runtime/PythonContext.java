@@ -36,6 +36,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.LinkOption;
 import java.text.MessageFormat;
 import java.util.ArrayDeque;
@@ -64,6 +65,7 @@ import org.graalvm.options.OptionKey;
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.modules.ctypes.CtypesModuleBuiltins.CtypesThreadState;
+import com.oracle.graal.python.builtins.modules.zlib.ZlibParallelDeflate;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObjectFactory.PInteropGetAttributeNodeGen;
@@ -94,6 +96,7 @@ import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
 import com.oracle.graal.python.nodes.SpecialAttributeNames;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.attributes.TypeAttributeCache;
 import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.object.SetDictNode;
 import com.oracle.graal.python.nodes.util.CastToJavaIntLossyNode;
@@ -415,6 +418,9 @@ public final class PythonContext {
     private final HashMap<PythonNativeClass, CyclicAssumption> nativeClassStableAssumptions = new HashMap<>();
     private final ThreadGroup threadGroup = new ThreadGroup(GRAALPYTHON_THREADS);
     private final IDUtils idUtils = new IDUtils();
+    private final TypeAttributeCache typeAttributeCache = new TypeAttributeCache();
+    private ZlibParallelDeflate parallelDeflate;
+    private boolean parallelDeflateShutDown;
 
     // ctypes' used native libraries/functions.
     private final ConcurrentHashMap<Long, Object> ptrAdrMap = new ConcurrentHashMap<>();
@@ -491,6 +497,7 @@ public final class PythonContext {
     private final ConcurrentHashMap<String, AtomicLong> deserializationId = new ConcurrentHashMap<>();
 
     private final long perfCounterStart = ImageInfo.inImageBuildtimeCode() ? 0 : System.nanoTime();
+    private boolean startupTiming;
 
     public static final String CHILD_CONTEXT_DATA = "childContextData";
     @CompilationFinal private List<Integer> childContextFDs;
@@ -829,6 +836,10 @@ public final class PythonContext {
         return childContextData;
     }
 
+    public TypeAttributeCache getTypeAttributeCache() {
+        return typeAttributeCache;
+    }
+
     public SharedMultiprocessingData getSharedMultiprocessingData() {
         return sharedMultiprocessingData;
     }
@@ -1111,12 +1122,21 @@ public final class PythonContext {
         }
         try {
             mainThread = new WeakReference<>(Thread.currentThread());
+            startupTiming = !ImageInfo.inImageBuildtimeCode() && getOption(PythonOptions.StartupTiming);
+            long start = System.nanoTime();
             initializePosixSupport();
+            logStartupPhase("posix support", start);
             core.initialize(this);
+            start = System.nanoTime();
             setupRuntimeInformation(false);
+            logStartupPhase("runtime information", start);
+            start = System.nanoTime();
             core.postInitialize();
+            logStartupPhase("post initialize", start);
             if (!ImageInfo.inImageBuildtimeCode()) {
+                start = System.nanoTime();
                 importSiteIfForced();
+                logStartupPhase("site", start);
             } else if (posixSupport instanceof ImageBuildtimePosixSupport) {
                 ((ImageBuildtimePosixSupport) posixSupport).checkLeakingResources();
             }
@@ -1137,14 +1157,38 @@ public final class PythonContext {
         try {
             mainThread = new WeakReference<>(Thread.currentThread());
             setEnv(newEnv);
+            startupTiming = getOption(PythonOptions.StartupTiming);
+            long start = System.nanoTime();
             setupRuntimeInformation(true);
+            logStartupPhase("runtime information", start);
+            start = System.nanoTime();
             core.postInitialize();
+            logStartupPhase("post initialize", start);
+            start = System.nanoTime();
             importSiteIfForced();
+            logStartupPhase("site", start);
         } finally {
             releaseGil();
         }
     }
 
+    /**
+     * Reports the duration of a context initialization phase if the {@link PythonOptions#StartupTiming}
+     * option is set. The output format is modelled after CPython's {@code -X importtime}.
+     */
+    @TruffleBoundary
+    public void logStartupPhase(String phase, long startNanos) {
+        if (startupTiming) {
+            long micros = (System.nanoTime() - startNanos) / 1000;
+            String msg = String.format("startup time: %10d us | %s%n", micros, phase);
+            try {
+                getStandardErr().write(msg.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
     private void importSiteIfForced() {
         if (getOption(PythonOptions.ForceImportSite)) {
             CallTarget site = env.parsePublic(FORCE_IMPORTS_SOURCE);
@@ -1253,6 +1297,8 @@ public final class PythonContext {
         nativeBz2lib = NFIBz2Support.createNative(this, "");
         nativeLZMA = NFILZMASupport.createNative(this, "");
 
+        pythonThreadStackSize.set(getOption(PythonOptions.ThreadStackSize));
+
         mainModule = core.factory().createPythonModule(__MAIN__);
         mainModule.setAttribute(__BUILTINS__, getBuiltins());
         mainModule.setAttribute(__ANNOTATIONS__, core.factory().createDict());
@@ -1512,6 +1558,29 @@ public final class PythonContext {
         atExitHooks.removeIf(hook -> hook.callable == callable);
     }
 
+    /**
+     * Returns the worker pool for parallel compression, or {@code null} if it is disabled (see
+     * {@link PythonOptions#CompressionThreads}) or the context is already being finalized.
+     */
+    @TruffleBoundary
+    public synchronized ZlibParallelDeflate getParallelDeflate() {
+        if (parallelDeflate == null && !parallelDeflateShutDown) {
+            int threads = getOption(PythonOptions.CompressionThreads);
+            if (threads > 0) {
+                parallelDeflate = new ZlibParallelDeflate(threads);
+            }
+        }
+        return parallelDeflate;
+    }
+
+    private synchronized void shutdownParallelDeflate() {
+        parallelDeflateShutDown = true;
+        if (parallelDeflate != null) {
+            parallelDeflate.shutdown();
+            parallelDeflate = null;
+        }
+    }
+
     @TruffleBoundary
     public void clearAtexitHooks() {
         atExitHooks.clear();
@@ -1530,6 +1599,7 @@ public final class PythonContext {
             }
             // shut down async actions threads
             handler.shutdown();
+            shutdownParallelDeflate();
             finalizing = true;
             // interrupt and join or kill python threads
             joinThreads();
@@ -1981,6 +2051,9 @@ public final class PythonContext {
         ts.shutdown();
         threadStateMapping.remove(thread);
         ts.dispose();
+        if (hasHPyContext()) {
+            hPyContext.disposeThread(thread);
+        }
         releaseSentinelLock(ts.sentinelLock);
         getSharedMultiprocessingData().removeChildContextThread(thread.getId());
     }
@@ -75,6 +75,21 @@ public final class PythonOptions {
         }
     });
 
+    /** Min. thread stack size other than 0, same as CPython's THREAD_STACK_MIN for pthreads. */
+    public static final long THREAD_STACK_MIN = 0x8000;
+
+    static final OptionType<Long> THREAD_STACK_SIZE_TYPE = new OptionType<>("ThreadStackSize", Long::valueOf, size -> {
+        if (size < 0 || (size != 0 && size < THREAD_STACK_MIN)) {
+            throw new IllegalArgumentException("ThreadStackSize must be 0 or at least " + THREAD_STACK_MIN + " bytes, got " + size);
+        }
+    });
+
+    static final OptionType<Integer> NATIVE_MEMORY_WATERMARK_TYPE = new OptionType<>("NativeMemoryWatermark", Integer::valueOf, percent -> {
+        if (percent < 1 || percent > 100) {
+            throw new IllegalArgumentException("NativeMemoryWatermark must be a percentage between 1 and 100, got " + percent);
+        }
+    });
+
     private PythonOptions() {
         // no instances
     }
@@ -183,6 +198,15 @@ public final class PythonOptions {
     @Option(category = OptionCategory.EXPERT, help = "Prints parser time statistics after number of parsed files, set by this option. 0 or <0 means no statistics are printed.") //
     public static final OptionKey<Integer> ParserStatistics = new OptionKey<>(0);
 
+    @Option(category = OptionCategory.EXPERT, help = "Defer running the lib-graalpython files that only patch their own builtin module until that module is first imported.") //
+    public static final OptionKey<Boolean> LazyCoreFiles = new OptionKey<>(true);
+
+    @Option(category = OptionCategory.EXPERT, help = "Print the time spent in each phase of context initialization to stderr. Set by the launcher for '-X startuptiming'.") //
+    public static final OptionKey<Boolean> StartupTiming = new OptionKey<>(false);
+
+    @Option(category = OptionCategory.EXPERT, help = "Path of a snapshot of the parsed lib-graalpython core files. It is written after initialization if missing or outdated and used by later launches instead of parsing the core files.") //
+    public static final OptionKey<String> CoreSnapshot = new OptionKey<>("");
+
     @EngineOption @Option(category = OptionCategory.EXPERT, help = "") //
     public static final OptionKey<Integer> AttributeAccessInlineCacheMaxDepth = new OptionKey<>(5);
 
@@ -269,9 +293,35 @@ public final class PythonOptions {
     @Option(category = OptionCategory.EXPERT, help = "Max native memory heap size (default: 2 GB).") //
     public static final OptionKey<Long> MaxNativeMemory = new OptionKey<>(1L << 31);
 
+    @Option(category = OptionCategory.EXPERT, help = "Percentage (1-100) of MaxNativeMemory above which pending native references are released eagerly on allocation (default: 75).") //
+    public static final OptionKey<Integer> NativeMemoryWatermark = new OptionKey<>(75, NATIVE_MEMORY_WATERMARK_TYPE);
+
     @Option(category = OptionCategory.EXPERT, help = "Set by the launcher to true (false means that GraalPython is being embedded in an application).") //
     public static final OptionKey<Boolean> RunViaLauncher = new OptionKey<>(false);
 
+    @EngineOption @Option(category = OptionCategory.USER, help = "Limit the number of digits when converting between int and str in a radix that is not a power of two. 0 means no limit.") //
+    public static final OptionKey<Integer> IntMaxStrDigits = new OptionKey<>(0);
+
+    @EngineOption @Option(category = OptionCategory.EXPERT, help = "Number of digits above which str to int conversion switches to divide-and-conquer.") //
+    public static final OptionKey<Integer> IntFromStrThreshold = new OptionKey<>(1000);
+
+    @EngineOption @Option(category = OptionCategory.EXPERT, help = "Number of digits above which int to str conversion switches to divide-and-conquer.") //
+    public static final OptionKey<Integer> IntToStrThreshold = new OptionKey<>(1000);
+
+    @EngineOption @Option(category = OptionCategory.EXPERT, help = "Share the code of modules compiled from source files between all contexts of an engine. " +
+                    "Entries are keyed by canonical path, file name, content and optimization level. They outlive the contexts that created them, but are only softly referenced.") //
+    public static final OptionKey<Boolean> SharedCodeCache = new OptionKey<>(false);
+
+    @Option(category = OptionCategory.EXPERT, help = "Number of worker threads that zlib.compress and gzip.compress use to compress large inputs in independent blocks. 0 disables parallel compression.") //
+    public static final OptionKey<Integer> CompressionThreads = new OptionKey<>(0);
+
+    @Option(category = OptionCategory.EXPERT, help = "Stack size in bytes of threads started from Python code, 0 leaves it to the JVM, otherwise at least 32768. Small stacks allow many more concurrent threads for blocking I/O. Can be changed at runtime with _thread.stack_size().") //
+    public static final OptionKey<Long> ThreadStackSize = new OptionKey<>(0L, THREAD_STACK_SIZE_TYPE);
+
+    @Option(category = OptionCategory.EXPERT, help = "Make queue.Queue() create instances backed by the Java _queue.Queue, which waits without holding the GIL. " +
+                    "Such queues do not have the mutex, not_empty, not_full, all_tasks_done and queue attributes of the pure Python class.") //
+    public static final OptionKey<Boolean> NativeQueue = new OptionKey<>(false);
+
     @Option(category = OptionCategory.EXPERT, help = "Enable built-in functions on the __graalpython__ module that are useful for debugging.") //
     public static final OptionKey<Boolean> EnableDebuggingBuiltins = new OptionKey<>(false);
 
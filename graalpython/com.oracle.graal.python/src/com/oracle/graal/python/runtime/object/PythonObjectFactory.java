@@ -127,6 +127,7 @@ import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.posix.PDirEntry;
 import com.oracle.graal.python.builtins.objects.posix.PScandirIterator;
 import com.oracle.graal.python.builtins.objects.property.PProperty;
+import com.oracle.graal.python.builtins.objects.queue.PQueue;
 import com.oracle.graal.python.builtins.objects.queue.PSimpleQueue;
 import com.oracle.graal.python.builtins.objects.random.PRandom;
 import com.oracle.graal.python.builtins.objects.range.PBigRange;
@@ -146,9 +147,12 @@ import com.oracle.graal.python.builtins.objects.ssl.PSSLSocket;
 import com.oracle.graal.python.builtins.objects.ssl.SSLMethod;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.superobject.SuperObject;
+import com.oracle.graal.python.builtins.objects.thread.PCondition;
+import com.oracle.graal.python.builtins.objects.thread.PEvent;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
 import com.oracle.graal.python.builtins.objects.thread.PRLock;
 import com.oracle.graal.python.builtins.objects.thread.PSemLock;
+import com.oracle.graal.python.builtins.objects.thread.PSemaphore;
 import com.oracle.graal.python.builtins.objects.thread.PThread;
 import com.oracle.graal.python.builtins.objects.thread.PThreadLocal;
 import com.oracle.graal.python.builtins.objects.traceback.LazyTraceback;
@@ -1049,6 +1053,18 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PRLock(cls, getShape(cls)));
     }
 
+    public final PCondition createCondition(Object cls, Object lock) {
+        return trace(new PCondition(cls, getShape(cls), lock));
+    }
+
+    public final PSemaphore createSemaphore(Object cls, int value, boolean bounded) {
+        return trace(new PSemaphore(cls, getShape(cls), value, bounded));
+    }
+
+    public final PEvent createEvent(Object cls) {
+        return trace(new PEvent(cls, getShape(cls)));
+    }
+
     public final PThread createPythonThread(Thread thread) {
         return trace(new PThread(PythonBuiltinClassType.PThread, PythonBuiltinClassType.PThread.getInstanceShape(getLanguage()), thread));
     }
@@ -1231,6 +1247,10 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PSimpleQueue(cls, getShape(cls)));
     }
 
+    public final PQueue createQueue(Object cls, int maxsize) {
+        return trace(new PQueue(cls, getShape(cls), maxsize));
+    }
+
     public final PDebugHandle createDebugHandle(GraalHPyHandle handle) {
         return trace(new PDebugHandle(PythonBuiltinClassType.DebugHandle, getShape(PythonBuiltinClassType.DebugHandle), handle));
     }
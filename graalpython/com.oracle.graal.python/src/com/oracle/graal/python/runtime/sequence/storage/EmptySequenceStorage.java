@@ -59,6 +59,8 @@ public final class EmptySequenceStorage extends SequenceStorage {
             }
         } else if (value instanceof Double) {
             generalized = new DoubleSequenceStorage();
+        } else if (value instanceof String) {
+            generalized = new StringSequenceStorage();
         } else {
             generalized = new ObjectSequenceStorage(PythonUtils.EMPTY_OBJECT_ARRAY);
         }
@@ -73,6 +73,26 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
     private final Map<String, List<Assumption>> attributesInMROFinalAssumptions;
     private boolean hasAttributesInMROFinalAssumptions;
 
+    /**
+     * Version tag used by the type attribute cache (see
+     * {@link com.oracle.graal.python.nodes.attributes.TypeAttributeCache}). The tag is only valid
+     * as long as all {@link #typeVersionValid} assumptions, one per class in the MRO, are valid.
+     * {@code 0} means that no tag was assigned.
+     */
+    private int typeVersionTag;
+    private Assumption[] typeVersionValid;
+
+    /**
+     * Assumption that neither the attributes of this class nor its MRO changed. Created on demand
+     * by {@link #getTypeVersionAssumption()} and replaced once it was invalidated.
+     */
+    private Assumption typeVersionAssumption;
+
+    /**
+     * Set if the MRO contains classes that cannot be version tagged. Cleared when the MRO changes.
+     */
+    private boolean typeVersionUncacheable;
+
     @CompilationFinal(dimensions = 1) private final PythonAbstractClass[] values;
 
     @TruffleBoundary
@@ -249,6 +269,7 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
      */
     @TruffleBoundary
     public boolean invalidateAttributeInMROFinalAssumptions(String name) {
+        invalidateTypeVersionTags();
         List<Assumption> assumptions = attributesInMROFinalAssumptions.getOrDefault(name, Collections.emptyList());
         // the empty check is just to avoid the StringBuilder allocation
         if (!assumptions.isEmpty()) {
@@ -265,6 +286,62 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
         CompilerAsserts.neverPartOfCompilation();
         attributesInMROFinalAssumptions.values().removeIf(REMOVE_IF_LARGE);
         lookupStableAssumption.invalidate();
+        typeVersionUncacheable = false;
+        invalidateTypeVersionTags();
+    }
+
+    /**
+     * Returns the version tag of this MRO or {@code 0} if there is no valid tag.
+     */
+    public int getTypeVersionTag() {
+        if (typeVersionTag != 0) {
+            for (Assumption assumption : typeVersionValid) {
+                if (!assumption.isValid()) {
+                    typeVersionTag = 0;
+                    return 0;
+                }
+            }
+        }
+        return typeVersionTag;
+    }
+
+    /**
+     * Sets the version tag of this MRO. {@code validAssumptions} must contain the
+     * {@link #getTypeVersionAssumption() type version assumption} of every class in the MRO.
+     */
+    public void setTypeVersionTag(int tag, Assumption[] validAssumptions) {
+        CompilerAsserts.neverPartOfCompilation();
+        typeVersionTag = tag;
+        typeVersionValid = validAssumptions;
+    }
+
+    public boolean isTypeVersionUncacheable() {
+        return typeVersionUncacheable;
+    }
+
+    public void setTypeVersionUncacheable() {
+        typeVersionUncacheable = true;
+    }
+
+    public Assumption getTypeVersionAssumption() {
+        CompilerAsserts.neverPartOfCompilation();
+        if (typeVersionAssumption == null || !typeVersionAssumption.isValid()) {
+            typeVersionAssumption = Truffle.getRuntime().createAssumption("type version of " + className);
+        }
+        return typeVersionAssumption;
+    }
+
+    public final boolean hasTypeVersionAssumption() {
+        return typeVersionAssumption != null;
+    }
+
+    @TruffleBoundary
+    public void invalidateTypeVersionTags() {
+        typeVersionTag = 0;
+        if (typeVersionAssumption != null) {
+            typeVersionAssumption.invalidate(className);
+            typeVersionAssumption = null;
+        }
     }
 
     private static final Predicate<List<Assumption>> REMOVE_IF_LARGE = new Predicate<List<Assumption>>() {
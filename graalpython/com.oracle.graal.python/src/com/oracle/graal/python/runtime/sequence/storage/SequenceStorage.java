@@ -35,6 +35,7 @@ public abstract class SequenceStorage {
         Int,
         Long,
         Double,
+        String,
         Generic;
 
         public boolean generalizesFrom(ListStorageType other) {
@@ -49,6 +50,8 @@ public abstract class SequenceStorage {
                     return other == Uninitialized || other == Empty || other == Byte;
                 case Long:
                     return other == Uninitialized || other == Empty || other == Byte || other == Int;
+                case String:
+                    return other == Uninitialized || other == Empty;
                 default:
                     return true;
             }
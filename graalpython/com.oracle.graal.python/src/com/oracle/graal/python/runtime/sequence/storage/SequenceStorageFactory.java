@@ -27,6 +27,12 @@ package com.oracle.graal.python.runtime.sequence.storage;
 
 public abstract class SequenceStorageFactory {
 
+    /**
+     * Tuples up to this length are packed into a primitive array when all elements are
+     * {@code int}, {@code long} or {@code double} values.
+     */
+    public static final int MAX_PACKED_TUPLE_LENGTH = 4;
+
     private SequenceStorageFactory() {
         // no instances
     }
@@ -52,11 +58,33 @@ public abstract class SequenceStorageFactory {
             return new BoolSequenceStorage(specializeToBool(values));
         } else if (canSpecializeToByte(values)) {
             return new ByteSequenceStorage(specializeToByte(values));
+        } else if (canSpecializeToString(values)) {
+            return new StringSequenceStorage(specializeToString(values));
         } else {
             return new ObjectSequenceStorage(values);
         }
     }
 
+    /**
+     * Creates the storage for a tuple with the given elements. Unlike
+     * {@link #createStorage(Object[])}, this only unboxes small tuples of numbers (e.g. dictionary
+     * keys like {@code (x, y)}) and otherwise keeps the given array, so that creating large tuples
+     * does not need to scan all elements.
+     */
+    public static SequenceStorage createTupleStorage(Object[] values) {
+        assert values != null;
+        if (values.length != 0 && values.length <= MAX_PACKED_TUPLE_LENGTH) {
+            if (canSpecializeToInt(values)) {
+                return new IntSequenceStorage(specializeToInt(values));
+            } else if (canSpecializeToDouble(values)) {
+                return new DoubleSequenceStorage(specializeToDouble(values));
+            } else if (canSpecializeToLong(values)) {
+                return new LongSequenceStorage(specializeToLong(values));
+            }
+        }
+        return new ObjectSequenceStorage(values);
+    }
+
     public static BasicSequenceStorage createStorage(Object baseValue, int len) {
         assert baseValue != null;
 
@@ -70,6 +98,8 @@ public abstract class SequenceStorageFactory {
             return new DoubleSequenceStorage(len);
         } else if (baseValue instanceof Boolean) {
             return new BoolSequenceStorage(len);
+        } else if (baseValue instanceof String) {
+            return new StringSequenceStorage(len);
         } else {
             return new ObjectSequenceStorage(len);
         }
@@ -175,4 +205,24 @@ public abstract class SequenceStorageFactory {
 
         return bools;
     }
+
+    private static boolean canSpecializeToString(Object[] values) {
+        for (Object item : values) {
+            if (!(item instanceof String)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String[] specializeToString(Object[] values) {
+        final String[] strings = new String[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            strings[i] = (String) values[i];
+        }
+
+        return strings;
+    }
 }
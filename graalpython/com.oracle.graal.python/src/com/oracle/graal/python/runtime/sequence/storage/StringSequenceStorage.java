@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime.sequence.storage;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.util.PythonUtils;
+
+/**
+ * Storage for sequences whose elements are all Java strings. This avoids megamorphic dispatch over
+ * {@code Object[]} elements in hot operations such as {@code str.join}, {@code list.sort} and
+ * membership tests. Storing anything that is not a {@link String} generalizes to
+ * {@link ObjectSequenceStorage}.
+ */
+public final class StringSequenceStorage extends TypedSequenceStorage {
+
+    private String[] values;
+
+    public StringSequenceStorage() {
+        values = new String[]{};
+    }
+
+    public StringSequenceStorage(String[] elements) {
+        this.values = elements;
+        this.capacity = elements.length;
+        this.length = elements.length;
+    }
+
+    public StringSequenceStorage(String[] elements, int length) {
+        this.values = elements;
+        this.capacity = elements.length;
+        this.length = length;
+    }
+
+    public StringSequenceStorage(int capacity) {
+        this.values = new String[capacity];
+        this.capacity = capacity;
+        this.length = 0;
+    }
+
+    @Override
+    protected void increaseCapacityExactWithCopy(int newCapacity) {
+        values = Arrays.copyOf(values, newCapacity);
+        capacity = values.length;
+    }
+
+    @Override
+    protected void increaseCapacityExact(int newCapacity) {
+        values = new String[newCapacity];
+        capacity = values.length;
+    }
+
+    @Override
+    public SequenceStorage copy() {
+        return new StringSequenceStorage(Arrays.copyOf(values, length));
+    }
+
+    @Override
+    public SequenceStorage createEmpty(int newCapacity) {
+        return new StringSequenceStorage(newCapacity);
+    }
+
+    @Override
+    public Object[] getInternalArray() {
+        /**
+         * Have to copy because a String[] must never escape as Object[] (storing a non-string
+         * would fail with an ArrayStoreException).
+         */
+        Object[] copy = new Object[length];
+        PythonUtils.arraycopy(values, 0, copy, 0, length);
+        return copy;
+    }
+
+    public String[] getInternalStringArray() {
+        return values;
+    }
+
+    @Override
+    public Object getItemNormalized(int idx) {
+        return getStringItemNormalized(idx);
+    }
+
+    public String getStringItemNormalized(int idx) {
+        return values[idx];
+    }
+
+    @Override
+    public void setItemNormalized(int idx, Object value) throws SequenceStoreException {
+        if (value instanceof String) {
+            setStringItemNormalized(idx, (String) value);
+        } else {
+            throw new SequenceStoreException(value);
+        }
+    }
+
+    public void setStringItemNormalized(int idx, String value) {
+        values[idx] = value;
+    }
+
+    @Override
+    public void insertItem(int idx, Object value) throws SequenceStoreException {
+        if (value instanceof String) {
+            insertStringItem(idx, (String) value);
+        } else {
+            throw new SequenceStoreException(value);
+        }
+    }
+
+    public void insertStringItem(int idx, String value) {
+        ensureCapacity(length + 1);
+
+        // shifting tail to the right by one slot
+        for (int i = values.length - 1; i > idx; i--) {
+            values[i] = values[i - 1];
+        }
+
+        values[idx] = value;
+        length++;
+    }
+
+    @Override
+    public void copyItem(int idxTo, int idxFrom) {
+        values[idxTo] = values[idxFrom];
+    }
+
+    @Override
+    public StringSequenceStorage getSliceInBound(int start, int stop, int step, int sliceLength) {
+        String[] newArray = new String[sliceLength];
+
+        if (step == 1) {
+            PythonUtils.arraycopy(values, start, newArray, 0, sliceLength);
+            return new StringSequenceStorage(newArray);
+        }
+
+        for (int i = start, j = 0; j < sliceLength; i += step, j++) {
+            newArray[j] = values[i];
+        }
+
+        return new StringSequenceStorage(newArray);
+    }
+
+    public int indexOfString(String value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i].equals(value)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public void reverse() {
+        if (length > 0) {
+            int head = 0;
+            int tail = length - 1;
+            int middle = (length - 1) / 2;
+
+            for (; head <= middle; head++, tail--) {
+                String temp = values[head];
+                values[head] = values[tail];
+                values[tail] = temp;
+            }
+        }
+    }
+
+    @Override
+    public Object getIndicativeValue() {
+        return "";
+    }
+
+    @Override
+    public boolean equals(SequenceStorage other) {
+        if (other.length() != length()) {
+            return false;
+        }
+
+        String[] otherArray = ((StringSequenceStorage) other).getInternalStringArray();
+        for (int i = 0; i < length(); i++) {
+            if (!values[i].equals(otherArray[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public Object getInternalArrayObject() {
+        return values;
+    }
+
+    @Override
+    public Object getCopyOfInternalArrayObject() {
+        return Arrays.copyOf(values, length);
+    }
+
+    @Override
+    public Object[] getCopyOfInternalArray() {
+        return getInternalArray();
+    }
+
+    @Override
+    public void setInternalArrayObject(Object arrayObject) {
+        this.values = (String[]) arrayObject;
+    }
+
+    @Override
+    public ListStorageType getElementType() {
+        return ListStorageType.String;
+    }
+}
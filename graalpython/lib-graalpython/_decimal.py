@@ -0,0 +1,166 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+# The 'Decimal' and 'Context' types of this module are those of '_pydecimal', whose code is run in
+# this module's namespace on first use. The hot methods of 'Decimal' are then replaced by versions
+# that try the arithmetic kernels '_fast_*' implemented in Java first and fall back to the original
+# methods whenever the result could involve rounding by the context or signals other than Inexact and
+# Rounded.
+
+
+def __getattr__(name):
+    # Loading '_pydecimal' is expensive, so it is deferred until the module is actually used,
+    # e.g. by 'from _decimal import *' in 'decimal'.
+    _load()
+    try:
+        return globals()[name]
+    except KeyError:
+        raise AttributeError("module '_decimal' has no attribute '%s'" % name) from None
+
+
+def _load():
+    import functools
+    import importlib.util
+
+    g = globals()
+    del g['__getattr__']
+    del g['_load']
+    spec = importlib.util.find_spec('_pydecimal')
+    exec(spec.loader.get_code('_pydecimal'), g)
+
+    Decimal = g['Decimal']
+    Inexact = g['Inexact']
+    Rounded = g['Rounded']
+    _convert_other = g['_convert_other']
+    _dec_from_triple = g['_dec_from_triple']
+    getcontext = g['getcontext']
+
+    py_new = Decimal.__new__
+    py_add = Decimal.__add__
+    py_sub = Decimal.__sub__
+    py_mul = Decimal.__mul__
+    py_quantize = Decimal.quantize
+    py_str = Decimal.__str__
+
+    @functools.wraps(py_new)
+    def __new__(cls, value="0", context=None):
+        if type(value) is str:
+            triple = _fast_parse(value)
+            if triple is not None:
+                self = object.__new__(cls)
+                self._sign, self._int, self._exp = triple
+                self._is_special = False
+                return self
+        return py_new(cls, value, context)
+
+    @functools.wraps(py_add)
+    def __add__(self, other, context=None):
+        other = _convert_other(other)
+        if other is NotImplemented:
+            return other
+        if context is None:
+            context = getcontext()
+        if not (self._is_special or other._is_special):
+            triple = _fast_add(self._sign, self._int, self._exp, other._sign, other._int, other._exp,
+                               context.prec, context.Emin, context.Emax, context.clamp)
+            if triple is not None:
+                return _dec_from_triple(triple[0], triple[1], triple[2])
+        return py_add(self, other, context)
+
+    @functools.wraps(py_sub)
+    def __sub__(self, other, context=None):
+        other = _convert_other(other)
+        if other is NotImplemented:
+            return other
+        if context is None:
+            context = getcontext()
+        if not (self._is_special or other._is_special):
+            triple = _fast_add(self._sign, self._int, self._exp, other._sign ^ 1, other._int, other._exp,
+                               context.prec, context.Emin, context.Emax, context.clamp)
+            if triple is not None:
+                return _dec_from_triple(triple[0], triple[1], triple[2])
+        return py_sub(self, other, context)
+
+    @functools.wraps(py_mul)
+    def __mul__(self, other, context=None):
+        other = _convert_other(other)
+        if other is NotImplemented:
+            return other
+        if context is None:
+            context = getcontext()
+        if not (self._is_special or other._is_special):
+            triple = _fast_mul(self._sign, self._int, self._exp, other._sign, other._int, other._exp,
+                               context.prec, context.Emin, context.Emax, context.clamp)
+            if triple is not None:
+                return _dec_from_triple(triple[0], triple[1], triple[2])
+        return py_mul(self, other, context)
+
+    @functools.wraps(py_quantize)
+    def quantize(self, exp, rounding=None, context=None):
+        exp = _convert_other(exp, raiseit=True)
+        if context is None:
+            context = getcontext()
+        if rounding is None:
+            rounding = context.rounding
+        if not (self._is_special or exp._is_special):
+            result = _fast_quantize(self._sign, self._int, self._exp, exp._exp, rounding,
+                                    context.prec, context.Emin, context.Emax, context.clamp)
+            if result is not None:
+                # same order as in '_pydecimal'
+                if result[3] & 1:
+                    context._raise_error(Inexact)
+                if result[3] & 2:
+                    context._raise_error(Rounded)
+                return _dec_from_triple(result[0], result[1], result[2])
+        return py_quantize(self, exp, rounding, context)
+
+    @functools.wraps(py_str)
+    def __str__(self, eng=False, context=None):
+        if not self._is_special:
+            result = _fast_str(self._sign, self._int, self._exp, eng)
+            if result is not None:
+                return result
+        return py_str(self, eng, context)
+
+    Decimal.__new__ = staticmethod(__new__)
+    Decimal.__add__ = Decimal.__radd__ = __add__
+    Decimal.__sub__ = __sub__
+    Decimal.__mul__ = Decimal.__rmul__ = __mul__
+    Decimal.quantize = quantize
+    Decimal.__str__ = __str__
@@ -51,6 +51,10 @@ class DecompressReader(io.RawIOBase):
         self._decomp_factory = decomp_factory
         self._decomp_args = decomp_args
         self._decompressor = self._decomp_factory(**self._decomp_args)
+        # Truffle change: decompress straight into the caller's buffer if the
+        # decompressor supports it and a subclass doesn't post-process read()
+        self._direct = (type(self).read is DecompressReader.read and
+                        hasattr(self._decompressor, '_decompress_into'))
 
         # Exception class to catch from decompressor signifying invalid
         # trailing data to ignore
@@ -64,11 +68,51 @@ class DecompressReader(io.RawIOBase):
         return self._fp.seekable()
 
     def readinto(self, b):
+        if self._direct:
+            return self._readinto_direct(b)
         with memoryview(b) as view, view.cast("B") as byte_view:
             data = self.read(len(byte_view))
             byte_view[:len(data)] = data
         return len(data)
 
+    # Truffle change: same as read(), but without allocating the result
+    def _readinto_direct(self, b):
+        with memoryview(b) as view, view.cast("B") as byte_view:
+            if not len(byte_view) or self._eof:
+                return 0
+            n = 0
+            while True:
+                if self._decompressor.eof:
+                    rawblock = (self._decompressor.unused_data or
+                                self._fp.read(BUFFER_SIZE))
+                    if not rawblock:
+                        break
+                    # Continue to next stream.
+                    self._decompressor = self._decomp_factory(
+                        **self._decomp_args)
+                    try:
+                        n = self._decompressor._decompress_into(rawblock, byte_view)
+                    except self._trailing_error:
+                        # Trailing data isn't a valid compressed stream; ignore it.
+                        break
+                else:
+                    if self._decompressor.needs_input:
+                        rawblock = self._fp.read(BUFFER_SIZE)
+                        if not rawblock:
+                            raise EOFError("Compressed file ended before the "
+                                           "end-of-stream marker was reached")
+                    else:
+                        rawblock = b""
+                    n = self._decompressor._decompress_into(rawblock, byte_view)
+                if n:
+                    break
+        if not n:
+            self._eof = True
+            self._size = self._pos
+            return 0
+        self._pos += n
+        return n
+
     def read(self, size=-1):
         if size < 0:
             return self.readall()
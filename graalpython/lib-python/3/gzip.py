@@ -502,6 +502,47 @@ class _GzipReader(_compression.DecompressReader):
         self._pos += len(uncompress)
         return uncompress
 
+    # Truffle change: same as read(), but decompresses straight into the
+    # caller's buffer
+    def readinto(self, b):
+        if not hasattr(self._decompressor, '_decompress_into'):
+            return super().readinto(b)
+        with memoryview(b) as view, view.cast("B") as byte_view:
+            if not len(byte_view):
+                return 0
+            while True:
+                if self._decompressor.eof:
+                    self._read_eof()
+                    self._new_member = True
+                    self._decompressor = self._decomp_factory(
+                        **self._decomp_args)
+
+                if self._new_member:
+                    self._init_read()
+                    if not self._read_gzip_header():
+                        self._size = self._pos
+                        return 0
+                    self._new_member = False
+
+                buf = self._fp.read(io.DEFAULT_BUFFER_SIZE)
+
+                n = self._decompressor._decompress_into(buf, byte_view)
+                if self._decompressor.unconsumed_tail != b"":
+                    self._fp.prepend(self._decompressor.unconsumed_tail)
+                elif self._decompressor.unused_data != b"":
+                    self._fp.prepend(self._decompressor.unused_data)
+
+                if n:
+                    break
+                if buf == b"":
+                    raise EOFError("Compressed file ended before the "
+                                   "end-of-stream marker was reached")
+
+            with byte_view[:n] as filled:
+                self._add_read_data(filled)
+        self._pos += n
+        return n
+
     def _add_read_data(self, data):
         self._crc = zlib.crc32(data, self._crc)
         self._stream_size = self._stream_size + len(data)
@@ -535,6 +576,12 @@ def compress(data, compresslevel=_COMPRESS_LEVEL_BEST, *, mtime=None):
     """Compress data in one shot and return the compressed string.
     Optional argument is the compression level, in range of 0-9.
     """
+    # Truffle change: compress large inputs on several threads if enabled
+    if getattr(zlib, '_PARALLEL_COMPRESSION', False):
+        result = zlib._compress_parallel(data, compresslevel, 16 + zlib.MAX_WBITS,
+                                         int(time.time() if mtime is None else mtime))
+        if result is not None:
+            return result
     buf = io.BytesIO()
     with GzipFile(fileobj=buf, mode='wb', compresslevel=compresslevel, mtime=mtime) as f:
         f.write(data)
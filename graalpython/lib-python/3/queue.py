@@ -19,9 +19,18 @@ except ImportError:
         'Exception raised by Queue.get(block=0)/get_nowait().'
         pass
 
-class Full(Exception):
-    'Exception raised by Queue.put(block=0)/put_nowait().'
-    pass
+try:
+    from _queue import Full
+except ImportError:
+    class Full(Exception):
+        'Exception raised by Queue.put(block=0)/put_nowait().'
+        pass
+
+try:
+    from _queue import Queue as _QueueCore, _native_queue
+except ImportError:
+    _QueueCore = None
+    _native_queue = False
 
 
 class Queue:
@@ -30,6 +39,14 @@ class Queue:
     If maxsize is <= 0, the queue size is infinite.
     '''
 
+    def __new__(cls, *args, **kwargs):
+        # GraalPython: with --python.NativeQueue, plain Queue instances use the
+        # native core; subclasses may override the _put/_get hooks and keep the
+        # Python implementation
+        if cls is Queue and _native_queue:
+            return _QueueCore.__new__(_NativeQueue, *args, **kwargs)
+        return object.__new__(cls)
+
     def __init__(self, maxsize=0):
         self.maxsize = maxsize
         self._init(maxsize)
@@ -217,6 +234,16 @@ class Queue:
         return self.queue.popleft()
 
 
+if _QueueCore is not None:
+    class _NativeQueue(_QueueCore, Queue):
+        '''Queue backed by the native core; it has no mutex and conditions.'''
+
+        def __init__(self, maxsize=0):
+            pass
+
+    _NativeQueue.__name__ = _NativeQueue.__qualname__ = 'Queue'
+
+
 class PriorityQueue(Queue):
     '''Variant of Queue that retrieves open entries in priority order (lowest first).
 
@@ -46,6 +46,11 @@ try:
 except AttributeError:
     _CRLock = None
 TIMEOUT_MAX = _thread.TIMEOUT_MAX
+# Truffle change: Condition, Semaphore, BoundedSemaphore and Event are implemented in Java
+_CCondition = _thread.Condition
+_CSemaphore = _thread.Semaphore
+_CBoundedSemaphore = _thread.BoundedSemaphore
+_CEvent = _thread.Event
 del _thread
 
 
@@ -559,6 +564,18 @@ class Event:
             return signaled
 
 
+# Truffle change: replace the pure Python versions above with the Java ones; they park waiting
+# threads without holding the GIL and without allocating a lock per wait
+_PyCondition = Condition
+_PySemaphore = Semaphore
+_PyBoundedSemaphore = BoundedSemaphore
+_PyEvent = Event
+Condition = _CCondition
+Semaphore = _CSemaphore
+BoundedSemaphore = _CBoundedSemaphore
+Event = _CEvent
+
+
 # A barrier class.  Inspired in part by the pthread_barrier_* api and
 # the CyclicBarrier class from Java.  See
 # http://sourceware.org/pthreads-win32/manual/pthread_barrier_init.html and
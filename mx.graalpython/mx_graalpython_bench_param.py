@@ -106,6 +106,7 @@ MICRO_BENCHMARKS = {
     'tuple-indexing-from-constructor': ITER_10 + ['10000000'],
     'tuple-indexing-from-literal': ITER_10 + ['10000000'],
     'repeated-import': ITER_10 + ['10000000'],
+    'threads-echo': ITER_10 + ['500'],
 }
 
 MICRO_BENCHMARKS_SMALL = {
@@ -153,6 +154,12 @@ MICRO_BENCHMARKS_SMALL = {
     'try-except-two-types': ITER_6 + WARMUP_2 + ['1_000_000'],
     'tuple-indexing-from-constructor': ITER_6 + WARMUP_2 + ['250_000'],
     'tuple-indexing-from-literal': ITER_6 + WARMUP_2 + ['400_000'],
+    'threads-echo': ITER_6 + WARMUP_2 + ['100'],
+}
+
+# Many concurrent threads; meant to be run with the default-small-thread-stack configuration
+MICRO_THREADS_BENCHMARKS = {
+    'threads-echo': ITER_10 + ['10_000'],
 }
 
 def _pickling_benchmarks(module='pickle'):
@@ -329,6 +336,7 @@ BENCHMARKS = {
     "macro": [PATH_MACRO, MACRO_BENCHMARKS],
     "interop": [PATH_INTEROP, INTEROP_BENCHMARKS],
     "micro-small": [PATH_MICRO, MICRO_BENCHMARKS_SMALL],
+    "micro-threads": [PATH_MICRO, MICRO_THREADS_BENCHMARKS],
     "meso-small": [PATH_MESO, MESO_BENCHMARKS_SMALL],
 }
 
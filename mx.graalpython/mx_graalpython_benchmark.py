@@ -62,6 +62,7 @@ CONFIGURATION_DEFAULT = "default"
 CONFIGURATION_INTERPRETER = "interpreter"
 CONFIGURATION_NATIVE_INTERPRETER = "native-interpreter"
 CONFIGURATION_DEFAULT_MULTI = "default-multi"
+CONFIGURATION_DEFAULT_SMALL_THREAD_STACK = "default-small-thread-stack"
 CONFIGURATION_INTERPRETER_MULTI = "interpreter-multi"
 CONFIGURATION_NATIVE_INTERPRETER_MULTI = "native-interpreter-multi"
 CONFIGURATION_DEFAULT_MULTI_TIER = "default-multi-tier"